@@ -21,10 +21,8 @@ class BankAction < DistancedAction
   end
 end
 
-on :event, :object_action do |ctx, player, event|
-  if event.option == 2 and (event.id == 11758 or event.id == 2213)
-    player.startAction BankAction.new(player, event.position)
-  end
+on :object_action, 2, 11758, 2213 do |ctx, player, event|
+  player.startAction BankAction.new(player, event.position)
 end
 
 on :button, 23007 do |player, command|
@@ -24,8 +24,6 @@ class DepositBoxAction < DistancedAction
   end
 end
 
-on :event, :object_action do |ctx, player, event|
-  if event.id == DEPOSIT_BOX_ID and event.option == 1
-    player.startAction DepositBoxAction.new(player, event.position)
-  end
+on :object_action, 1, DEPOSIT_BOX_ID do |ctx, player, event|
+  player.startAction DepositBoxAction.new(player, event.position)
 end
\ No newline at end of file
@@ -118,6 +118,9 @@ end
 #   * :command
 #   * :event
 #   * :button
+#   * :object_action
+#   * :npc_option
+#   * :item_option
 #   * :http
 #
 # A command takes one or two arguments (the command name and optionally the
@@ -129,12 +132,22 @@ end
 #
 # A button takes one argument (the id). The block should have one argument: the
 # player who clicked the button.
+#
+# An object action, NPC option or item option takes two or more arguments: the
+# option number and the ids of the objects, NPCs or items. The block should have
+# three arguments: the chain context, the player and the event object.
+#
+# Buttons, object actions, NPC options and item options are dispatched by id in
+# Java, so the block is only called for the ids it was registered for.
 def on(kind, *args, &block)
   case kind
-    when :command then on_command(args, block)
-    when :event   then on_event(args, block)
-    when :button  then on_button(args, block)
-    when :http    then on_http(args, block)
+    when :command       then on_command(args, block)
+    when :event         then on_event(args, block)
+    when :button        then on_button(args, block)
+    when :object_action then on_keyed(:add_object_action_handler, args, block)
+    when :npc_option    then on_keyed(:add_npc_option_handler, args, block)
+    when :item_option   then on_keyed(:add_item_option_handler, args, block)
+    when :http          then on_http(args, block)
     else raise "unknown event type"
   end
 end
@@ -145,13 +158,20 @@ def on_button(args, proc)
     raise "button must have one argument"
   end
 
-  id = args[0].to_i
+  handler = ProcEventHandler.new(lambda { |ctx, player, event| proc.call player })
+  $ctx.add_button_handler args[0].to_i, handler
+end
 
-  on :event, :button do |ctx, player, event|
-    if event.interface_id == id
-      proc.call player
-    end
+# Defines an action to be taken upon an option of one or more objects, NPCs or
+# items, registering it with the specified method of the plugin context.
+def on_keyed(method, args, proc)
+  if args.length < 2
+    raise "option and at least one id must be given"
   end
+
+  option = args[0].to_i
+  handler = ProcEventHandler.new(proc)
+  args[1..-1].flatten.each { |id| $ctx.send method, option, id.to_i, handler }
 end
 
 # Defines an action to be taken upon an event.
@@ -48,8 +48,6 @@ class DummyAction < DistancedAction
   end
 end
 
-on :event, :object_action do |ctx, player, event|
-  if event.option == 2 and event.id == DUMMY_ID
-    player.start_action DummyAction.new(player, event.position)
-  end
+on :object_action, 2, DUMMY_ID do |ctx, player, event|
+  player.start_action DummyAction.new(player, event.position)
 end
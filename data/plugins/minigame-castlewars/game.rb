@@ -4,8 +4,6 @@ require 'java'
 java_import 'org.apollo.game.minigame.Minigame'
 java_import 'org.apollo.game.event.impl.ConfigEvent'
  
-$cwars = nil
- 
 class Game < Minigame
 
   attr_reader :tick
@@ -112,6 +110,10 @@ class Game < Minigame
  
 end
  
-$cwars = Game.new
-$cwars.add_listener Listener.new
-World.get_world.register $cwars
\ No newline at end of file
+# The game is only created once: when the plugin is reloaded, the classes above are reopened, so the running game
+# picks up their new methods instead of a second game being registered.
+if $cwars.nil?
+  $cwars = Game.new
+  $cwars.add_listener Listener.new
+  World.get_world.register $cwars
+end
\ No newline at end of file
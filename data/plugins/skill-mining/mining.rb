@@ -140,24 +140,14 @@ class ProspectingAction < DistancedAction
   end
 end
 
-on :event, :object_action do |ctx, player, event|
-  if event.option == 1
-    ore = ORES[event.id]
-    if ore != nil
-      player.startAction MiningAction.new(player, event.position, ore)
-    end
-  end
+on :object_action, 1, ORES.keys do |ctx, player, event|
+  player.startAction MiningAction.new(player, event.position, ORES[event.id])
 end
 
-on :event, :object_action do |ctx, player, event|
-  if event.option == 2
-    ore = ORES[event.id]
-    if ore != nil
-      player.startAction ProspectingAction.new(player, event.position, ore)
-    else
-      if EXPIRED_ORES[event.id] != nil
-        player.startAction ExpiredProspectingAction.new(player, event.position)
-      end
-    end
-  end
+on :object_action, 2, ORES.keys do |ctx, player, event|
+  player.startAction ProspectingAction.new(player, event.position, ORES[event.id])
+end
+
+on :object_action, 2, EXPIRED_ORES.keys do |ctx, player, event|
+  player.startAction ExpiredProspectingAction.new(player, event.position)
 end
@@ -88,14 +88,9 @@ def append_stall(log)
   STALLS[log.object] = log
 end
 
-on :event, :object_action do |ctx, player, event|
-  if event.option == 2
-    object = STALLS[event.id]
-    if object != nil
-      player.start_action Steal.new(player, object, event.position)
-      ctx.break_handler_chain
-    end
-  end
-end
-
 append_stall Stall.new(2561, 1891, 5, 16) # Cake
+
+on :object_action, 2, STALLS.keys do |ctx, player, event|
+  player.start_action Steal.new(player, STALLS[event.id], event.position)
+  ctx.break_handler_chain
+end
@@ -126,16 +126,10 @@ class ExpiredCuttingAction < DistancedAction
  end
 end
 
-on :event, :object_action do |ctx, player, event|
- if event.option == 1
-  log = LOGS[event.id]
-  free = player.inventory.freeSlots
-  if log != nil
-    if free > 0
-      player.startAction WoodcuttingAction.new(player, event.position, log)
-    else
-      player.send_message "Not enough inventory space"
-    end
+on :object_action, 1, LOGS.keys do |ctx, player, event|
+  if player.inventory.freeSlots > 0
+    player.startAction WoodcuttingAction.new(player, event.position, LOGS[event.id])
+  else
+    player.send_message "Not enough inventory space"
   end
- end
 end
@@ -19,6 +19,7 @@ import org.apollo.net.ServicePipelineFactory;
 import org.apollo.net.release.Release;
 import org.apollo.net.release.r317.Release317;
 import org.apollo.util.MysqlUtil;
+import org.apollo.util.SystemUtil;
 import org.apollo.util.event.EventManager;
 import org.apollo.util.plugin.PluginContext;
 import org.apollo.util.plugin.PluginManager;
@@ -152,36 +153,6 @@ public final class Server {
 		jagGrabBootstrap.setPipelineFactory(jagGrabPipelineFactory);
 	}
 
-	/**
-	 * Check if the filesystem is windows.
-	 * @return True if windows, false if other.
-	 */
-	public boolean isWindows() {
-		String os = System.getProperty("os.name").toLowerCase();
-		return (os.indexOf("win") >= 0);
-	}
-
-	/**
-	 * Tries to load the sigar library; if possible.
-	 */
-	public void loadSigar() {
-		try {
-			logger.info("Loading the SIGAR library...");
-			System.setProperty("org.hyperic.sigar.path", "-");
-			String seperator = System.getProperty("file.separator");
-
-			String file = new File(".").getCanonicalPath() + seperator + "data" + seperator + "library" + seperator;
-			if (System.getProperty("os.arch").contains("x86")) {
-				file += "sigar-32.dll";
-			} else {
-				file += isWindows() ? "sigar.dll" : "sigar.so";
-			}
-			Runtime.getRuntime().load(file);
-		} catch (Exception e) {
-			logger.log(Level.INFO, "Failed to load SIGAR library.", e);
-		}
-	}
-
 	/**
 	 * Starts the server.
 	 * @throws Exception if an error occurs.
@@ -193,7 +164,7 @@ public final class Server {
 		IndexedFileSystem fs = new IndexedFileSystem(new File("data/fs/" + releaseNo), true);
 		World.getWorld().init(releaseNo, fs, mgr, context);
 		mgr.start();
-		loadSigar();
+		SystemUtil.start();
 		MysqlUtil.open();
 		EventManager.initialise();
 		UpdateFriendsTask.start();
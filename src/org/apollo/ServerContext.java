@@ -30,11 +30,11 @@ public final class ServerContext {
 	private final ChannelGroup group = new DefaultChannelGroup();
 
 	/**
-	 * Creates a new server context.
+	 * Creates a new server context, and sets it as the context of every service.
 	 * @param release The current release.
 	 * @param serviceManager The service manager.
 	 */
-	ServerContext(Release release, ServiceManager serviceManager) {
+	public ServerContext(Release release, ServiceManager serviceManager) {
 		this.release = release;
 		this.serviceManager = serviceManager;
 		this.serviceManager.setContext(this);
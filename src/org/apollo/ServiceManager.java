@@ -2,7 +2,11 @@ package org.apollo;
 
 import java.io.FileInputStream;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.logging.Logger;
 
@@ -25,6 +29,16 @@ public final class ServiceManager {
 	 */
 	private Map<Class<? extends Service>, Service> services = new HashMap<Class<? extends Service>, Service>();
 
+	/**
+	 * The names of the pulse stages, in the order they are run.
+	 */
+	private final List<String> pulseStages = new ArrayList<String>();
+
+	/**
+	 * The settings of the game loop, from the attributes of the pulse node.
+	 */
+	private final Map<String, String> pulseSettings = new HashMap<String, String>();
+
 	/**
 	 * Creates and initializes the {@link ServiceManager}.
 	 * @throws Exception if an error occurs.
@@ -33,6 +47,25 @@ public final class ServiceManager {
 		init();
 	}
 
+	/**
+	 * Gets a setting of the game loop.
+	 * @param name The name of the setting.
+	 * @param defaultValue The value to return if the setting is not in the services.xml file.
+	 * @return The value of the setting.
+	 */
+	public String getPulseSetting(String name, String defaultValue) {
+		String value = pulseSettings.get(name);
+		return value == null ? defaultValue : value;
+	}
+
+	/**
+	 * Gets the names of the pulse stages, in the order they are run.
+	 * @return The names of the pulse stages.
+	 */
+	public List<String> getPulseStages() {
+		return Collections.unmodifiableList(pulseStages);
+	}
+
 	/**
 	 * Gets a service.
 	 * @param <S> The type of service.
@@ -44,6 +77,14 @@ public final class ServiceManager {
 		return (S) services.get(clazz);
 	}
 
+	/**
+	 * Gets every service.
+	 * @return The services.
+	 */
+	public Collection<Service> getServices() {
+		return Collections.unmodifiableCollection(services.values());
+	}
+
 	/**
 	 * Initializes this service manager.
 	 * @throws Exception if an error occurs.
@@ -63,7 +104,18 @@ public final class ServiceManager {
 			throw new Exception("unexpected name of root node");
 		}
 		for (XmlNode childNode : rootNode) {
-			if (!childNode.getName().equals("service")) {
+			if (childNode.getName().equals("pulse")) {
+				for (Map.Entry<String, String> attribute : childNode.getAttributes()) {
+					pulseSettings.put(attribute.getKey(), attribute.getValue());
+				}
+				for (XmlNode stageNode : childNode) {
+					if (!stageNode.getName().equals("stage") || !stageNode.hasValue()) {
+						throw new Exception("pulse node must only contain stage nodes with values");
+					}
+					pulseStages.add(stageNode.getValue());
+				}
+				continue;
+			} else if (!childNode.getName().equals("service")) {
 				throw new Exception("unexpected name of child node");
 			}
 			if (!childNode.hasValue()) {
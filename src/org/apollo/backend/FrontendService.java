@@ -4,28 +4,20 @@ import java.io.FileInputStream;
 import java.io.InputStream;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
 
 import org.apollo.Service;
 import org.apollo.backend.codec.session.FrontendSession;
 import org.apollo.backend.method.handler.chain.MethodHandlerChainGroup;
-import org.apollo.game.GameConstants;
+import org.apollo.game.GameService;
+import org.apollo.game.PulseStage;
 import org.apollo.io.MethodHandlerChainParser;
-import org.apollo.util.NamedThreadFactory;
 
 /**
- * The {@link FrontendService} class schedules and manages the execution of the {@link FrontendPulseHandler} class.
+ * The {@link FrontendService} class manages the frontend sessions, whose pending methods are handled by the
+ * {@code frontend} stage of the game pulse.
  * @author Steve
  */
-public final class FrontendService extends Service {
-
-	/**
-	 * The scheduled executor service.
-	 */
-	private final ScheduledExecutorService scheduledExecutor = Executors
-			.newSingleThreadScheduledExecutor(new NamedThreadFactory("FrontendService"));
+public final class FrontendService extends Service implements PulseStage {
 
 	/**
 	 * A queue of current connected sessions.
@@ -75,17 +67,17 @@ public final class FrontendService extends Service {
 		}
 	}
 
-	/**
-	 * Called every pulse.
+	/*
+	 * (non-Javadoc)
+	 * @see org.apollo.game.PulseStage#pulse()
 	 */
+	@Override
 	public void pulse() {
-		synchronized (this) {
-			for (FrontendSession session : sessions) {
-				if (session != null) {
-					session.handlePendingEvents(chainGroup);
-				} else {
-					removeSession(session);
-				}
+		for (FrontendSession session : sessions) {
+			if (session != null) {
+				session.handlePendingEvents(chainGroup);
+			} else {
+				removeSession(session);
 			}
 		}
 	}
@@ -103,7 +95,6 @@ public final class FrontendService extends Service {
 	 */
 	@Override
 	public void start() {
-		scheduledExecutor.scheduleAtFixedRate(new FrontendPulseHandler(this), GameConstants.PULSE_DELAY,
-				GameConstants.PULSE_DELAY, TimeUnit.MILLISECONDS);
+		getContext().getService(GameService.class).registerStage("frontend", this);
 	}
 }
@@ -1,5 +1,10 @@
 package org.apollo.backend.method.handler.chain;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
 import org.apollo.backend.codec.session.FrontendSession;
 import org.apollo.backend.codec.session.FrontendChannel;
 import org.apollo.backend.method.Method;
@@ -16,7 +21,7 @@ public final class MethodHandlerChain<E extends Method> {
 	/**
 	 * The handlers.
 	 */
-	private MethodHandler<E>[] handlers;
+	private volatile MethodHandler<E>[] handlers;
 
 	/**
 	 * Creates the method handler chain.
@@ -67,4 +72,36 @@ public final class MethodHandlerChain<E extends Method> {
 			}
 		}
 	}
+
+	/**
+	 * Replaces handlers in this chain. The replacement handlers take the place of the first of the old handlers, or
+	 * are added to the end of the chain if none of them are in it. The chain is swapped in a single write, so a method
+	 * which is being handled sees either all of the old handlers or all of the new ones.
+	 * @param old The handlers to remove.
+	 * @param replacement The handlers to add.
+	 */
+	public void replace(Collection<? extends MethodHandler<E>> old, Collection<? extends MethodHandler<E>> replacement) {
+		List<MethodHandler<E>> list = new ArrayList<MethodHandler<E>>(handlers.length + replacement.size());
+		boolean replaced = false;
+		for (MethodHandler<E> handler : handlers) {
+			if (!old.contains(handler)) {
+				list.add(handler);
+			} else if (!replaced) {
+				list.addAll(replacement);
+				replaced = true;
+			}
+		}
+		if (!replaced) {
+			list.addAll(replacement);
+		}
+		handlers = list.toArray(Arrays.copyOf(handlers, list.size()));
+	}
+
+	/**
+	 * Gets the number of handlers in this chain.
+	 * @return The number of handlers.
+	 */
+	public int size() {
+		return handlers.length;
+	}
 }
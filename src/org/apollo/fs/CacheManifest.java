@@ -0,0 +1,226 @@
+package org.apollo.fs;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+
+import org.apollo.fs.archive.Archive;
+import org.apollo.fs.archive.ArchiveEntry;
+import org.apollo.util.NamedThreadFactory;
+
+/**
+ * A manifest of the files in a cache: the CRC and size of every file, the versions of the 'on-demand' files and the
+ * CRC table of the archives which is sent to the client.
+ * <p>
+ * The manifest is computed once, in parallel, and is immutable afterwards, so a single instance can be shared by every
+ * update worker and by the login service.
+ */
+public final class CacheManifest {
+
+	/**
+	 * The names of the version lists of the 'on-demand' file types, indexed by file type minus one.
+	 */
+	private static final String[] VERSION_LISTS = { "model_version", "anim_version", "midi_version", "map_version" };
+
+	/**
+	 * The number of files whose CRCs are computed by a single task.
+	 */
+	private static final int FILES_PER_TASK = 512;
+
+	/**
+	 * Computes the manifest of a file system.
+	 * @param fs The file system.
+	 * @param threads The number of threads with which the CRCs are computed.
+	 * @return The manifest.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public static CacheManifest create(final IndexedFileSystem fs, int threads) throws IOException {
+		final int[][] crcs = new int[FileSystemConstants.CACHE_COUNT][];
+		final int[][] sizes = new int[FileSystemConstants.CACHE_COUNT][];
+		ExecutorService executor = Executors.newFixedThreadPool(threads, new NamedThreadFactory("CacheManifest"));
+		try {
+			List<Future<Void>> futures = new ArrayList<Future<Void>>();
+			for (int type = 0; type < crcs.length; type++) {
+				int count = fs.getFileCount(type);
+				crcs[type] = new int[count];
+				sizes[type] = new int[count];
+				for (int start = 0; start < count; start += FILES_PER_TASK) {
+					final int fileType = type, first = start, last = Math.min(count, start + FILES_PER_TASK);
+					futures.add(executor.submit(new Callable<Void>() {
+						@Override
+						public Void call() throws IOException {
+							CRC32 crc = new CRC32();
+							for (int file = first; file < last; file++) {
+								ByteBuffer buffer;
+								try {
+									buffer = fs.getFile(fileType, file);
+								} catch (FileNotFoundException e) {
+									continue;
+								}
+								byte[] bytes = new byte[buffer.remaining()];
+								buffer.get(bytes);
+								crc.reset();
+								crc.update(bytes, 0, bytes.length);
+								crcs[fileType][file] = (int) crc.getValue();
+								sizes[fileType][file] = bytes.length;
+							}
+							return null;
+						}
+					}));
+				}
+			}
+			for (Future<Void> future : futures) {
+				future.get();
+			}
+		} catch (InterruptedException e) {
+			throw new IOException("Interrupted while computing the manifest", e);
+		} catch (ExecutionException e) {
+			throw new IOException("Failed to compute the manifest", e.getCause());
+		} finally {
+			executor.shutdown();
+		}
+		return new CacheManifest(crcs, sizes, decodeVersions(fs, sizes));
+	}
+
+	/**
+	 * Decodes the versions of the 'on-demand' files from the version list archive.
+	 * @param fs The file system.
+	 * @param sizes The sizes of the files, by type.
+	 * @return The versions, by type. The versions of a type are empty if the version list does not contain them.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	private static int[][] decodeVersions(IndexedFileSystem fs, int[][] sizes) throws IOException {
+		int[][] versions = new int[FileSystemConstants.CACHE_COUNT][0];
+		if (sizes[0].length <= 5 || sizes[0][5] == 0) {
+			return versions;
+		}
+		Archive archive = Archive.decode(fs.getFile(0, 5));
+		for (int type = 1; type <= VERSION_LISTS.length; type++) {
+			ArchiveEntry entry;
+			try {
+				entry = archive.getEntry(VERSION_LISTS[type - 1]);
+			} catch (FileNotFoundException e) {
+				continue;
+			}
+			ByteBuffer buffer = entry.getBuffer().duplicate();
+			versions[type] = new int[buffer.remaining() / 2];
+			for (int file = 0; file < versions[type].length; file++) {
+				versions[type][file] = buffer.getShort() & 0xFFFF;
+			}
+		}
+		return versions;
+	}
+
+	/**
+	 * The CRCs of the files, by type and file.
+	 */
+	private final int[][] crcs;
+
+	/**
+	 * The sizes of the files, by type and file.
+	 */
+	private final int[][] sizes;
+
+	/**
+	 * The versions of the 'on-demand' files, by type and file.
+	 */
+	private final int[][] versions;
+
+	/**
+	 * The archive CRC table, as sent to the client.
+	 */
+	private final ByteBuffer crcTable;
+
+	/**
+	 * Creates the manifest.
+	 * @param crcs The CRCs of the files.
+	 * @param sizes The sizes of the files.
+	 * @param versions The versions of the 'on-demand' files.
+	 */
+	private CacheManifest(int[][] crcs, int[][] sizes, int[][] versions) {
+		this.crcs = crcs;
+		this.sizes = sizes;
+		this.versions = versions;
+		int[] archives = crcs[0];
+		ByteBuffer buffer = ByteBuffer.allocate(archives.length * 4 + 4);
+		int hash = 1234;
+		for (int archive = 0; archive < archives.length; archive++) {
+			int crc = archive == 0 ? 0 : archives[archive];
+			hash = (hash << 1) + crc;
+			buffer.putInt(crc);
+		}
+		buffer.putInt(hash);
+		buffer.flip();
+		this.crcTable = buffer.asReadOnlyBuffer();
+	}
+
+	/**
+	 * Checks if the archive CRCs sent by a client match those of this cache.
+	 * @param clientCrcs The client's archive CRCs, indexed by archive.
+	 * @return {@code true} if so, {@code false} if the client's cache is out of date.
+	 */
+	public boolean checkArchiveCrcs(int[] clientCrcs) {
+		int[] archives = crcs[0];
+		for (int archive = 1; archive < clientCrcs.length && archive < archives.length; archive++) {
+			if (clientCrcs[archive] != archives[archive]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Gets the CRC of a file.
+	 * @param type The file type.
+	 * @param file The file id.
+	 * @return The CRC, or {@code 0} if the file does not exist.
+	 */
+	public int getCrc(int type, int file) {
+		return file < crcs[type].length ? crcs[type][file] : 0;
+	}
+
+	/**
+	 * Gets the archive CRC table, in the format the client expects: the CRC of every archive followed by their hash.
+	 * @return A read-only view of the CRC table.
+	 */
+	public ByteBuffer getCrcTable() {
+		return crcTable.duplicate();
+	}
+
+	/**
+	 * Gets the number of files of a type.
+	 * @param type The file type.
+	 * @return The number of files.
+	 */
+	public int getFileCount(int type) {
+		return crcs[type].length;
+	}
+
+	/**
+	 * Gets the size of a file.
+	 * @param type The file type.
+	 * @param file The file id.
+	 * @return The size, in bytes, or {@code 0} if the file does not exist.
+	 */
+	public int getSize(int type, int file) {
+		return file < sizes[type].length ? sizes[type][file] : 0;
+	}
+
+	/**
+	 * Gets the version of an 'on-demand' file.
+	 * @param type The file type.
+	 * @param file The file id.
+	 * @return The version, or {@code 0} if the version list does not contain the file.
+	 */
+	public int getVersion(int type, int file) {
+		return file < versions[type].length ? versions[type][file] : 0;
+	}
+}
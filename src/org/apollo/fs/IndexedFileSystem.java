@@ -6,7 +6,6 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
-import java.util.zip.CRC32;
 
 /**
  * A file system based on top of the operating system's file system. It consists of a data file and index files. Index
@@ -30,11 +29,6 @@ public final class IndexedFileSystem implements Closeable {
 	 */
 	private RandomAccessFile data;
 
-	/**
-	 * The cached CRC table.
-	 */
-	private ByteBuffer crcTable;
-
 	/**
 	 * Creates the file system with the specified base directory.
 	 * @param base The base directory.
@@ -85,50 +79,6 @@ public final class IndexedFileSystem implements Closeable {
 			throw new Exception("No data file present");
 	}
 
-	/**
-	 * Gets the CRC table.
-	 * @return The CRC table.
-	 * @throws IOException If an exception gets thrown.
-	 */
-	public ByteBuffer getCrcTable() throws IOException {
-		if (readOnly) {
-			synchronized (this) {
-				if (crcTable != null)
-					return crcTable.duplicate();
-			}
-			// the number of archives
-			int archives = getFileCount(0);
-			// the hash
-			int hash = 1234;
-			// the CRCs
-			int[] crcs = new int[archives];
-			// calculate the CRCs
-			CRC32 crc32 = new CRC32();
-			for (int i = 1; i < crcs.length; i++) {
-				crc32.reset();
-				ByteBuffer bb = getFile(0, i);
-				byte[] bytes = new byte[bb.remaining()];
-				bb.get(bytes, 0, bytes.length);
-				crc32.update(bytes, 0, bytes.length);
-				crcs[i] = (int) crc32.getValue();
-			}
-			// hash the CRCs and place them in the buffer
-			ByteBuffer buf = ByteBuffer.allocate(crcs.length * 4 + 4);
-			for (int crc : crcs) {
-				hash = (hash << 1) + crc;
-				buf.putInt(crc);
-			}
-			// place the hash into the buffer
-			buf.putInt(hash);
-			buf.flip();
-			synchronized (this) {
-				crcTable = buf.asReadOnlyBuffer();
-				return crcTable.duplicate();
-			}
-		} else
-			throw new IOException("cannot get CRC table from a writable file system");
-	}
-
 	/**
 	 * Gets a file.
 	 * @param fd The {@link FileDescriptor} which points to the file.
@@ -203,13 +153,15 @@ public final class IndexedFileSystem implements Closeable {
 	/**
 	 * Gets the number of files with the specified type.
 	 * @param type The type.
-	 * @return The number of files.
+	 * @return The number of files, or {@code 0} if there is no index for the type.
 	 * @throws IOException if an I/O error occurs.
 	 */
-	private int getFileCount(int type) throws IOException {
+	public int getFileCount(int type) throws IOException {
 		if (type < 0 || type >= indices.length)
 			throw new IndexOutOfBoundsException();
 		RandomAccessFile indexFile = indices[type];
+		if (indexFile == null)
+			return 0;
 		synchronized (indexFile) {
 			return (int) (indexFile.length() / FileSystemConstants.INDEX_SIZE);
 		}
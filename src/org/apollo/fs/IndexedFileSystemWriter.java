@@ -0,0 +1,172 @@
+package org.apollo.fs;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Writes a new file system which can be read by an {@link IndexedFileSystem}.
+ * <p>
+ * Files are streamed to the end of the data file as they are written, so every file occupies a contiguous run of
+ * blocks and the data file is never seeked. The indices are kept in memory and written when the writer is closed.
+ */
+public final class IndexedFileSystemWriter implements Closeable {
+
+	/**
+	 * The size of the buffer of the data file, in bytes.
+	 */
+	private static final int BUFFER_SIZE = 64 * FileSystemConstants.BLOCK_SIZE;
+
+	/**
+	 * The base directory.
+	 */
+	private final File base;
+
+	/**
+	 * The data file.
+	 */
+	private final OutputStream data;
+
+	/**
+	 * The sizes of the files, by type and file.
+	 */
+	private final int[][] sizes;
+
+	/**
+	 * The first blocks of the files, by type and file.
+	 */
+	private final int[][] blocks;
+
+	/**
+	 * The number of files of each type.
+	 */
+	private final int[] counts;
+
+	/**
+	 * The block header, which is reused for every block.
+	 */
+	private final byte[] header = new byte[FileSystemConstants.HEADER_SIZE];
+
+	/**
+	 * The padding of the last block which has been written.
+	 */
+	private final byte[] padding = new byte[FileSystemConstants.BLOCK_SIZE];
+
+	/**
+	 * The next free block.
+	 */
+	private int nextBlock = 1;
+
+	/**
+	 * The number of padding bytes which must be written before the next block. Padding is deferred so the data file
+	 * does not end with it. Block zero is reserved, as an index pointing to it denotes an empty file.
+	 */
+	private int pendingPadding = FileSystemConstants.BLOCK_SIZE;
+
+	/**
+	 * Creates the writer, truncating the data file in the specified directory if it exists.
+	 * @param base The base directory.
+	 * @param types The number of file types.
+	 * @throws IOException if the data file cannot be created.
+	 */
+	public IndexedFileSystemWriter(File base, int types) throws IOException {
+		this.base = base;
+		this.data = new BufferedOutputStream(new FileOutputStream(new File(base, "main_file_cache.dat")), BUFFER_SIZE);
+		this.sizes = new int[types][16];
+		this.blocks = new int[types][16];
+		this.counts = new int[types];
+	}
+
+	/**
+	 * Writes the indices and closes the data file.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	@Override
+	public void close() throws IOException {
+		data.close();
+		for (int type = 0; type < counts.length; type++) {
+			DataOutputStream os = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(new File(base,
+					"main_file_cache.idx" + type))));
+			try {
+				for (int file = 0; file < counts[type]; file++) {
+					writeTriByte(os, sizes[type][file]);
+					writeTriByte(os, blocks[type][file]);
+				}
+			} finally {
+				os.close();
+			}
+		}
+	}
+
+	/**
+	 * Gets the size of the data file written so far.
+	 * @return The size, in bytes.
+	 */
+	public long getDataSize() {
+		return (long) nextBlock * FileSystemConstants.BLOCK_SIZE - pendingPadding;
+	}
+
+	/**
+	 * Writes a file. Files may be written in any order, but each file may only be written once.
+	 * @param type The file type.
+	 * @param file The file id.
+	 * @param buffer The file's data. An empty buffer denotes a file which does not exist.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public void write(int type, int file, ByteBuffer buffer) throws IOException {
+		if (file < 0 || file > 0xFFFF) {
+			throw new IllegalArgumentException("File id out of range");
+		} else if (buffer.remaining() > 0xFFFFFF) {
+			throw new IllegalArgumentException("File too large");
+		}
+		if (file >= sizes[type].length) {
+			int length = Math.max(file + 1, sizes[type].length * 2);
+			sizes[type] = Arrays.copyOf(sizes[type], length);
+			blocks[type] = Arrays.copyOf(blocks[type], length);
+		}
+		counts[type] = Math.max(counts[type], file + 1);
+		int size = buffer.remaining();
+		sizes[type][file] = size;
+		if (size == 0) {
+			blocks[type][file] = 0;
+			return;
+		}
+		blocks[type][file] = nextBlock;
+		byte[] chunk = new byte[FileSystemConstants.CHUNK_SIZE];
+		for (int index = 0; buffer.hasRemaining(); index++) {
+			int length = Math.min(buffer.remaining(), FileSystemConstants.CHUNK_SIZE);
+			int next = length == buffer.remaining() ? 0 : nextBlock + 1;
+			header[0] = (byte) (file >> 8);
+			header[1] = (byte) file;
+			header[2] = (byte) (index >> 8);
+			header[3] = (byte) index;
+			header[4] = (byte) (next >> 16);
+			header[5] = (byte) (next >> 8);
+			header[6] = (byte) next;
+			header[7] = (byte) (type + 1);
+			buffer.get(chunk, 0, length);
+			data.write(padding, 0, pendingPadding);
+			data.write(header);
+			data.write(chunk, 0, length);
+			pendingPadding = FileSystemConstants.CHUNK_SIZE - length;
+			nextBlock++;
+		}
+	}
+
+	/**
+	 * Writes a tri-byte.
+	 * @param os The output stream.
+	 * @param value The value.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	private void writeTriByte(DataOutputStream os, int value) throws IOException {
+		os.writeByte(value >> 16);
+		os.writeShort(value);
+	}
+}
@@ -6,6 +6,7 @@ import java.nio.ByteBuffer;
 
 import org.apollo.util.ByteBufferUtil;
 import org.apollo.util.CompressionUtil;
+import org.apollo.util.IntHashMap;
 
 /**
  * Represents an archive.
@@ -14,7 +15,9 @@ import org.apollo.util.CompressionUtil;
 public final class Archive {
 
 	/**
-	 * Decodes the archive in the specified buffer.
+	 * Decodes the archive in the specified buffer. An archive which was compressed as a whole is decompressed
+	 * straight away, while an archive whose entries were compressed on their own is not: each entry is decompressed
+	 * when it is first read.
 	 * @param buffer The buffer.
 	 * @return The archive.
 	 * @throws IOException if an I/O error occurs.
@@ -23,11 +26,15 @@ public final class Archive {
 		int extractedSize = ByteBufferUtil.readUnsignedTriByte(buffer);
 		int size = ByteBufferUtil.readUnsignedTriByte(buffer);
 		boolean extracted = false;
+		if (!buffer.hasArray()) {
+			byte[] copy = new byte[buffer.remaining()];
+			buffer.get(copy);
+			buffer = ByteBuffer.wrap(copy);
+		}
 		if (size != extractedSize) {
-			byte[] compressed = new byte[size];
 			byte[] uncompressed = new byte[extractedSize];
-			buffer.get(compressed);
-			CompressionUtil.unbzip2(compressed, uncompressed);
+			CompressionUtil.unbzip2(buffer.array(), buffer.arrayOffset() + buffer.position(), size, uncompressed, 0,
+					extractedSize);
 			buffer = ByteBuffer.wrap(uncompressed);
 			extracted = true;
 		}
@@ -42,34 +49,98 @@ public final class Archive {
 		}
 		ArchiveEntry[] entry = new ArchiveEntry[entries];
 		for (int i = 0; i < entries; i++) {
-			ByteBuffer entryBuffer;
-			if (!extracted) {
-				byte[] compressed = new byte[sizes[i]];
-				byte[] uncompressed = new byte[extractedSizes[i]];
-				buffer.get(compressed);
-				CompressionUtil.unbzip2(compressed, uncompressed);
-				entryBuffer = ByteBuffer.wrap(uncompressed);
+			int length = extracted ? extractedSizes[i] : sizes[i];
+			ByteBuffer entryBuffer = buffer.slice();
+			entryBuffer.limit(length);
+			buffer.position(buffer.position() + length);
+			if (extracted) {
+				entry[i] = new ArchiveEntry(identifiers[i], entryBuffer);
 			} else {
-				byte[] buf = new byte[extractedSizes[i]];
-				buffer.get(buf);
-				entryBuffer = ByteBuffer.wrap(buf);
+				entry[i] = new ArchiveEntry(identifiers[i], extractedSizes[i], entryBuffer);
 			}
-			entry[i] = new ArchiveEntry(identifiers[i], entryBuffer);
 		}
 		return new Archive(entry);
 	}
 
+	/**
+	 * Hashes the name of an entry into its identifier.
+	 * @param name The name.
+	 * @return The identifier.
+	 */
+	public static int hash(String name) {
+		int hash = 0;
+		name = name.toUpperCase();
+		for (int i = 0; i < name.length(); i++) {
+			hash = (hash * 61 + name.charAt(i)) - 32;
+		}
+		return hash;
+	}
+
 	/**
 	 * The entries in this archive.
 	 */
 	private final ArchiveEntry[] entries;
 
+	/**
+	 * The entries in this archive, by identifier.
+	 */
+	private final IntHashMap<ArchiveEntry> index;
+
 	/**
 	 * Creates a new archive.
 	 * @param entries The entries in this archive.
 	 */
 	public Archive(ArchiveEntry[] entries) {
 		this.entries = entries;
+		this.index = new IntHashMap<ArchiveEntry>(entries.length);
+		for (ArchiveEntry entry : entries) {
+			if (!index.containsKey(entry.getIdentifier())) {
+				index.put(entry.getIdentifier(), entry);
+			}
+		}
+	}
+
+	/**
+	 * Encodes this archive.
+	 * @param compressed {@code true} to compress the archive as a whole, {@code false} to compress each entry on its
+	 * own. Compressing the archive as a whole usually gives a smaller archive, unless it has few entries.
+	 * @return A buffer containing the archive.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public ByteBuffer encode(boolean compressed) throws IOException {
+		byte[][] data = new byte[entries.length][];
+		int[] extractedSizes = new int[entries.length];
+		int length = 2 + entries.length * 10;
+		for (int i = 0; i < entries.length; i++) {
+			byte[] buf = new byte[entries[i].getSize()];
+			entries[i].read(buf, 0);
+			extractedSizes[i] = buf.length;
+			data[i] = compressed ? buf : CompressionUtil.bzip2(buf);
+			length += data[i].length;
+		}
+		ByteBuffer body = ByteBuffer.allocate(length);
+		body.putShort((short) entries.length);
+		for (int i = 0; i < entries.length; i++) {
+			body.putInt(entries[i].getIdentifier());
+			ByteBufferUtil.writeTriByte(body, extractedSizes[i]);
+			ByteBufferUtil.writeTriByte(body, data[i].length);
+		}
+		for (byte[] buf : data) {
+			body.put(buf);
+		}
+		byte[] bytes = body.array();
+		if (compressed) {
+			bytes = CompressionUtil.bzip2(bytes);
+			if (bytes.length == length) {
+				return encode(false); // the sizes being equal would mark the archive as uncompressed
+			}
+		}
+		ByteBuffer buffer = ByteBuffer.allocate(bytes.length + 6);
+		ByteBufferUtil.writeTriByte(buffer, length);
+		ByteBufferUtil.writeTriByte(buffer, bytes.length);
+		buffer.put(bytes);
+		buffer.flip();
+		return buffer;
 	}
 
 	/**
@@ -79,16 +150,18 @@ public final class Archive {
 	 * @throws FileNotFoundException if the file could not be found.
 	 */
 	public ArchiveEntry getEntry(String name) throws FileNotFoundException {
-		int hash = 0;
-		name = name.toUpperCase();
-		for (int i = 0; i < name.length(); i++) {
-			hash = (hash * 61 + name.charAt(i)) - 32;
-		}
-		for (ArchiveEntry entry : entries) {
-			if (entry.getIdentifier() == hash) {
-				return entry;
-			}
+		ArchiveEntry entry = index.get(hash(name));
+		if (entry == null) {
+			throw new FileNotFoundException();
 		}
-		throw new FileNotFoundException();
+		return entry;
+	}
+
+	/**
+	 * Gets the entries in this archive.
+	 * @return The entries.
+	 */
+	public ArchiveEntry[] getEntries() {
+		return entries.clone();
 	}
 }
@@ -1,9 +1,15 @@
 package org.apollo.fs.archive;
 
+import java.io.IOException;
 import java.nio.ByteBuffer;
 
+import org.apollo.util.CompressionUtil;
+
 /**
  * Represents a single entry in an {@link Archive}.
+ * <p>
+ * An entry which was compressed on its own is only decompressed when its data is first needed, so reading one entry
+ * of an archive does not decompress the others.
  * @author Graham
  */
 public final class ArchiveEntry {
@@ -14,9 +20,20 @@ public final class ArchiveEntry {
 	private final int identifier;
 
 	/**
-	 * The buffer of this entry.
+	 * The uncompressed size of this entry.
+	 */
+	private final int size;
+
+	/**
+	 * The compressed data of this entry, or {@code null} if it was not compressed on its own. The buffer is backed by
+	 * an accessible array.
 	 */
-	private final ByteBuffer buffer;
+	private final ByteBuffer compressed;
+
+	/**
+	 * The buffer of this entry, or {@code null} if it has not been decompressed yet.
+	 */
+	private volatile ByteBuffer buffer;
 
 	/**
 	 * Creates a new archive entry.
@@ -25,14 +42,40 @@ public final class ArchiveEntry {
 	 */
 	public ArchiveEntry(int identifier, ByteBuffer buffer) {
 		this.identifier = identifier;
+		this.size = buffer.remaining();
+		this.compressed = null;
 		this.buffer = buffer.asReadOnlyBuffer();
 	}
 
 	/**
-	 * Gets the buffer of this entry.
+	 * Creates a new archive entry which is decompressed when it is first read.
+	 * @param identifier The identifier.
+	 * @param size The uncompressed size.
+	 * @param compressed The compressed data, backed by an accessible array.
+	 */
+	ArchiveEntry(int identifier, int size, ByteBuffer compressed) {
+		this.identifier = identifier;
+		this.size = size;
+		this.compressed = compressed;
+	}
+
+	/**
+	 * Gets the buffer of this entry, decompressing it if this is the first time it is needed.
 	 * @return This buffer of this entry.
+	 * @throws IOException if the entry cannot be decompressed.
 	 */
-	public ByteBuffer getBuffer() {
+	public ByteBuffer getBuffer() throws IOException {
+		ByteBuffer buffer = this.buffer;
+		if (buffer == null) {
+			synchronized (this) {
+				buffer = this.buffer;
+				if (buffer == null) {
+					byte[] data = new byte[size];
+					read(data, 0);
+					this.buffer = buffer = ByteBuffer.wrap(data).asReadOnlyBuffer();
+				}
+			}
+		}
 		return buffer.duplicate();
 	}
 
@@ -43,4 +86,29 @@ public final class ArchiveEntry {
 	public int getIdentifier() {
 		return identifier;
 	}
+
+	/**
+	 * Gets the uncompressed size of this entry, without decompressing it.
+	 * @return The size, in bytes.
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * Reads this entry into the specified array. If the entry has not been decompressed yet, it is decompressed
+	 * directly into the array and not kept.
+	 * @param destination The array, which must have room for {@link #getSize()} bytes from the offset.
+	 * @param offset The offset at which the entry is placed.
+	 * @throws IOException if the entry cannot be decompressed.
+	 */
+	public void read(byte[] destination, int offset) throws IOException {
+		ByteBuffer buffer = this.buffer;
+		if (buffer != null) {
+			buffer.duplicate().get(destination, offset, size);
+		} else {
+			CompressionUtil.unbzip2(compressed.array(), compressed.arrayOffset() + compressed.position(),
+					compressed.remaining(), destination, offset, size);
+		}
+	}
 }
@@ -6,6 +6,7 @@ import java.nio.ByteBuffer;
 import org.apollo.fs.IndexedFileSystem;
 import org.apollo.fs.archive.Archive;
 import org.apollo.game.model.def.ItemDefinition;
+import org.apollo.game.model.def.ItemDefinitionTable;
 import org.apollo.util.ByteBufferUtil;
 
 /**
@@ -43,22 +44,21 @@ public final class ItemDefinitionParser {
 			indices[i] = index;
 			index += idx.getShort();
 		}
-		ItemDefinition[] defs = new ItemDefinition[count];
+		ItemDefinitionTable table = new ItemDefinitionTable(count);
 		for (int i = 0; i < count; i++) {
 			dat.position(indices[i]);
-			defs[i] = parseDefinition(i, dat);
+			parseDefinition(table.get(i), dat);
 		}
-		return defs;
+		return table.getDefinitions();
 	}
 
 	/**
 	 * Parses a single definition.
-	 * @param id The item's id.
+	 * @param def The definition, which is filled in.
 	 * @param buffer The buffer.
 	 * @return The definition.
 	 */
-	private ItemDefinition parseDefinition(int id, ByteBuffer buffer) {
-		ItemDefinition def = new ItemDefinition(id);
+	private ItemDefinition parseDefinition(ItemDefinition def, ByteBuffer buffer) {
 		while (true) {
 			int code = buffer.get() & 0xFF;
 			if (code == 0) {
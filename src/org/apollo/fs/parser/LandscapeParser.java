@@ -0,0 +1,243 @@
+package org.apollo.fs.parser;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apollo.fs.IndexedFileSystem;
+import org.apollo.fs.archive.Archive;
+import org.apollo.game.model.Position;
+import org.apollo.game.model.def.ObjectDefinition;
+import org.apollo.game.model.region.CollisionMap;
+import org.apollo.util.ByteBufferUtil;
+import org.apollo.util.CompressionUtil;
+
+/**
+ * A class which parses the terrain and object files of every map square and places their clipping into a
+ * {@link CollisionMap}. Object definitions must have been loaded before this parser is used.
+ */
+public final class LandscapeParser {
+
+	/**
+	 * The logger for this class.
+	 */
+	private static final Logger logger = Logger.getLogger(LandscapeParser.class.getName());
+
+	/**
+	 * The file type which holds map files.
+	 */
+	private static final int MAP_FILE_TYPE = 4;
+
+	/**
+	 * The terrain setting which marks a tile as blocked.
+	 */
+	private static final int BLOCKED_TILE = 0x1;
+
+	/**
+	 * The terrain setting which marks a tile as a bridge (the plane below it is walked on).
+	 */
+	private static final int BRIDGE_TILE = 0x2;
+
+	/**
+	 * The indexed file system.
+	 */
+	private final IndexedFileSystem fs;
+
+	/**
+	 * The objects of the map square being parsed, each packed as its id, attributes, plane and local coordinates.
+	 */
+	private long[] objects = new long[256];
+
+	/**
+	 * The number of map squares which could not be read during the last parse.
+	 */
+	private int failures;
+
+	/**
+	 * Creates the landscape parser.
+	 * @param fs The indexed file system.
+	 */
+	public LandscapeParser(IndexedFileSystem fs) {
+		this.fs = fs;
+	}
+
+	/**
+	 * Gets the number of map squares which could not be read during the last parse, and so have no clipping.
+	 * @return The number of failures.
+	 */
+	public int getFailures() {
+		return failures;
+	}
+
+	/**
+	 * Parses the landscape into the specified collision map. Map squares whose files cannot be read, or are truncated
+	 * or corrupt, are skipped, logged and counted in {@link #getFailures()}. Both files of a square are decoded before
+	 * any of its clipping is placed, so a square which fails is left without clipping rather than with part of it.
+	 * @param map The collision map.
+	 * @return The number of map squares which were parsed.
+	 * @throws IOException if the map index cannot be read.
+	 */
+	public int parse(CollisionMap map) throws IOException {
+		Archive versionList = Archive.decode(fs.getFile(0, 5));
+		ByteBuffer index = versionList.getEntry("map_index").getBuffer();
+		int count = index.remaining() / 7;
+		int parsed = 0;
+		failures = 0;
+		byte[][][] settings = new byte[Position.HEIGHT_LEVELS][CollisionMap.SQUARE_SIZE][CollisionMap.SQUARE_SIZE];
+		for (int i = 0; i < count; i++) {
+			int square = index.getShort() & 0xFFFF;
+			int terrainFile = index.getShort() & 0xFFFF;
+			int objectFile = index.getShort() & 0xFFFF;
+			index.get(); // members flag
+			int baseX = (square >> 8) * CollisionMap.SQUARE_SIZE;
+			int baseY = (square & 0xFF) * CollisionMap.SQUARE_SIZE;
+			int objectCount;
+			try {
+				ByteBuffer terrainData = decompress(terrainFile);
+				ByteBuffer objectData = decompress(objectFile);
+				decodeTerrain(terrainData, settings);
+				objectCount = decodeObjects(objectData, settings);
+			} catch (IOException ex) {
+				logFailure(square, ex);
+				continue;
+			} catch (RuntimeException ex) { // a truncated or corrupt file, e.g. a BufferUnderflowException
+				logFailure(square, ex);
+				continue;
+			}
+			placeTerrain(map, baseX, baseY, settings);
+			placeObjects(map, baseX, baseY, objectCount);
+			parsed++;
+		}
+		return parsed;
+	}
+
+	/**
+	 * Counts and logs a map square which could not be read.
+	 * @param square The packed coordinates of the square.
+	 * @param ex The exception which was thrown while the square was read.
+	 */
+	private void logFailure(int square, Exception ex) {
+		failures++;
+		logger.log(Level.FINE, "Failed to read map square " + (square >> 8) + ", " + (square & 0xFF) + ".", ex);
+	}
+
+	/**
+	 * Reads and decompresses a map file.
+	 * @param file The file id.
+	 * @return The decompressed file.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	private ByteBuffer decompress(int file) throws IOException {
+		return ByteBuffer.wrap(CompressionUtil.ungzip(fs.getFile(MAP_FILE_TYPE, file)));
+	}
+
+	/**
+	 * Decodes the objects of a map square, which are placed by {@link #placeObjects}.
+	 * @param buffer The object file.
+	 * @param settings The terrain settings of the square.
+	 * @return The number of objects.
+	 */
+	private int decodeObjects(ByteBuffer buffer, byte[][][] settings) {
+		int count = 0;
+		int id = -1;
+		int idOffset;
+		while ((idOffset = ByteBufferUtil.readSmart(buffer)) != 0) {
+			id += idOffset;
+			int packed = 0;
+			int positionOffset;
+			while ((positionOffset = ByteBufferUtil.readSmart(buffer)) != 0) {
+				packed += positionOffset - 1;
+				int localY = packed & 0x3F;
+				int localX = (packed >> 6) & 0x3F;
+				int height = packed >> 12;
+				int attributes = buffer.get() & 0xFF;
+				if ((settings[1][localX][localY] & BRIDGE_TILE) != 0) {
+					height--;
+				}
+				if (height < 0 || height >= Position.HEIGHT_LEVELS || id >= ObjectDefinition.count()) {
+					continue;
+				}
+				if (count == objects.length) {
+					objects = Arrays.copyOf(objects, count * 2);
+				}
+				objects[count++] = (long) id << 32 | attributes << 16 | height << 12 | localX << 6 | localY;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Decodes the terrain settings of a map square.
+	 * @param buffer The terrain file.
+	 * @param settings The array to place the terrain settings in.
+	 */
+	private void decodeTerrain(ByteBuffer buffer, byte[][][] settings) {
+		for (int height = 0; height < Position.HEIGHT_LEVELS; height++) {
+			for (int x = 0; x < CollisionMap.SQUARE_SIZE; x++) {
+				for (int y = 0; y < CollisionMap.SQUARE_SIZE; y++) {
+					settings[height][x][y] = 0;
+					while (true) {
+						int attribute = buffer.get() & 0xFF;
+						if (attribute == 0) {
+							break;
+						} else if (attribute == 1) {
+							buffer.get(); // tile height
+							break;
+						} else if (attribute <= 49) {
+							buffer.get(); // overlay
+						} else if (attribute <= 81) {
+							settings[height][x][y] = (byte) (attribute - 49);
+						}
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Places the clipping of the objects which were decoded by {@link #decodeObjects}.
+	 * @param map The collision map.
+	 * @param baseX The x coordinate of the square.
+	 * @param baseY The y coordinate of the square.
+	 * @param count The number of objects.
+	 */
+	private void placeObjects(CollisionMap map, int baseX, int baseY, int count) {
+		for (int i = 0; i < count; i++) {
+			long object = objects[i];
+			ObjectDefinition def = ObjectDefinition.forId((int) (object >>> 32));
+			int attributes = (int) (object >> 16) & 0xFF;
+			int height = (int) (object >> 12) & 0x3;
+			int localX = (int) (object >> 6) & 0x3F;
+			int localY = (int) object & 0x3F;
+			map.addObject(def, baseX + localX, baseY + localY, height, attributes >> 2, attributes & 3);
+		}
+	}
+
+	/**
+	 * Places the clipping of the blocked tiles of a map square.
+	 * @param map The collision map.
+	 * @param baseX The x coordinate of the square.
+	 * @param baseY The y coordinate of the square.
+	 * @param settings The terrain settings of the square.
+	 */
+	private void placeTerrain(CollisionMap map, int baseX, int baseY, byte[][][] settings) {
+		for (int height = 0; height < Position.HEIGHT_LEVELS; height++) {
+			for (int x = 0; x < CollisionMap.SQUARE_SIZE; x++) {
+				for (int y = 0; y < CollisionMap.SQUARE_SIZE; y++) {
+					if ((settings[height][x][y] & BLOCKED_TILE) == 0) {
+						continue;
+					}
+					int plane = height;
+					if ((settings[1][x][y] & BRIDGE_TILE) != 0) {
+						plane--;
+					}
+					if (plane >= 0) {
+						map.flag(baseX + x, baseY + y, plane, CollisionMap.BLOCKED);
+					}
+				}
+			}
+		}
+	}
+}
@@ -6,6 +6,7 @@ import java.nio.ByteBuffer;
 import org.apollo.fs.IndexedFileSystem;
 import org.apollo.fs.archive.Archive;
 import org.apollo.game.model.def.NpcDefinition;
+import org.apollo.game.model.def.NpcDefinitionTable;
 import org.apollo.util.ByteBufferUtil;
 
 /**
@@ -43,22 +44,21 @@ public final class NpcDefinitionParser {
 			indices[i] = index;
 			index += idx.getShort();
 		}
-		NpcDefinition[] defs = new NpcDefinition[count];
+		NpcDefinitionTable table = new NpcDefinitionTable(count);
 		for (int i = 0; i < count; i++) {
 			dat.position(indices[i]);
-			defs[i] = parseDefinition(i, dat);
+			parseDefinition(table.get(i), dat);
 		}
-		return defs;
+		return table.getDefinitions();
 	}
 
 	/**
 	 * Parses a single definition.
-	 * @param id The NPC's id.
+	 * @param def The definition, which is filled in.
 	 * @param buffer The buffer.
 	 * @return The definition.
 	 */
-	private NpcDefinition parseDefinition(int id, ByteBuffer buffer) {
-		NpcDefinition def = new NpcDefinition(id);
+	private NpcDefinition parseDefinition(NpcDefinition def, ByteBuffer buffer) {
 		while (true) {
 			int code = buffer.get() & 0xFF;
 			if (code == 0) {
@@ -6,6 +6,7 @@ import java.nio.ByteBuffer;
 import org.apollo.fs.IndexedFileSystem;
 import org.apollo.fs.archive.Archive;
 import org.apollo.game.model.def.ObjectDefinition;
+import org.apollo.game.model.def.ObjectDefinitionTable;
 import org.apollo.util.ByteBufferUtil;
 
 /**
@@ -43,22 +44,21 @@ public final class ObjectDefinitionParser {
 			indices[i] = index;
 			index += idx.getShort();
 		}
-		ObjectDefinition[] defs = new ObjectDefinition[count];
+		ObjectDefinitionTable table = new ObjectDefinitionTable(count);
 		for (int i = 0; i < count; i++) {
 			dat.position(indices[i]);
-			defs[i] = parseDefinition(i, dat);
+			parseDefinition(table.get(i), dat);
 		}
-		return defs;
+		return table.getDefinitions();
 	}
 
 	/**
 	 * Parses a single definition.
-	 * @param id The object's id.
+	 * @param def The definition, which is filled in.
 	 * @param buffer The buffer.
 	 * @return The definition.
 	 */
-	private ObjectDefinition parseDefinition(int id, ByteBuffer buffer) {
-		ObjectDefinition def = new ObjectDefinition(id);
+	private ObjectDefinition parseDefinition(ObjectDefinition def, ByteBuffer buffer) {
 
 		int interactableValue = -1;
 		boolean walkableBlock = false;
@@ -103,9 +103,9 @@ public final class ObjectDefinitionParser {
 					int sizeY = buffer.get() & 0xFF;
 					def.setSizeY(sizeY);
 				} else if (code == 17) {
-					def.setWalkable(false);
-				} else if (code == 18) {
 					def.setSolid(false);
+				} else if (code == 18) {
+					// not impenetrable: only affects projectiles, which are not clipped
 				} else if (code == 19) {
 					interactableValue = buffer.get() & 0xFF;
 					def.setInteractable(interactableValue == 1);
@@ -17,7 +17,7 @@ public final class GameConstants {
 	public static final int EVENTS_PER_PULSE = 10;
 
 	/**
-	 * The delay for the minigame pulses.
+	 * The delay between consecutive minigame pulses, in milliseconds, which minigames count their timers in.
 	 */
 	public static final int MINIGAME_DELAY = 1000;
 
@@ -0,0 +1,159 @@
+package org.apollo.game;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apollo.game.profile.TickProfiler;
+import org.apollo.game.profile.TickProfiler.Timer;
+
+/**
+ * A loop which runs the game pulse on its own thread, once per period of a fixed grid of the monotonic clock, so that
+ * pulses do not drift however long each one takes. When a pulse overruns the start of the next one, the
+ * {@link OverrunPolicy} decides what happens to the pulses which are due.
+ * <p>
+ * The time each pulse starts after it was due is recorded as the {@code jitter} timer of the {@code loop} category,
+ * the time by which a pulse overran as the {@code overrun} timer, and the number of pulses which were skipped as the
+ * {@code skipped_pulses} counter.
+ */
+public final class GameLoop implements Runnable {
+
+	/**
+	 * The policies for pulses which are due when a pulse overruns.
+	 */
+	public enum OverrunPolicy {
+
+		/**
+		 * Skips the pulses which are due, and waits for the next pulse on the grid.
+		 */
+		SKIP,
+
+		/**
+		 * Runs the next pulse immediately, and moves the grid so that it starts from that pulse. No pulses are skipped,
+		 * but they are delayed.
+		 */
+		COMPRESS,
+
+		/**
+		 * Runs the pulses which are due back to back, but no more than the catch-up budget of them in a row, and skips
+		 * the rest.
+		 */
+		CATCH_UP
+	}
+
+	/**
+	 * The pulse.
+	 */
+	private final Runnable pulse;
+
+	/**
+	 * The period, in nanoseconds.
+	 */
+	private final long period;
+
+	/**
+	 * The overrun policy.
+	 */
+	private final OverrunPolicy policy;
+
+	/**
+	 * The number of pulses which may be run back to back to catch up, if the policy is {@link OverrunPolicy#CATCH_UP}.
+	 */
+	private final int catchUpBudget;
+
+	/**
+	 * Whether non-critical work is shed while the loop is behind.
+	 */
+	private final boolean adaptive;
+
+	/**
+	 * The jitter timer.
+	 */
+	private final Timer jitter;
+
+	/**
+	 * The overrun timer.
+	 */
+	private final Timer overrun;
+
+	/**
+	 * The profiler.
+	 */
+	private final TickProfiler profiler;
+
+	/**
+	 * Whether non-critical work should be shed during the current pulse.
+	 */
+	private volatile boolean shedding;
+
+	/**
+	 * Creates the game loop.
+	 * @param pulse The pulse.
+	 * @param period The period, in milliseconds.
+	 * @param policy The overrun policy.
+	 * @param catchUpBudget The number of pulses which may be run back to back to catch up, if the policy is
+	 * {@link OverrunPolicy#CATCH_UP}.
+	 * @param adaptive Whether non-critical work is shed while the loop is behind.
+	 * @param profiler The profiler.
+	 */
+	public GameLoop(Runnable pulse, long period, OverrunPolicy policy, int catchUpBudget, boolean adaptive,
+			TickProfiler profiler) {
+		this.pulse = pulse;
+		this.period = TimeUnit.MILLISECONDS.toNanos(period);
+		this.policy = policy;
+		this.catchUpBudget = catchUpBudget;
+		this.adaptive = adaptive;
+		this.profiler = profiler;
+		this.jitter = profiler.getTimer(TickProfiler.LOOP, "jitter");
+		this.overrun = profiler.getTimer(TickProfiler.LOOP, "overrun");
+	}
+
+	/**
+	 * Checks if non-critical work should be shed during the current pulse, because the loop is behind.
+	 * @return {@code true} if so, {@code false} if not.
+	 */
+	public boolean isShedding() {
+		return shedding;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Runnable#run()
+	 */
+	@Override
+	public void run() {
+		long next = System.nanoTime() + period;
+		int caughtUp = 0;
+		while (true) {
+			long now = System.nanoTime();
+			while (now < next) {
+				LockSupport.parkNanos(next - now);
+				now = System.nanoTime();
+			}
+			jitter.record(now - next);
+			pulse.run();
+			next += period;
+
+			long behind = System.nanoTime() - next;
+			if (behind < 0) {
+				shedding = false;
+				caughtUp = 0;
+				continue;
+			}
+			overrun.record(behind);
+			shedding = adaptive;
+			long due = behind / period + 1;
+			if (policy == OverrunPolicy.COMPRESS) {
+				next += behind;
+			} else if (policy == OverrunPolicy.CATCH_UP && caughtUp < catchUpBudget) {
+				long skipped = Math.max(0, due - (catchUpBudget - caughtUp));
+				next += skipped * period;
+				profiler.increment("skipped_pulses", skipped);
+				caughtUp++;
+			} else {
+				next += due * period;
+				profiler.increment("skipped_pulses", due);
+				caughtUp = 0;
+			}
+		}
+	}
+}
@@ -2,20 +2,31 @@ package org.apollo.game;
 
 import java.io.FileInputStream;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import org.apollo.Service;
+import org.apollo.ServiceManager;
+import org.apollo.game.GameLoop.OverrunPolicy;
 import org.apollo.game.event.handler.chain.EventHandlerChainGroup;
 import org.apollo.game.model.Player;
 import org.apollo.game.model.World;
 import org.apollo.game.model.World.RegistrationStatus;
+import org.apollo.game.profile.TickProfiler;
+import org.apollo.game.profile.TickProfiler.Timer;
 import org.apollo.game.sync.ClientSynchronizer;
 import org.apollo.io.EventHandlerChainParser;
 import org.apollo.login.LoginService;
+import org.apollo.net.capture.PacketCapture;
 import org.apollo.net.session.GameSession;
 import org.apollo.util.NamedThreadFactory;
 import org.apollo.util.xml.XmlNode;
@@ -23,10 +34,61 @@ import org.apollo.util.xml.XmlParser;
 
 /**
  * The {@link GameService} class schedules and manages the execution of the {@link GamePulseHandler} class.
+ * <p>
+ * Each pulse runs the registered {@link PulseStage}s in the order given in the services.xml file, or in a default
+ * order if it lists none. The game service itself provides the {@code events}, {@code world} and {@code synchronize}
+ * stages, and other services add their own, so that everything which changes the state of the world does so on the
+ * game thread.
  * @author Graham
  */
 public final class GameService extends Service {
 
+	/**
+	 * The stages which are run each pulse, in order.
+	 */
+	private static final class Pipeline {
+
+		/**
+		 * The names of the stages.
+		 */
+		private final String[] names;
+
+		/**
+		 * The stages.
+		 */
+		private final PulseStage[] stages;
+
+		/**
+		 * The timers of the stages.
+		 */
+		private final Timer[] timers;
+
+		/**
+		 * Creates the pipeline.
+		 * @param names The names of the stages.
+		 * @param stages The stages.
+		 * @param profiler The profiler.
+		 */
+		public Pipeline(List<String> names, List<PulseStage> stages, TickProfiler profiler) {
+			this.names = names.toArray(new String[names.size()]);
+			this.stages = stages.toArray(new PulseStage[stages.size()]);
+			this.timers = new Timer[this.stages.length];
+			for (int i = 0; i < timers.length; i++) {
+				timers[i] = profiler.getTimer(TickProfiler.STAGE, this.names[i]);
+			}
+		}
+	}
+
+	/**
+	 * The logger for this class.
+	 */
+	private static final Logger logger = Logger.getLogger(GameService.class.getName());
+
+	/**
+	 * The order in which the stages are run if the services.xml file does not list them.
+	 */
+	private static final String[] DEFAULT_STAGES = { "frontend", "events", "minigames", "world", "synchronize" };
+
 	/**
 	 * The number of times to unregister players per cycle. This is to ensure the saving threads don't get swamped with
 	 * requests and slow everything down.
@@ -34,16 +96,45 @@ public final class GameService extends Service {
 	private static final int UNREGISTERS_PER_CYCLE = 50;
 
 	/**
-	 * The scheduled executor service.
+	 * The game loop, or {@code null} if the service has not been started.
 	 */
-	private final ScheduledExecutorService scheduledExecutor = Executors
-			.newSingleThreadScheduledExecutor(new NamedThreadFactory("GameService"));
+	private GameLoop loop;
 
 	/**
 	 * A queue of players to remove.
 	 */
 	private final Queue<Player> oldPlayers = new ConcurrentLinkedQueue<Player>();
 
+	/**
+	 * A queue of tasks to run at the start of the next pulse.
+	 */
+	private final Queue<Runnable> pendingTasks = new ConcurrentLinkedQueue<Runnable>();
+
+	/**
+	 * The registered stages, by name.
+	 */
+	private final Map<String, PulseStage> stages = new HashMap<String, PulseStage>();
+
+	/**
+	 * The names of the stages in the order they are run, or {@code null} if the service has not been started.
+	 */
+	private List<String> order;
+
+	/**
+	 * The profiler.
+	 */
+	private final TickProfiler profiler = new TickProfiler();
+
+	/**
+	 * The stages which are run each pulse.
+	 */
+	private volatile Pipeline pipeline = new Pipeline(new ArrayList<String>(), new ArrayList<PulseStage>(), profiler);
+
+	/**
+	 * A flag indicating if the configured stages have been checked against the registered ones.
+	 */
+	private boolean verified;
+
 	/**
 	 * The {@link EventHandlerChainGroup}.
 	 */
@@ -60,6 +151,40 @@ public final class GameService extends Service {
 	 */
 	public GameService() throws Exception {
 		init();
+		registerStage("events", new PulseStage() {
+			@Override
+			public void pulse() {
+				handleEvents();
+			}
+		});
+		registerStage("world", new PulseStage() {
+			@Override
+			public void pulse() {
+				World.getWorld().pulse(profiler, loop != null && loop.isShedding());
+			}
+		});
+		registerStage("synchronize", new PulseStage() {
+			@Override
+			public void pulse() {
+				synchronize();
+			}
+		});
+	}
+
+	/**
+	 * Rebuilds the pipeline from the registered stages, in the configured order.
+	 */
+	private void buildPipeline() {
+		List<String> names = new ArrayList<String>();
+		List<PulseStage> pipelineStages = new ArrayList<PulseStage>();
+		for (String name : order) {
+			PulseStage stage = stages.get(name);
+			if (stage != null) {
+				names.add(name);
+				pipelineStages.add(stage);
+			}
+		}
+		pipeline = new Pipeline(names, pipelineStages, profiler);
 	}
 
 	/**
@@ -68,6 +193,10 @@ public final class GameService extends Service {
 	 */
 	public void finalizePlayerUnregistration(Player player) {
 		synchronized (this) {
+			PacketCapture capture = PacketCapture.getActive();
+			if (capture != null) {
+				capture.logout(player);
+			}
 			World.getWorld().unregister(player);
 		}
 	}
@@ -80,6 +209,27 @@ public final class GameService extends Service {
 		return chainGroup;
 	}
 
+	/**
+	 * Gets the stages which are run each pulse.
+	 * @return The stages, by name, in the order they are run.
+	 */
+	public Map<String, PulseStage> getPipeline() {
+		Pipeline pipeline = this.pipeline;
+		Map<String, PulseStage> stages = new LinkedHashMap<String, PulseStage>();
+		for (int i = 0; i < pipeline.stages.length; i++) {
+			stages.put(pipeline.names[i], pipeline.stages[i]);
+		}
+		return stages;
+	}
+
+	/**
+	 * Gets the profiler, which records the time taken by each part of the pulse.
+	 * @return The profiler.
+	 */
+	public TickProfiler getProfiler() {
+		return profiler;
+	}
+
 	/**
 	 * Initializes the game service.
 	 * @throws Exception if an error occurs.
@@ -111,27 +261,56 @@ public final class GameService extends Service {
 	}
 
 	/**
-	 * Called every pulse.
+	 * Handles submitted tasks, unregisters old players and handles the pending events of every player.
+	 */
+	private void handleEvents() {
+		Runnable task;
+		while ((task = pendingTasks.poll()) != null) {
+			task.run();
+		}
+		LoginService loginService = getContext().getService(LoginService.class);
+		int unregistered = 0;
+		Player old;
+		while (unregistered < UNREGISTERS_PER_CYCLE && (old = oldPlayers.poll()) != null) {
+			old.exitInitialEvents();
+			loginService.submitSaveRequest(old.getSession(), old);
+			unregistered++;
+		}
+		for (Player p : World.getWorld().getPlayerRepository()) {
+			GameSession session = p.getSession();
+			if (session != null) {
+				session.handlePendingEvents(chainGroup, profiler);
+			}
+		}
+	}
+
+	/**
+	 * Called every pulse. Runs every stage of the pipeline in order, and records the time each stage took. An
+	 * exception thrown by a stage is logged and does not stop the following stages from running. If a
+	 * {@link PacketCapture} is running, the end of the pulse is recorded in it. The first pulse also warns about any
+	 * configured stage which no service has registered, as every service has been started by then.
 	 */
 	public void pulse() {
 		synchronized (this) {
-			LoginService loginService = getContext().getService(LoginService.class);
-			World world = World.getWorld();
-			int unregistered = 0;
-			Player old;
-			while (unregistered < UNREGISTERS_PER_CYCLE && (old = oldPlayers.poll()) != null) {
-				old.exitInitialEvents();
-				loginService.submitSaveRequest(old.getSession(), old);
-				unregistered++;
-			}
-			for (Player p : world.getPlayerRepository()) {
-				GameSession session = p.getSession();
-				if (session != null) {
-					session.handlePendingEvents(chainGroup);
+			if (!verified) {
+				verifyPipeline();
+				verified = true;
+			}
+			Pipeline pipeline = this.pipeline;
+			long start = System.nanoTime(), stageStart = start;
+			for (int i = 0; i < pipeline.stages.length; i++) {
+				try {
+					pipeline.stages[i].pulse();
+				} catch (RuntimeException e) {
+					logger.log(Level.SEVERE, "Exception during the " + pipeline.names[i] + " stage of the pulse.", e);
 				}
+				stageStart = pipeline.timers[i].recordSince(stageStart);
+			}
+			PacketCapture capture = PacketCapture.getActive();
+			if (capture != null) {
+				capture.pulse();
 			}
-			world.pulse();
-			synchronizer.synchronize();
+			profiler.endPulse(stageStart - start, TimeUnit.MILLISECONDS.toNanos(GameConstants.PULSE_DELAY));
 		}
 	}
 
@@ -142,17 +321,118 @@ public final class GameService extends Service {
 	 */
 	public RegistrationStatus registerPlayer(Player player) {
 		synchronized (this) {
-			return World.getWorld().register(player);
+			RegistrationStatus status = World.getWorld().register(player);
+			PacketCapture capture = PacketCapture.getActive();
+			if (status == RegistrationStatus.OK && capture != null) {
+				capture.login(player);
+			}
+			return status;
+		}
+	}
+
+	/**
+	 * Registers a stage of the pulse, replacing any stage with the same name. The stage is only run if its name is
+	 * listed in the services.xml file.
+	 * @param name The name of the stage.
+	 * @param stage The stage.
+	 */
+	public void registerStage(String name, PulseStage stage) {
+		synchronized (stages) {
+			stages.put(name, stage);
+			if (order != null) {
+				if (!order.contains(name)) {
+					logger.warning("Pulse stage " + name + " is not listed in services.xml and will not be run.");
+				}
+				buildPipeline();
+			}
+		}
+	}
+
+	/**
+	 * Orders the registered stages as the services.xml file lists them, or in the default order if it lists none.
+	 * Stages registered afterwards are added to the pipeline as they are registered. This is called when the service
+	 * is started, and by tools which run the pipeline without starting the game loop.
+	 */
+	public void initPipeline() {
+		synchronized (stages) {
+			order = getContext().getServiceManager().getPulseStages();
+			if (order.isEmpty()) {
+				logger.warning("No pulse stages are listed in services.xml, using the default order.");
+				order = Arrays.asList(DEFAULT_STAGES);
+			}
+			for (String name : stages.keySet()) {
+				if (!order.contains(name)) {
+					logger.warning("Pulse stage " + name + " is not listed in services.xml and will not be run.");
+				}
+			}
+			buildPipeline();
 		}
 	}
 
 	/**
-	 * Starts the game service.
+	 * Sets the client synchronizer, replacing the one the synchronizer.xml file names.
+	 * @param synchronizer The client synchronizer.
+	 */
+	public void setSynchronizer(ClientSynchronizer synchronizer) {
+		this.synchronizer = synchronizer;
+	}
+
+	/**
+	 * Starts the game service, ordering the stages with {@link #initPipeline()} and starting the game loop. The game
+	 * loop is configured by the attributes of the pulse node of the services.xml file: {@code overrun-policy}, one of
+	 * {@code skip} (the default), {@code compress} and {@code catch_up}, {@code catch-up-budget} and {@code adaptive},
+	 * which sheds deferrable scheduled tasks while the loop is behind.
 	 */
 	@Override
 	public void start() {
-		scheduledExecutor.scheduleAtFixedRate(new GamePulseHandler(this), GameConstants.PULSE_DELAY,
-				GameConstants.PULSE_DELAY, TimeUnit.MILLISECONDS);
+		initPipeline();
+		ServiceManager services = getContext().getServiceManager();
+		OverrunPolicy policy = OverrunPolicy.valueOf(services.getPulseSetting("overrun-policy", "skip").toUpperCase());
+		int budget = Integer.parseInt(services.getPulseSetting("catch-up-budget", "2"));
+		boolean adaptive = Boolean.parseBoolean(services.getPulseSetting("adaptive", "true"));
+		loop = new GameLoop(new GamePulseHandler(this), GameConstants.PULSE_DELAY, policy, budget, adaptive, profiler);
+		new NamedThreadFactory("GameService").newThread(loop).start();
+	}
+
+	/**
+	 * Synchronizes the clients with the world, and flushes the updates to every player.
+	 */
+	private void synchronize() {
+		synchronizer.synchronize(profiler);
+		long start = System.nanoTime();
+		for (Player p : World.getWorld().getPlayerRepository()) {
+			p.flushInventoryUpdates();
+			GameSession session = p.getSession();
+			if (session != null) {
+				session.flush();
+			}
+		}
+		profiler.getTimer(TickProfiler.PHASE, "flush").recordSince(start);
+	}
+
+	/**
+	 * Submits a task to be run on the game thread at the start of the next pulse, before any events are handled.
+	 * Returns immediately.
+	 * @param task The task.
+	 */
+	public void submit(Runnable task) {
+		pendingTasks.add(task);
+	}
+
+	/**
+	 * Warns about every configured stage which has not been registered, and so is not run.
+	 */
+	private void verifyPipeline() {
+		synchronized (stages) {
+			if (order == null) {
+				return;
+			}
+			for (String name : order) {
+				if (!stages.containsKey(name)) {
+					logger.warning("Pulse stage " + name + " is listed in services.xml but has not been registered.");
+				}
+			}
+		}
 	}
 
 	/**
@@ -0,0 +1,13 @@
+package org.apollo.game;
+
+/**
+ * A stage of the game pulse. Stages are registered with the {@link GameService} by name and are run one after another
+ * on the game thread, in the order given in the services.xml file.
+ */
+public interface PulseStage {
+
+	/**
+	 * Called every pulse, on the game thread.
+	 */
+	public void pulse();
+}
@@ -3,6 +3,8 @@ package org.apollo.game.action.impl;
 import org.apollo.game.action.DistancedAction;
 import org.apollo.game.model.Character;
 import org.apollo.game.model.Position;
+import org.apollo.game.model.World;
+import org.apollo.game.model.path.Path;
 
 /**
  * An {@link DistancedAction} for when a player follows another player.
@@ -42,7 +44,10 @@ public final class PlayerFollowAction extends DistancedAction<Character> {
 					stop();
 				} else {
 					player.startFacing(other.getIndex());
-					player.getWalkingQueue().addStep(other.getPosition());
+					Path path = World.getWorld().getPathfinder().find(player.getPosition(), other.getPosition(), 1);
+					if (path != null) {
+						player.getWalkingQueue().addPath(path);
+					}
 					player.stopFacing();
 				}
 			}
@@ -3,7 +3,9 @@ package org.apollo.game.command;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.apollo.game.command.impl.CaptureCommandListener;
 import org.apollo.game.command.impl.CreditsCommandListener;
+import org.apollo.game.command.impl.ReloadCommandListener;
 import org.apollo.game.command.impl.ShopCommandListener;
 import org.apollo.game.model.Player;
 
@@ -22,7 +24,9 @@ public final class CommandDispatcher {
 	 * Creates the command dispatcher.
 	 */
 	public CommandDispatcher() {
+		listeners.put("capture", new CaptureCommandListener());
 		listeners.put("credits", new CreditsCommandListener());
+		listeners.put("reload", new ReloadCommandListener());
 		listeners.put("shop", new ShopCommandListener());
 	}
 
@@ -46,4 +50,16 @@ public final class CommandDispatcher {
 	public void register(String command, CommandListener listener) {
 		listeners.put(command.toLowerCase(), listener);
 	}
+
+	/**
+	 * Unregisters a listener, if it is still the one registered with the specified name.
+	 * @param command The command's name.
+	 * @param listener The listener.
+	 */
+	public void unregister(String command, CommandListener listener) {
+		String name = command.toLowerCase();
+		if (listeners.get(name) == listener) {
+			listeners.remove(name);
+		}
+	}
 }
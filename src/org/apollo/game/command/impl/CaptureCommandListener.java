@@ -0,0 +1,89 @@
+package org.apollo.game.command.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apollo.game.command.Command;
+import org.apollo.game.command.PrivilegedCommandListener;
+import org.apollo.game.model.Player;
+import org.apollo.game.model.Player.PrivilegeLevel;
+import org.apollo.game.model.World;
+import org.apollo.net.capture.PacketCapture;
+
+/**
+ * Implements a {@code ::capture} command that starts and stops capturing the inbound packets of every session, so
+ * that the traffic can be replayed by the {@link org.apollo.tools.replay.ReplayHarness}.
+ */
+public final class CaptureCommandListener extends PrivilegedCommandListener {
+
+	/**
+	 * The directory which captures are written to.
+	 */
+	private static final File CAPTURE_DIRECTORY = new File("data/captures");
+
+	/**
+	 * The logger for this class.
+	 */
+	private static final Logger logger = Logger.getLogger(CaptureCommandListener.class.getName());
+
+	/**
+	 * Creates the capture command listener.
+	 */
+	public CaptureCommandListener() {
+		super(PrivilegeLevel.DEVELOPER);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.apollo.game.command.PrivilegedCommandListener#executePrivileged(org.apollo.game.model.Player,
+	 * org.apollo.game.command.Command)
+	 */
+	@Override
+	public void executePrivileged(Player player, Command command) {
+		String[] arguments = command.getArguments();
+		if (arguments.length == 1 && arguments[0].equals("start")) {
+			start(player);
+		} else if (arguments.length == 1 && arguments[0].equals("stop")) {
+			stop(player);
+		} else {
+			player.sendMessage("Syntax: ::capture [start|stop]");
+		}
+	}
+
+	/**
+	 * Starts a capture.
+	 * @param player The player who started it.
+	 */
+	private void start(Player player) {
+		if (PacketCapture.isCapturing()) {
+			player.sendMessage("A capture is already running.");
+			return;
+		}
+		CAPTURE_DIRECTORY.mkdirs();
+		File file = new File(CAPTURE_DIRECTORY, "capture-" + System.currentTimeMillis() + ".cap");
+		try {
+			int release = World.getWorld().getContext().getRelease().getReleaseNumber();
+			PacketCapture.start(file, release);
+			player.sendMessage("Capturing to " + file.getPath() + ".");
+		} catch (IOException e) {
+			logger.log(Level.WARNING, "Failed to start the capture " + file + ".", e);
+			player.sendMessage("Failed to start the capture, see the server log.");
+		}
+	}
+
+	/**
+	 * Stops the running capture.
+	 * @param player The player who stopped it.
+	 */
+	private void stop(Player player) {
+		PacketCapture capture = PacketCapture.getActive();
+		if (capture == null) {
+			player.sendMessage("No capture is running.");
+			return;
+		}
+		capture.stop();
+		player.sendMessage("Captured " + capture.getPulses() + " pulses to " + capture.getFile().getPath() + ".");
+	}
+}
@@ -0,0 +1,39 @@
+package org.apollo.game.command.impl;
+
+import org.apollo.game.command.Command;
+import org.apollo.game.command.PrivilegedCommandListener;
+import org.apollo.game.model.Player;
+import org.apollo.game.model.Player.PrivilegeLevel;
+import org.apollo.game.model.World;
+
+/**
+ * Implements a {@code ::reload} command that reloads a plugin without restarting the server.
+ */
+public final class ReloadCommandListener extends PrivilegedCommandListener {
+
+	/**
+	 * Creates the reload command listener.
+	 */
+	public ReloadCommandListener() {
+		super(PrivilegeLevel.DEVELOPER);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.apollo.game.command.PrivilegedCommandListener#executePrivileged(org.apollo.game.model.Player,
+	 * org.apollo.game.command.Command)
+	 */
+	@Override
+	public void executePrivileged(Player player, Command command) {
+		if (command.getArguments().length != 1) {
+			player.sendMessage("Syntax: ::reload [plugin]");
+			return;
+		}
+		String plugin = command.getArguments()[0];
+		if (World.getWorld().getPluginManager().reload(plugin)) {
+			player.sendMessage("Reloading plugin " + plugin + ", see the server log for the result.");
+		} else {
+			player.sendMessage("There is no plugin named " + plugin + ".");
+		}
+	}
+}
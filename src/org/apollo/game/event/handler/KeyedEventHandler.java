@@ -0,0 +1,81 @@
+package org.apollo.game.event.handler;
+
+import org.apollo.game.event.Event;
+import org.apollo.game.event.handler.chain.EventHandlerChain;
+import org.apollo.game.model.Player;
+import org.apollo.util.IntHashMap;
+
+/**
+ * An {@link EventHandler} which passes each event only to the handlers registered for its key, such as a button or
+ * object id, so that handling an event costs a single lookup however many handlers are registered. The handlers of a
+ * key form their own {@link EventHandlerChain}, and breaking it breaks the chain this handler is part of.
+ * @param <E> The type of event this class handles.
+ */
+public abstract class KeyedEventHandler<E extends Event> extends EventHandler<E> {
+
+	/**
+	 * Combines an option and an id into a single key.
+	 * @param option The option, between 0 and 7 inclusive.
+	 * @param id The id.
+	 * @return The key.
+	 */
+	public static int key(int option, int id) {
+		return id << 3 | option;
+	}
+
+	/**
+	 * The chains of handlers, by key.
+	 */
+	private final IntHashMap<EventHandlerChain<E>> chains = new IntHashMap<EventHandlerChain<E>>();
+
+	/**
+	 * Adds a handler to the end of the chain of the specified key.
+	 * @param key The key.
+	 * @param handler The handler.
+	 */
+	public final void addLast(int key, EventHandler<E> handler) {
+		getChain(key).addLast(handler);
+	}
+
+	/**
+	 * Gets the chain of handlers of the specified key, creating it if it does not exist.
+	 * @param key The key.
+	 * @return The chain.
+	 */
+	public final EventHandlerChain<E> getChain(int key) {
+		EventHandlerChain<E> chain = chains.get(key);
+		if (chain == null) {
+			chain = new EventHandlerChain<E>();
+			chains.put(key, chain);
+		}
+		return chain;
+	}
+
+	/**
+	 * Gets the key of an event.
+	 * @param event The event.
+	 * @return The key, or {@code -1} if the event has none.
+	 */
+	protected abstract int getKey(E event);
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.apollo.game.event.handler.EventHandler#handle(org.apollo.game.event.handler.EventHandlerContext,
+	 * org.apollo.game.model.Player, org.apollo.game.event.Event)
+	 */
+	@Override
+	public final void handle(EventHandlerContext ctx, Player player, E event) {
+		EventHandlerChain<E> chain = chains.get(getKey(event));
+		if (chain != null && !chain.handle(player, event)) {
+			ctx.breakHandlerChain();
+		}
+	}
+
+	/**
+	 * Gets the number of keys which have handlers.
+	 * @return The number of keys.
+	 */
+	public final int size() {
+		return chains.size();
+	}
+}
@@ -1,5 +1,10 @@
 package org.apollo.game.event.handler.chain;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
 import org.apollo.game.event.Event;
 import org.apollo.game.event.handler.EventHandler;
 import org.apollo.game.event.handler.EventHandlerContext;
@@ -15,7 +20,7 @@ public final class EventHandlerChain<E extends Event> {
 	/**
 	 * The handlers.
 	 */
-	private EventHandler<E>[] handlers;
+	private volatile EventHandler<E>[] handlers;
 
 	/**
 	 * Creates the event handler chain.
@@ -42,8 +47,9 @@ public final class EventHandlerChain<E extends Event> {
 	 * Handles the event, passing it down the chain until the chain is broken or the event reaches the end of the chain.
 	 * @param player The player.
 	 * @param event The event.
+	 * @return {@code true} if the event reached the end of the chain, {@code false} if the chain was broken.
 	 */
-	public void handle(Player player, E event) {
+	public boolean handle(Player player, E event) {
 		final boolean[] running = new boolean[1];
 		running[0] = true;
 		EventHandlerContext ctx = new EventHandlerContext() {
@@ -56,8 +62,41 @@ public final class EventHandlerChain<E extends Event> {
 		for (EventHandler<E> handler : handlers) {
 			handler.handle(ctx, player, event);
 			if (!running[0]) {
-				break;
+				return false;
 			}
 		}
+		return true;
+	}
+
+	/**
+	 * Replaces handlers in this chain. The replacement handlers take the place of the first of the old handlers, or
+	 * are added to the end of the chain if none of them are in it. The chain is swapped in a single write, so an event
+	 * which is being handled sees either all of the old handlers or all of the new ones.
+	 * @param old The handlers to remove.
+	 * @param replacement The handlers to add.
+	 */
+	public void replace(Collection<? extends EventHandler<E>> old, Collection<? extends EventHandler<E>> replacement) {
+		List<EventHandler<E>> list = new ArrayList<EventHandler<E>>(handlers.length + replacement.size());
+		boolean replaced = false;
+		for (EventHandler<E> handler : handlers) {
+			if (!old.contains(handler)) {
+				list.add(handler);
+			} else if (!replaced) {
+				list.addAll(replacement);
+				replaced = true;
+			}
+		}
+		if (!replaced) {
+			list.addAll(replacement);
+		}
+		handlers = list.toArray(Arrays.copyOf(handlers, list.size()));
+	}
+
+	/**
+	 * Gets the number of handlers in this chain.
+	 * @return The number of handlers.
+	 */
+	public int size() {
+		return handlers.length;
 	}
 }
@@ -1,5 +1,7 @@
 package org.apollo.game.event.handler.chain;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 import org.apollo.game.event.Event;
@@ -33,4 +35,22 @@ public final class EventHandlerChainGroup {
 	public <E extends Event> EventHandlerChain<E> getChain(Class<E> clazz) {
 		return (EventHandlerChain<E>) chains.get(clazz);
 	}
+
+	/**
+	 * Gets the {@link EventHandlerChain}s of an event class and of all of its subclasses, which together are passed
+	 * every event of that class.
+	 * @param <E> The type of event.
+	 * @param clazz The event class.
+	 * @return The list of chains, which is empty if none were found.
+	 */
+	@SuppressWarnings("unchecked")
+	public <E extends Event> List<EventHandlerChain<? extends E>> getChains(Class<E> clazz) {
+		List<EventHandlerChain<? extends E>> matches = new ArrayList<EventHandlerChain<? extends E>>();
+		for (Map.Entry<Class<? extends Event>, EventHandlerChain<?>> entry : chains.entrySet()) {
+			if (clazz.isAssignableFrom(entry.getKey())) {
+				matches.add((EventHandlerChain<? extends E>) entry.getValue());
+			}
+		}
+		return matches;
+	}
 }
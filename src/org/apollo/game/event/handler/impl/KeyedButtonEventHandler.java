@@ -0,0 +1,19 @@
+package org.apollo.game.event.handler.impl;
+
+import org.apollo.game.event.handler.KeyedEventHandler;
+import org.apollo.game.event.impl.ButtonEvent;
+
+/**
+ * A {@link KeyedEventHandler} which dispatches {@link ButtonEvent}s by interface id.
+ */
+public final class KeyedButtonEventHandler extends KeyedEventHandler<ButtonEvent> {
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.apollo.game.event.handler.KeyedEventHandler#getKey(org.apollo.game.event.Event)
+	 */
+	@Override
+	protected int getKey(ButtonEvent event) {
+		return event.getInterfaceId();
+	}
+}
@@ -0,0 +1,19 @@
+package org.apollo.game.event.handler.impl;
+
+import org.apollo.game.event.handler.KeyedEventHandler;
+import org.apollo.game.event.impl.ItemOptionEvent;
+
+/**
+ * A {@link KeyedEventHandler} which dispatches {@link ItemOptionEvent}s by option and item id.
+ */
+public final class KeyedItemOptionEventHandler extends KeyedEventHandler<ItemOptionEvent> {
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.apollo.game.event.handler.KeyedEventHandler#getKey(org.apollo.game.event.Event)
+	 */
+	@Override
+	protected int getKey(ItemOptionEvent event) {
+		return key(event.getOption(), event.getId());
+	}
+}
@@ -0,0 +1,21 @@
+package org.apollo.game.event.handler.impl;
+
+import org.apollo.game.event.handler.KeyedEventHandler;
+import org.apollo.game.event.impl.NpcOptionEvent;
+import org.apollo.game.model.Npc;
+
+/**
+ * A {@link KeyedEventHandler} which dispatches {@link NpcOptionEvent}s by option and NPC id.
+ */
+public final class KeyedNpcOptionEventHandler extends KeyedEventHandler<NpcOptionEvent> {
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.apollo.game.event.handler.KeyedEventHandler#getKey(org.apollo.game.event.Event)
+	 */
+	@Override
+	protected int getKey(NpcOptionEvent event) {
+		Npc npc = event.getNpc();
+		return npc == null ? -1 : key(event.getOption(), npc.getId());
+	}
+}
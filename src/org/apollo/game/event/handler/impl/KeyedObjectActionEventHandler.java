@@ -0,0 +1,19 @@
+package org.apollo.game.event.handler.impl;
+
+import org.apollo.game.event.handler.KeyedEventHandler;
+import org.apollo.game.event.impl.ObjectActionEvent;
+
+/**
+ * A {@link KeyedEventHandler} which dispatches {@link ObjectActionEvent}s by option and object id.
+ */
+public final class KeyedObjectActionEventHandler extends KeyedEventHandler<ObjectActionEvent> {
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.apollo.game.event.handler.KeyedEventHandler#getKey(org.apollo.game.event.Event)
+	 */
+	@Override
+	protected int getKey(ObjectActionEvent event) {
+		return key(event.getOption(), event.getId());
+	}
+}
@@ -20,7 +20,7 @@ public final class PickupItemHandler extends EventHandler<PickupItemEvent> {
 	 */
 	@Override
 	public void handle(EventHandlerContext ctx, Player player, PickupItemEvent event) {
-		Position position = new Position(event.getX(), event.getY(), player.getPosition().getHeight());
+		Position position = Position.create(event.getX(), event.getY(), player.getPosition().getHeight());
 		GroundItem.getInstance().pickup(player, position, event.getItemId());
 	}
 }
\ No newline at end of file
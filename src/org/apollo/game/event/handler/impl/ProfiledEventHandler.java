@@ -0,0 +1,49 @@
+package org.apollo.game.event.handler.impl;
+
+import org.apollo.game.event.Event;
+import org.apollo.game.event.handler.EventHandler;
+import org.apollo.game.event.handler.EventHandlerContext;
+import org.apollo.game.model.Player;
+import org.apollo.game.profile.TickProfiler.Timer;
+
+/**
+ * An {@link EventHandler} which records the time another handler takes, such as the handlers of a plugin.
+ * @param <E> The type of event this class handles.
+ */
+public final class ProfiledEventHandler<E extends Event> extends EventHandler<E> {
+
+	/**
+	 * The handler.
+	 */
+	private final EventHandler<E> handler;
+
+	/**
+	 * The timer.
+	 */
+	private final Timer timer;
+
+	/**
+	 * Creates the profiled event handler.
+	 * @param handler The handler.
+	 * @param timer The timer.
+	 */
+	public ProfiledEventHandler(EventHandler<E> handler, Timer timer) {
+		this.handler = handler;
+		this.timer = timer;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.apollo.game.event.handler.EventHandler#handle(org.apollo.game.event.handler.EventHandlerContext,
+	 * org.apollo.game.model.Player, org.apollo.game.event.Event)
+	 */
+	@Override
+	public void handle(EventHandlerContext ctx, Player player, E event) {
+		long start = System.nanoTime();
+		try {
+			handler.handle(ctx, player, event);
+		} finally {
+			timer.recordSince(start);
+		}
+	}
+}
@@ -21,15 +21,15 @@ public final class WalkEventHandler extends EventHandler<WalkEvent> {
 	@Override
 	public void handle(EventHandlerContext ctx, Player player, WalkEvent event) {
 		WalkingQueue queue = player.getWalkingQueue();
-		Position[] steps = event.getSteps();
+		int[] steps = event.getSteps();
 		for (int i = 0; i < steps.length; i++) {
-			Position step = steps[i];
+			int x = Position.unpackX(steps[i]), y = Position.unpackY(steps[i]);
 			if (i == 0) {
-				if (!queue.addFirstStep(step)) {
+				if (!queue.addFirstStep(x, y)) {
 					return; /* ignore packet */
 				}
-			} else {
-				queue.addStep(step);
+			} else if (!queue.addStep(x, y)) {
+				break; /* the rest of the path is truncated */
 			}
 		}
 		if (!player.getWalkingQueue().getRunning()) {
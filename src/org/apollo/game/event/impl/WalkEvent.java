@@ -10,9 +10,9 @@ import org.apollo.game.model.Position;
 public final class WalkEvent extends Event {
 
 	/**
-	 * The steps.
+	 * The steps, packed with {@link Position#pack(int, int, int)}.
 	 */
-	private final Position[] steps;
+	private final int[] steps;
 
 	/**
 	 * The running flag.
@@ -21,10 +21,10 @@ public final class WalkEvent extends Event {
 
 	/**
 	 * Creates the event.
-	 * @param steps The steps array.
+	 * @param steps The steps array, packed with {@link Position#pack(int, int, int)}.
 	 * @param run The run flag.
 	 */
-	public WalkEvent(Position[] steps, boolean run) {
+	public WalkEvent(int[] steps, boolean run) {
 		if (steps.length < 0) {
 			throw new IllegalArgumentException("number of steps must not be negative");
 		}
@@ -34,9 +34,9 @@ public final class WalkEvent extends Event {
 
 	/**
 	 * Gets the steps array.
-	 * @return An array of steps.
+	 * @return An array of steps, packed with {@link Position#pack(int, int, int)}.
 	 */
-	public Position[] getSteps() {
+	public int[] getSteps() {
 		return steps;
 	}
 
@@ -2,31 +2,31 @@ package org.apollo.game.minigame;
 
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
 import org.apollo.Service;
 import org.apollo.game.GameConstants;
+import org.apollo.game.GameService;
+import org.apollo.game.PulseStage;
 import org.apollo.game.model.Player;
-import org.apollo.util.NamedThreadFactory;
 
 /**
- * The {@link MinigameService} class schedules and manages the execution of the {@link MinigamePulseHandler} class.
+ * The {@link MinigameService} class manages the current minigames, which are pulsed by the {@code minigames} stage of
+ * the game pulse. As minigames count their timers in seconds, the stage only pulses them once every
+ * {@link GameConstants#MINIGAME_DELAY} milliseconds, keeping track of the time so that the cadence does not drift.
  * @author Steve
  */
-public final class MinigameService extends Service {
+public final class MinigameService extends Service implements PulseStage {
 
 	/**
-	 * The scheduled executor service.
+	 * A queue of the current minigames.
 	 */
-	private final ScheduledExecutorService scheduledExecutor = Executors
-			.newSingleThreadScheduledExecutor(new NamedThreadFactory("MinigameService"));
+	private final Queue<Minigame> minigames = new ConcurrentLinkedQueue<Minigame>();
 
 	/**
-	 * A queue of the current minigames.
+	 * The time at which the minigames are next pulsed, from {@link System#nanoTime()}.
 	 */
-	private final Queue<Minigame> minigames = new ConcurrentLinkedQueue<Minigame>();
+	private long nextPulse;
 
 	/**
 	 * Adds a minigame.
@@ -42,30 +42,34 @@ public final class MinigameService extends Service {
 	 * @deprecated Only allow exitInitialEvents() to access this.
 	 */
 	public void playerDisconnected(Player player) {
-		synchronized (this) {
-			for (Minigame minigame : minigames) {
-				if (minigame != null) {
-					if (minigame.getTeam(player) != -1) {
-						minigame.playerDisconnected(player);
-					}
-				} else {
-					removeMinigame(minigame);
+		for (Minigame minigame : minigames) {
+			if (minigame != null) {
+				if (minigame.getTeam(player) != -1) {
+					minigame.playerDisconnected(player);
 				}
+			} else {
+				removeMinigame(minigame);
 			}
 		}
 	}
 
-	/**
-	 * Called every pulse.
+	/*
+	 * (non-Javadoc)
+	 * @see org.apollo.game.PulseStage#pulse()
 	 */
+	@Override
 	public void pulse() {
-		synchronized (this) {
-			for (Minigame minigame : minigames) {
-				if (minigame != null) {
-					minigame.pulse();
-				} else {
-					removeMinigame(minigame);
-				}
+		long now = System.nanoTime();
+		long delay = TimeUnit.MILLISECONDS.toNanos(GameConstants.MINIGAME_DELAY);
+		if (now - nextPulse < 0) {
+			return;
+		}
+		nextPulse = now - nextPulse > delay ? now + delay : nextPulse + delay;
+		for (Minigame minigame : minigames) {
+			if (minigame != null) {
+				minigame.pulse();
+			} else {
+				removeMinigame(minigame);
 			}
 		}
 	}
@@ -83,7 +87,7 @@ public final class MinigameService extends Service {
 	 */
 	@Override
 	public void start() {
-		scheduledExecutor.scheduleAtFixedRate(new MinigamePulseHandler(this), GameConstants.MINIGAME_DELAY,
-				GameConstants.MINIGAME_DELAY, TimeUnit.MILLISECONDS);
+		nextPulse = System.nanoTime();
+		getContext().getService(GameService.class).registerStage("minigames", this);
 	}
 }
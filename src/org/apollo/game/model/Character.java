@@ -2,12 +2,14 @@ package org.apollo.game.model;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.logging.Logger;
 
 import org.apollo.game.action.Action;
 import org.apollo.game.event.Event;
 import org.apollo.game.event.impl.DamageEvent;
 import org.apollo.game.event.impl.ServerMessageEvent;
 import org.apollo.game.model.Inventory.StackMode;
+import org.apollo.game.model.region.RegionManager;
 import org.apollo.game.scheduling.impl.SkillNormalizationTask;
 import org.apollo.game.sync.block.SynchronizationBlock;
 import org.apollo.game.sync.block.SynchronizationBlockSet;
@@ -19,6 +21,11 @@ import org.apollo.util.CharacterRepository;
  */
 public abstract class Character {
 
+	/**
+	 * The logger for this class.
+	 */
+	private static final Logger logger = Logger.getLogger(Character.class.getName());
+
 	/**
 	 * The index of this character in the {@link CharacterRepository} it belongs to.
 	 */
@@ -394,11 +401,22 @@ public abstract class Character {
 	}
 
 	/**
-	 * Sets the position of this character.
+	 * Sets the position of this character. A position outside of the map is rejected, and the character stays where it
+	 * is.
 	 * @param position The position of this character.
+	 * @return {@code true} if the character was moved, {@code false} if the position was rejected.
 	 */
-	public void setPosition(Position position) {
+	public boolean setPosition(Position position) {
+		if (!RegionManager.isInBounds(position)) {
+			logger.warning("Rejected moving " + this + " to " + position + ", which is outside of the map.");
+			return false;
+		}
+		Position old = this.position;
 		this.position = position;
+		if (isActive()) {
+			World.getWorld().getRegionManager().move(this, old, position);
+		}
+		return true;
 	}
 
 	/**
@@ -480,8 +498,10 @@ public abstract class Character {
 	 * @param action True if starting the teleport action, false if not.
 	 */
 	public void teleport(Position position, boolean action) {
+		if (!setPosition(position)) {
+			return;
+		}
 		this.teleporting = true;
-		this.position = position;
 		this.walkingQueue.clear();
 		this.stopAction(); // TODO do it on any movement is a must.. walking
 		// queue perhaps?
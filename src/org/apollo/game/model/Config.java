@@ -50,4 +50,15 @@ public class Config {
 	 * Can yell.
 	 */
 	public static boolean SERVER_YELL = true;
+
+	/**
+	 * Coalesces the outbound events of each session into a single write per pulse.
+	 */
+	public static boolean SERVER_COALESCE_OUTBOUND = true;
+
+	/**
+	 * The number of bytes per second which the update server may write to 'on-demand' clients, or {@code 0} if the
+	 * rate is not limited.
+	 */
+	public static int SERVER_UPDATE_BANDWIDTH = 0;
 }
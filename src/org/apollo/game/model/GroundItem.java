@@ -1,16 +1,13 @@
 package org.apollo.game.model;
 
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 
 import org.apollo.game.event.impl.GroundItemEvent;
 import org.apollo.game.event.impl.PositionEvent;
 import org.apollo.game.event.impl.RemoveGroundItemEvent;
 import org.apollo.game.scheduling.impl.ProcessGroundItemsTask;
+import org.apollo.util.IntHashMap;
 
 /**
  * An task for creating and destorying ground items.
@@ -60,9 +57,9 @@ public class GroundItem {
 	private int pulses;
 
 	/**
-	 * The map of the list of ground items on a position.
+	 * The map of the list of ground items on a position, keyed by {@link Position#pack() packed} position.
 	 */
-	private final Map<Position, List<GroundItem>> groundItems = new HashMap<Position, List<GroundItem>>();
+	private final IntHashMap<List<GroundItem>> groundItems = new IntHashMap<List<GroundItem>>();
 
 	/**
 	 * Prevent instantation.
@@ -121,9 +118,11 @@ public class GroundItem {
 	 * @param groundItem The ground item to unregister.
 	 */
 	public void delete(GroundItem groundItem) {
-		getItems().get(groundItem.getPosition()).remove(groundItem);
-		if (getItems().get(groundItem.getPosition()).isEmpty()) {
-			groundItems.remove(groundItem.getPosition());
+		int key = groundItem.getPosition().pack();
+		List<GroundItem> items = groundItems.get(key);
+		items.remove(groundItem);
+		if (items.isEmpty()) {
+			groundItems.remove(key);
 		}
 		for (Player player : World.getWorld().getPlayerRepository()) {
 			player.send(new PositionEvent(player.getPosition(), groundItem.getPosition()));
@@ -154,12 +153,10 @@ public class GroundItem {
 	public GroundItem get(Position p) {
 		int findx = p.getX() - 8 * p.getTopLeftRegionX();
 		int findy = p.getY() - 8 * p.getTopLeftRegionY();
-		Collection<List<GroundItem>> collection = getItems().values();
-		Iterator<List<GroundItem>> iterator = collection.iterator();
-		while (iterator.hasNext()) {
-			List<GroundItem> list = iterator.next();
+		for (int slot = 0; slot < groundItems.capacity(); slot++) {
+			List<GroundItem> list = groundItems.valueAt(slot);
 			if (list == null) {
-				return null;
+				continue;
 			}
 			for (int i = 0; i < list.size(); i++) {
 				GroundItem g = list.get(i);
@@ -193,7 +190,7 @@ public class GroundItem {
 	 * Get the ground items.
 	 * @return {@link GroundItem}'s
 	 */
-	public Map<Position, List<GroundItem>> getItems() {
+	public IntHashMap<List<GroundItem>> getItems() {
 		return groundItems;
 	}
 
@@ -218,12 +215,10 @@ public class GroundItem {
 	 * @param player the player
 	 */
 	public void login(Player player) {
-		Collection<List<GroundItem>> collection = getItems().values();
-		Iterator<List<GroundItem>> iterator = collection.iterator();
-		while (iterator.hasNext()) {
-			List<GroundItem> list = iterator.next();
+		for (int slot = 0; slot < groundItems.capacity(); slot++) {
+			List<GroundItem> list = groundItems.valueAt(slot);
 			if (list == null) {
-				return;
+				continue;
 			}
 			for (int i = 0; i < list.size(); i++) {
 				GroundItem g = list.get(i);
@@ -276,10 +271,13 @@ public class GroundItem {
 	 * @param item the item
 	 */
 	public void updateMap(GroundItem g, Item item) {
-		if (groundItems.get(g.getPosition()) == null) {
-			groundItems.put(g.getPosition(), new ArrayList<GroundItem>());
+		int key = g.getPosition().pack();
+		List<GroundItem> items = groundItems.get(key);
+		if (items == null) {
+			items = new ArrayList<GroundItem>();
+			groundItems.put(key, items);
 		}
-		groundItems.get(g.getPosition()).add(g);
+		items.add(g);
 		processTaskCheck();
 	}
 }
\ No newline at end of file
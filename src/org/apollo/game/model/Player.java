@@ -1,6 +1,8 @@
 package org.apollo.game.model;
 
 import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Queue;
 
 import org.apollo.game.action.impl.TeleportAction;
@@ -111,6 +113,12 @@ public final class Player extends Character {
 	 */
 	private final Queue<org.apollo.game.event.Event> queuedEvents = new ArrayDeque<org.apollo.game.event.Event>();
 
+	/**
+	 * The inventory synchronization listeners which are waiting to be flushed.
+	 */
+	private final List<SynchronizationInventoryListener> pendingInventoryUpdates =
+			new ArrayList<SynchronizationInventoryListener>();
+
 	/**
 	 * The player's credentials.
 	 */
@@ -269,6 +277,16 @@ public final class Player extends Character {
 		excessivePlayers = true;
 	}
 
+	/**
+	 * Sends the inventory updates which were queued during this pulse.
+	 */
+	public void flushInventoryUpdates() {
+		for (int i = 0; i < pendingInventoryUpdates.size(); i++) {
+			pendingInventoryUpdates.get(i).flush();
+		}
+		pendingInventoryUpdates.clear();
+	}
+
 	/**
 	 * Gets the player's appearance.
 	 * @return The appearance.
@@ -577,6 +595,14 @@ public final class Player extends Character {
 		currentSound = id;
 	}
 
+	/**
+	 * Queues an inventory synchronization listener to be flushed at the end of the pulse.
+	 * @param listener The listener.
+	 */
+	public void queueInventoryUpdate(SynchronizationInventoryListener listener) {
+		pendingInventoryUpdates.add(listener);
+	}
+
 	/**
 	 * Resets the excessive players flag.
 	 */
@@ -17,14 +17,152 @@ public final class Position {
 	public static final int MAX_DISTANCE = 15;
 
 	/**
-	 * Creates a location.
+	 * The base two logarithm of the number of positions which are cached by {@link #create(int, int, int)}.
+	 */
+	private static final int CACHE_BITS = 13;
+
+	/**
+	 * The cache of recently created positions, indexed by a hash of their packed form. Positions are immutable, so
+	 * racing threads can at worst replace each other's entries.
+	 */
+	private static final Position[] cache = new Position[1 << CACHE_BITS];
+
+	/**
+	 * Gets or creates a position. Positions which were recently created through this method are reused, which keeps
+	 * hot paths such as walking from allocating a new position for every tile.
 	 * @param x The x coordinate.
 	 * @param y The y coordinate.
 	 * @param z The z coordinate.
 	 * @return The location.
 	 */
 	public static Position create(int x, int y, int z) {
-		return new Position(x, y, z);
+		int packed = pack(x, y, z);
+		int index = (packed * 0x9E3779B9) >>> (32 - CACHE_BITS);
+		Position position = cache[index];
+		if (position == null || position.x != x || position.y != y || position.height != z) {
+			position = new Position(x, y, z);
+			cache[index] = position;
+		}
+		return position;
+	}
+
+	/**
+	 * Gets the distance between two packed positions. Only X and Y are considered (i.e. 2 dimensions).
+	 * @param first The first packed position.
+	 * @param second The second packed position.
+	 * @return The distance.
+	 * @see #getDistance(Position)
+	 */
+	public static int getDistance(int first, int second) {
+		int deltaX = unpackX(first) - unpackX(second);
+		int deltaY = unpackY(first) - unpackY(second);
+		return (int) Math.ceil(Math.sqrt(deltaX * deltaX + deltaY * deltaY));
+	}
+
+	/**
+	 * Gets the local x coordinate of a packed position inside the region of a packed base position.
+	 * @param packed The packed position.
+	 * @param base The packed base position.
+	 * @return The local x coordinate.
+	 * @see #getLocalX(Position)
+	 */
+	public static int getLocalX(int packed, int base) {
+		return unpackX(packed) - (getRegionX(base) - 6) * 8;
+	}
+
+	/**
+	 * Gets the local y coordinate of a packed position inside the region of a packed base position.
+	 * @param packed The packed position.
+	 * @param base The packed base position.
+	 * @return The local y coordinate.
+	 * @see #getLocalY(Position)
+	 */
+	public static int getLocalY(int packed, int base) {
+		return unpackY(packed) - (getRegionY(base) - 6) * 8;
+	}
+
+	/**
+	 * Gets the x coordinate of the (central) region containing a packed position.
+	 * @param packed The packed position.
+	 * @return The region x coordinate.
+	 * @see #getCentralRegionX()
+	 */
+	public static int getRegionX(int packed) {
+		return unpackX(packed) >> 3;
+	}
+
+	/**
+	 * Gets the y coordinate of the (central) region containing a packed position.
+	 * @param packed The packed position.
+	 * @return The region y coordinate.
+	 * @see #getCentralRegionY()
+	 */
+	public static int getRegionY(int packed) {
+		return unpackY(packed) >> 3;
+	}
+
+	/**
+	 * Checks if two packed positions are on the same height level and within distance of each other.
+	 * @param first The first packed position.
+	 * @param second The second packed position.
+	 * @param distance The distance.
+	 * @return {@code true} if so, {@code false} if not.
+	 */
+	public static boolean isWithinDistance(int first, int second, int distance) {
+		if (unpackHeight(first) != unpackHeight(second)) {
+			return false;
+		}
+		int deltaX = Math.abs(unpackX(first) - unpackX(second));
+		int deltaY = Math.abs(unpackY(first) - unpackY(second));
+		return deltaX <= distance && deltaY <= distance;
+	}
+
+	/**
+	 * Packs coordinates into a single integer: two bits of height, followed by fifteen bits each of y and x. This is
+	 * also the hash code of the equivalent position.
+	 * @param x The x coordinate.
+	 * @param y The y coordinate.
+	 * @param height The height level.
+	 * @return The packed position.
+	 */
+	public static int pack(int x, int y, int height) {
+		return ((height << 30) & 0xC0000000) | ((y << 15) & 0x3FFF8000) | (x & 0x7FFF);
+	}
+
+	/**
+	 * Unpacks a packed position.
+	 * @param packed The packed position.
+	 * @return The position.
+	 */
+	public static Position unpack(int packed) {
+		return create(unpackX(packed), unpackY(packed), unpackHeight(packed));
+	}
+
+	/**
+	 * Gets the height level of a packed position.
+	 * @param packed The packed position.
+	 * @return The height level.
+	 */
+	public static int unpackHeight(int packed) {
+		return packed >>> 30;
+	}
+
+	/**
+	 * Gets the x coordinate of a packed position.
+	 * @param packed The packed position.
+	 * @return The x coordinate.
+	 */
+	public static int unpackX(int packed) {
+		return packed & 0x7FFF;
+	}
+
+	/**
+	 * Gets the y coordinate of a packed position.
+	 * @param packed The packed position.
+	 * @return The y coordinate.
+	 */
+	public static int unpackY(int packed) {
+		return (packed >> 15) & 0x7FFF;
 	}
 
 	/**
@@ -170,8 +308,8 @@ public final class Position {
 	 * @return The longest horizontal or vertical delta.
 	 */
 	public int getLongestDelta(Position other) {
-		int deltaX = x - other.x;
-		int deltaY = y - other.y;
+		int deltaX = Math.abs(x - other.x);
+		int deltaY = Math.abs(y - other.y);
 		return Math.max(deltaX, deltaY);
 	}
 
@@ -229,7 +367,7 @@ public final class Position {
 	 */
 	@Override
 	public int hashCode() {
-		return ((height << 30) & 0xC0000000) | ((y << 15) & 0x3FFF8000) | (x & 0x7FFF);
+		return pack();
 	}
 
 	/**
@@ -244,6 +382,15 @@ public final class Position {
 		return deltaX <= distance && deltaY <= distance;
 	}
 
+	/**
+	 * Packs this position into a single integer.
+	 * @return The packed position.
+	 * @see #pack(int, int, int)
+	 */
+	public int pack() {
+		return pack(x, y, height);
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see java.lang.Object#toString()
@@ -1,57 +1,74 @@
 package org.apollo.game.model;
 
-import java.util.ArrayDeque;
-import java.util.Deque;
-import java.util.Queue;
-
 import org.apollo.game.event.impl.UpdateRunEnergyEvent;
+import org.apollo.game.model.path.Path;
+import org.apollo.game.model.region.CollisionMap;
 
 /**
  * A queue of {@link Direction}s which a {@link Character} will follow.
+ * <p>
+ * Steps are stored packed into {@code int}s (the direction, x and y coordinates) in fixed ring buffers, so queueing a
+ * step never allocates. Steps which the client requests are verified against the {@link CollisionMap} while this
+ * queue is verifying, and at most {@link #MAXIMUM_STEPS_PER_PULSE} of them are considered each pulse: once a step is
+ * rejected, the remaining steps of that walk request are discarded.
  * @author Graham
  */
 public final class WalkingQueue {
 
 	/**
-	 * Represents a single point in the queue.
-	 * @author Graham
+	 * The maximum size of the queue. If any additional steps are added, they are discarded.
 	 */
-	private static final class Point {
+	private static final int MAXIMUM_SIZE = 128;
 
-		/**
-		 * The point's position.
-		 */
-		private final Position position;
+	/**
+	 * The maximum number of client steps which are verified each pulse. The minimap reaches about 20 tiles from the
+	 * player, so this leaves room for a walk with detours, while a client which sends many walk requests in one pulse
+	 * cannot make the server check more than this many steps.
+	 */
+	private static final int MAXIMUM_STEPS_PER_PULSE = 64;
 
-		/**
-		 * The direction to walk to this point.
-		 */
-		private final Direction direction;
+	/**
+	 * The directions, indexed by ordinal.
+	 */
+	private static final Direction[] DIRECTIONS = Direction.values();
 
-		/**
-		 * Creates a point.
-		 * @param position The position.
-		 * @param direction The direction.
-		 */
-		public Point(Position position, Direction direction) {
-			this.position = position;
-			this.direction = direction;
-		}
+	/**
+	 * Gets the direction of a packed step.
+	 * @param step The packed step.
+	 * @return The direction.
+	 */
+	private static Direction getDirection(int step) {
+		return DIRECTIONS[step >>> 28];
+	}
 
-		/*
-		 * (non-Javadoc)
-		 * @see java.lang.Object#toString()
-		 */
-		@Override
-		public String toString() {
-			return Point.class.getName() + " [direction=" + direction + ", position=" + position + "]";
-		}
+	/**
+	 * Gets the x coordinate of a packed step.
+	 * @param step The packed step.
+	 * @return The x coordinate.
+	 */
+	private static int getX(int step) {
+		return (step >> 14) & 0x3FFF;
 	}
 
 	/**
-	 * The maximum size of the queue. If any additional steps are added, they are discarded.
+	 * Gets the y coordinate of a packed step.
+	 * @param step The packed step.
+	 * @return The y coordinate.
 	 */
-	private static final int MAXIMUM_SIZE = 128;
+	private static int getY(int step) {
+		return step & 0x3FFF;
+	}
+
+	/**
+	 * Packs a step into an integer.
+	 * @param x The x coordinate.
+	 * @param y The y coordinate.
+	 * @param direction The direction to walk to the step.
+	 * @return The packed step.
+	 */
+	private static int pack(int x, int y, Direction direction) {
+		return direction.ordinal() << 28 | (x & 0x3FFF) << 14 | y & 0x3FFF;
+	}
 
 	/**
 	 * The character whose walking queue this is.
@@ -59,14 +76,49 @@ public final class WalkingQueue {
 	private final Character character;
 
 	/**
-	 * The queue of directions.
+	 * The ring buffer of queued steps.
+	 */
+	private final int[] points = new int[MAXIMUM_SIZE];
+
+	/**
+	 * The index of the first queued step.
+	 */
+	private int head;
+
+	/**
+	 * The number of queued steps.
+	 */
+	private int size;
+
+	/**
+	 * The steps which were queued since the queue was last replaced, used to connect a lagging client.
+	 */
+	private final int[] oldPoints = new int[MAXIMUM_SIZE];
+
+	/**
+	 * The number of old steps.
+	 */
+	private int oldSize;
+
+	/**
+	 * The steps which are walked back over when connecting a lagging client.
+	 */
+	private final int[] travelBack = new int[MAXIMUM_SIZE];
+
+	/**
+	 * Flag indicating if client steps are checked against the collision map.
+	 */
+	private boolean verifying = true;
+
+	/**
+	 * Flag indicating if a step of the current walk request was rejected.
 	 */
-	private final Deque<Point> points = new ArrayDeque<Point>();
+	private boolean rejected;
 
 	/**
-	 * The old queue of directions.
+	 * The number of client steps which may still be verified this pulse.
 	 */
-	private final Deque<Point> oldPoints = new ArrayDeque<Point>();
+	private int budget = MAXIMUM_STEPS_PER_PULSE;
 
 	/**
 	 * Flag indicating if this queue (only) should be ran.
@@ -88,71 +140,132 @@ public final class WalkingQueue {
 
 	/**
 	 * Adds the first step to the queue, attempting to connect the server and client position by looking at the previous
-	 * queue.
-	 * @param clientConnectionPosition The first step.
+	 * queue. This starts a new walk request, whose following steps are added with {@link #addStep(int, int)}.
+	 * @param x The x coordinate of the first step.
+	 * @param y The y coordinate of the first step.
 	 * @return {@code true} if the queues could be connected correctly, {@code false} if not.
 	 */
-	public boolean addFirstStep(Position clientConnectionPosition) {
+	public boolean addFirstStep(int x, int y) {
 		Position serverPosition = character.getPosition();
-		int deltaX = clientConnectionPosition.getX() - serverPosition.getX();
-		int deltaY = clientConnectionPosition.getY() - serverPosition.getY();
+		int serverX = serverPosition.getX();
+		int serverY = serverPosition.getY();
+		rejected = false;
+		int deltaX = x - serverX;
+		int deltaY = y - serverY;
 		if (Direction.isConnectable(deltaX, deltaY)) {
-			points.clear();
-			oldPoints.clear();
-			addStep(clientConnectionPosition);
+			clear();
+			addStep(x, y);
 			return true;
 		}
-		Queue<Position> travelBackQueue = new ArrayDeque<Position>();
-		Point oldPoint;
-		while ((oldPoint = oldPoints.pollLast()) != null) {
-			Position oldPosition = oldPoint.position;
-			deltaX = oldPosition.getX() - serverPosition.getX();
-			deltaY = oldPosition.getX() - serverPosition.getY();
-			travelBackQueue.add(oldPosition);
+		int travelBackSize = 0;
+		for (int i = oldSize - 1; i >= 0; i--) {
+			int oldPoint = oldPoints[i];
+			deltaX = getX(oldPoint) - serverX;
+			deltaY = getY(oldPoint) - serverY;
+			travelBack[travelBackSize++] = oldPoint;
 			if (Direction.isConnectable(deltaX, deltaY)) {
-				points.clear();
-				oldPoints.clear();
-				for (Position travelBackPosition : travelBackQueue) {
-					addStep(travelBackPosition);
+				clear();
+				for (int j = 0; j < travelBackSize; j++) {
+					addStep(getX(travelBack[j]), getY(travelBack[j]));
 				}
-				addStep(clientConnectionPosition);
+				addStep(x, y);
 				return true;
 			}
 		}
-		oldPoints.clear();
+		oldSize = 0;
 		return false;
 	}
 
 	/**
-	 * Adds a step.
+	 * Adds the first step to the queue, attempting to connect the server and client position by looking at the previous
+	 * queue.
+	 * @param clientConnectionPosition The first step.
+	 * @return {@code true} if the queues could be connected correctly, {@code false} if not.
+	 */
+	public boolean addFirstStep(Position clientConnectionPosition) {
+		return addFirstStep(clientConnectionPosition.getX(), clientConnectionPosition.getY());
+	}
+
+	/**
+	 * Replaces the contents of this queue with the steps of a path. The steps are not verified, as paths are found
+	 * over the collision map already.
+	 * @param path The path.
+	 */
+	public void addPath(Path path) {
+		clear();
+		int height = character.getPosition().getHeight();
+		for (int i = 0; i < path.size(); i++) {
+			addStep(path.getX(i), path.getY(i), height, false);
+		}
+	}
+
+	/**
+	 * Adds a single step.
 	 * @param x The x coordinate of this step.
 	 * @param y The y coordinate of this step.
+	 * @param height The height level.
+	 * @param verify Whether the step should be verified.
+	 * @return {@code true} if the step was added, {@code false} if it was rejected.
 	 */
-	private void addStep(int x, int y) {
-		if (points.size() >= MAXIMUM_SIZE) {
-			return;
+	private boolean addStep(int x, int y, int height, boolean verify) {
+		if (size >= MAXIMUM_SIZE) {
+			return false;
 		}
-		Point last = getLast();
-		int deltaX = x - last.position.getX();
-		int deltaY = y - last.position.getY();
+		int last = getLast();
+		int lastX = getX(last);
+		int lastY = getY(last);
+		int deltaX = x - lastX;
+		int deltaY = y - lastY;
 		Direction direction = Direction.fromDeltas(deltaX, deltaY);
-		if (direction != Direction.NONE) {
-			Point p = new Point(new Position(x, y, last.position.getHeight()), direction);
-			points.add(p);
-			oldPoints.add(p);
+		if (direction == Direction.NONE) {
+			return true;
 		}
+		if (verify) {
+			if (budget <= 0) {
+				return false;
+			}
+			budget--;
+			CollisionMap map = World.getWorld().getCollisionMap();
+			if (!map.canMove(lastX, lastY, height, deltaX, deltaY)) {
+				return false;
+			}
+		}
+		int step = pack(x, y, direction);
+		points[(head + size) % MAXIMUM_SIZE] = step;
+		size++;
+		if (oldSize < MAXIMUM_SIZE) {
+			oldPoints[oldSize++] = step;
+		}
+		return true;
 	}
 
 	/**
-	 * Adds a step to the queue.
+	 * Adds a step to the queue, interpolating the steps between it and the last step. If any of those steps is
+	 * rejected, it and every following step of the current walk request are discarded. The walk request must have been
+	 * started with {@link #addFirstStep(int, int)}.
 	 * @param step The step to add.
+	 * @return {@code true} if the step was added, {@code false} if it was rejected.
+	 */
+	public boolean addStep(Position step) {
+		return addStep(step.getX(), step.getY());
+	}
+
+	/**
+	 * Adds a step to the queue, interpolating the steps between it and the last step. If any of those steps is
+	 * rejected, it and every following step of the current walk request are discarded. The walk request must have been
+	 * started with {@link #addFirstStep(int, int)}.
+	 * @param x The x coordinate of the step.
+	 * @param y The y coordinate of the step.
+	 * @return {@code true} if the step was added, {@code false} if it was rejected.
 	 */
-	public void addStep(Position step) {
-		Point last = getLast();
-		int x = step.getX();
-		int y = step.getY();
-		int deltaX = x - last.position.getX();
-		int deltaY = y - last.position.getY();
+	public boolean addStep(int x, int y) {
+		if (rejected) {
+			return false;
+		}
+		int height = character.getPosition().getHeight();
+		int last = getLast();
+		int deltaX = x - getX(last);
+		int deltaY = y - getY(last);
 		int max = Math.max(Math.abs(deltaX), Math.abs(deltaY));
 		for (int i = 0; i < max; i++) {
 			if (deltaX < 0) {
@@ -165,28 +278,34 @@ public final class WalkingQueue {
 			} else if (deltaY > 0) {
 				deltaY--;
 			}
-			addStep(x - deltaX, y - deltaY);
+			if (!addStep(x - deltaX, y - deltaY, height, verifying)) {
+				rejected = true;
+				return false;
+			}
 		}
+		return true;
 	}
 
 	/**
-	 * Clears the walking queue.
+	 * Clears the walking queue, ending the current walk request.
 	 */
 	public void clear() {
-		points.clear();
-		oldPoints.clear();
+		head = 0;
+		size = 0;
+		oldSize = 0;
+		rejected = false;
 	}
 
 	/**
-	 * Gets the last point.
-	 * @return The last point.
+	 * Gets the last step, or the position of the character if the queue is empty.
+	 * @return The packed step.
 	 */
-	private Point getLast() {
-		Point last = points.peekLast();
-		if (last == null) {
-			return new Point(character.getPosition(), Direction.NONE);
+	private int getLast() {
+		if (size == 0) {
+			Position position = character.getPosition();
+			return pack(position.getX(), position.getY(), Direction.NONE);
 		}
-		return last;
+		return points[(head + size - 1) % MAXIMUM_SIZE];
 	}
 
 	/**
@@ -205,17 +324,36 @@ public final class WalkingQueue {
 		return runningQueue;
 	}
 
+	/**
+	 * Checks if client steps are verified against the collision map.
+	 * @return {@code true} if so, {@code false} if not.
+	 */
+	public boolean isVerifying() {
+		return verifying;
+	}
+
+	/**
+	 * Removes the first step from the queue.
+	 * @return The packed step.
+	 */
+	private int poll() {
+		int step = points[head];
+		head = (head + 1) % MAXIMUM_SIZE;
+		size--;
+		return step;
+	}
+
 	/**
 	 * Called every pulse, updates the queue.
 	 */
 	public void pulse() {
+		budget = MAXIMUM_STEPS_PER_PULSE;
 		Position position = character.getPosition();
 		Direction first = Direction.NONE;
 		Direction second = Direction.NONE;
-		Point next = points.poll();
-		if (next != null) {
-			first = next.direction;
-			position = next.position;
+		if (size > 0) {
+			int next = poll();
+			first = getDirection(next);
 			if (character.getRunEnergy() >= 1) {
 				if (running) {
 					if (character instanceof Player) {
@@ -223,10 +361,9 @@ public final class WalkingQueue {
 						player.setRunEnergy(player.getRunEnergy() - 1);
 						player.send(new UpdateRunEnergyEvent(player.getRunEnergy()));
 					}
-					next = points.poll();
-					if (next != null) {
-						second = next.direction;
-						position = next.position;
+					if (size > 0) {
+						next = poll();
+						second = getDirection(next);
 					}
 					setRunningQueue(true);
 				} else {
@@ -236,6 +373,7 @@ public final class WalkingQueue {
 				setRunningQueue(false);
 				setRunning(false);
 			}
+			position = Position.create(getX(next), getY(next), position.getHeight());
 		}
 		character.setDirections(first, second);
 		character.setPosition(position);
@@ -257,11 +395,19 @@ public final class WalkingQueue {
 		this.runningQueue = running;
 	}
 
+	/**
+	 * Sets whether client steps are verified against the collision map.
+	 * @param verifying {@code true} to verify client steps, {@code false} to trust them.
+	 */
+	public void setVerifying(boolean verifying) {
+		this.verifying = verifying;
+	}
+
 	/**
 	 * Gets the size of the queue.
 	 * @return The size of the queue.
 	 */
 	public int size() {
-		return points.size();
+		return size;
 	}
 }
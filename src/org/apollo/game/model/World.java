@@ -10,6 +10,7 @@ import org.apollo.ServerContext;
 import org.apollo.Service;
 import org.apollo.fs.IndexedFileSystem;
 import org.apollo.fs.parser.ItemDefinitionParser;
+import org.apollo.fs.parser.LandscapeParser;
 import org.apollo.fs.parser.NpcDefinitionParser;
 import org.apollo.fs.parser.ObjectDefinitionParser;
 import org.apollo.game.command.CommandDispatcher;
@@ -22,7 +23,10 @@ import org.apollo.game.model.def.ObjectDefinition;
 import org.apollo.game.model.inter.store.WorldStore;
 import org.apollo.game.model.messaging.WorldMessaging;
 import org.apollo.game.model.obj.WorldObject;
+import org.apollo.game.model.path.Pathfinder;
+import org.apollo.game.model.region.CollisionMap;
 import org.apollo.game.model.region.RegionManager;
+import org.apollo.game.profile.TickProfiler;
 import org.apollo.game.scheduling.ScheduledTask;
 import org.apollo.game.scheduling.Scheduler;
 import org.apollo.game.scheduling.impl.SystemUpdateTask;
@@ -131,6 +135,16 @@ public final class World {
 	 */
 	private final RegionManager regionManager = new RegionManager();
 
+	/**
+	 * The collision map.
+	 */
+	private final CollisionMap collisionMap = new CollisionMap();
+
+	/**
+	 * The pathfinder.
+	 */
+	private final Pathfinder pathfinder = new Pathfinder(collisionMap);
+
 	/**
 	 * The server context.
 	 */
@@ -142,6 +156,14 @@ public final class World {
 	private World() {
 	}
 
+	/**
+	 * Gets the collision map.
+	 * @return The collision map.
+	 */
+	public CollisionMap getCollisionMap() {
+		return collisionMap;
+	}
+
 	/**
 	 * Gets the command dispatcher. TODO should this be here?
 	 * @return The command dispatcher.
@@ -209,6 +231,14 @@ public final class World {
 		return playerRepository;
 	}
 
+	/**
+	 * Gets the pathfinder.
+	 * @return The pathfinder.
+	 */
+	public Pathfinder getPathfinder() {
+		return pathfinder;
+	}
+
 	/**
 	 * Gets the plugin manager. TODO should this be here?
 	 * @return The plugin manager.
@@ -271,6 +301,14 @@ public final class World {
 		ObjectDefinition.init(objectDefs);
 		logger.info("Done (loaded " + objectDefs.length + " object definitions).");
 
+		logger.info("Loading landscapes...");
+		LandscapeParser landscapeParser = new LandscapeParser(fs);
+		int squares = landscapeParser.parse(collisionMap);
+		if (landscapeParser.getFailures() > 0) {
+			logger.warning(landscapeParser.getFailures() + " map squares could not be read and have no clipping.");
+		}
+		logger.info("Done (loaded " + squares + " map squares).");
+
 		logger.info("Loading NPC definitions...");
 		NpcDefinitionParser npcDefParser = new NpcDefinitionParser(fs);
 		NpcDefinition[] npcDefs = npcDefParser.parse();
@@ -315,10 +353,15 @@ public final class World {
 	}
 
 	/**
-	 * Calls the {@link Scheduler#pulse()} method.
+	 * Restores the {@link Pathfinder}'s budget and calls the {@link Scheduler#pulse(TickProfiler, boolean)} method.
+	 * @param profiler The profiler.
+	 * @param shedding Whether deferrable scheduled tasks should be skipped, because the game loop is behind.
 	 */
-	public void pulse() {
-		scheduler.pulse();
+	public void pulse(TickProfiler profiler, boolean shedding) {
+		long start = System.nanoTime();
+		pathfinder.pulse();
+		profiler.getTimer(TickProfiler.PHASE, "pathfinding").recordSince(start);
+		scheduler.pulse(profiler, shedding);
 	}
 
 	/**
@@ -334,8 +377,9 @@ public final class World {
 	 * @param npc The NPC.
 	 */
 	public void register(Npc npc) {
-		regionManager.getRegionByLocation(npc.getPosition()).addNPC(npc);
-		npcRepository.add(npc);
+		if (npcRepository.add(npc)) {
+			regionManager.add(npc);
+		}
 	}
 
 	/**
@@ -358,6 +402,7 @@ public final class World {
 		} else {
 			boolean success = playerRepository.add(player);
 			if (success) {
+				regionManager.add(player);
 				logger.info("Registered player: " + player + " [online=" + playerRepository.size() + "]");
 				return RegistrationStatus.OK;
 			} else {
@@ -382,6 +427,7 @@ public final class World {
 	 */
 	public void unregister(Player player) {
 		if (playerRepository.remove(player)) {
+			regionManager.remove(player);
 			logger.info("Unregistered player: " + player + " [online=" + playerRepository.size() + "]");
 		} else {
 			logger.warning("Could not find player to unregister: " + player + "!");
@@ -0,0 +1,53 @@
+package org.apollo.game.model.def;
+
+/**
+ * The base class of the definition tables, which store the definitions of a type column by column.
+ * <p>
+ * While a table is being filled, its strings and string arrays are pooled so equal values are only held once. The pool
+ * is discarded once the definitions have been initialised.
+ */
+abstract class DefinitionTable {
+
+	/**
+	 * The string pool, or {@code null} if it has been discarded.
+	 */
+	private StringPool pool = new StringPool();
+
+	/**
+	 * Interns a string.
+	 * @param string The string.
+	 * @return The pooled string, or the string itself if the pool has been discarded.
+	 */
+	final String intern(String string) {
+		return pool == null ? string : pool.intern(string);
+	}
+
+	/**
+	 * Interns an array of strings. The array must not be modified afterwards.
+	 * @param array The array.
+	 * @return The pooled array, or the array itself if the pool has been discarded.
+	 */
+	final String[] intern(String[] array) {
+		return pool == null ? array : pool.intern(array);
+	}
+
+	/**
+	 * Discards the string pool.
+	 */
+	final void trim() {
+		pool = null;
+	}
+
+	/**
+	 * Replaces one element of a pooled array, without modifying the array.
+	 * @param array The pooled array.
+	 * @param index The index of the element.
+	 * @param value The new value.
+	 * @return The pooled array containing the new value.
+	 */
+	final String[] with(String[] array, int index, String value) {
+		String[] copy = array.clone();
+		copy[index] = value;
+		return intern(copy);
+	}
+}
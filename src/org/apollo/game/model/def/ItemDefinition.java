@@ -2,11 +2,11 @@ package org.apollo.game.model.def;
 
 import org.apollo.game.model.Item;
 
-import com.google.common.collect.BiMap;
-import com.google.common.collect.HashBiMap;
-
 /**
  * Represents a type of {@link Item}.
+ * <p>
+ * A definition is a view of one row of an {@link ItemDefinitionTable}: it only holds the item's id, and its properties
+ * are stored in the table's columns.
  * @author Graham
  */
 public final class ItemDefinition {
@@ -17,14 +17,14 @@ public final class ItemDefinition {
 	private static ItemDefinition[] definitions;
 
 	/**
-	 * A map of item ids to noted ids.
+	 * The noted ids, indexed by item id.
 	 */
-	private static final BiMap<Integer, Integer> notes = HashBiMap.create();
+	private static int[] notes = new int[0];
 
 	/**
-	 * A map of noted ids to item ids.
+	 * The item ids, indexed by noted id.
 	 */
-	private static final BiMap<Integer, Integer> notesInverse = notes.inverse();
+	private static int[] unnotes = new int[0];
 
 	/**
 	 * Converts an item id to a noted id.
@@ -32,11 +32,7 @@ public final class ItemDefinition {
 	 * @return The noted id.
 	 */
 	public static int itemToNote(int id) {
-		Integer entry = notes.get(id);
-		if (entry == null) {
-			return id;
-		}
-		return entry;
+		return id >= 0 && id < notes.length ? notes[id] : id;
 	}
 
 	/**
@@ -45,29 +41,40 @@ public final class ItemDefinition {
 	 * @return The item id.
 	 */
 	public static int noteToItem(int id) {
-		Integer entry = notesInverse.get(id);
-		if (entry == null) {
-			return id;
-		}
-		return entry;
+		return id >= 0 && id < unnotes.length ? unnotes[id] : id;
 	}
 
 	/**
-	 * Initialises the class with the specified set of definitions.
+	 * Initialises the class with the specified set of definitions, which must be every definition of a single
+	 * {@link ItemDefinitionTable}.
 	 * @param definitions The definitions.
 	 */
 	public static void init(ItemDefinition[] definitions) {
-		ItemDefinition.definitions = definitions;
+		ItemDefinitionTable table = definitions.length == 0 ? new ItemDefinitionTable(0) : definitions[0].table;
 		for (int id = 0; id < definitions.length; id++) {
 			ItemDefinition def = definitions[id];
-			if (def.getId() != id) {
+			if (def.getId() != id || def.table != table) {
 				throw new RuntimeException("Item definition id mismatch!");
 			}
+		}
+		ItemDefinition.definitions = definitions;
+		int[] notes = new int[definitions.length], unnotes = new int[definitions.length];
+		for (int id = 0; id < definitions.length; id++) {
+			notes[id] = unnotes[id] = id;
+		}
+		for (ItemDefinition def : definitions) {
 			if (def.isNote()) {
 				def.toNote();
-				notes.put(def.getNoteInfoId(), def.getId());
+				int item = def.getNoteInfoId();
+				if (item < notes.length) {
+					notes[item] = def.getId();
+					unnotes[def.getId()] = item;
+				}
 			}
 		}
+		ItemDefinition.notes = notes;
+		ItemDefinition.unnotes = unnotes;
+		table.trim();
 	}
 
 	/**
@@ -91,60 +98,22 @@ public final class ItemDefinition {
 	}
 
 	/**
-	 * The item's id.
-	 */
-	private final int id;
-
-	/**
-	 * The name of the item.
-	 */
-	private String name;
-
-	/**
-	 * The description of the item.
-	 */
-	private String description;
-
-	/**
-	 * A flag indicating if this item is stackable.
-	 */
-	private boolean stackable;
-
-	/**
-	 * The value of the item.
-	 */
-	private int value;
-
-	/**
-	 * A flag indicating if this item is members only.
-	 */
-	private boolean members;
-
-	/**
-	 * The ground actions array.
+	 * The table which holds this item's properties.
 	 */
-	private final String[] groundActions = new String[5];
+	private final ItemDefinitionTable table;
 
 	/**
-	 * The inventory actions array.
-	 */
-	private final String[] inventoryActions = new String[5];
-
-	/**
-	 * The id of the item to copy note info from.
-	 */
-	private int noteInfoId = -1;
-
-	/**
-	 * The id of the item to copy note graphics from.
+	 * The item's id.
 	 */
-	private int noteGraphicId = -1;
+	private final int id;
 
 	/**
-	 * Creates an item definition with the default values.
+	 * Creates an item definition.
+	 * @param table The table which holds the item's properties.
 	 * @param id The item's id.
 	 */
-	public ItemDefinition(int id) {
+	ItemDefinition(ItemDefinitionTable table, int id) {
+		this.table = table;
 		this.id = id;
 	}
 
@@ -153,7 +122,7 @@ public final class ItemDefinition {
 	 * @return The note info id.
 	 */
 	public int getNoteInfoId() {
-		return noteInfoId;
+		return table.noteInfoIds[id];
 	}
 
 	/**
@@ -161,7 +130,7 @@ public final class ItemDefinition {
 	 * @return The note graphic id.
 	 */
 	public int getNoteGraphicId() {
-		return noteGraphicId;
+		return table.noteGraphicIds[id];
 	}
 
 	/**
@@ -177,7 +146,7 @@ public final class ItemDefinition {
 	 * @param noteInfoId The note info id.
 	 */
 	public void setNoteInfoId(int noteInfoId) {
-		this.noteInfoId = noteInfoId;
+		table.noteInfoIds[id] = noteInfoId;
 	}
 
 	/**
@@ -185,7 +154,7 @@ public final class ItemDefinition {
 	 * @param noteGraphicId The note graphic id.
 	 */
 	public void setNoteGraphicId(int noteGraphicId) {
-		this.noteGraphicId = noteGraphicId;
+		table.noteGraphicIds[id] = noteGraphicId;
 	}
 
 	/**
@@ -193,7 +162,7 @@ public final class ItemDefinition {
 	 * @return {@code true} if so, {@code false} otherwise.
 	 */
 	public boolean isNote() {
-		return noteGraphicId != -1 && noteInfoId != -1;
+		return table.noteGraphicIds[id] != -1 && table.noteInfoIds[id] != -1;
 	}
 
 	/**
@@ -201,23 +170,26 @@ public final class ItemDefinition {
 	 */
 	public void toNote() {
 		if (isNote()) {
+			String description = getDescription();
 			if (description != null && description.startsWith("Swap this note at any bank for ")) {
 				return; // already converted TODO better way of checking?
 			}
-			if (noteInfoId > count()) {
+			int noteInfoId = getNoteInfoId();
+			if (noteInfoId >= count()) {
 				return; // quick fix for reading cache
 			}
 			ItemDefinition infoDef = forId(noteInfoId);
-			name = infoDef.name;
-			members = infoDef.members;
-			value = infoDef.value;
+			String name = infoDef.getName();
+			setName(name);
+			setMembersOnly(infoDef.isMembersOnly());
+			setValue(infoDef.getValue());
 			String prefix = "a";
 			char firstChar = name == null ? 'n' : name.charAt(0);
 			if (firstChar == 'A' || firstChar == 'E' || firstChar == 'I' || firstChar == 'O' || firstChar == 'U') {
 				prefix = "an";
 			}
-			description = "Swap this note at any bank for " + prefix + " " + name + ".";
-			stackable = true;
+			setDescription("Swap this note at any bank for " + prefix + " " + name + ".");
+			setStackable(true);
 		} else {
 			throw new IllegalStateException();
 		}
@@ -228,7 +200,7 @@ public final class ItemDefinition {
 	 * @param name The item's name.
 	 */
 	public void setName(String name) {
-		this.name = name;
+		table.names[id] = table.intern(name);
 	}
 
 	/**
@@ -236,7 +208,7 @@ public final class ItemDefinition {
 	 * @return The name of this item, or {@code null} if it has no name.
 	 */
 	public String getName() {
-		return name;
+		return table.names[id];
 	}
 
 	/**
@@ -244,7 +216,7 @@ public final class ItemDefinition {
 	 * @param description The item's description.
 	 */
 	public void setDescription(String description) {
-		this.description = description;
+		table.descriptions[id] = table.intern(description);
 	}
 
 	/**
@@ -252,7 +224,7 @@ public final class ItemDefinition {
 	 * @return The item's description.
 	 */
 	public String getDescription() {
-		return description;
+		return table.descriptions[id];
 	}
 
 	/**
@@ -260,7 +232,7 @@ public final class ItemDefinition {
 	 * @param stackable The stackable flag.
 	 */
 	public void setStackable(boolean stackable) {
-		this.stackable = stackable;
+		table.setFlag(id, ItemDefinitionTable.STACKABLE, stackable);
 	}
 
 	/**
@@ -268,7 +240,7 @@ public final class ItemDefinition {
 	 * @return {@code true} if so, {@code false} if not.
 	 */
 	public boolean isStackable() {
-		return stackable;
+		return (table.flags[id] & ItemDefinitionTable.STACKABLE) != 0;
 	}
 
 	/**
@@ -276,7 +248,7 @@ public final class ItemDefinition {
 	 * @param value The value of this item.
 	 */
 	public void setValue(int value) {
-		this.value = value;
+		table.values[id] = value;
 	}
 
 	/**
@@ -284,7 +256,7 @@ public final class ItemDefinition {
 	 * @return The value of this item.
 	 */
 	public int getValue() {
-		return value;
+		return table.values[id];
 	}
 
 	/**
@@ -292,7 +264,7 @@ public final class ItemDefinition {
 	 * @param members The members only flag.
 	 */
 	public void setMembersOnly(boolean members) {
-		this.members = members;
+		table.setFlag(id, ItemDefinitionTable.MEMBERS, members);
 	}
 
 	/**
@@ -300,7 +272,7 @@ public final class ItemDefinition {
 	 * @return {@code true} if so, {@code false} if not.
 	 */
 	public boolean isMembersOnly() {
-		return members;
+		return (table.flags[id] & ItemDefinitionTable.MEMBERS) != 0;
 	}
 
 	/**
@@ -309,10 +281,10 @@ public final class ItemDefinition {
 	 * @param action The action.
 	 */
 	public void setGroundAction(int id, String action) {
-		if (id < 0 || id >= groundActions.length) {
+		if (id < 0 || id >= ItemDefinitionTable.ACTION_COUNT) {
 			throw new IndexOutOfBoundsException();
 		}
-		groundActions[id] = action;
+		table.groundActions[this.id] = table.with(table.groundActions[this.id], id, action);
 	}
 
 	/**
@@ -321,10 +293,10 @@ public final class ItemDefinition {
 	 * @return The action.
 	 */
 	public String getGroundAction(int id) {
-		if (id < 0 || id >= groundActions.length) {
+		if (id < 0 || id >= ItemDefinitionTable.ACTION_COUNT) {
 			throw new IndexOutOfBoundsException();
 		}
-		return groundActions[id];
+		return table.groundActions[this.id][id];
 	}
 
 	/**
@@ -333,10 +305,10 @@ public final class ItemDefinition {
 	 * @param action The action.
 	 */
 	public void setInventoryAction(int id, String action) {
-		if (id < 0 || id >= inventoryActions.length) {
+		if (id < 0 || id >= ItemDefinitionTable.ACTION_COUNT) {
 			throw new IndexOutOfBoundsException();
 		}
-		inventoryActions[id] = action;
+		table.inventoryActions[this.id] = table.with(table.inventoryActions[this.id], id, action);
 	}
 
 	/**
@@ -345,9 +317,9 @@ public final class ItemDefinition {
 	 * @return The action.
 	 */
 	public String getInventoryAction(int id) {
-		if (id < 0 || id >= inventoryActions.length) {
+		if (id < 0 || id >= ItemDefinitionTable.ACTION_COUNT) {
 			throw new IndexOutOfBoundsException();
 		}
-		return inventoryActions[id];
+		return table.inventoryActions[this.id][id];
 	}
 }
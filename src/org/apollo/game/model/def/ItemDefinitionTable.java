@@ -0,0 +1,128 @@
+package org.apollo.game.model.def;
+
+import java.util.Arrays;
+
+/**
+ * The item definitions of a cache, stored column by column in primitive arrays rather than as one object per item.
+ * The {@link ItemDefinition}s handed out by the table are views which only hold their id.
+ */
+public final class ItemDefinitionTable extends DefinitionTable {
+
+	/**
+	 * The flag set for stackable items.
+	 */
+	static final int STACKABLE = 1;
+
+	/**
+	 * The flag set for members only items.
+	 */
+	static final int MEMBERS = 2;
+
+	/**
+	 * The number of ground or inventory actions of an item.
+	 */
+	static final int ACTION_COUNT = 5;
+
+	/**
+	 * The definitions, by id.
+	 */
+	final ItemDefinition[] definitions;
+
+	/**
+	 * The names, by id.
+	 */
+	final String[] names;
+
+	/**
+	 * The descriptions, by id.
+	 */
+	final String[] descriptions;
+
+	/**
+	 * The flags, by id.
+	 */
+	final byte[] flags;
+
+	/**
+	 * The values, by id.
+	 */
+	final int[] values;
+
+	/**
+	 * The ids of the items to copy note info from, by id.
+	 */
+	final int[] noteInfoIds;
+
+	/**
+	 * The ids of the items to copy note graphics from, by id.
+	 */
+	final int[] noteGraphicIds;
+
+	/**
+	 * The pooled ground action arrays, by id.
+	 */
+	final String[][] groundActions;
+
+	/**
+	 * The pooled inventory action arrays, by id.
+	 */
+	final String[][] inventoryActions;
+
+	/**
+	 * Creates a table of items with the default values.
+	 * @param count The number of items.
+	 */
+	public ItemDefinitionTable(int count) {
+		definitions = new ItemDefinition[count];
+		names = new String[count];
+		descriptions = new String[count];
+		flags = new byte[count];
+		values = new int[count];
+		noteInfoIds = new int[count];
+		noteGraphicIds = new int[count];
+		groundActions = new String[count][];
+		inventoryActions = new String[count][];
+		Arrays.fill(noteInfoIds, -1);
+		Arrays.fill(noteGraphicIds, -1);
+		Arrays.fill(groundActions, intern(new String[ACTION_COUNT]));
+		Arrays.fill(inventoryActions, intern(new String[ACTION_COUNT]));
+		for (int id = 0; id < count; id++) {
+			definitions[id] = new ItemDefinition(this, id);
+		}
+	}
+
+	/**
+	 * Gets the definition of an item.
+	 * @param id The item's id.
+	 * @return The definition.
+	 */
+	public ItemDefinition get(int id) {
+		return definitions[id];
+	}
+
+	/**
+	 * Gets every definition in this table.
+	 * @return The definitions, indexed by id.
+	 */
+	public ItemDefinition[] getDefinitions() {
+		return definitions.clone();
+	}
+
+	/**
+	 * Sets or clears a flag of an item.
+	 * @param id The item's id.
+	 * @param flag The flag.
+	 * @param set {@code true} to set the flag, {@code false} to clear it.
+	 */
+	void setFlag(int id, int flag, boolean set) {
+		flags[id] = (byte) (set ? flags[id] | flag : flags[id] & ~flag);
+	}
+
+	/**
+	 * Gets the number of items in this table.
+	 * @return The number of items.
+	 */
+	public int size() {
+		return definitions.length;
+	}
+}
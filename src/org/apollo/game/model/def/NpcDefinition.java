@@ -2,6 +2,9 @@ package org.apollo.game.model.def;
 
 /**
  * Represents a type of {@link Npc}.
+ * <p>
+ * A definition is a view of one row of an {@link NpcDefinitionTable}: it only holds the NPC's id, and its properties
+ * are stored in the table's columns.
  * @author Chris Fletcher
  */
 public final class NpcDefinition {
@@ -38,55 +41,34 @@ public final class NpcDefinition {
 	 * @throws RuntimeException if there is an id mismatch.
 	 */
 	public static void init(NpcDefinition[] definitions) {
-		NpcDefinition.definitions = definitions;
+		NpcDefinitionTable table = definitions.length == 0 ? new NpcDefinitionTable(0) : definitions[0].table;
 		for (int id = 0; id < definitions.length; id++) {
 			NpcDefinition def = definitions[id];
-			if (def.getId() != id) {
+			if (def.getId() != id || def.table != table) {
 				throw new RuntimeException("NPC definition id mismatch");
 			}
 		}
+		NpcDefinition.definitions = definitions;
+		table.trim();
 	}
 
 	/**
-	 * The NPC id.
+	 * The table which holds this NPC's properties.
 	 */
-	private final int id;
+	private final NpcDefinitionTable table;
 
 	/**
-	 * The name of the NPC.
-	 */
-	private String name;
-
-	/**
-	 * The description of the NPC.
-	 */
-	private String description;
-
-	/**
-	 * The NPC's size, in tiles.
-	 */
-	private int size = 1;
-
-	/**
-	 * The various animation ids.
-	 */
-	private int standAnim = -1, walkAnim = -1, walkBackAnim = -1, walkLeftAnim = -1, walkRightAnim = -1;
-
-	/**
-	 * An array of interaction options.
-	 */
-	private String[] interactions = new String[5];
-
-	/**
-	 * The combat level of the NPC.
+	 * The NPC id.
 	 */
-	private int combatLevel = -1;
+	private final int id;
 
 	/**
 	 * Creates a new NPC definition.
+	 * @param table The table which holds the NPC's properties.
 	 * @param id The NPC id.
 	 */
-	public NpcDefinition(int id) {
+	NpcDefinition(NpcDefinitionTable table, int id) {
+		this.table = table;
 		this.id = id;
 	}
 
@@ -95,7 +77,7 @@ public final class NpcDefinition {
 	 * @return The combat level, or -1 if it doesn't have one.
 	 */
 	public int getCombatLevel() {
-		return combatLevel;
+		return table.combatLevels[id];
 	}
 
 	/**
@@ -103,7 +85,7 @@ public final class NpcDefinition {
 	 * @return The description.
 	 */
 	public String getDescription() {
-		return description;
+		return table.descriptions[id];
 	}
 
 	/**
@@ -121,10 +103,10 @@ public final class NpcDefinition {
 	 * @throws IndexOutOfBoundsException if the slot is out of bounds.
 	 */
 	public String getInteraction(int slot) {
-		if (slot < 0 || slot >= interactions.length) {
+		if (slot < 0 || slot >= NpcDefinitionTable.INTERACTION_COUNT) {
 			throw new IndexOutOfBoundsException();
 		}
-		return interactions[slot];
+		return table.interactions[id][slot];
 	}
 
 	/**
@@ -132,7 +114,7 @@ public final class NpcDefinition {
 	 * @return The interaction options.
 	 */
 	public String[] getInteractions() {
-		return interactions;
+		return table.interactions[id].clone();
 	}
 
 	/**
@@ -140,7 +122,7 @@ public final class NpcDefinition {
 	 * @return The name of the NPC.
 	 */
 	public String getName() {
-		return name;
+		return table.names[id];
 	}
 
 	/**
@@ -148,7 +130,7 @@ public final class NpcDefinition {
 	 * @return The size.
 	 */
 	public int getSize() {
-		return size;
+		return table.sizes[id];
 	}
 
 	/**
@@ -156,7 +138,7 @@ public final class NpcDefinition {
 	 * @return The stand animation id, or -1 if it doesn't have one.
 	 */
 	public int getStandAnimation() {
-		return standAnim;
+		return table.standAnimations[id];
 	}
 
 	/**
@@ -164,7 +146,7 @@ public final class NpcDefinition {
 	 * @return The walking animation.
 	 */
 	public int getWalkAnimation() {
-		return walkAnim;
+		return table.walkAnimations[id];
 	}
 
 	/**
@@ -172,7 +154,7 @@ public final class NpcDefinition {
 	 * @return The walk-back animation.
 	 */
 	public int getWalkBackAnimation() {
-		return walkBackAnim;
+		return table.walkBackAnimations[id];
 	}
 
 	/**
@@ -180,7 +162,7 @@ public final class NpcDefinition {
 	 * @return The walk-left animation.
 	 */
 	public int getWalkLeftAnimation() {
-		return walkLeftAnim;
+		return table.walkLeftAnimations[id];
 	}
 
 	/**
@@ -188,7 +170,7 @@ public final class NpcDefinition {
 	 * @return The walk-right animation.
 	 */
 	public int getWalkRightAnimation() {
-		return walkRightAnim;
+		return table.walkRightAnimations[id];
 	}
 
 	/**
@@ -196,7 +178,7 @@ public final class NpcDefinition {
 	 * @return {@code true} if so, {@code false} if not.
 	 */
 	public boolean hasCombatLevel() {
-		return combatLevel != -1;
+		return table.combatLevels[id] != -1;
 	}
 
 	/**
@@ -206,10 +188,10 @@ public final class NpcDefinition {
 	 * @throws IndexOutOfBoundsException if the slot is out of bounds.
 	 */
 	public boolean hasInteraction(int slot) {
-		if (slot < 0 || slot >= interactions.length) {
+		if (slot < 0 || slot >= NpcDefinitionTable.INTERACTION_COUNT) {
 			throw new IndexOutOfBoundsException();
 		}
-		return interactions[slot] != null;
+		return table.interactions[id][slot] != null;
 	}
 
 	/**
@@ -217,7 +199,7 @@ public final class NpcDefinition {
 	 * @return {@code true} if so, {@code false} if not.
 	 */
 	public boolean hasStandAnimation() {
-		return standAnim != -1;
+		return table.standAnimations[id] != -1;
 	}
 
 	/**
@@ -225,7 +207,7 @@ public final class NpcDefinition {
 	 * @return {@code true} if so, {@code false} if not.
 	 */
 	public boolean hasWalkAnimation() {
-		return walkAnim != -1;
+		return table.walkAnimations[id] != -1;
 	}
 
 	/**
@@ -233,7 +215,7 @@ public final class NpcDefinition {
 	 * @return {@code true} if so, {@code false} if not.
 	 */
 	public boolean hasWalkBackAnimation() {
-		return walkBackAnim != -1;
+		return table.walkBackAnimations[id] != -1;
 	}
 
 	/**
@@ -241,7 +223,7 @@ public final class NpcDefinition {
 	 * @return {@code true} if so, {@code false} if not.
 	 */
 	public boolean hasWalkLeftAnimation() {
-		return walkLeftAnim != -1;
+		return table.walkLeftAnimations[id] != -1;
 	}
 
 	/**
@@ -249,7 +231,7 @@ public final class NpcDefinition {
 	 * @return {@code true} if so, {@code false} if not.
 	 */
 	public boolean hasWalkRightAnimation() {
-		return walkRightAnim != -1;
+		return table.walkRightAnimations[id] != -1;
 	}
 
 	/**
@@ -257,7 +239,7 @@ public final class NpcDefinition {
 	 * @param combatLevel The combat level.
 	 */
 	public void setCombatLevel(int combatLevel) {
-		this.combatLevel = combatLevel;
+		table.combatLevels[id] = (short) combatLevel;
 	}
 
 	/**
@@ -265,7 +247,7 @@ public final class NpcDefinition {
 	 * @param description The description.
 	 */
 	public void setDescription(String description) {
-		this.description = description;
+		table.descriptions[id] = table.intern(description);
 	}
 
 	/**
@@ -275,10 +257,10 @@ public final class NpcDefinition {
 	 * @throws IndexOutOfBoundsException if the slot is out of bounds.
 	 */
 	public void setInteraction(int slot, String interaction) {
-		if (slot < 0 || slot >= interactions.length) {
+		if (slot < 0 || slot >= NpcDefinitionTable.INTERACTION_COUNT) {
 			throw new IndexOutOfBoundsException();
 		}
-		interactions[slot] = interaction;
+		table.interactions[id] = table.with(table.interactions[id], slot, interaction);
 	}
 
 	/**
@@ -286,7 +268,7 @@ public final class NpcDefinition {
 	 * @param name The name.
 	 */
 	public void setName(String name) {
-		this.name = name;
+		table.names[id] = table.intern(name);
 	}
 
 	/**
@@ -294,7 +276,7 @@ public final class NpcDefinition {
 	 * @param size The size.
 	 */
 	public void setSize(int size) {
-		this.size = size;
+		table.sizes[id] = (byte) size;
 	}
 
 	/**
@@ -302,7 +284,7 @@ public final class NpcDefinition {
 	 * @param standAnim The stand animation id.
 	 */
 	public void setStandAnimation(int standAnim) {
-		this.standAnim = standAnim;
+		table.standAnimations[id] = (short) standAnim;
 	}
 
 	/**
@@ -310,7 +292,7 @@ public final class NpcDefinition {
 	 * @param walkAnim The walking animation.
 	 */
 	public void setWalkAnimation(int walkAnim) {
-		this.walkAnim = walkAnim;
+		table.walkAnimations[id] = (short) walkAnim;
 	}
 
 	/**
@@ -321,9 +303,9 @@ public final class NpcDefinition {
 	 * @param walkRightAnim The walk-right animation.
 	 */
 	public void setWalkAnimations(int walkAnim, int walkBackAnim, int walkLeftAnim, int walkRightAnim) {
-		this.walkAnim = walkAnim;
-		this.walkBackAnim = walkBackAnim;
-		this.walkLeftAnim = walkLeftAnim;
-		this.walkRightAnim = walkRightAnim;
+		table.walkAnimations[id] = (short) walkAnim;
+		table.walkBackAnimations[id] = (short) walkBackAnim;
+		table.walkLeftAnimations[id] = (short) walkLeftAnim;
+		table.walkRightAnimations[id] = (short) walkRightAnim;
 	}
 }
\ No newline at end of file
@@ -0,0 +1,122 @@
+package org.apollo.game.model.def;
+
+import java.util.Arrays;
+
+/**
+ * The NPC definitions of a cache, stored column by column in primitive arrays rather than as one object per NPC. The
+ * {@link NpcDefinition}s handed out by the table are views which only hold their id.
+ */
+public final class NpcDefinitionTable extends DefinitionTable {
+
+	/**
+	 * The number of interaction options of an NPC.
+	 */
+	static final int INTERACTION_COUNT = 5;
+
+	/**
+	 * The definitions, by id.
+	 */
+	final NpcDefinition[] definitions;
+
+	/**
+	 * The names, by id.
+	 */
+	final String[] names;
+
+	/**
+	 * The descriptions, by id.
+	 */
+	final String[] descriptions;
+
+	/**
+	 * The sizes, in tiles, by id.
+	 */
+	final byte[] sizes;
+
+	/**
+	 * The combat levels, by id.
+	 */
+	final short[] combatLevels;
+
+	/**
+	 * The stand animations, by id.
+	 */
+	final short[] standAnimations;
+
+	/**
+	 * The walking animations, by id.
+	 */
+	final short[] walkAnimations;
+
+	/**
+	 * The walk-back animations, by id.
+	 */
+	final short[] walkBackAnimations;
+
+	/**
+	 * The walk-left animations, by id.
+	 */
+	final short[] walkLeftAnimations;
+
+	/**
+	 * The walk-right animations, by id.
+	 */
+	final short[] walkRightAnimations;
+
+	/**
+	 * The pooled interaction option arrays, by id.
+	 */
+	final String[][] interactions;
+
+	/**
+	 * Creates a table of NPCs with the default values.
+	 * @param count The number of NPCs.
+	 */
+	public NpcDefinitionTable(int count) {
+		definitions = new NpcDefinition[count];
+		names = new String[count];
+		descriptions = new String[count];
+		sizes = new byte[count];
+		combatLevels = new short[count];
+		standAnimations = new short[count];
+		walkAnimations = new short[count];
+		walkBackAnimations = new short[count];
+		walkLeftAnimations = new short[count];
+		walkRightAnimations = new short[count];
+		interactions = new String[count][];
+		Arrays.fill(sizes, (byte) 1);
+		for (short[] column : new short[][] { combatLevels, standAnimations, walkAnimations, walkBackAnimations,
+				walkLeftAnimations, walkRightAnimations }) {
+			Arrays.fill(column, (short) -1);
+		}
+		Arrays.fill(interactions, intern(new String[INTERACTION_COUNT]));
+		for (int id = 0; id < count; id++) {
+			definitions[id] = new NpcDefinition(this, id);
+		}
+	}
+
+	/**
+	 * Gets the definition of an NPC.
+	 * @param id The NPC's id.
+	 * @return The definition.
+	 */
+	public NpcDefinition get(int id) {
+		return definitions[id];
+	}
+
+	/**
+	 * Gets every definition in this table.
+	 * @return The definitions, indexed by id.
+	 */
+	public NpcDefinition[] getDefinitions() {
+		return definitions.clone();
+	}
+
+	/**
+	 * Gets the number of NPCs in this table.
+	 * @return The number of NPCs.
+	 */
+	public int size() {
+		return definitions.length;
+	}
+}
@@ -4,6 +4,9 @@ import org.apollo.game.model.Position;
 
 /**
  * Represents a type of object.
+ * <p>
+ * A definition is a view of one row of an {@link ObjectDefinitionTable}: it only holds the object's id, and its
+ * properties are stored in the table's columns.
  * @author Steve
  */
 public final class ObjectDefinition {
@@ -40,100 +43,34 @@ public final class ObjectDefinition {
 	 * @throws RuntimeException if there is an id mismatch.
 	 */
 	public static void init(ObjectDefinition[] definitions) {
-		ObjectDefinition.definitions = definitions;
+		ObjectDefinitionTable table = definitions.length == 0 ? new ObjectDefinitionTable(0) : definitions[0].table;
 		for (int id = 0; id < definitions.length; id++) {
 			ObjectDefinition def = definitions[id];
-			if (def.getId() != id) {
+			if (def.getId() != id || def.table != table) {
 				throw new RuntimeException("Object definition id mismatch");
 			}
 		}
+		ObjectDefinition.definitions = definitions;
+		table.trim();
 	}
 
 	/**
-	 * The object id.
-	 */
-	private final int id;
-
-	/**
-	 * The map scene id.
-	 */
-	private int mapSceneId = 0;
-
-	/**
-	 * The scale x.
-	 */
-	private int scaleX = 0;
-
-	/**
-	 * The scale y.
-	 */
-	private int scaleY = 0;
-
-	/**
-	 * The scale z.
-	 */
-	private int scaleZ = 0;
-
-	/**
-	 * The offset x.
-	 */
-	private int offsetX = 0;
-
-	/**
-	 * The offset y.
-	 */
-	private int offsetY = 0;
-
-	/**
-	 * The offset z.
-	 */
-	private int offsetZ = 0;
-
-	/**
-	 * The horizontal size.
-	 */
-	private int sizeX;
-
-	/**
-	 * The vertical size.
-	 */
-	private int sizeY;
-
-	/**
-	 * The 'solid object' flag, {@code true} by default.
-	 */
-	private boolean solid = true;
-
-	/**
-	 * The 'walkable' flag, {@code true} by default.
-	 */
-	private boolean walkable = true;
-
-	/**
-	 * Flag for if the object is interactable.
-	 */
-	private boolean interactable;
-
-	/**
-	 * The name.
-	 */
-	private String name = "";
-
-	/**
-	 * The description.
+	 * The table which holds this object's properties.
 	 */
-	private String description = "";
+	private final ObjectDefinitionTable table;
 
 	/**
-	 * The actions.
+	 * The object id.
 	 */
-	private final String[] actions = new String[10];
+	private final int id;
 
 	/**
 	 * Creates a new object definition.
+	 * @param table The table which holds the object's properties.
 	 * @param id The object id.
 	 */
-	public ObjectDefinition(int id) {
+	ObjectDefinition(ObjectDefinitionTable table, int id) {
+		this.table = table;
 		this.id = id;
 	}
 
@@ -144,7 +81,7 @@ public final class ObjectDefinition {
 	 */
 	public void addAction(int code, String action) {
 		if (!action.equalsIgnoreCase("hidden")) {
-			actions[code] = action;
+			table.actions[id] = table.with(table.actions[id], code, action);
 		}
 	}
 
@@ -153,7 +90,7 @@ public final class ObjectDefinition {
 	 * @return The actions.
 	 */
 	public String[] getActions() {
-		return actions;
+		return table.actions[id].clone();
 	}
 
 	/**
@@ -161,7 +98,7 @@ public final class ObjectDefinition {
 	 * @return The description.
 	 */
 	public String getDescription() {
-		return description;
+		return table.descriptions[id];
 	}
 
 	/**
@@ -177,7 +114,7 @@ public final class ObjectDefinition {
 	 * @return The map scene id.
 	 */
 	public int getMapSceneId() {
-		return mapSceneId;
+		return table.mapSceneIds[id] & 0xFFFF;
 	}
 
 	/**
@@ -185,7 +122,7 @@ public final class ObjectDefinition {
 	 * @return The name.
 	 */
 	public String getName() {
-		return name;
+		return table.names[id];
 	}
 
 	// XXX: use single instances for offset and scale positions?
@@ -194,7 +131,8 @@ public final class ObjectDefinition {
 	 * @return The offset.
 	 */
 	public Position getOffset() {
-		return new Position(offsetX, offsetY, offsetZ);
+		return new Position(table.offsetsX[id] & 0xFFFF, table.offsetsY[id] & 0xFFFF,
+				table.offsetsZ[id] & 0xFFFF);
 	}
 
 	/**
@@ -202,7 +140,8 @@ public final class ObjectDefinition {
 	 * @return The scale.
 	 */
 	public Position getScale() {
-		return new Position(scaleX, scaleY, scaleZ);
+		return new Position(table.scalesX[id] & 0xFFFF, table.scalesY[id] & 0xFFFF,
+				table.scalesZ[id] & 0xFFFF);
 	}
 
 	/**
@@ -210,7 +149,7 @@ public final class ObjectDefinition {
 	 * @return The X size.
 	 */
 	public int getSizeX() {
-		return sizeX;
+		return table.sizesX[id] & 0xFF;
 	}
 
 	/**
@@ -218,7 +157,7 @@ public final class ObjectDefinition {
 	 * @return The Y size.
 	 */
 	public int getSizeY() {
-		return sizeY;
+		return table.sizesY[id] & 0xFF;
 	}
 
 	/**
@@ -226,7 +165,7 @@ public final class ObjectDefinition {
 	 * @return {@code true} if the object has actions, {@code false} otherwise.
 	 */
 	public boolean isInteractable() {
-		return interactable;
+		return (table.flags[id] & ObjectDefinitionTable.INTERACTABLE) != 0;
 	}
 
 	/**
@@ -234,7 +173,7 @@ public final class ObjectDefinition {
 	 * @return The solid flag.
 	 */
 	public boolean isSolid() {
-		return solid;
+		return (table.flags[id] & ObjectDefinitionTable.SOLID) != 0;
 	}
 
 	/**
@@ -242,7 +181,7 @@ public final class ObjectDefinition {
 	 * @return The walkable flag.
 	 */
 	public boolean isWalkable() {
-		return walkable;
+		return (table.flags[id] & ObjectDefinitionTable.WALKABLE) != 0;
 	}
 
 	/**
@@ -250,7 +189,7 @@ public final class ObjectDefinition {
 	 * @param description The description.
 	 */
 	public void setDescription(String description) {
-		this.description = description;
+		table.descriptions[id] = table.intern(description);
 	}
 
 	/**
@@ -258,7 +197,7 @@ public final class ObjectDefinition {
 	 * @param interactable The interactability flag.
 	 */
 	public void setInteractable(boolean interactable) {
-		this.interactable = interactable;
+		table.setFlag(id, ObjectDefinitionTable.INTERACTABLE, interactable);
 	}
 
 	/**
@@ -266,7 +205,7 @@ public final class ObjectDefinition {
 	 * @param mapSceneId The map scene id.
 	 */
 	public void setMapSceneId(int mapSceneId) {
-		this.mapSceneId = mapSceneId;
+		table.mapSceneIds[id] = (short) mapSceneId;
 	}
 
 	/**
@@ -274,7 +213,7 @@ public final class ObjectDefinition {
 	 * @param name The name to set.
 	 */
 	public void setName(String name) {
-		this.name = name;
+		table.names[id] = table.intern(name);
 	}
 
 	/**
@@ -282,7 +221,7 @@ public final class ObjectDefinition {
 	 * @param offsetX The offset x.
 	 */
 	public void setOffsetX(int offsetX) {
-		this.offsetX = offsetX;
+		table.offsetsX[id] = (short) offsetX;
 	}
 
 	/**
@@ -290,7 +229,7 @@ public final class ObjectDefinition {
 	 * @param offsetY The offset y.
 	 */
 	public void setOffsetY(int offsetY) {
-		this.offsetY = offsetY;
+		table.offsetsY[id] = (short) offsetY;
 	}
 
 	/**
@@ -298,7 +237,7 @@ public final class ObjectDefinition {
 	 * @param offsetZ The offset z.
 	 */
 	public void setOffsetZ(int offsetZ) {
-		this.offsetZ = offsetZ;
+		table.offsetsZ[id] = (short) offsetZ;
 	}
 
 	/**
@@ -306,7 +245,7 @@ public final class ObjectDefinition {
 	 * @param scaleX The scale x.
 	 */
 	public void setScaleX(int scaleX) {
-		this.scaleX = scaleX;
+		table.scalesX[id] = (short) scaleX;
 	}
 
 	/**
@@ -314,7 +253,7 @@ public final class ObjectDefinition {
 	 * @param scaleY The scale y.
 	 */
 	public void setScaleY(int scaleY) {
-		this.scaleY = scaleY;
+		table.scalesY[id] = (short) scaleY;
 	}
 
 	/**
@@ -322,7 +261,7 @@ public final class ObjectDefinition {
 	 * @param scaleZ The scale z.
 	 */
 	public void setScaleZ(int scaleZ) {
-		this.scaleZ = scaleZ;
+		table.scalesZ[id] = (short) scaleZ;
 	}
 
 	/**
@@ -330,7 +269,7 @@ public final class ObjectDefinition {
 	 * @param sizeX The horizontal size to be set.
 	 */
 	public void setSizeX(int sizeX) {
-		this.sizeX = sizeX;
+		table.sizesX[id] = (byte) sizeX;
 	}
 
 	/**
@@ -338,7 +277,7 @@ public final class ObjectDefinition {
 	 * @param sizeY The vertical size to be set.
 	 */
 	public void setSizeY(int sizeY) {
-		this.sizeX = sizeY;
+		table.sizesY[id] = (byte) sizeY;
 	}
 
 	/**
@@ -346,7 +285,7 @@ public final class ObjectDefinition {
 	 * @param solid The solid flag.
 	 */
 	public void setSolid(boolean solid) {
-		this.solid = solid;
+		table.setFlag(id, ObjectDefinitionTable.SOLID, solid);
 	}
 
 	/**
@@ -354,7 +293,7 @@ public final class ObjectDefinition {
 	 * @param walkable The walkable flag.
 	 */
 	public void setWalkable(boolean walkable) {
-		this.walkable = walkable;
+		table.setFlag(id, ObjectDefinitionTable.WALKABLE, walkable);
 	}
 
 }
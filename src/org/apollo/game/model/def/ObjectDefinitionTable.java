@@ -0,0 +1,143 @@
+package org.apollo.game.model.def;
+
+import java.util.Arrays;
+
+/**
+ * The object definitions of a cache, stored column by column in primitive arrays rather than as one object per object
+ * type. The {@link ObjectDefinition}s handed out by the table are views which only hold their id.
+ */
+public final class ObjectDefinitionTable extends DefinitionTable {
+
+	/**
+	 * The flag set for solid objects.
+	 */
+	static final int SOLID = 1;
+
+	/**
+	 * The flag set for walkable objects.
+	 */
+	static final int WALKABLE = 2;
+
+	/**
+	 * The flag set for interactable objects.
+	 */
+	static final int INTERACTABLE = 4;
+
+	/**
+	 * The number of actions of an object.
+	 */
+	static final int ACTION_COUNT = 10;
+
+	/**
+	 * The definitions, by id.
+	 */
+	final ObjectDefinition[] definitions;
+
+	/**
+	 * The names, by id.
+	 */
+	final String[] names;
+
+	/**
+	 * The descriptions, by id.
+	 */
+	final String[] descriptions;
+
+	/**
+	 * The flags, by id.
+	 */
+	final byte[] flags;
+
+	/**
+	 * The widths, by id.
+	 */
+	final byte[] sizesX;
+
+	/**
+	 * The lengths, by id.
+	 */
+	final byte[] sizesY;
+
+	/**
+	 * The map scene ids, by id, as unsigned shorts.
+	 */
+	final short[] mapSceneIds;
+
+	/**
+	 * The x, y and z scales, by id, as unsigned shorts.
+	 */
+	final short[] scalesX, scalesY, scalesZ;
+
+	/**
+	 * The x, y and z offsets, by id, as unsigned shorts.
+	 */
+	final short[] offsetsX, offsetsY, offsetsZ;
+
+	/**
+	 * The pooled action arrays, by id.
+	 */
+	final String[][] actions;
+
+	/**
+	 * Creates a table of objects with the default values.
+	 * @param count The number of objects.
+	 */
+	public ObjectDefinitionTable(int count) {
+		definitions = new ObjectDefinition[count];
+		names = new String[count];
+		descriptions = new String[count];
+		flags = new byte[count];
+		sizesX = new byte[count];
+		sizesY = new byte[count];
+		mapSceneIds = new short[count];
+		scalesX = new short[count];
+		scalesY = new short[count];
+		scalesZ = new short[count];
+		offsetsX = new short[count];
+		offsetsY = new short[count];
+		offsetsZ = new short[count];
+		actions = new String[count][];
+		Arrays.fill(names, "");
+		Arrays.fill(descriptions, "");
+		Arrays.fill(flags, (byte) (SOLID | WALKABLE));
+		Arrays.fill(actions, intern(new String[ACTION_COUNT]));
+		for (int id = 0; id < count; id++) {
+			definitions[id] = new ObjectDefinition(this, id);
+		}
+	}
+
+	/**
+	 * Gets the definition of an object.
+	 * @param id The object's id.
+	 * @return The definition.
+	 */
+	public ObjectDefinition get(int id) {
+		return definitions[id];
+	}
+
+	/**
+	 * Gets every definition in this table.
+	 * @return The definitions, indexed by id.
+	 */
+	public ObjectDefinition[] getDefinitions() {
+		return definitions.clone();
+	}
+
+	/**
+	 * Sets or clears a flag of an object.
+	 * @param id The object's id.
+	 * @param flag The flag.
+	 * @param set {@code true} to set the flag, {@code false} to clear it.
+	 */
+	void setFlag(int id, int flag, boolean set) {
+		flags[id] = (byte) (set ? flags[id] | flag : flags[id] & ~flag);
+	}
+
+	/**
+	 * Gets the number of objects in this table.
+	 * @return The number of objects.
+	 */
+	public int size() {
+		return definitions.length;
+	}
+}
@@ -0,0 +1,60 @@
+package org.apollo.game.model.def;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A pool of strings and string arrays, used while a definition table is being filled so that equal names, actions and
+ * sets of actions are only held once.
+ * <p>
+ * Interned arrays are shared between definitions and must never be modified.
+ */
+final class StringPool {
+
+	/**
+	 * The interned strings.
+	 */
+	private final Map<String, String> strings = new HashMap<String, String>();
+
+	/**
+	 * The interned arrays, keyed by their contents.
+	 */
+	private final Map<List<String>, String[]> arrays = new HashMap<List<String>, String[]>();
+
+	/**
+	 * Interns a string.
+	 * @param string The string, which may be {@code null}.
+	 * @return The pooled string equal to the specified string.
+	 */
+	public String intern(String string) {
+		if (string == null) {
+			return null;
+		}
+		String pooled = strings.get(string);
+		if (pooled == null) {
+			strings.put(string, string);
+			return string;
+		}
+		return pooled;
+	}
+
+	/**
+	 * Interns an array of strings. The array must not be modified afterwards.
+	 * @param array The array.
+	 * @return The pooled array equal to the specified array.
+	 */
+	public String[] intern(String[] array) {
+		List<String> key = Arrays.asList(array);
+		String[] pooled = arrays.get(key);
+		if (pooled == null) {
+			for (int i = 0; i < array.length; i++) {
+				array[i] = intern(array[i]);
+			}
+			arrays.put(key, array);
+			return array;
+		}
+		return pooled;
+	}
+}
@@ -6,6 +6,7 @@ import org.apollo.game.model.Inventory;
 import org.apollo.game.model.Item;
 import org.apollo.game.model.Player;
 import org.apollo.game.model.inter.InterfaceListener;
+import org.apollo.game.model.inv.SynchronizationInventoryListener;
 import org.apollo.util.TextUtil;
 
 /**
@@ -54,8 +55,9 @@ public final class TradeSession {
 	protected TradeSession(Player player, Player acquaintance) {
 		this.player = player;
 		this.acquaintance = acquaintance;
-		offeredItems.addListener(new OfferedItemsContainerListener(player, acquaintance));
-		player.getInventory().addListener(new TradeInventoryContainerListener(player));
+		offeredItems.addListener(new SynchronizationInventoryListener(player, 3415));
+		offeredItems.addListener(new SynchronizationInventoryListener(acquaintance, 3416));
+		player.getInventory().addListener(new SynchronizationInventoryListener(player, 3322));
 	}
 
 	/**
@@ -1,5 +1,7 @@
 package org.apollo.game.model.inv;
 
+import java.util.BitSet;
+
 import org.apollo.game.event.impl.UpdateItemsEvent;
 import org.apollo.game.event.impl.UpdateSlottedItemsEvent;
 import org.apollo.game.model.Inventory;
@@ -9,6 +11,11 @@ import org.apollo.game.model.SlottedItem;
 
 /**
  * An {@link InventoryListener} which synchronizes the state of the server's inventory with the client's.
+ * <p>
+ * Updates are not sent as they happen. Instead, the slots which changed are marked in a bitset and the listener is
+ * flushed by its player once per pulse, when the inventory is compared against the items which the client was last
+ * sent. Only the slots which actually differ are sent, in a single {@link UpdateSlottedItemsEvent}, unless sending the
+ * whole inventory would be smaller.
  * @author Graham
  */
 public final class SynchronizationInventoryListener extends InventoryAdapter {
@@ -23,6 +30,30 @@ public final class SynchronizationInventoryListener extends InventoryAdapter {
 	 */
 	public static final int EQUIPMENT_ID = 1688;
 
+	/**
+	 * Gets the encoded size of an item amount.
+	 * @param item The item.
+	 * @return The size, in bytes.
+	 */
+	private static int getAmountSize(Item item) {
+		return item != null && item.getAmount() > 254 ? 5 : 1;
+	}
+
+	/**
+	 * Checks if two items are the same as far as the client is concerned.
+	 * @param first The first item.
+	 * @param second The second item.
+	 * @return {@code true} if so, {@code false} if not.
+	 */
+	private static boolean isSame(Item first, Item second) {
+		if (first == second) {
+			return true;
+		} else if (first == null || second == null) {
+			return false;
+		}
+		return first.getId() == second.getId() && first.getAmount() == second.getAmount();
+	}
+
 	/**
 	 * The player.
 	 */
@@ -33,6 +64,31 @@ public final class SynchronizationInventoryListener extends InventoryAdapter {
 	 */
 	private final int interfaceId;
 
+	/**
+	 * The slots which were updated since the last flush.
+	 */
+	private final BitSet dirty = new BitSet();
+
+	/**
+	 * Flag indicating if items were updated in bulk since the last flush, in which case every slot is compared.
+	 */
+	private boolean bulk;
+
+	/**
+	 * Flag indicating if this listener is waiting to be flushed.
+	 */
+	private boolean pending;
+
+	/**
+	 * The inventory which was updated.
+	 */
+	private Inventory inventory;
+
+	/**
+	 * The items which the client was last sent, or {@code null} if it has not been sent any.
+	 */
+	private Item[] sent;
+
 	/**
 	 * Creates the syncrhonization inventory listener.
 	 * @param player The player.
@@ -43,13 +99,56 @@ public final class SynchronizationInventoryListener extends InventoryAdapter {
 		this.interfaceId = interfaceId;
 	}
 
+	/**
+	 * Sends the slots which were updated since the last flush to the client.
+	 */
+	public void flush() {
+		pending = false;
+		Item[] items = inventory.getItems();
+		if (sent == null || sent.length != items.length) {
+			player.send(new UpdateItemsEvent(interfaceId, items));
+		} else {
+			if (bulk) {
+				for (int slot = 0; slot < items.length; slot++) {
+					dirty.set(slot, !isSame(sent[slot], items[slot]));
+				}
+			} else {
+				for (int slot = dirty.nextSetBit(0); slot >= 0; slot = dirty.nextSetBit(slot + 1)) {
+					dirty.set(slot, !isSame(sent[slot], items[slot]));
+				}
+			}
+			int fullSize = 4;
+			for (Item item : items) {
+				fullSize += 2 + getAmountSize(item);
+			}
+			int slottedSize = 2, count = 0;
+			for (int slot = dirty.nextSetBit(0); slot >= 0; slot = dirty.nextSetBit(slot + 1)) {
+				slottedSize += (slot < 128 ? 1 : 2) + 2 + getAmountSize(items[slot]);
+				count++;
+			}
+			if (slottedSize >= fullSize) {
+				player.send(new UpdateItemsEvent(interfaceId, items));
+			} else if (count > 0) {
+				SlottedItem[] slotted = new SlottedItem[count];
+				for (int slot = dirty.nextSetBit(0), index = 0; slot >= 0; slot = dirty.nextSetBit(slot + 1)) {
+					slotted[index++] = new SlottedItem(slot, items[slot]);
+				}
+				player.send(new UpdateSlottedItemsEvent(interfaceId, slotted));
+			}
+		}
+		sent = items;
+		dirty.clear();
+		bulk = false;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see org.apollo.game.model.inv.InventoryAdapter#itemsUpdated(org.apollo.game.model.Inventory)
 	 */
 	@Override
 	public void itemsUpdated(Inventory inventory) {
-		player.send(new UpdateItemsEvent(interfaceId, inventory.getItems()));
+		bulk = true;
+		update(inventory);
 	}
 
 	/*
@@ -59,6 +158,19 @@ public final class SynchronizationInventoryListener extends InventoryAdapter {
 	 */
 	@Override
 	public void itemUpdated(Inventory inventory, int slot, Item item) {
-		player.send(new UpdateSlottedItemsEvent(interfaceId, new SlottedItem(slot, item)));
+		dirty.set(slot);
+		update(inventory);
+	}
+
+	/**
+	 * Queues this listener to be flushed at the end of the pulse, if it is not already.
+	 * @param inventory The inventory which was updated.
+	 */
+	private void update(Inventory inventory) {
+		this.inventory = inventory;
+		if (!pending) {
+			pending = true;
+			player.queueInventoryUpdate(this);
+		}
 	}
 }
@@ -1,8 +1,6 @@
 package org.apollo.game.model.obj;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Map.Entry;
+import java.util.Arrays;
 
 import org.apollo.game.event.impl.DestroyObjectEvent;
 import org.apollo.game.event.impl.DisplayObjectEvent;
@@ -11,6 +9,7 @@ import org.apollo.game.model.Player;
 import org.apollo.game.model.Position;
 import org.apollo.game.model.World;
 import org.apollo.game.model.def.StaticObjectDefinition;
+import org.apollo.util.IntHashMap;
 
 /**
  * Represents static objects in the game world.
@@ -24,9 +23,14 @@ public final class PlayerObject {
 	private final Player player;
 
 	/**
-	 * The list of objects at the correct position.
+	 * The list of objects at the correct position, keyed by {@link Position#pack() packed} position.
 	 */
-	private final Map<Position, StaticObjectDefinition> objects = new HashMap<Position, StaticObjectDefinition>();
+	private final IntHashMap<StaticObjectDefinition> objects = new IntHashMap<StaticObjectDefinition>();
+
+	/**
+	 * The keys of the objects which were sent during the current call to {@link #process()}.
+	 */
+	private int[] sent = new int[16];
 
 	/**
 	 * Create a new static object list for the player.
@@ -43,14 +47,10 @@ public final class PlayerObject {
 	 */
 	public void add(StaticObjectDefinition definition) {
 		definition.setType(ObjectEnum.ADD);
-		if (!objects.containsKey(definition.getPosition())) {
-			objects.put(definition.getPosition(), definition);
-		} else {
-			StaticObjectDefinition queuable = objects.get(definition.getPosition());
-			if (!queuable.getType().equals(ObjectEnum.ADD)) {
-				objects.remove(definition.getPosition());
-				objects.put(definition.getPosition(), definition);
-			}
+		int key = definition.getPosition().pack();
+		StaticObjectDefinition queuable = objects.get(key);
+		if (queuable == null || !queuable.getType().equals(ObjectEnum.ADD)) {
+			objects.put(key, definition);
 		}
 		process();
 	}
@@ -67,11 +67,15 @@ public final class PlayerObject {
 	 */
 	public void process() {
 		synchronized (objects) {
-			for (Entry<Position, StaticObjectDefinition> objects : this.objects.entrySet()) {
-				Position def = objects.getKey();
-				StaticObjectDefinition object = objects.getValue();
-				if (player.getPosition().isWithinDistance(object.getPosition(), Position.MAX_DISTANCE)
-						&& player.getPosition().getHeight() == object.getPosition().getHeight()) {
+			int position = player.getPosition().pack();
+			int count = 0;
+			for (int slot = 0; slot < objects.capacity(); slot++) {
+				StaticObjectDefinition object = objects.valueAt(slot);
+				if (object == null) {
+					continue;
+				}
+				int key = objects.keyAt(slot);
+				if (Position.isWithinDistance(position, key, Position.MAX_DISTANCE)) {
 					player.send(new PositionEvent(player.getPosition(), object.getPosition()));
 					if (object.getType().equals(ObjectEnum.ADD)) {
 						player.send(new DisplayObjectEvent(object.getObject(), object.getOrient(), object.getTile()));
@@ -81,9 +85,15 @@ public final class PlayerObject {
 						player.send(new DestroyObjectEvent(object.getOrient(), object.getTile()));
 						player.send(new DisplayObjectEvent(object.getObject(), object.getOrient(), object.getTile()));
 					}
-					this.objects.remove(def);
+					if (count == sent.length) {
+						sent = Arrays.copyOf(sent, count * 2);
+					}
+					sent[count++] = key;
 				}
 			}
+			for (int i = 0; i < count; i++) {
+				objects.remove(sent[i]);
+			}
 		}
 	}
 
@@ -93,14 +103,10 @@ public final class PlayerObject {
 	 */
 	public void remove(StaticObjectDefinition definition) {
 		definition.setType(ObjectEnum.REMOVE);
-		if (!objects.containsKey(definition.getPosition())) {
-			objects.put(definition.getPosition(), definition);
-		} else {
-			StaticObjectDefinition queuable = objects.get(definition.getPosition());
-			if (!queuable.getType().equals(ObjectEnum.REMOVE)) {
-				objects.remove(definition.getPosition());
-				objects.put(definition.getPosition(), definition);
-			}
+		int key = definition.getPosition().pack();
+		StaticObjectDefinition queuable = objects.get(key);
+		if (queuable == null || !queuable.getType().equals(ObjectEnum.REMOVE)) {
+			objects.put(key, definition);
 		}
 		process();
 	}
@@ -111,14 +117,10 @@ public final class PlayerObject {
 	 */
 	public void replace(StaticObjectDefinition definition) {
 		definition.setType(ObjectEnum.REPLACE);
-		if (!objects.containsKey(definition.getPosition())) {
-			objects.put(definition.getPosition(), definition);
-		} else {
-			StaticObjectDefinition queuable = objects.get(definition.getPosition());
-			if (!queuable.getType().equals(ObjectEnum.REPLACE)) {
-				objects.remove(definition.getPosition());
-				objects.put(definition.getPosition(), definition);
-			}
+		int key = definition.getPosition().pack();
+		StaticObjectDefinition queuable = objects.get(key);
+		if (queuable == null || !queuable.getType().equals(ObjectEnum.REPLACE)) {
+			objects.put(key, definition);
 		}
 		process();
 	}
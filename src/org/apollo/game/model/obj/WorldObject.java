@@ -1,12 +1,12 @@
 package org.apollo.game.model.obj;
 
-import java.util.HashMap;
-import java.util.Map;
-
 import org.apollo.game.model.Player;
 import org.apollo.game.model.Position;
 import org.apollo.game.model.World;
+import org.apollo.game.model.def.ObjectDefinition;
 import org.apollo.game.model.def.StaticObjectDefinition;
+import org.apollo.game.model.region.CollisionMap;
+import org.apollo.util.IntHashMap;
 
 /**
  * Represents static objects in the game world.
@@ -15,18 +15,20 @@ import org.apollo.game.model.def.StaticObjectDefinition;
 public final class WorldObject {
 
 	/**
-	 * The list of objects at the correct position.
+	 * The list of objects at the correct position, keyed by {@link Position#pack() packed} position.
 	 */
-	private final Map<Position, StaticObjectDefinition> objects = new HashMap<Position, StaticObjectDefinition>();
+	private final IntHashMap<StaticObjectDefinition> objects = new IntHashMap<StaticObjectDefinition>();
 
 	/**
 	 * Adds a object to the list of global objects.
 	 * @param definition The object definition.
 	 */
 	public void add(StaticObjectDefinition definition) {
-		if (!objects.containsKey(definition.getPosition())) {
+		int key = definition.getPosition().pack();
+		if (!objects.containsKey(key)) {
 			definition.setType(ObjectEnum.ADD);
-			objects.put(definition.getPosition(), definition);
+			objects.put(key, definition);
+			setClipping(definition, true);
 			for (Player player : World.getWorld().getPlayerRepository()) {
 				player.getObjectSet().add(definition);
 			}
@@ -39,14 +41,14 @@ public final class WorldObject {
 	 * @return The object that is at that position.
 	 */
 	public StaticObjectDefinition getObject(Position position) {
-		return objects.get(position);
+		return objects.get(position.pack());
 	}
 
 	/**
 	 * Gets the global objects.
 	 * @return The global objects.
 	 */
-	public Map<Position, StaticObjectDefinition> getObjects() {
+	public IntHashMap<StaticObjectDefinition> getObjects() {
 		return objects;
 	}
 
@@ -55,9 +57,10 @@ public final class WorldObject {
 	 * @param definition The object definition.
 	 */
 	public void remove(StaticObjectDefinition definition) {
-		if (objects.containsKey(definition.getPosition())) {
+		int key = definition.getPosition().pack();
+		if (objects.containsKey(key)) {
 			definition.setType(ObjectEnum.REMOVE);
-			objects.remove(definition.getPosition());
+			setClipping(objects.remove(key), false);
 			for (Player player : World.getWorld().getPlayerRepository()) {
 				player.getObjectSet().remove(
 						new StaticObjectDefinition(definition.getPosition(), -1, definition.getOrient(), definition
@@ -71,13 +74,36 @@ public final class WorldObject {
 	 * @param definition The object definition.
 	 */
 	public void replace(StaticObjectDefinition definition) {
-		if (objects.containsKey(definition.getPosition())) {
+		int key = definition.getPosition().pack();
+		if (objects.containsKey(key)) {
 			definition.setType(ObjectEnum.REPLACE);
-			objects.remove(definition.getPosition());
-			objects.put(definition.getPosition(), definition);
+			setClipping(objects.remove(key), false);
+			objects.put(key, definition);
+			setClipping(definition, true);
 			for (Player player : World.getWorld().getPlayerRepository()) {
 				player.getObjectSet().replace(definition);
 			}
 		}
 	}
+
+	/**
+	 * Adds or removes the clipping of an object from the world's collision map.
+	 * @param definition The object definition.
+	 * @param add {@code true} to add the clipping, {@code false} to remove it.
+	 */
+	private void setClipping(StaticObjectDefinition definition, boolean add) {
+		if (definition.getObject() < 0 || definition.getObject() >= ObjectDefinition.count()) {
+			return;
+		}
+		ObjectDefinition def = ObjectDefinition.forId(definition.getObject());
+		Position position = definition.getPosition();
+		CollisionMap map = World.getWorld().getCollisionMap();
+		if (add) {
+			map.addObject(def, position.getX(), position.getY(), position.getHeight(), definition.getTile(),
+					definition.getOrient());
+		} else {
+			map.removeObject(def, position.getX(), position.getY(), position.getHeight(), definition.getTile(),
+					definition.getOrient());
+		}
+	}
 }
@@ -0,0 +1,207 @@
+package org.apollo.game.model.path;
+
+import java.util.Arrays;
+
+import org.apollo.game.model.region.CollisionMap;
+
+/**
+ * A {@link PathfindingAlgorithm} which performs an A* search over a square window centred between the start and the
+ * destination, for routes which are too long for the {@link BreadthFirstAlgorithm}. Every step costs the same, so the
+ * Chebyshev distance is used as an admissible heuristic.
+ */
+public final class AStarAlgorithm extends PathfindingAlgorithm {
+
+	/**
+	 * The width and length of the search window.
+	 */
+	public static final int SIZE = 256;
+
+	/**
+	 * The generation in which each node was last opened.
+	 */
+	private final int[] opened = new int[SIZE * SIZE];
+
+	/**
+	 * The generation in which each node was last closed.
+	 */
+	private final int[] closed = new int[SIZE * SIZE];
+
+	/**
+	 * The cost of the best known route to each node.
+	 */
+	private final int[] cost = new int[SIZE * SIZE];
+
+	/**
+	 * The direction index used to reach each node.
+	 */
+	private final byte[] via = new byte[SIZE * SIZE];
+
+	/**
+	 * The nodes in the open set heap.
+	 */
+	private int[] heapNodes = new int[SIZE * SIZE];
+
+	/**
+	 * The keys of the nodes in the open set heap.
+	 */
+	private int[] heapKeys = new int[SIZE * SIZE];
+
+	/**
+	 * The size of the open set heap.
+	 */
+	private int heapSize;
+
+	/**
+	 * The current generation, incremented per search so the arrays never need to be cleared.
+	 */
+	private int generation;
+
+	/**
+	 * Creates the A* algorithm.
+	 * @param map The collision map.
+	 */
+	public AStarAlgorithm(CollisionMap map) {
+		super(map);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.apollo.game.model.path.PathfindingAlgorithm#find(int, int, int, int, int, int, int)
+	 */
+	@Override
+	public Path find(int srcX, int srcY, int dstX, int dstY, int height, int proximity, int limit) {
+		expanded = 0;
+		int baseX = (srcX + dstX) / 2 - SIZE / 2;
+		int baseY = (srcY + dstY) / 2 - SIZE / 2;
+		if (!inWindow(srcX - baseX, srcY - baseY) || !inWindow(dstX - baseX, dstY - baseY)) {
+			return null;
+		}
+		if (++generation == 0) {
+			Arrays.fill(opened, 0);
+			Arrays.fill(closed, 0);
+			generation = 1;
+		}
+		heapSize = 0;
+		int start = (srcX - baseX) * SIZE + (srcY - baseY);
+		opened[start] = generation;
+		cost[start] = 0;
+		push(start, key(0, distance(srcX, srcY, dstX, dstY)));
+		int closest = start;
+		int closestDistance = Integer.MAX_VALUE;
+		while (heapSize > 0) {
+			int index = pop();
+			if (closed[index] == generation) {
+				continue; // a stale heap entry, the node was reached more cheaply
+			}
+			closed[index] = generation;
+			int x = baseX + index / SIZE;
+			int y = baseY + index % SIZE;
+			int distance = distance(x, y, dstX, dstY);
+			if (distance <= proximity) {
+				return backtrack(via, SIZE, baseX, baseY, start, index, height, true);
+			}
+			if (distance < closestDistance) {
+				closest = index;
+				closestDistance = distance;
+			}
+			if (++expanded >= limit) {
+				return null;
+			}
+			int nextCost = cost[index] + 1;
+			for (int direction = 0; direction < DELTA_X.length; direction++) {
+				int localX = index / SIZE + DELTA_X[direction];
+				int localY = index % SIZE + DELTA_Y[direction];
+				if (!inWindow(localX, localY)) {
+					continue;
+				}
+				int next = localX * SIZE + localY;
+				if (closed[next] == generation || (opened[next] == generation && cost[next] <= nextCost)) {
+					continue;
+				}
+				if (!map.canMove(x, y, height, DELTA_X[direction], DELTA_Y[direction])) {
+					continue;
+				}
+				opened[next] = generation;
+				cost[next] = nextCost;
+				via[next] = (byte) direction;
+				push(next, key(nextCost, distance(baseX + localX, baseY + localY, dstX, dstY)));
+			}
+		}
+		return backtrack(via, SIZE, baseX, baseY, start, closest, height, false);
+	}
+
+	/**
+	 * Checks if a local coordinate pair lies within the search window.
+	 * @param localX The local x coordinate.
+	 * @param localY The local y coordinate.
+	 * @return {@code true} if so, {@code false} if not.
+	 */
+	private boolean inWindow(int localX, int localY) {
+		return localX >= 0 && localY >= 0 && localX < SIZE && localY < SIZE;
+	}
+
+	/**
+	 * Creates a heap key, ordering by estimated total cost and then by the heuristic so that nodes closer to the
+	 * destination are preferred on ties.
+	 * @param cost The cost so far.
+	 * @param heuristic The estimated remaining cost.
+	 * @return The key.
+	 */
+	private int key(int cost, int heuristic) {
+		return ((cost + heuristic) << 16) | heuristic;
+	}
+
+	/**
+	 * Removes the node with the smallest key from the heap.
+	 * @return The node.
+	 */
+	private int pop() {
+		int node = heapNodes[0];
+		heapSize--;
+		int lastNode = heapNodes[heapSize];
+		int lastKey = heapKeys[heapSize];
+		int position = 0;
+		while (true) {
+			int child = position * 2 + 1;
+			if (child >= heapSize) {
+				break;
+			}
+			if (child + 1 < heapSize && heapKeys[child + 1] < heapKeys[child]) {
+				child++;
+			}
+			if (heapKeys[child] >= lastKey) {
+				break;
+			}
+			heapNodes[position] = heapNodes[child];
+			heapKeys[position] = heapKeys[child];
+			position = child;
+		}
+		heapNodes[position] = lastNode;
+		heapKeys[position] = lastKey;
+		return node;
+	}
+
+	/**
+	 * Adds a node to the heap.
+	 * @param node The node.
+	 * @param key The key.
+	 */
+	private void push(int node, int key) {
+		if (heapSize == heapNodes.length) {
+			heapNodes = Arrays.copyOf(heapNodes, heapSize * 2);
+			heapKeys = Arrays.copyOf(heapKeys, heapSize * 2);
+		}
+		int position = heapSize++;
+		while (position > 0) {
+			int parent = (position - 1) / 2;
+			if (heapKeys[parent] <= key) {
+				break;
+			}
+			heapNodes[position] = heapNodes[parent];
+			heapKeys[position] = heapKeys[parent];
+			position = parent;
+		}
+		heapNodes[position] = node;
+		heapKeys[position] = key;
+	}
+}
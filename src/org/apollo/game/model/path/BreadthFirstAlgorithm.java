@@ -0,0 +1,114 @@
+package org.apollo.game.model.path;
+
+import java.util.Arrays;
+
+import org.apollo.game.model.region.CollisionMap;
+
+/**
+ * A {@link PathfindingAlgorithm} which performs a breadth-first search over the 104x104 area the client has loaded
+ * around the start, in the same neighbour order as the client's own pathfinder.
+ */
+public final class BreadthFirstAlgorithm extends PathfindingAlgorithm {
+
+	/**
+	 * The width and length of the search area.
+	 */
+	public static final int SIZE = 104;
+
+	/**
+	 * The generation in which each node was last visited.
+	 */
+	private final int[] visited = new int[SIZE * SIZE];
+
+	/**
+	 * The direction index used to reach each node.
+	 */
+	private final byte[] via = new byte[SIZE * SIZE];
+
+	/**
+	 * The queue of nodes to expand.
+	 */
+	private final int[] queue = new int[SIZE * SIZE];
+
+	/**
+	 * The current generation, incremented per search so the arrays never need to be cleared.
+	 */
+	private int generation;
+
+	/**
+	 * Creates the breadth-first algorithm.
+	 * @param map The collision map.
+	 */
+	public BreadthFirstAlgorithm(CollisionMap map) {
+		super(map);
+	}
+
+	/**
+	 * Checks if both tiles lie within the search area of this algorithm.
+	 * @param srcX The x coordinate of the start.
+	 * @param srcY The y coordinate of the start.
+	 * @param dstX The x coordinate of the destination.
+	 * @param dstY The y coordinate of the destination.
+	 * @return {@code true} if so, {@code false} if not.
+	 */
+	public static boolean covers(int srcX, int srcY, int dstX, int dstY) {
+		int half = SIZE / 2;
+		int localX = dstX - srcX + half;
+		int localY = dstY - srcY + half;
+		return localX >= 0 && localY >= 0 && localX < SIZE && localY < SIZE;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.apollo.game.model.path.PathfindingAlgorithm#find(int, int, int, int, int, int, int)
+	 */
+	@Override
+	public Path find(int srcX, int srcY, int dstX, int dstY, int height, int proximity, int limit) {
+		expanded = 0;
+		if (!covers(srcX, srcY, dstX, dstY)) {
+			return null;
+		}
+		if (++generation == 0) {
+			Arrays.fill(visited, 0);
+			generation = 1;
+		}
+		int baseX = srcX - SIZE / 2;
+		int baseY = srcY - SIZE / 2;
+		int start = (SIZE / 2) * SIZE + SIZE / 2;
+		int head = 0, tail = 0;
+		queue[tail++] = start;
+		visited[start] = generation;
+		int closest = start;
+		int closestDistance = Integer.MAX_VALUE;
+		while (head < tail) {
+			int index = queue[head++];
+			int x = baseX + index / SIZE;
+			int y = baseY + index % SIZE;
+			int distance = distance(x, y, dstX, dstY);
+			if (distance <= proximity) {
+				return backtrack(via, SIZE, baseX, baseY, start, index, height, true);
+			}
+			if (distance < closestDistance) {
+				closest = index;
+				closestDistance = distance;
+			}
+			if (++expanded >= limit) {
+				return null;
+			}
+			for (int direction = 0; direction < DELTA_X.length; direction++) {
+				int localX = index / SIZE + DELTA_X[direction];
+				int localY = index % SIZE + DELTA_Y[direction];
+				if (localX < 0 || localY < 0 || localX >= SIZE || localY >= SIZE) {
+					continue;
+				}
+				int next = localX * SIZE + localY;
+				if (visited[next] != generation && map.canMove(x, y, height, DELTA_X[direction], DELTA_Y[direction])) {
+					visited[next] = generation;
+					via[next] = (byte) direction;
+					queue[tail++] = next;
+				}
+			}
+		}
+		return backtrack(via, SIZE, baseX, baseY, start, closest, height, false);
+	}
+}
@@ -0,0 +1,105 @@
+package org.apollo.game.model.path;
+
+/**
+ * An immutable list of steps produced by a {@link PathfindingAlgorithm}. The steps are stored as packed coordinates so
+ * that paths are cheap to keep in a cache.
+ */
+public final class Path {
+
+	/**
+	 * The packed steps of this path.
+	 */
+	private final int[] steps;
+
+	/**
+	 * The height level of this path.
+	 */
+	private final int height;
+
+	/**
+	 * A flag indicating if this path reaches the requested destination.
+	 */
+	private final boolean complete;
+
+	/**
+	 * Creates a path.
+	 * @param steps The packed steps.
+	 * @param height The height level.
+	 * @param complete A flag indicating if the path reaches the requested destination.
+	 */
+	Path(int[] steps, int height, boolean complete) {
+		this.steps = steps;
+		this.height = height;
+		this.complete = complete;
+	}
+
+	/**
+	 * Packs a pair of coordinates into a single step.
+	 * @param x The x coordinate.
+	 * @param y The y coordinate.
+	 * @return The packed step.
+	 */
+	static int pack(int x, int y) {
+		return (x << 16) | y;
+	}
+
+	/**
+	 * Gets the height level of this path.
+	 * @return The height level.
+	 */
+	public int getHeight() {
+		return height;
+	}
+
+	/**
+	 * Gets the x coordinate of a step.
+	 * @param index The index of the step.
+	 * @return The x coordinate.
+	 */
+	public int getX(int index) {
+		return steps[index] >>> 16;
+	}
+
+	/**
+	 * Gets the y coordinate of a step.
+	 * @param index The index of the step.
+	 * @return The y coordinate.
+	 */
+	public int getY(int index) {
+		return steps[index] & 0xFFFF;
+	}
+
+	/**
+	 * Checks if this path reaches the requested destination. Incomplete paths lead to the reachable tile closest to
+	 * the destination.
+	 * @return {@code true} if so, {@code false} if not.
+	 */
+	public boolean isComplete() {
+		return complete;
+	}
+
+	/**
+	 * Checks if this path has no steps.
+	 * @return {@code true} if so, {@code false} if not.
+	 */
+	public boolean isEmpty() {
+		return steps.length == 0;
+	}
+
+	/**
+	 * Gets the number of steps in this path.
+	 * @return The number of steps.
+	 */
+	public int size() {
+		return steps.length;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return Path.class.getName() + " [steps=" + steps.length + ", height=" + height + ", complete=" + complete + "]";
+	}
+}
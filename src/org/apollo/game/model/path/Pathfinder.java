@@ -0,0 +1,173 @@
+package org.apollo.game.model.path;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apollo.game.model.Position;
+import org.apollo.game.model.region.CollisionMap;
+
+/**
+ * Finds paths over the world's {@link CollisionMap}. Short routes are found with a {@link BreadthFirstAlgorithm} and
+ * longer ones with an {@link AStarAlgorithm}; each thread gets its own instance of both so that searches never
+ * allocate anything but the resulting {@link Path}.
+ * <p>
+ * The number of nodes which may be expanded is limited both per search and per pulse, so a single unreachable
+ * destination cannot spend the whole pulse's budget. Once the pulse's budget is spent, searches return {@code null}
+ * until the next pulse, so callers should simply try again later.
+ */
+public final class Pathfinder {
+
+	/**
+	 * The maximum number of nodes which may be expanded per pulse.
+	 */
+	private static final int NODES_PER_PULSE = 250000;
+
+	/**
+	 * The maximum number of nodes which a single search may expand.
+	 */
+	private static final int NODES_PER_SEARCH = 16384;
+
+	/**
+	 * The maximum number of cached routes.
+	 */
+	private static final int CACHE_SIZE = 512;
+
+	/**
+	 * The collision map.
+	 */
+	private final CollisionMap map;
+
+	/**
+	 * The breadth-first algorithm of each thread.
+	 */
+	private final ThreadLocal<BreadthFirstAlgorithm> breadthFirst = new ThreadLocal<BreadthFirstAlgorithm>() {
+		@Override
+		protected BreadthFirstAlgorithm initialValue() {
+			return new BreadthFirstAlgorithm(map);
+		}
+	};
+
+	/**
+	 * The A* algorithm of each thread.
+	 */
+	private final ThreadLocal<AStarAlgorithm> aStar = new ThreadLocal<AStarAlgorithm>() {
+		@Override
+		protected AStarAlgorithm initialValue() {
+			return new AStarAlgorithm(map);
+		}
+	};
+
+	/**
+	 * The number of nodes which may still be expanded this pulse.
+	 */
+	private final AtomicInteger budget = new AtomicInteger(NODES_PER_PULSE);
+
+	/**
+	 * The least-recently used cache of routes, keyed by start, destination and proximity.
+	 */
+	private final Map<Long, Path> cache = new LinkedHashMap<Long, Path>(CACHE_SIZE, 0.75f, true) {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Long, Path> eldest) {
+			return size() > CACHE_SIZE;
+		}
+	};
+
+	/**
+	 * The version of the collision map which the cached routes were found on.
+	 */
+	private int cacheVersion;
+
+	/**
+	 * Creates the pathfinder.
+	 * @param map The collision map.
+	 */
+	public Pathfinder(CollisionMap map) {
+		this.map = map;
+	}
+
+	/**
+	 * Finds a path between two positions on the height level of the start.
+	 * @param start The start position.
+	 * @param destination The destination.
+	 * @param proximity The distance from the destination at which the path may end.
+	 * @return The path, or {@code null} if the positions are too far apart or the budget for this pulse is spent.
+	 */
+	public Path find(Position start, Position destination, int proximity) {
+		int srcX = start.getX(), srcY = start.getY();
+		int dstX = destination.getX(), dstY = destination.getY();
+		int limit = Math.min(budget.get(), NODES_PER_SEARCH);
+		if (limit <= 0) {
+			return null;
+		}
+		PathfindingAlgorithm algorithm;
+		if (BreadthFirstAlgorithm.covers(srcX, srcY, dstX, dstY)) {
+			algorithm = breadthFirst.get();
+		} else {
+			algorithm = aStar.get();
+		}
+		Path path = algorithm.find(srcX, srcY, dstX, dstY, start.getHeight(), proximity, limit);
+		budget.addAndGet(-algorithm.getExpanded());
+		return path;
+	}
+
+	/**
+	 * Finds a path between two positions, reusing a previously found path if the collision map has not changed since.
+	 * This is intended for routes which are walked repeatedly, such as those of NPCs.
+	 * @param start The start position.
+	 * @param destination The destination.
+	 * @param proximity The distance from the destination at which the path may end.
+	 * @return The path, or {@code null} if the positions are too far apart or the budget for this pulse is spent.
+	 */
+	public Path findCached(Position start, Position destination, int proximity) {
+		Long key = key(start, destination, proximity);
+		synchronized (cache) {
+			if (cacheVersion != map.getVersion()) {
+				cache.clear();
+				cacheVersion = map.getVersion();
+			}
+			Path path = cache.get(key);
+			if (path != null) {
+				return path;
+			}
+		}
+		Path path = find(start, destination, proximity);
+		if (path != null) {
+			synchronized (cache) {
+				cache.put(key, path);
+			}
+		}
+		return path;
+	}
+
+	/**
+	 * Gets the collision map.
+	 * @return The collision map.
+	 */
+	public CollisionMap getCollisionMap() {
+		return map;
+	}
+
+	/**
+	 * Gets the cache key of a route.
+	 * @param start The start position.
+	 * @param destination The destination.
+	 * @param proximity The proximity.
+	 * @return The key.
+	 */
+	private Long key(Position start, Position destination, int proximity) {
+		long from = start.getHeight() << 28 | start.getX() << 14 | start.getY();
+		long to = destination.getX() << 14 | destination.getY();
+		return (from << 32) | (to << 4) | (proximity & 0xF);
+	}
+
+	/**
+	 * Called every pulse: restores the node budget.
+	 */
+	public void pulse() {
+		budget.set(NODES_PER_PULSE);
+	}
+}
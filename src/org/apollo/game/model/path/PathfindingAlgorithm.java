@@ -0,0 +1,100 @@
+package org.apollo.game.model.path;
+
+import org.apollo.game.model.region.CollisionMap;
+
+/**
+ * The base class for pathfinding algorithms. Implementations own preallocated search arrays and are therefore not
+ * thread-safe: the {@link Pathfinder} keeps one instance of each algorithm per thread.
+ */
+public abstract class PathfindingAlgorithm {
+
+	/**
+	 * The x deltas of the eight neighbours of a tile, straight moves first.
+	 */
+	static final int[] DELTA_X = { -1, 1, 0, 0, -1, 1, -1, 1 };
+
+	/**
+	 * The y deltas of the eight neighbours of a tile, straight moves first.
+	 */
+	static final int[] DELTA_Y = { 0, 0, -1, 1, -1, -1, 1, 1 };
+
+	/**
+	 * The collision map.
+	 */
+	protected final CollisionMap map;
+
+	/**
+	 * The number of nodes expanded by the last search.
+	 */
+	protected int expanded;
+
+	/**
+	 * Creates the pathfinding algorithm.
+	 * @param map The collision map.
+	 */
+	public PathfindingAlgorithm(CollisionMap map) {
+		this.map = map;
+	}
+
+	/**
+	 * Walks back from the end of a search to its start, producing the path between them.
+	 * @param via The direction index used to reach each node of the search window.
+	 * @param width The width of the search window.
+	 * @param baseX The x coordinate of the search window.
+	 * @param baseY The y coordinate of the search window.
+	 * @param start The window index of the start.
+	 * @param end The window index of the end.
+	 * @param height The height level.
+	 * @param complete A flag indicating if the end is the requested destination.
+	 * @return The path.
+	 */
+	static Path backtrack(byte[] via, int width, int baseX, int baseY, int start, int end, int height,
+			boolean complete) {
+		int length = 0;
+		for (int index = end; index != start; length++) {
+			int direction = via[index];
+			index -= DELTA_X[direction] * width + DELTA_Y[direction];
+		}
+		int[] steps = new int[length];
+		int index = end;
+		for (int i = length - 1; i >= 0; i--) {
+			steps[i] = Path.pack(baseX + index / width, baseY + index % width);
+			int direction = via[index];
+			index -= DELTA_X[direction] * width + DELTA_Y[direction];
+		}
+		return new Path(steps, height, complete);
+	}
+
+	/**
+	 * Gets the Chebyshev distance between two tiles, which is the number of steps between them on an open map.
+	 * @param x The first x coordinate.
+	 * @param y The first y coordinate.
+	 * @param otherX The second x coordinate.
+	 * @param otherY The second y coordinate.
+	 * @return The distance.
+	 */
+	static int distance(int x, int y, int otherX, int otherY) {
+		return Math.max(Math.abs(x - otherX), Math.abs(y - otherY));
+	}
+
+	/**
+	 * Finds a path.
+	 * @param srcX The x coordinate of the start.
+	 * @param srcY The y coordinate of the start.
+	 * @param dstX The x coordinate of the destination.
+	 * @param dstY The y coordinate of the destination.
+	 * @param height The height level.
+	 * @param proximity The distance from the destination at which the search stops.
+	 * @param limit The maximum number of nodes to expand.
+	 * @return The path, or {@code null} if the destination lies outside of the search area or the limit was reached.
+	 */
+	public abstract Path find(int srcX, int srcY, int dstX, int dstY, int height, int proximity, int limit);
+
+	/**
+	 * Gets the number of nodes expanded by the last search.
+	 * @return The number of nodes.
+	 */
+	public final int getExpanded() {
+		return expanded;
+	}
+}
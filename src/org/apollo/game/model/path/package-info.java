@@ -0,0 +1,5 @@
+/**
+ * Contains classes which find paths between tiles using the world's collision map.
+ */
+package org.apollo.game.model.path;
+
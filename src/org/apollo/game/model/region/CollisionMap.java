@@ -0,0 +1,420 @@
+package org.apollo.game.model.region;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apollo.game.model.Position;
+import org.apollo.game.model.def.ObjectDefinition;
+
+/**
+ * A map of clipping flags for every tile in the world. Flags are stored as one byte per tile in 64x64 map squares,
+ * which are only allocated when a flag is first set inside them, so lookups never allocate.
+ * <p>
+ * Every flag is reference counted: the terrain and any number of objects may set the same flag on a tile, and it is
+ * only cleared once each of them has cleared it again. The first reference is the flag bit itself; further references
+ * are rare, so they are counted in a map rather than in a per-tile array.
+ */
+public final class CollisionMap {
+
+	/**
+	 * The flag indicating that a tile cannot be entered at all.
+	 */
+	public static final int BLOCKED = 0x1;
+
+	/**
+	 * The flag indicating that a tile has a wall on its north side.
+	 */
+	public static final int WALL_NORTH = 0x2;
+
+	/**
+	 * The flag indicating that a tile has a wall on its east side.
+	 */
+	public static final int WALL_EAST = 0x4;
+
+	/**
+	 * The flag indicating that a tile has a wall on its south side.
+	 */
+	public static final int WALL_SOUTH = 0x8;
+
+	/**
+	 * The flag indicating that a tile has a wall on its west side.
+	 */
+	public static final int WALL_WEST = 0x10;
+
+	/**
+	 * The flag indicating that the north-west corner of a tile holds a wall corner, which diagonal steps through that
+	 * corner cannot pass.
+	 */
+	public static final int CORNER = 0x20;
+
+	/**
+	 * The wall flags indexed by object orientation (west, north, east, south).
+	 */
+	private static final int[] WALL_FLAGS = { WALL_WEST, WALL_NORTH, WALL_EAST, WALL_SOUTH };
+
+	/**
+	 * The width and length of a map square in tiles.
+	 */
+	public static final int SQUARE_SIZE = 64;
+
+	/**
+	 * The number of map squares along each axis.
+	 */
+	private static final int SQUARES = 256;
+
+	/**
+	 * The largest coordinate (exclusive) which can be represented.
+	 */
+	public static final int MAXIMUM_COORDINATE = SQUARES * SQUARE_SIZE;
+
+	/**
+	 * The map squares, indexed by height, square x and square y.
+	 */
+	private final byte[][] squares = new byte[Position.HEIGHT_LEVELS * SQUARES * SQUARES][];
+
+	/**
+	 * The number of references to each set flag beyond the first, keyed by {@link #referenceKey}.
+	 */
+	private final Map<Long, Integer> references = new HashMap<Long, Integer>();
+
+	/**
+	 * The modification count, used by caches to detect stale paths.
+	 */
+	private volatile int version;
+
+	/**
+	 * Adds the clipping of an object to this map.
+	 * @param def The object's definition.
+	 * @param x The x coordinate of the object.
+	 * @param y The y coordinate of the object.
+	 * @param height The height level of the object.
+	 * @param type The object type.
+	 * @param orientation The object orientation.
+	 */
+	public void addObject(ObjectDefinition def, int x, int y, int height, int type, int orientation) {
+		setObject(def, x, y, height, type, orientation, true);
+	}
+
+	/**
+	 * Checks if a character can move one step from the specified tile in the specified direction.
+	 * @param x The x coordinate of the tile.
+	 * @param y The y coordinate of the tile.
+	 * @param height The height level.
+	 * @param deltaX The x step, between -1 and 1.
+	 * @param deltaY The y step, between -1 and 1.
+	 * @return {@code true} if so, {@code false} if not.
+	 */
+	public boolean canMove(int x, int y, int height, int deltaX, int deltaY) {
+		if (deltaX == 0 || deltaY == 0) {
+			return canMoveStraight(x, y, height, deltaX, deltaY);
+		}
+		int cornerX = deltaX > 0 ? x + 1 : x;
+		int cornerY = deltaY > 0 ? y : y - 1;
+		if ((getFlags(cornerX, cornerY, height) & CORNER) != 0) {
+			return false;
+		}
+		return canMoveStraight(x, y, height, deltaX, 0) && canMoveStraight(x, y, height, 0, deltaY)
+				&& canMoveStraight(x + deltaX, y, height, 0, deltaY) && canMoveStraight(x, y + deltaY, height, deltaX, 0);
+	}
+
+	/**
+	 * Checks if a character can move one step horizontally or vertically.
+	 * @param x The x coordinate of the tile.
+	 * @param y The y coordinate of the tile.
+	 * @param height The height level.
+	 * @param deltaX The x step.
+	 * @param deltaY The y step.
+	 * @return {@code true} if so, {@code false} if not.
+	 */
+	private boolean canMoveStraight(int x, int y, int height, int deltaX, int deltaY) {
+		int exit, entry;
+		if (deltaX > 0) {
+			exit = WALL_EAST;
+			entry = WALL_WEST;
+		} else if (deltaX < 0) {
+			exit = WALL_WEST;
+			entry = WALL_EAST;
+		} else if (deltaY > 0) {
+			exit = WALL_NORTH;
+			entry = WALL_SOUTH;
+		} else if (deltaY < 0) {
+			exit = WALL_SOUTH;
+			entry = WALL_NORTH;
+		} else {
+			return true;
+		}
+		return (getFlags(x, y, height) & exit) == 0
+				&& (getFlags(x + deltaX, y + deltaY, height) & (entry | BLOCKED)) == 0;
+	}
+
+	/**
+	 * Flags a tile, adding a reference to each of the flags.
+	 * @param x The x coordinate.
+	 * @param y The y coordinate.
+	 * @param height The height level.
+	 * @param flags The flags to set.
+	 */
+	public void flag(int x, int y, int height, int flags) {
+		if (!inBounds(x, y, height)) {
+			return;
+		}
+		int index = squareIndex(x, y, height);
+		byte[] square = squares[index];
+		if (square == null) {
+			synchronized (squares) {
+				square = squares[index];
+				if (square == null) {
+					square = squares[index] = new byte[SQUARE_SIZE * SQUARE_SIZE];
+				}
+			}
+		}
+		int tile = tileIndex(x, y);
+		for (int bit = 1; bit <= flags; bit <<= 1) {
+			if ((flags & bit) == 0) {
+				continue;
+			} else if ((square[tile] & bit) == 0) {
+				square[tile] |= bit;
+			} else {
+				synchronized (references) {
+					Long key = referenceKey(index, tile, bit);
+					Integer count = references.get(key);
+					references.put(key, count == null ? 1 : count + 1);
+				}
+			}
+		}
+		version++;
+	}
+
+	/**
+	 * Gets the flags of a tile. Tiles outside of the map are reported as {@link #BLOCKED}.
+	 * @param x The x coordinate.
+	 * @param y The y coordinate.
+	 * @param height The height level.
+	 * @return The flags.
+	 */
+	public int getFlags(int x, int y, int height) {
+		if (!inBounds(x, y, height)) {
+			return BLOCKED;
+		}
+		byte[] square = squares[squareIndex(x, y, height)];
+		return square == null ? 0 : square[tileIndex(x, y)];
+	}
+
+	/**
+	 * Gets the version of this map, which changes whenever a tile is flagged or unflagged.
+	 * @return The version.
+	 */
+	public int getVersion() {
+		return version;
+	}
+
+	/**
+	 * Checks if the specified tile lies within this map.
+	 * @param x The x coordinate.
+	 * @param y The y coordinate.
+	 * @param height The height level.
+	 * @return {@code true} if so, {@code false} if not.
+	 */
+	private boolean inBounds(int x, int y, int height) {
+		return x >= 0 && y >= 0 && x < MAXIMUM_COORDINATE && y < MAXIMUM_COORDINATE && height >= 0
+				&& height < Position.HEIGHT_LEVELS;
+	}
+
+	/**
+	 * Checks if a tile is blocked.
+	 * @param x The x coordinate.
+	 * @param y The y coordinate.
+	 * @param height The height level.
+	 * @return {@code true} if so, {@code false} if not.
+	 */
+	public boolean isBlocked(int x, int y, int height) {
+		return (getFlags(x, y, height) & BLOCKED) != 0;
+	}
+
+	/**
+	 * Gets the key under which the extra references to a flag are counted.
+	 * @param square The index of the square.
+	 * @param tile The index of the tile within the square.
+	 * @param bit The flag.
+	 * @return The key.
+	 */
+	private static Long referenceKey(int square, int tile, int bit) {
+		return ((long) square * SQUARE_SIZE * SQUARE_SIZE + tile) << 8 | bit;
+	}
+
+	/**
+	 * Removes the clipping of an object from this map.
+	 * @param def The object's definition.
+	 * @param x The x coordinate of the object.
+	 * @param y The y coordinate of the object.
+	 * @param height The height level of the object.
+	 * @param type The object type.
+	 * @param orientation The object orientation.
+	 */
+	public void removeObject(ObjectDefinition def, int x, int y, int height, int type, int orientation) {
+		setObject(def, x, y, height, type, orientation, false);
+	}
+
+	/**
+	 * Sets or clears a wall corner. A corner is stored on the tile whose north-west corner it occupies.
+	 * @param x The x coordinate.
+	 * @param y The y coordinate.
+	 * @param height The height level.
+	 * @param orientation The corner (0 = north-west, 1 = north-east, 2 = south-east, 3 = south-west).
+	 * @param add {@code true} to set the corner, {@code false} to clear it.
+	 */
+	private void setCorner(int x, int y, int height, int orientation, boolean add) {
+		switch (orientation) {
+			case 0:
+				setFlag(x, y, height, CORNER, add);
+				break;
+			case 1:
+				setFlag(x + 1, y, height, CORNER, add);
+				break;
+			case 2:
+				setFlag(x + 1, y - 1, height, CORNER, add);
+				break;
+			default:
+				setFlag(x, y - 1, height, CORNER, add);
+				break;
+		}
+	}
+
+	/**
+	 * Sets or clears a flag.
+	 * @param x The x coordinate.
+	 * @param y The y coordinate.
+	 * @param height The height level.
+	 * @param flags The flags.
+	 * @param add {@code true} to set the flags, {@code false} to clear them.
+	 */
+	private void setFlag(int x, int y, int height, int flags, boolean add) {
+		if (add) {
+			flag(x, y, height, flags);
+		} else {
+			unflag(x, y, height, flags);
+		}
+	}
+
+	/**
+	 * Adds or removes the clipping of an object. Walls (type 0) and wall corners (types 1 to 3) clip the edges and corners
+	 * of their tile, while diagonal walls, interactable objects and roofs (types 9 to 21) block every tile they cover.
+	 * @param def The object's definition.
+	 * @param x The x coordinate of the object.
+	 * @param y The y coordinate of the object.
+	 * @param height The height level of the object.
+	 * @param type The object type.
+	 * @param orientation The object orientation.
+	 * @param add {@code true} to add the clipping, {@code false} to remove it.
+	 */
+	private void setObject(ObjectDefinition def, int x, int y, int height, int type, int orientation, boolean add) {
+		if (!def.isSolid()) {
+			return;
+		}
+		orientation &= 3;
+		if (type == 0) {
+			setWall(x, y, height, orientation, add);
+		} else if (type == 1 || type == 3) {
+			setCorner(x, y, height, orientation, add);
+		} else if (type == 2) {
+			setWall(x, y, height, orientation, add);
+			setWall(x, y, height, (orientation + 1) & 3, add);
+		} else if (type >= 9 && type <= 21) {
+			int sizeX = Math.max(1, def.getSizeX());
+			int sizeY = Math.max(1, def.getSizeY());
+			if (orientation == 1 || orientation == 3) {
+				int tmp = sizeX;
+				sizeX = sizeY;
+				sizeY = tmp;
+			}
+			for (int dx = 0; dx < sizeX; dx++) {
+				for (int dy = 0; dy < sizeY; dy++) {
+					setFlag(x + dx, y + dy, height, BLOCKED, add);
+				}
+			}
+		} else if (type == 22 && def.isInteractable()) {
+			setFlag(x, y, height, BLOCKED, add);
+		}
+	}
+
+	/**
+	 * Sets or clears a wall on one side of a tile, along with the matching side of the neighbouring tile.
+	 * @param x The x coordinate.
+	 * @param y The y coordinate.
+	 * @param height The height level.
+	 * @param orientation The side (0 = west, 1 = north, 2 = east, 3 = south).
+	 * @param add {@code true} to set the wall, {@code false} to clear it.
+	 */
+	private void setWall(int x, int y, int height, int orientation, boolean add) {
+		setFlag(x, y, height, WALL_FLAGS[orientation], add);
+		switch (orientation) {
+			case 0:
+				setFlag(x - 1, y, height, WALL_EAST, add);
+				break;
+			case 1:
+				setFlag(x, y + 1, height, WALL_SOUTH, add);
+				break;
+			case 2:
+				setFlag(x + 1, y, height, WALL_WEST, add);
+				break;
+			default:
+				setFlag(x, y - 1, height, WALL_NORTH, add);
+				break;
+		}
+	}
+
+	/**
+	 * Gets the index of the square containing a tile.
+	 * @param x The x coordinate.
+	 * @param y The y coordinate.
+	 * @param height The height level.
+	 * @return The index.
+	 */
+	private int squareIndex(int x, int y, int height) {
+		return (height * SQUARES + (x / SQUARE_SIZE)) * SQUARES + (y / SQUARE_SIZE);
+	}
+
+	/**
+	 * Gets the index of a tile within its square.
+	 * @param x The x coordinate.
+	 * @param y The y coordinate.
+	 * @return The index.
+	 */
+	private int tileIndex(int x, int y) {
+		return (x % SQUARE_SIZE) * SQUARE_SIZE + (y % SQUARE_SIZE);
+	}
+
+	/**
+	 * Removes a reference to each of the flags from a tile, clearing the flags which are no longer referenced.
+	 * @param x The x coordinate.
+	 * @param y The y coordinate.
+	 * @param height The height level.
+	 * @param flags The flags to clear.
+	 */
+	public void unflag(int x, int y, int height, int flags) {
+		if (!inBounds(x, y, height)) {
+			return;
+		}
+		int index = squareIndex(x, y, height);
+		byte[] square = squares[index];
+		if (square == null) {
+			return;
+		}
+		int tile = tileIndex(x, y);
+		for (int bit = 1; bit <= flags; bit <<= 1) {
+			if ((flags & bit) == 0 || (square[tile] & bit) == 0) {
+				continue;
+			}
+			synchronized (references) {
+				Long key = referenceKey(index, tile, bit);
+				Integer count = references.remove(key);
+				if (count == null) {
+					square[tile] &= ~bit;
+				} else if (count > 1) {
+					references.put(key, count - 1);
+				}
+			}
+		}
+		version++;
+	}
+}
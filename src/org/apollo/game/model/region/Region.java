@@ -2,14 +2,20 @@ package org.apollo.game.model.region;
 
 import java.util.Collection;
 import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.apollo.game.model.Npc;
+import org.apollo.game.model.Player;
 import org.apollo.game.model.def.StaticObjectDefinition;
 
 /**
  * Represents an 8x8 region.
+ * <p>
+ * The contents of a region are held in copy-on-write arrays: characters only enter or leave a region every few tiles,
+ * while its contents are read far more often, so reads iterate over a snapshot without locking or copying.
+ * <p>
+ * A region is only active while a player is close enough to see into it (see {@link RegionManager#pulse(Iterable)}).
  * @author Graham
  */
 public final class Region {
@@ -27,12 +33,22 @@ public final class Region {
 	/**
 	 * A list of NPCs in the region.
 	 */
-	private List<Npc> npcs = new LinkedList<Npc>();
+	private final List<Npc> npcs = new CopyOnWriteArrayList<Npc>();
+
+	/**
+	 * A list of players in the region.
+	 */
+	private final List<Player> players = new CopyOnWriteArrayList<Player>();
 
 	/**
 	 * A list of objects in the region.
 	 */
-	private List<StaticObjectDefinition> objects = new LinkedList<StaticObjectDefinition>();
+	private final List<StaticObjectDefinition> objects = new CopyOnWriteArrayList<StaticObjectDefinition>();
+
+	/**
+	 * The last pulse during which this region was active.
+	 */
+	private int activePulse = -1;
 
 	/**
 	 * Define a new region.
@@ -42,14 +58,33 @@ public final class Region {
 		this.setCoordinate(coordinate);
 	}
 
+	/**
+	 * Activates this region for the specified pulse. If the region was not active during the previous pulse, its NPCs
+	 * are woken up: anything they queued before they were suspended is discarded rather than replayed.
+	 * @param pulse The pulse.
+	 * @return {@code true} if the region was activated, {@code false} if it was already active this pulse.
+	 */
+	boolean activate(int pulse) {
+		if (activePulse == pulse) {
+			return false;
+		}
+		if (activePulse != pulse - 1) {
+			for (Npc npc : npcs) {
+				npc.getWalkingQueue().clear();
+				npc.setTeleporting(false);
+				npc.resetBlockSet();
+			}
+		}
+		activePulse = pulse;
+		return true;
+	}
+
 	/**
 	 * Adds an NPC.
 	 * @param npc The NPC to add.
 	 */
 	public void addNPC(Npc npc) {
-		synchronized (this) {
-			npcs.add(npc);
-		}
+		npcs.add(npc);
 	}
 
 	/**
@@ -57,9 +92,15 @@ public final class Region {
 	 * @param object The object definition.
 	 */
 	public void addObject(StaticObjectDefinition object) {
-		synchronized (this) {
-			objects.add(object);
-		}
+		objects.add(object);
+	}
+
+	/**
+	 * Adds a player.
+	 * @param player The player to add.
+	 */
+	public void addPlayer(Player player) {
+		players.add(player);
 	}
 
 	/**
@@ -71,23 +112,39 @@ public final class Region {
 	}
 
 	/**
-	 * Gets the list of NPCs.
+	 * Gets the list of NPCs. The collection is a read-only view, whose iterators see the NPCs which were in this
+	 * region when they were created.
 	 * @return The list of NPCs.
 	 */
 	public Collection<Npc> getNpcs() {
-		synchronized (this) {
-			return Collections.unmodifiableCollection(new LinkedList<Npc>(npcs));
-		}
+		return Collections.unmodifiableCollection(npcs);
 	}
 
 	/**
-	 * Gets the list of Objects.
+	 * Gets the list of Objects. The collection is a read-only view, whose iterators see the objects which were in this
+	 * region when they were created.
 	 * @return The list of Objects.
 	 */
 	public Collection<StaticObjectDefinition> getObjects() {
-		synchronized (this) {
-			return Collections.unmodifiableCollection(new LinkedList<StaticObjectDefinition>(objects));
-		}
+		return Collections.unmodifiableCollection(objects);
+	}
+
+	/**
+	 * Gets the list of players. The collection is a read-only view, whose iterators see the players who were in this
+	 * region when they were created.
+	 * @return The list of players.
+	 */
+	public Collection<Player> getPlayers() {
+		return Collections.unmodifiableCollection(players);
+	}
+
+	/**
+	 * Checks if this region is active during the specified pulse.
+	 * @param pulse The pulse.
+	 * @return {@code true} if so, {@code false} if not.
+	 */
+	boolean isActive(int pulse) {
+		return activePulse == pulse;
 	}
 
 	/**
@@ -95,9 +152,7 @@ public final class Region {
 	 * @param npc The NPC to remove.
 	 */
 	public void removeNPC(Npc npc) {
-		synchronized (this) {
-			npcs.remove(npc);
-		}
+		npcs.remove(npc);
 	}
 
 	/**
@@ -105,9 +160,15 @@ public final class Region {
 	 * @param object The object to remove.
 	 */
 	public void removeObject(StaticObjectDefinition object) {
-		synchronized (this) {
-			objects.remove(object);
-		}
+		objects.remove(object);
+	}
+
+	/**
+	 * Removes a player.
+	 * @param player The player to remove.
+	 */
+	public void removePlayer(Player player) {
+		players.remove(player);
 	}
 
 	/**
@@ -1,36 +1,144 @@
 package org.apollo.game.model.region;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
+import org.apollo.game.model.Character;
+import org.apollo.game.model.Npc;
+import org.apollo.game.model.Player;
 import org.apollo.game.model.Position;
 
 /**
  * A world region manager.
+ * <p>
+ * Regions are kept in a flat table of map squares, indexed by packed square coordinates. Each square holds the 64
+ * regions inside it and is created in one go the first time one of them is requested, so looking up an existing
+ * region neither locks nor allocates.
+ * <p>
+ * Every pulse, the regions around each player are activated. Only the NPCs in active regions are processed, and
+ * region-scoped tasks are suspended while their region is inactive.
  * @author Solid Snake
  */
 public class RegionManager {
 
 	/**
-	 * A map of the regions.
+	 * The number of regions along each axis of a map square.
 	 */
-	private Map<RegionCoordinates, Region> activeRegions = new HashMap<RegionCoordinates, Region>();
+	private static final int REGIONS_PER_SQUARE = CollisionMap.SQUARE_SIZE / Region.REGION_SIZE;
+
+	/**
+	 * The number of map squares along each axis.
+	 */
+	private static final int SQUARES = CollisionMap.MAXIMUM_COORDINATE / CollisionMap.SQUARE_SIZE;
+
+	/**
+	 * The largest region coordinate (exclusive) which can be represented.
+	 */
+	private static final int MAXIMUM_REGION = SQUARES * REGIONS_PER_SQUARE;
+
+	/**
+	 * The distance from a player, in tiles, within which regions are active. This is one region further than players
+	 * can see, so that NPCs which are about to come into view have already been woken up.
+	 */
+	private static final int ACTIVE_DISTANCE = Position.MAX_DISTANCE + Region.REGION_SIZE;
+
+	/**
+	 * Checks if a position lies within the map, and so within a region.
+	 * @param position The position.
+	 * @return {@code true} if so, {@code false} if not.
+	 */
+	public static boolean isInBounds(Position position) {
+		int x = position.getX(), y = position.getY();
+		return x >= 0 && y >= 0 && x < CollisionMap.MAXIMUM_COORDINATE && y < CollisionMap.MAXIMUM_COORDINATE;
+	}
+
+	/**
+	 * The map squares, indexed by square x and square y.
+	 */
+	private final AtomicReferenceArray<Region[]> squares = new AtomicReferenceArray<Region[]>(SQUARES * SQUARES);
+
+	/**
+	 * The regions which are active during the current pulse.
+	 */
+	private final List<Region> activeRegions = new ArrayList<Region>();
+
+	/**
+	 * The NPCs in the regions which are active during the current pulse.
+	 */
+	private final List<Npc> activeNpcs = new ArrayList<Npc>();
+
+	/**
+	 * The current pulse.
+	 */
+	private int pulse;
+
+	/**
+	 * Adds a character to the region containing its position.
+	 * @param character The character.
+	 */
+	public void add(Character character) {
+		add(getRegionByLocation(character.getPosition()), character);
+	}
+
+	/**
+	 * Adds a character to a region.
+	 * @param region The region.
+	 * @param character The character.
+	 */
+	private void add(Region region, Character character) {
+		if (character instanceof Player) {
+			region.addPlayer((Player) character);
+		} else if (character instanceof Npc) {
+			region.addNPC((Npc) character);
+		}
+	}
+
+	/**
+	 * Gets the NPCs in the regions which are active during the current pulse. The returned list is reused by the next
+	 * call to {@link #pulse(Iterable)}.
+	 * @return The active NPCs.
+	 */
+	public List<Npc> getActiveNpcs() {
+		return activeNpcs;
+	}
 
 	/**
 	 * Gets the region by the x and y coordinates.
 	 * @param x The x coordinate.
 	 * @param y The y coordinate.
 	 * @return The region.
+	 * @throws IllegalArgumentException if the coordinates are out of bounds.
 	 */
 	public Region getRegion(int x, int y) {
-		RegionCoordinates key = new RegionCoordinates(x, y);
-		if (activeRegions.containsKey(key)) {
-			return activeRegions.get(key);
-		} else {
-			Region region = new Region(key);
-			activeRegions.put(key, region);
-			return region;
+		if (x < 0 || y < 0 || x >= MAXIMUM_REGION || y >= MAXIMUM_REGION) {
+			throw new IllegalArgumentException("Region out of bounds");
+		}
+		int index = (x / REGIONS_PER_SQUARE) * SQUARES + y / REGIONS_PER_SQUARE;
+		Region[] square = squares.get(index);
+		if (square == null) {
+			square = createSquare(x - x % REGIONS_PER_SQUARE, y - y % REGIONS_PER_SQUARE);
+			if (!squares.compareAndSet(index, null, square)) {
+				square = squares.get(index);
+			}
+		}
+		return square[(x % REGIONS_PER_SQUARE) * REGIONS_PER_SQUARE + y % REGIONS_PER_SQUARE];
+	}
+
+	/**
+	 * Creates the regions of a map square.
+	 * @param baseX The x coordinate of the first region in the square.
+	 * @param baseY The y coordinate of the first region in the square.
+	 * @return The regions.
+	 */
+	private Region[] createSquare(int baseX, int baseY) {
+		Region[] square = new Region[REGIONS_PER_SQUARE * REGIONS_PER_SQUARE];
+		for (int x = 0; x < REGIONS_PER_SQUARE; x++) {
+			for (int y = 0; y < REGIONS_PER_SQUARE; y++) {
+				square[x * REGIONS_PER_SQUARE + y] = new Region(new RegionCoordinates(baseX + x, baseY + y));
+			}
 		}
+		return square;
 	}
 
 	/**
@@ -41,4 +149,82 @@ public class RegionManager {
 	public Region getRegionByLocation(Position position) {
 		return getRegion(position.getX() / Region.REGION_SIZE, position.getY() / Region.REGION_SIZE);
 	}
+
+	/**
+	 * Checks if the region containing a position is active during the current pulse.
+	 * @param position The position.
+	 * @return {@code true} if so, {@code false} if not.
+	 */
+	public boolean isActive(Position position) {
+		return getRegionByLocation(position).isActive(pulse);
+	}
+
+	/**
+	 * Moves a character between regions, if its old and new positions lie in different ones.
+	 * @param character The character.
+	 * @param from The old position.
+	 * @param to The new position.
+	 */
+	public void move(Character character, Position from, Position to) {
+		int fromX = from.getX() / Region.REGION_SIZE, fromY = from.getY() / Region.REGION_SIZE;
+		int toX = to.getX() / Region.REGION_SIZE, toY = to.getY() / Region.REGION_SIZE;
+		if (fromX != toX || fromY != toY) {
+			remove(getRegion(fromX, fromY), character);
+			add(getRegion(toX, toY), character);
+		}
+	}
+
+	/**
+	 * Called every pulse, before the NPCs are synchronized: activates the regions around the specified players and
+	 * gathers the NPCs within them.
+	 * @param players The players.
+	 */
+	public void pulse(Iterable<Player> players) {
+		pulse++;
+		activeRegions.clear();
+		activeNpcs.clear();
+		for (Player player : players) {
+			Position position = player.getPosition();
+			int minimumX = Math.max(0, position.getX() - ACTIVE_DISTANCE) / Region.REGION_SIZE;
+			int minimumY = Math.max(0, position.getY() - ACTIVE_DISTANCE) / Region.REGION_SIZE;
+			int maximumX = Math.min(MAXIMUM_REGION - 1, (position.getX() + ACTIVE_DISTANCE) / Region.REGION_SIZE);
+			int maximumY = Math.min(MAXIMUM_REGION - 1, (position.getY() + ACTIVE_DISTANCE) / Region.REGION_SIZE);
+			for (int x = minimumX; x <= maximumX; x++) {
+				for (int y = minimumY; y <= maximumY; y++) {
+					Region region = getRegion(x, y);
+					if (region.activate(pulse)) {
+						activeRegions.add(region);
+					}
+				}
+			}
+		}
+		for (Region region : activeRegions) {
+			for (Npc npc : region.getNpcs()) {
+				if (npc.isActive()) {
+					activeNpcs.add(npc);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Removes a character from the region containing its position.
+	 * @param character The character.
+	 */
+	public void remove(Character character) {
+		remove(getRegionByLocation(character.getPosition()), character);
+	}
+
+	/**
+	 * Removes a character from a region.
+	 * @param region The region.
+	 * @param character The character.
+	 */
+	private void remove(Region region, Character character) {
+		if (character instanceof Player) {
+			region.removePlayer((Player) character);
+		} else if (character instanceof Npc) {
+			region.removeNPC((Npc) character);
+		}
+	}
 }
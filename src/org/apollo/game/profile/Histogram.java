@@ -0,0 +1,132 @@
+package org.apollo.game.profile;
+
+/**
+ * A histogram of non-negative values, such as latencies in nanoseconds. Like an HDR histogram, it records values in
+ * buckets whose width doubles with each power of two, and splits each of those into linear sub-buckets, so that any
+ * value is recorded with a relative error below {@code 1 / 2^SUB_BUCKET_BITS} in a fixed amount of memory. Recording a
+ * value is a few shifts and an array increment.
+ * <p>
+ * Values must only be recorded by one thread at a time. Other threads may read the histogram while values are being
+ * recorded, in which case the counts they read may be slightly out of date.
+ */
+public final class Histogram {
+
+	/**
+	 * The number of bits of each value which are kept exactly.
+	 */
+	private static final int SUB_BUCKET_BITS = 4;
+
+	/**
+	 * The number of sub-buckets per power of two.
+	 */
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+	/**
+	 * Gets the index of the bucket a value is recorded in.
+	 * @param value The value.
+	 * @return The index.
+	 */
+	private static int indexOf(long value) {
+		if (value < SUB_BUCKETS << 1) {
+			return (int) value;
+		}
+		int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+		return (shift << SUB_BUCKET_BITS) + (int) (value >>> shift);
+	}
+
+	/**
+	 * Gets the highest value which is recorded in a bucket.
+	 * @param index The index of the bucket.
+	 * @return The highest value.
+	 */
+	private static long highestValueOf(int index) {
+		if (index < SUB_BUCKETS << 1) {
+			return index;
+		}
+		int shift = (index >>> SUB_BUCKET_BITS) - 1;
+		long mantissa = (index & SUB_BUCKETS - 1) + SUB_BUCKETS;
+		return (mantissa + 1 << shift) - 1;
+	}
+
+	/**
+	 * The number of values in each bucket.
+	 */
+	private final long[] counts = new long[64 - SUB_BUCKET_BITS << SUB_BUCKET_BITS];
+
+	/**
+	 * The number of values.
+	 */
+	private long count;
+
+	/**
+	 * The highest value.
+	 */
+	private long max;
+
+	/**
+	 * The sum of the values.
+	 */
+	private long sum;
+
+	/**
+	 * Gets the number of values.
+	 * @return The number of values.
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * Gets the highest value.
+	 * @return The highest value.
+	 */
+	public long getMax() {
+		return max;
+	}
+
+	/**
+	 * Gets the value below which the specified percentage of values lie. The value is rounded up to the highest value
+	 * of its bucket, but is never higher than the highest value that was recorded.
+	 * @param percentile The percentage, between 0 and 100 inclusive.
+	 * @return The value, or 0 if no values have been recorded.
+	 */
+	public long getPercentile(double percentile) {
+		long total = count;
+		if (total == 0) {
+			return 0;
+		}
+		long target = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+		long seen = 0;
+		for (int index = 0; index < counts.length; index++) {
+			seen += counts[index];
+			if (seen >= target) {
+				return Math.min(highestValueOf(index), max);
+			}
+		}
+		return max;
+	}
+
+	/**
+	 * Gets the sum of the values.
+	 * @return The sum of the values.
+	 */
+	public long getSum() {
+		return sum;
+	}
+
+	/**
+	 * Records a value. Negative values are recorded as 0.
+	 * @param value The value.
+	 */
+	public void record(long value) {
+		if (value < 0) {
+			value = 0;
+		}
+		counts[indexOf(value)]++;
+		count++;
+		sum += value;
+		if (value > max) {
+			max = value;
+		}
+	}
+}
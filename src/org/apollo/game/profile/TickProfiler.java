@@ -0,0 +1,311 @@
+package org.apollo.game.profile;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Records how long each part of the game pulse takes, in a {@link Histogram} per category and name, such as each
+ * stage of the pulse, each phase of client synchronization, each type of event, each type of scheduled task and each
+ * plugin. Only the game thread records times; the histograms may be read from any thread, for example to serve the
+ * {@code /metrics} page.
+ */
+public final class TickProfiler {
+
+	/**
+	 * A timer which records times in a histogram, and keeps the total time it recorded during the current pulse.
+	 */
+	public static final class Timer {
+
+		/**
+		 * The profiler.
+		 */
+		private final TickProfiler profiler;
+
+		/**
+		 * The category.
+		 */
+		private final String category;
+
+		/**
+		 * The name.
+		 */
+		private final String name;
+
+		/**
+		 * The histogram of times, in nanoseconds.
+		 */
+		private final Histogram histogram = new Histogram();
+
+		/**
+		 * The total time recorded during the current pulse, in nanoseconds.
+		 */
+		private long pulseTime;
+
+		/**
+		 * Whether a time has been recorded during the current pulse.
+		 */
+		private boolean recorded;
+
+		/**
+		 * Creates the timer.
+		 * @param profiler The profiler.
+		 * @param category The category.
+		 * @param name The name.
+		 */
+		private Timer(TickProfiler profiler, String category, String name) {
+			this.profiler = profiler;
+			this.category = category;
+			this.name = name;
+		}
+
+		/**
+		 * Gets the histogram of times, in nanoseconds.
+		 * @return The histogram.
+		 */
+		public Histogram getHistogram() {
+			return histogram;
+		}
+
+		/**
+		 * Records a time.
+		 * @param nanos The time, in nanoseconds.
+		 */
+		public void record(long nanos) {
+			histogram.record(nanos);
+			pulseTime += nanos;
+			if (!recorded) {
+				recorded = true;
+				profiler.recorded.add(this);
+			}
+		}
+
+		/**
+		 * Records the time since the specified start time.
+		 * @param start The start time, from {@link System#nanoTime()}.
+		 * @return The current time, from {@link System#nanoTime()}, which can be used as the start of the next time.
+		 */
+		public long recordSince(long start) {
+			long now = System.nanoTime();
+			record(now - start);
+			return now;
+		}
+	}
+
+	/**
+	 * The category of the time taken by the whole pulse.
+	 */
+	public static final String PULSE = "pulse";
+
+	/**
+	 * The category of the timing of the game loop.
+	 */
+	public static final String LOOP = "loop";
+
+	/**
+	 * The category of the stages of the pulse.
+	 */
+	public static final String STAGE = "stage";
+
+	/**
+	 * The category of the phases of the world pulse and client synchronization.
+	 */
+	public static final String PHASE = "phase";
+
+	/**
+	 * The category of event types.
+	 */
+	public static final String EVENT = "event";
+
+	/**
+	 * The category of scheduled task types.
+	 */
+	public static final String TASK = "task";
+
+	/**
+	 * The category of the event handlers of each plugin.
+	 */
+	public static final String PLUGIN = "plugin";
+
+	/**
+	 * The number of contributors which are logged when a pulse takes too long.
+	 */
+	private static final int TOP_CONTRIBUTORS = 5;
+
+	/**
+	 * The logger for this class.
+	 */
+	private static final Logger logger = Logger.getLogger(TickProfiler.class.getName());
+
+	/**
+	 * Converts a time in nanoseconds to milliseconds.
+	 * @param nanos The time, in nanoseconds.
+	 * @return The time, in milliseconds.
+	 */
+	private static long toMillis(long nanos) {
+		return TimeUnit.NANOSECONDS.toMillis(nanos);
+	}
+
+	/**
+	 * The counters, by name.
+	 */
+	private final ConcurrentMap<String, AtomicLong> counters = new ConcurrentHashMap<String, AtomicLong>();
+
+	/**
+	 * The timers, by category and key.
+	 */
+	private final ConcurrentMap<String, ConcurrentMap<Object, Timer>> timers = new ConcurrentHashMap<String, ConcurrentMap<Object, Timer>>();
+
+	/**
+	 * The timers which have recorded a time during the current pulse.
+	 */
+	private final List<Timer> recorded = new ArrayList<Timer>();
+
+	/**
+	 * The timer of the whole pulse.
+	 */
+	private final Timer pulse = getTimer(PULSE, "pulse");
+
+	/**
+	 * Ends the current pulse. If the pulse took longer than the specified limit, the time each stage took and the
+	 * other timers which recorded the most time during the pulse are logged.
+	 * @param nanos The time the pulse took, in nanoseconds.
+	 * @param limit The limit, in nanoseconds.
+	 */
+	public void endPulse(long nanos, long limit) {
+		pulse.record(nanos);
+		if (nanos > limit) {
+			logOverrun(nanos);
+		}
+		for (Timer timer : recorded) {
+			timer.pulseTime = 0;
+			timer.recorded = false;
+		}
+		recorded.clear();
+	}
+
+	/**
+	 * Gets the timer of the specified category and key, creating it if it does not exist. If the key is a class, the
+	 * timer is named after its simple name, or its full name if it is anonymous.
+	 * @param category The category.
+	 * @param key The key.
+	 * @return The timer.
+	 */
+	public Timer getTimer(String category, Object key) {
+		ConcurrentMap<Object, Timer> map = timers.get(category);
+		if (map == null) {
+			map = new ConcurrentHashMap<Object, Timer>();
+			ConcurrentMap<Object, Timer> existing = timers.putIfAbsent(category, map);
+			if (existing != null) {
+				map = existing;
+			}
+		}
+		Timer timer = map.get(key);
+		if (timer == null) {
+			String name = key.toString();
+			if (key instanceof Class) {
+				Class<?> type = (Class<?>) key;
+				name = type.isAnonymousClass() ? type.getName() : type.getSimpleName();
+			}
+			timer = new Timer(this, category, name);
+			Timer existing = map.putIfAbsent(key, timer);
+			if (existing != null) {
+				timer = existing;
+			}
+		}
+		return timer;
+	}
+
+	/**
+	 * Adds to a counter, creating it if it does not exist.
+	 * @param name The name of the counter.
+	 * @param amount The amount to add.
+	 */
+	public void increment(String name, long amount) {
+		AtomicLong counter = counters.get(name);
+		if (counter == null) {
+			counter = new AtomicLong();
+			AtomicLong existing = counters.putIfAbsent(name, counter);
+			if (existing != null) {
+				counter = existing;
+			}
+		}
+		counter.addAndGet(amount);
+	}
+
+	/**
+	 * Logs the time each stage took during a pulse which took too long, and the timers of other categories which
+	 * recorded the most time.
+	 * @param nanos The time the pulse took, in nanoseconds.
+	 */
+	private void logOverrun(long nanos) {
+		List<Timer> stages = new ArrayList<Timer>();
+		List<Timer> contributors = new ArrayList<Timer>();
+		for (Timer timer : recorded) {
+			if (timer.category.equals(STAGE)) {
+				stages.add(timer);
+			} else if (!timer.category.equals(PULSE) && !timer.category.equals(LOOP)) {
+				contributors.add(timer);
+			}
+		}
+		Collections.sort(contributors, new Comparator<Timer>() {
+			@Override
+			public int compare(Timer first, Timer second) {
+				return Long.compare(second.pulseTime, first.pulseTime);
+			}
+		});
+		StringBuilder builder = new StringBuilder("Pulse took ").append(toMillis(nanos)).append(" ms (");
+		for (int i = 0; i < stages.size(); i++) {
+			Timer stage = stages.get(i);
+			builder.append(i == 0 ? "" : ", ").append(stage.name).append(": ").append(toMillis(stage.pulseTime))
+					.append(" ms");
+		}
+		builder.append("), top contributors: ");
+		for (int i = 0; i < Math.min(TOP_CONTRIBUTORS, contributors.size()); i++) {
+			Timer timer = contributors.get(i);
+			builder.append(i == 0 ? "" : ", ").append(timer.category).append(' ').append(timer.name).append(": ")
+					.append(toMillis(timer.pulseTime)).append(" ms");
+		}
+		logger.warning(builder.append('.').toString());
+	}
+
+	/**
+	 * Writes every histogram as a summary in the Prometheus text format, with times in seconds, and every counter.
+	 * @param builder The builder to write to.
+	 */
+	public void writeMetrics(StringBuilder builder) {
+		for (Map.Entry<String, AtomicLong> counter : new TreeMap<String, AtomicLong>(counters).entrySet()) {
+			String metric = "apollo_" + counter.getKey() + "_total";
+			builder.append("# TYPE ").append(metric).append(" counter\n").append(metric).append(' ')
+					.append(counter.getValue().get()).append('\n');
+		}
+		for (String category : new TreeMap<String, Object>(timers).keySet()) {
+			String metric = "apollo_" + category + "_seconds";
+			builder.append("# TYPE ").append(metric).append(" summary\n");
+			Map<String, Timer> sorted = new TreeMap<String, Timer>();
+			for (Timer timer : timers.get(category).values()) {
+				sorted.put(timer.name, timer);
+			}
+			for (Timer timer : sorted.values()) {
+				Histogram histogram = timer.histogram;
+				String label = "name=\"" + timer.name + "\"";
+				for (double quantile : new double[] { 0.5, 0.9, 0.99, 1 }) {
+					builder.append(metric).append('{').append(label).append(",quantile=\"").append(quantile)
+							.append("\"} ").append(histogram.getPercentile(quantile * 100) / 1e9).append('\n');
+				}
+				builder.append(metric).append("_sum{").append(label).append("} ").append(histogram.getSum() / 1e9)
+						.append('\n');
+				builder.append(metric).append("_count{").append(label).append("} ").append(histogram.getCount())
+						.append('\n');
+			}
+		}
+	}
+}
@@ -0,0 +1,4 @@
+/**
+ * Contains classes which record how long each part of the game pulse takes.
+ */
+package org.apollo.game.profile;
@@ -21,6 +21,11 @@ public abstract class ScheduledTask {
 	 */
 	private int pulses;
 
+	/**
+	 * The number of pulses which have passed while the task was suspended.
+	 */
+	private int suspendedPulses;
+
 	/**
 	 * Creates a new scheduled task.
 	 * @param delay The delay between executions of the task, in pulses.
@@ -37,6 +42,25 @@ public abstract class ScheduledTask {
 	 */
 	public abstract void execute();
 
+	/**
+	 * Called when the task is resumed after being suspended, with the number of executions which were skipped. The
+	 * countdown to the next execution has already been advanced as though the task had not been suspended. By default
+	 * the skipped executions are simply dropped; tasks whose executions accumulate state may apply them here in one go.
+	 * @param executions The number of skipped executions.
+	 */
+	protected void fastForward(int executions) {
+	}
+
+	/**
+	 * Checks if this task is deferrable, in which case it is skipped while the game loop is behind, as though it were
+	 * suspended, so that the pulse can catch up. Tasks whose executions can be late or dropped without the players
+	 * noticing, such as periodic refreshes, can use this.
+	 * @return {@code true} if so, {@code false} if not.
+	 */
+	protected boolean isDeferrable() {
+		return false;
+	}
+
 	/**
 	 * Checks if this task is running.
 	 * @return {@code true} if so, {@code false} if not.
@@ -45,16 +69,51 @@ public abstract class ScheduledTask {
 		return running;
 	}
 
+	/**
+	 * Checks if this task is suspended, in which case it is not executed until it is resumed. Tasks which only matter
+	 * when a player can see their surroundings, such as those of NPCs, can use this to sleep in inactive regions.
+	 * @return {@code true} if so, {@code false} if not.
+	 */
+	protected boolean isSuspended() {
+		return false;
+	}
+
 	/**
 	 * Pulses this task: updates the delay and calls {@link #execute()} if necessary.
+	 * @param shedding Whether the task should be skipped if it is deferrable.
 	 */
-	final void pulse() {
-		if (running && pulses-- == 0) {
+	final void pulse(boolean shedding) {
+		if (!running) {
+			return;
+		}
+		if (isSuspended() || shedding && isDeferrable()) {
+			suspendedPulses++;
+			return;
+		}
+		if (suspendedPulses > 0) {
+			resume();
+		}
+		if (pulses-- == 0) {
 			execute();
 			pulses = delay;
 		}
 	}
 
+	/**
+	 * Advances the countdown by the number of pulses which passed while this task was suspended, without executing it.
+	 */
+	private void resume() {
+		int elapsed = suspendedPulses;
+		suspendedPulses = 0;
+		if (elapsed <= pulses) {
+			pulses -= elapsed;
+			return;
+		}
+		int remaining = elapsed - pulses - 1;
+		pulses = delay - remaining % (delay + 1);
+		fastForward(1 + remaining / (delay + 1));
+	}
+
 	/**
 	 * Sets the delay.
 	 * @param delay The delay.
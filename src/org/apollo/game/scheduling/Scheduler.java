@@ -6,6 +6,8 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Queue;
 
+import org.apollo.game.profile.TickProfiler;
+
 /**
  * A class which manages {@link ScheduledTask}s.
  * @author Graham
@@ -31,16 +33,22 @@ public final class Scheduler {
 	}
 
 	/**
-	 * Called every pulse: executes tasks that are still pending, adds new tasks and stops old tasks.
+	 * Called every pulse: executes tasks that are still pending, adds new tasks and stops old tasks. The time each
+	 * task took is recorded by the type of task.
+	 * @param profiler The profiler.
+	 * @param shedding Whether {@link ScheduledTask#isDeferrable() deferrable} tasks should be skipped, as though they
+	 * were suspended.
 	 */
-	public void pulse() {
+	public void pulse(TickProfiler profiler, boolean shedding) {
 		ScheduledTask task;
 		while ((task = newTasks.poll()) != null) {
 			tasks.add(task);
 		}
 		for (Iterator<ScheduledTask> it = tasks.iterator(); it.hasNext();) {
 			task = it.next();
-			task.pulse();
+			long start = System.nanoTime();
+			task.pulse(shedding);
+			profiler.getTimer(TickProfiler.TASK, task.getClass()).recordSince(start);
 			if (!task.isRunning()) {
 				it.remove();
 			}
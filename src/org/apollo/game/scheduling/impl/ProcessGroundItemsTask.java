@@ -1,5 +1,7 @@
 package org.apollo.game.scheduling.impl;
 
+import java.util.List;
+
 import org.apollo.game.event.impl.GroundItemEvent;
 import org.apollo.game.event.impl.PositionEvent;
 import org.apollo.game.model.GroundItem;
@@ -7,6 +9,7 @@ import org.apollo.game.model.Player;
 import org.apollo.game.model.Position;
 import org.apollo.game.model.World;
 import org.apollo.game.scheduling.ScheduledTask;
+import org.apollo.util.IntHashMap;
 
 /**
  * A {@link ScheduledTask} which processes all ground items currently in game, decreasing their pulses, making them
@@ -33,7 +36,16 @@ public final class ProcessGroundItemsTask extends ScheduledTask {
 	 */
 	@Override
 	public void execute() {
-		for (Position position : instance.getItems().keySet()) {
+		IntHashMap<List<GroundItem>> items = instance.getItems();
+		int[] positions = new int[items.size()];
+		int count = 0;
+		for (int slot = 0; slot < items.capacity(); slot++) {
+			if (items.valueAt(slot) != null) {
+				positions[count++] = items.keyAt(slot);
+			}
+		}
+		for (int i = 0; i < count; i++) {
+			Position position = Position.unpack(positions[i]);
 			GroundItem item = instance.get(position);
 			if (item != null) {
 				item.decreasePulses();
@@ -48,9 +60,6 @@ public final class ProcessGroundItemsTask extends ScheduledTask {
 				}
 				if (item.getPulses() == 0) {
 					instance.delete(item);
-					if (instance.get(position) == null) {
-						break;
-					}
 				}
 			}
 		}
@@ -4,58 +4,77 @@ import java.util.Random;
 
 import org.apollo.game.model.Npc;
 import org.apollo.game.model.Position;
+import org.apollo.game.model.World;
+import org.apollo.game.model.path.Path;
 import org.apollo.game.scheduling.ScheduledTask;
 
 /**
- * An {@link ScheduledTask} which makes a npc walk randomly.
+ * An {@link ScheduledTask} which makes a npc walk randomly around the position it spawned at, so that it never wanders
+ * away from it.
  * @author eMachines
  */
 public final class RandomizedNpcWalkingTask extends ScheduledTask {
 
+	/**
+	 * The maximum distance an NPC walks away from its spawn position.
+	 */
+	private static final int MAXIMUM_DISTANCE = 3;
+
 	/**
 	 * The npc.
 	 */
 	private final Npc npc;
 
+	/**
+	 * The position the npc spawned at.
+	 */
+	private final Position spawn;
+
 	/**
 	 * The random integer generator.
 	 */
 	private final Random random = new Random();
 
 	/**
-	 * Creates the randomized task.
+	 * Creates the randomized task, which makes the npc walk around its current position.
 	 * @param npc The npc.
 	 */
 	public RandomizedNpcWalkingTask(Npc npc) {
+		this(npc, npc.getPosition());
+	}
+
+	/**
+	 * Creates the randomized task.
+	 * @param npc The npc.
+	 * @param spawn The position the npc spawned at, which it walks around.
+	 */
+	public RandomizedNpcWalkingTask(Npc npc, Position spawn) {
 		super(5, true);
 		this.npc = npc;
+		this.spawn = spawn;
 	}
 
 	@Override
 	public void execute() {
 		// TODO add certain npcs for random walking
-		// TODO add npc clipping
 		if (random.nextInt(8) == 1) {
-			int moveX = random.nextInt(1);
-			int moveY = random.nextInt(1);
-			int rnd = random.nextInt(4);
-			switch (rnd) {
-				case 1:
-					moveX = -moveX;
-					moveY = -moveY;
-					break;
-				case 2:
-					moveX = -moveX;
-					break;
-				case 3:
-					moveY = -moveY;
-					break;
-				default:
-					break;
+			int moveX = random.nextInt(MAXIMUM_DISTANCE * 2 + 1) - MAXIMUM_DISTANCE;
+			int moveY = random.nextInt(MAXIMUM_DISTANCE * 2 + 1) - MAXIMUM_DISTANCE;
+			Position destination = Position.create(spawn.getX() + moveX, spawn.getY() + moveY, spawn.getHeight());
+			Path path = World.getWorld().getPathfinder().findCached(npc.getPosition(), destination, 0);
+			if (path != null) {
+				npc.getWalkingQueue().addPath(path);
 			}
-			npc.getWalkingQueue().addStep(
-					new Position(npc.getPosition().getX() + moveX, npc.getPosition().getY() + moveY));
 		}
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * @see org.apollo.game.scheduling.ScheduledTask#isSuspended()
+	 */
+	@Override
+	protected boolean isSuspended() {
+		return !World.getWorld().getRegionManager().isActive(npc.getPosition());
+	}
+
 }
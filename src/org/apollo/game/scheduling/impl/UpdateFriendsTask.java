@@ -40,4 +40,13 @@ public class UpdateFriendsTask extends ScheduledTask {
 	public void execute() {
 		World.getWorld().getMessaging().dispatch();
 	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.apollo.game.scheduling.ScheduledTask#isDeferrable()
+	 */
+	@Override
+	protected boolean isDeferrable() {
+		return true;
+	}
 }
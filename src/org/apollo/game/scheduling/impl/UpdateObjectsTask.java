@@ -31,4 +31,13 @@ public class UpdateObjectsTask extends ScheduledTask {
 			player.getObjectSet().process();
 		}
 	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.apollo.game.scheduling.ScheduledTask#isDeferrable()
+	 */
+	@Override
+	protected boolean isDeferrable() {
+		return true;
+	}
 }
@@ -1,5 +1,7 @@
 package org.apollo.game.sync;
 
+import org.apollo.game.profile.TickProfiler;
+
 /**
  * The {@link ClientSynchronizer} manages the update sequence which keeps clients synchronized with the in-game world.
  * There are two implementations distributed with Apollo: {@link SequentialClientSynchronizer} which is optimized for a
@@ -15,6 +17,7 @@ public abstract class ClientSynchronizer {
 
 	/**
 	 * Synchronizes the state of the clients with the state of the server.
+	 * @param profiler The profiler, which records the time each phase of the synchronization takes.
 	 */
-	public abstract void synchronize();
+	public abstract void synchronize(TickProfiler profiler);
 }
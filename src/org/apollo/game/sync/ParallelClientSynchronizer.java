@@ -1,5 +1,6 @@
 package org.apollo.game.sync;
 
+import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Phaser;
@@ -9,6 +10,8 @@ import org.apollo.game.GameService;
 import org.apollo.game.model.Npc;
 import org.apollo.game.model.Player;
 import org.apollo.game.model.World;
+import org.apollo.game.model.region.RegionManager;
+import org.apollo.game.profile.TickProfiler;
 import org.apollo.game.sync.task.NPCSynchronizationTask;
 import org.apollo.game.sync.task.PhasedSynchronizationTask;
 import org.apollo.game.sync.task.PlayerSynchronizationTask;
@@ -51,9 +54,10 @@ public final class ParallelClientSynchronizer extends ClientSynchronizer {
 	}
 
 	@Override
-	public void synchronize() {
+	public void synchronize(TickProfiler profiler) {
 		CharacterRepository<Player> players = World.getWorld().getPlayerRepository();
 		int playerCount = players.size();
+		long start = System.nanoTime();
 
 		phaser.bulkRegister(playerCount);
 		for (Player player : players) {
@@ -61,6 +65,7 @@ public final class ParallelClientSynchronizer extends ClientSynchronizer {
 			executor.submit(new PhasedSynchronizationTask(phaser, task));
 		}
 		phaser.arriveAndAwaitAdvance();
+		start = profiler.getTimer(TickProfiler.PHASE, "pre_player").recordSince(start);
 
 		phaser.bulkRegister(playerCount);
 		for (Player player : players) {
@@ -68,6 +73,7 @@ public final class ParallelClientSynchronizer extends ClientSynchronizer {
 			executor.submit(new PhasedSynchronizationTask(phaser, task));
 		}
 		phaser.arriveAndAwaitAdvance();
+		start = profiler.getTimer(TickProfiler.PHASE, "player").recordSince(start);
 
 		phaser.bulkRegister(playerCount);
 		for (Player player : players) {
@@ -75,8 +81,12 @@ public final class ParallelClientSynchronizer extends ClientSynchronizer {
 			executor.submit(new PhasedSynchronizationTask(phaser, task));
 		}
 		phaser.arriveAndAwaitAdvance();
+		start = profiler.getTimer(TickProfiler.PHASE, "post_player").recordSince(start);
 
-		CharacterRepository<Npc> npcs = World.getWorld().getNpcRepository();
+		RegionManager regions = World.getWorld().getRegionManager();
+		regions.pulse(players);
+		List<Npc> npcs = regions.getActiveNpcs();
+		start = profiler.getTimer(TickProfiler.PHASE, "regions").recordSince(start);
 		int npcCount = npcs.size();
 
 		phaser.bulkRegister(npcCount);
@@ -85,6 +95,7 @@ public final class ParallelClientSynchronizer extends ClientSynchronizer {
 			executor.submit(new PhasedSynchronizationTask(phaser, task));
 		}
 		phaser.arriveAndAwaitAdvance();
+		start = profiler.getTimer(TickProfiler.PHASE, "pre_npc").recordSince(start);
 
 		phaser.bulkRegister(playerCount);
 		for (Player player : players) {
@@ -92,6 +103,7 @@ public final class ParallelClientSynchronizer extends ClientSynchronizer {
 			executor.submit(new PhasedSynchronizationTask(phaser, task));
 		}
 		phaser.arriveAndAwaitAdvance();
+		start = profiler.getTimer(TickProfiler.PHASE, "npc").recordSince(start);
 
 		phaser.bulkRegister(npcCount);
 		for (Npc npc : npcs) {
@@ -99,5 +111,6 @@ public final class ParallelClientSynchronizer extends ClientSynchronizer {
 			executor.submit(new PhasedSynchronizationTask(phaser, task));
 		}
 		phaser.arriveAndAwaitAdvance();
+		profiler.getTimer(TickProfiler.PHASE, "post_npc").recordSince(start);
 	}
 }
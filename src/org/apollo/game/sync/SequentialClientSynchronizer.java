@@ -1,9 +1,13 @@
 package org.apollo.game.sync;
 
+import java.util.List;
+
 import org.apollo.game.GameService;
 import org.apollo.game.model.Npc;
 import org.apollo.game.model.Player;
 import org.apollo.game.model.World;
+import org.apollo.game.model.region.RegionManager;
+import org.apollo.game.profile.TickProfiler;
 import org.apollo.game.sync.task.NPCSynchronizationTask;
 import org.apollo.game.sync.task.PlayerSynchronizationTask;
 import org.apollo.game.sync.task.PostNpcSynchronizationTask;
@@ -23,39 +27,49 @@ import org.apollo.util.CharacterRepository;
 public final class SequentialClientSynchronizer extends ClientSynchronizer {
 
 	@Override
-	public void synchronize() {
+	public void synchronize(TickProfiler profiler) {
 		CharacterRepository<Player> players = World.getWorld().getPlayerRepository();
+		long start = System.nanoTime();
 
 		for (Player player : players) {
 			SynchronizationTask task = new PrePlayerSynchronizationTask(player);
 			task.run();
 		}
+		start = profiler.getTimer(TickProfiler.PHASE, "pre_player").recordSince(start);
 
 		for (Player player : players) {
 			SynchronizationTask task = new PlayerSynchronizationTask(player);
 			task.run();
 		}
+		start = profiler.getTimer(TickProfiler.PHASE, "player").recordSince(start);
 
 		for (Player player : players) {
 			SynchronizationTask task = new PostPlayerSynchronizationTask(player);
 			task.run();
 		}
+		start = profiler.getTimer(TickProfiler.PHASE, "post_player").recordSince(start);
 
-		CharacterRepository<Npc> npcs = World.getWorld().getNpcRepository();
+		RegionManager regions = World.getWorld().getRegionManager();
+		regions.pulse(players);
+		List<Npc> npcs = regions.getActiveNpcs();
+		start = profiler.getTimer(TickProfiler.PHASE, "regions").recordSince(start);
 
 		for (Npc npc : npcs) {
 			SynchronizationTask task = new PreNpcSynchronizationTask(npc);
 			task.run();
 		}
+		start = profiler.getTimer(TickProfiler.PHASE, "pre_npc").recordSince(start);
 
 		for (Player player : players) {
 			SynchronizationTask task = new NPCSynchronizationTask(player);
 			task.run();
 		}
+		start = profiler.getTimer(TickProfiler.PHASE, "npc").recordSince(start);
 
 		for (Npc npc : npcs) {
 			SynchronizationTask task = new PostNpcSynchronizationTask(npc);
 			task.run();
 		}
+		profiler.getTimer(TickProfiler.PHASE, "post_npc").recordSince(start);
 	}
 }
@@ -8,13 +8,15 @@ import org.apollo.game.event.impl.NPCSynchronizationEvent;
 import org.apollo.game.model.Config;
 import org.apollo.game.model.Npc;
 import org.apollo.game.model.Player;
+import org.apollo.game.model.Position;
 import org.apollo.game.model.World;
+import org.apollo.game.model.region.Region;
+import org.apollo.game.model.region.RegionManager;
 import org.apollo.game.sync.block.SynchronizationBlockSet;
 import org.apollo.game.sync.seg.AddNpcSegment;
 import org.apollo.game.sync.seg.MovementSegment;
 import org.apollo.game.sync.seg.RemoveCharacterSegment;
 import org.apollo.game.sync.seg.SynchronizationSegment;
-import org.apollo.util.CharacterRepository;
 
 /**
  * NPCSynchronizzationTask.java
@@ -59,20 +61,26 @@ public class NPCSynchronizationTask extends SynchronizationTask {
 			}
 		}
 		int added = 0;
-		CharacterRepository<Npc> repository = World.getWorld().getNpcRepository();
-		for (Npc n : repository) {
-			if (localNPCs.size() >= 255 || !Config.SERVER_NPCS) {
-				break;
-			} else {
-				if (added >= NEW_NPCS_PER_CYCLE) {
-					break;
-				}
-				if (n.getPosition().isWithinDistance(player.getPosition(), player.getViewingDistance())
-						&& !localNPCs.contains(n)) {
-					localNPCs.add(n);
-					added++;
-					blockSet = n.getBlockSet();
-					segments.add(new AddNpcSegment(blockSet, n.getIndex(), n.getPosition(), n.getDefinition().getId()));
+		RegionManager regions = World.getWorld().getRegionManager();
+		Position position = player.getPosition();
+		int distance = player.getViewingDistance();
+		int minimumX = Math.max(0, position.getX() - distance) / Region.REGION_SIZE;
+		int minimumY = Math.max(0, position.getY() - distance) / Region.REGION_SIZE;
+		int maximumX = (position.getX() + distance) / Region.REGION_SIZE;
+		int maximumY = (position.getY() + distance) / Region.REGION_SIZE;
+		search: for (int x = minimumX; x <= maximumX; x++) {
+			for (int y = minimumY; y <= maximumY; y++) {
+				for (Npc n : regions.getRegion(x, y).getNpcs()) {
+					if (localNPCs.size() >= 255 || !Config.SERVER_NPCS || added >= NEW_NPCS_PER_CYCLE) {
+						break search;
+					}
+					if (n.isActive() && n.getPosition().isWithinDistance(position, distance) && !localNPCs.contains(n)) {
+						localNPCs.add(n);
+						added++;
+						blockSet = n.getBlockSet();
+						segments.add(new AddNpcSegment(blockSet, n.getIndex(), n.getPosition(), n.getDefinition()
+								.getId()));
+					}
 				}
 			}
 		}
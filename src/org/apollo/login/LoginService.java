@@ -6,6 +6,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
 import org.apollo.Service;
+import org.apollo.fs.CacheManifest;
 import org.apollo.game.model.Player;
 import org.apollo.io.player.PlayerLoader;
 import org.apollo.io.player.PlayerLoaderResponse;
@@ -15,6 +16,7 @@ import org.apollo.net.codec.login.LoginRequest;
 import org.apollo.net.release.Release;
 import org.apollo.net.session.GameSession;
 import org.apollo.net.session.LoginSession;
+import org.apollo.update.UpdateService;
 import org.apollo.util.NamedThreadFactory;
 import org.apollo.util.xml.XmlNode;
 import org.apollo.util.xml.XmlParser;
@@ -93,8 +95,9 @@ public final class LoginService extends Service {
 	 */
 	public void submitLoadRequest(LoginSession session, LoginRequest request) {
 		Release release = session.getRelease();
-		if (release.getReleaseNumber() != request.getReleaseNumber()) {
-			// TODO check archive 0 CRCs
+		CacheManifest manifest = getContext().getService(UpdateService.class).getManifest();
+		if (release.getReleaseNumber() != request.getReleaseNumber()
+				|| manifest != null && !manifest.checkArchiveCrcs(request.getArchiveCrcs())) {
 			session.handlePlayerLoaderResponse(request, new PlayerLoaderResponse(LoginConstants.STATUS_GAME_UPDATED));
 		} else {
 			executor.submit(new PlayerLoaderWorker(loader, session, request));
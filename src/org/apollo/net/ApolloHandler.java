@@ -83,6 +83,19 @@ public final class ApolloHandler extends IdleStateAwareChannelUpstreamHandler {
 		e.getChannel().close();
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * @see org.jboss.netty.channel.SimpleChannelUpstreamHandler#channelInterestChanged(org.jboss.netty.channel.
+	 * ChannelHandlerContext, org.jboss.netty.channel.ChannelStateEvent)
+	 */
+	@Override
+	public void channelInterestChanged(ChannelHandlerContext ctx, ChannelStateEvent e) throws Exception {
+		Object attachment = ctx.getAttachment();
+		if (attachment != null) {
+			((Session) attachment).interestChanged();
+		}
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see
@@ -0,0 +1,52 @@
+package org.apollo.net.capture;
+
+/**
+ * Holds the constants of the capture log format. A log starts with the magic number, the version and the release
+ * number, and is followed by records which each start with a type byte:
+ * <ul>
+ * <li>{@link #RECORD_LOGIN}: the index, name and position of a player who logged in, or who was online when the
+ * capture started.</li>
+ * <li>{@link #RECORD_LOGOUT}: the index of a player who logged out.</li>
+ * <li>{@link #RECORD_PACKET}: the index of a player, and the opcode, length and payload of a packet whose event was
+ * handled.</li>
+ * <li>{@link #RECORD_PULSE}: the end of a pulse; the records before it took effect during that pulse.</li>
+ * </ul>
+ */
+public final class CaptureConstants {
+
+	/**
+	 * The magic number, which identifies a capture log.
+	 */
+	public static final int MAGIC = 0x41504354;
+
+	/**
+	 * The version of the format.
+	 */
+	public static final int VERSION = 1;
+
+	/**
+	 * The type of a record which marks the end of a pulse.
+	 */
+	public static final int RECORD_PULSE = 0;
+
+	/**
+	 * The type of a record which logs a player in.
+	 */
+	public static final int RECORD_LOGIN = 1;
+
+	/**
+	 * The type of a record which logs a player out.
+	 */
+	public static final int RECORD_LOGOUT = 2;
+
+	/**
+	 * The type of a record which holds a packet.
+	 */
+	public static final int RECORD_PACKET = 3;
+
+	/**
+	 * Default private constructor to prevent instantiation.
+	 */
+	private CaptureConstants() {
+	}
+}
@@ -0,0 +1,210 @@
+package org.apollo.net.capture;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+
+import org.apollo.net.NetworkConstants;
+
+/**
+ * Reads the records of a capture log written by a {@link PacketCapture}, one at a time.
+ * @see CaptureConstants
+ */
+public final class CaptureReader {
+
+	/**
+	 * The input stream.
+	 */
+	private final DataInputStream in;
+
+	/**
+	 * The release number of the captured traffic.
+	 */
+	private final int release;
+
+	/**
+	 * The type of the current record.
+	 */
+	private int type;
+
+	/**
+	 * The player index of the current record.
+	 */
+	private int index;
+
+	/**
+	 * The name of the player of the current login record.
+	 */
+	private String name;
+
+	/**
+	 * The coordinates of the player of the current login record.
+	 */
+	private int x, y, height;
+
+	/**
+	 * The opcode of the current packet record.
+	 */
+	private int opcode;
+
+	/**
+	 * The payload of the current packet record.
+	 */
+	private byte[] payload;
+
+	/**
+	 * Opens a capture log, and reads its header.
+	 * @param file The file.
+	 * @throws IOException if the file could not be read, or is not a capture log of a supported version.
+	 */
+	public CaptureReader(File file) throws IOException {
+		in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+		if (in.readInt() != CaptureConstants.MAGIC) {
+			in.close();
+			throw new IOException("Not a capture log: " + file + ".");
+		}
+		int version = in.readUnsignedShort();
+		if (version != CaptureConstants.VERSION) {
+			in.close();
+			throw new IOException("Unsupported capture log version: " + version + ".");
+		}
+		release = in.readUnsignedShort();
+	}
+
+	/**
+	 * Closes the log.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public void close() throws IOException {
+		in.close();
+	}
+
+	/**
+	 * Gets the height of the position of the player of the current login record.
+	 * @return The height.
+	 */
+	public int getHeight() {
+		return height;
+	}
+
+	/**
+	 * Gets the player index of the current record, which is the index the player had on the server that captured the
+	 * traffic.
+	 * @return The player index.
+	 */
+	public int getIndex() {
+		return index;
+	}
+
+	/**
+	 * Gets the name of the player of the current login record.
+	 * @return The name.
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Gets the opcode of the current packet record.
+	 * @return The opcode.
+	 */
+	public int getOpcode() {
+		return opcode;
+	}
+
+	/**
+	 * Gets the payload of the current packet record.
+	 * @return The payload.
+	 */
+	public byte[] getPayload() {
+		return payload;
+	}
+
+	/**
+	 * Gets the release number of the captured traffic.
+	 * @return The release number.
+	 */
+	public int getRelease() {
+		return release;
+	}
+
+	/**
+	 * Gets the type of the current record.
+	 * @return The type, one of the record types of {@link CaptureConstants}.
+	 */
+	public int getType() {
+		return type;
+	}
+
+	/**
+	 * Gets the x coordinate of the position of the player of the current login record.
+	 * @return The x coordinate.
+	 */
+	public int getX() {
+		return x;
+	}
+
+	/**
+	 * Gets the y coordinate of the position of the player of the current login record.
+	 * @return The y coordinate.
+	 */
+	public int getY() {
+		return y;
+	}
+
+	/**
+	 * Reads the next record.
+	 * @return {@code true} if a record was read, {@code false} if the end of the log has been reached.
+	 * @throws IOException if the log could not be read, or is malformed.
+	 */
+	public boolean next() throws IOException {
+		int type = in.read();
+		if (type == -1) {
+			return false;
+		}
+		this.type = type;
+		switch (type) {
+			case CaptureConstants.RECORD_PULSE:
+				break;
+			case CaptureConstants.RECORD_LOGIN:
+				index = in.readUnsignedShort();
+				name = readString();
+				x = in.readUnsignedShort();
+				y = in.readUnsignedShort();
+				height = in.readUnsignedByte();
+				break;
+			case CaptureConstants.RECORD_LOGOUT:
+				index = in.readUnsignedShort();
+				break;
+			case CaptureConstants.RECORD_PACKET:
+				index = in.readUnsignedShort();
+				opcode = in.readUnsignedByte();
+				payload = new byte[in.readUnsignedShort()];
+				in.readFully(payload);
+				break;
+			default:
+				throw new IOException("Invalid record type: " + type + ".");
+		}
+		return true;
+	}
+
+	/**
+	 * Reads a string terminated by {@link NetworkConstants#STRING_TERMINATOR}.
+	 * @return The string.
+	 * @throws IOException if the string could not be read.
+	 */
+	private String readString() throws IOException {
+		StringBuilder builder = new StringBuilder();
+		int character;
+		while ((character = in.read()) != NetworkConstants.STRING_TERMINATOR) {
+			if (character == -1) {
+				throw new EOFException();
+			}
+			builder.append((char) character);
+		}
+		return builder.toString();
+	}
+}
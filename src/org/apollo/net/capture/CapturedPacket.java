@@ -0,0 +1,63 @@
+package org.apollo.net.capture;
+
+import org.apollo.game.event.Event;
+import org.apollo.net.codec.game.GamePacket;
+
+/**
+ * A packet which was received while a {@link PacketCapture} is running, together with the event it was decoded into.
+ * The session records the packet when it handles the event, so that the capture log holds packets in the order, and
+ * during the pulse, in which their events were handled.
+ */
+public final class CapturedPacket {
+
+	/**
+	 * The opcode.
+	 */
+	private final int opcode;
+
+	/**
+	 * The payload.
+	 */
+	private final byte[] payload;
+
+	/**
+	 * The event.
+	 */
+	private final Event event;
+
+	/**
+	 * Creates the captured packet, copying the payload of the packet.
+	 * @param packet The packet.
+	 * @param event The event the packet was decoded into.
+	 */
+	public CapturedPacket(GamePacket packet, Event event) {
+		this.opcode = packet.getOpcode();
+		this.payload = new byte[packet.getLength()];
+		this.event = event;
+		packet.getPayload().getBytes(0, payload);
+	}
+
+	/**
+	 * Gets the event the packet was decoded into.
+	 * @return The event.
+	 */
+	public Event getEvent() {
+		return event;
+	}
+
+	/**
+	 * Gets the opcode.
+	 * @return The opcode.
+	 */
+	public int getOpcode() {
+		return opcode;
+	}
+
+	/**
+	 * Gets the payload.
+	 * @return The payload.
+	 */
+	public byte[] getPayload() {
+		return payload;
+	}
+}
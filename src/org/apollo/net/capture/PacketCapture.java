@@ -0,0 +1,211 @@
+package org.apollo.net.capture;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apollo.game.model.Player;
+import org.apollo.game.model.Position;
+import org.apollo.game.model.World;
+import org.apollo.net.NetworkConstants;
+import org.apollo.util.NamedThreadFactory;
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
+
+/**
+ * Captures the inbound packets of every game session to a log, with the pulse in which each was handled, so that the
+ * traffic can be replayed later. The records of each pulse are buffered in memory and written to the file by a
+ * background thread, so the game thread never waits for the disk. At most one capture runs at a time.
+ * @see CaptureConstants
+ */
+public final class PacketCapture {
+
+	/**
+	 * The logger for this class.
+	 */
+	private static final Logger logger = Logger.getLogger(PacketCapture.class.getName());
+
+	/**
+	 * The capture which is running, or {@code null} if there is none.
+	 */
+	private static volatile PacketCapture active;
+
+	/**
+	 * Gets the capture which is running.
+	 * @return The capture, or {@code null} if there is none.
+	 */
+	public static PacketCapture getActive() {
+		return active;
+	}
+
+	/**
+	 * Checks if a capture is running.
+	 * @return {@code true} if so, {@code false} if not.
+	 */
+	public static boolean isCapturing() {
+		return active != null;
+	}
+
+	/**
+	 * Starts a capture, which begins with every player who is online. This must be called by the game thread.
+	 * @param file The file to write the log to.
+	 * @param release The release number.
+	 * @return The capture.
+	 * @throws IOException if the file could not be opened.
+	 * @throws IllegalStateException if a capture is already running.
+	 */
+	public static synchronized PacketCapture start(File file, int release) throws IOException {
+		if (active != null) {
+			throw new IllegalStateException("A capture is already running.");
+		}
+		PacketCapture capture = new PacketCapture(file, release);
+		for (Player player : World.getWorld().getPlayerRepository()) {
+			capture.login(player);
+		}
+		active = capture;
+		return capture;
+	}
+
+	/**
+	 * The file.
+	 */
+	private final File file;
+
+	/**
+	 * The stream which writes to the file.
+	 */
+	private final DataOutputStream out;
+
+	/**
+	 * The executor which writes to the file.
+	 */
+	private final ExecutorService writer = Executors.newSingleThreadExecutor(new NamedThreadFactory("PacketCapture"));
+
+	/**
+	 * The records of the current pulse.
+	 */
+	private ChannelBuffer records = ChannelBuffers.dynamicBuffer();
+
+	/**
+	 * The number of pulses which have been captured.
+	 */
+	private int pulses;
+
+	/**
+	 * Creates the packet capture, and writes the header of the log.
+	 * @param file The file.
+	 * @param release The release number.
+	 * @throws IOException if the file could not be opened.
+	 */
+	private PacketCapture(File file, int release) throws IOException {
+		this.file = file;
+		this.out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+		out.writeInt(CaptureConstants.MAGIC);
+		out.writeShort(CaptureConstants.VERSION);
+		out.writeShort(release);
+	}
+
+	/**
+	 * Gets the file the log is written to.
+	 * @return The file.
+	 */
+	public File getFile() {
+		return file;
+	}
+
+	/**
+	 * Gets the number of pulses which have been captured.
+	 * @return The number of pulses.
+	 */
+	public synchronized int getPulses() {
+		return pulses;
+	}
+
+	/**
+	 * Records that a player has logged in.
+	 * @param player The player.
+	 */
+	public synchronized void login(Player player) {
+		Position position = player.getPosition();
+		records.writeByte(CaptureConstants.RECORD_LOGIN);
+		records.writeShort(player.getIndex());
+		records.writeBytes(player.getName().getBytes());
+		records.writeByte(NetworkConstants.STRING_TERMINATOR);
+		records.writeShort(position.getX());
+		records.writeShort(position.getY());
+		records.writeByte(position.getHeight());
+	}
+
+	/**
+	 * Records that a player has logged out.
+	 * @param player The player.
+	 */
+	public synchronized void logout(Player player) {
+		records.writeByte(CaptureConstants.RECORD_LOGOUT);
+		records.writeShort(player.getIndex());
+	}
+
+	/**
+	 * Ends the current pulse, and writes its records to the file in the background.
+	 */
+	public synchronized void pulse() {
+		records.writeByte(CaptureConstants.RECORD_PULSE);
+		pulses++;
+		final ChannelBuffer records = this.records;
+		this.records = ChannelBuffers.dynamicBuffer(records.readableBytes());
+		writer.execute(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					records.readBytes(out, records.readableBytes());
+				} catch (IOException e) {
+					logger.log(Level.SEVERE, "Failed to write to the capture " + file + ".", e);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Records a packet whose event has been handled.
+	 * @param player The player whose session received the packet.
+	 * @param packet The packet.
+	 */
+	public synchronized void record(Player player, CapturedPacket packet) {
+		byte[] payload = packet.getPayload();
+		records.writeByte(CaptureConstants.RECORD_PACKET);
+		records.writeShort(player.getIndex());
+		records.writeByte(packet.getOpcode());
+		records.writeShort(payload.length);
+		records.writeBytes(payload);
+	}
+
+	/**
+	 * Stops the capture, and closes the file in the background once every pulse has been written. Returns immediately,
+	 * so the game thread never waits for the disk. The records of the current pulse, which has not ended, are
+	 * discarded.
+	 */
+	public void stop() {
+		synchronized (PacketCapture.class) {
+			if (active == this) {
+				active = null;
+			}
+		}
+		writer.execute(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					out.close();
+				} catch (IOException e) {
+					logger.log(Level.SEVERE, "Failed to close the capture " + file + ".", e);
+				}
+			}
+		});
+		writer.shutdown();
+	}
+}
@@ -0,0 +1,5 @@
+/**
+ * Contains classes which capture the inbound packets of game sessions to a log, and read the log back.
+ */
+package org.apollo.net.capture;
+
@@ -1,6 +1,8 @@
 package org.apollo.net.codec.game;
 
 import org.apollo.game.event.Event;
+import org.apollo.net.capture.CapturedPacket;
+import org.apollo.net.capture.PacketCapture;
 import org.apollo.net.release.EventDecoder;
 import org.apollo.net.release.Release;
 import org.jboss.netty.channel.Channel;
@@ -8,7 +10,8 @@ import org.jboss.netty.channel.ChannelHandlerContext;
 import org.jboss.netty.handler.codec.oneone.OneToOneDecoder;
 
 /**
- * A {@link OneToOneDecoder} that decodes {@link GamePacket}s into {@link Event} s.
+ * A {@link OneToOneDecoder} that decodes {@link GamePacket}s into {@link Event} s. While a {@link PacketCapture} is
+ * running, each event is passed on with its packet as a {@link CapturedPacket}.
  * @author Graham
  */
 public final class GameEventDecoder extends OneToOneDecoder {
@@ -18,6 +21,11 @@ public final class GameEventDecoder extends OneToOneDecoder {
 	 */
 	private final Release release;
 
+	/**
+	 * The reader which is reused for every packet of this session.
+	 */
+	private final GamePacketReader reader = new GamePacketReader();
+
 	/**
 	 * Creates the game event decoder with the specified release.
 	 * @param release The release.
@@ -36,10 +44,14 @@ public final class GameEventDecoder extends OneToOneDecoder {
 		if (msg instanceof GamePacket) {
 			GamePacket packet = (GamePacket) msg;
 			EventDecoder<?> decoder = release.getEventDecoder(packet.getOpcode());
-			if (decoder != null) {
-				return decoder.decode(packet);
+			if (decoder == null) {
+				return null;
+			}
+			Event event = decoder.decode(packet, reader.wrap(packet));
+			if (event != null && PacketCapture.isCapturing()) {
+				return new CapturedPacket(packet, event);
 			}
-			return null;
+			return event;
 		}
 		return msg;
 	}
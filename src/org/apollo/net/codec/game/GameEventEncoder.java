@@ -1,5 +1,7 @@
 package org.apollo.net.codec.game;
 
+import java.util.Arrays;
+
 import org.apollo.game.event.Event;
 import org.apollo.net.release.EventEncoder;
 import org.apollo.net.release.Release;
@@ -8,7 +10,8 @@ import org.jboss.netty.channel.ChannelHandlerContext;
 import org.jboss.netty.handler.codec.oneone.OneToOneEncoder;
 
 /**
- * A {@link OneToOneEncoder} which encodes {@link Event}s into {@link GamePacket}s.
+ * A {@link OneToOneEncoder} which encodes {@link Event}s into {@link GamePacket}s. An array of events is encoded into
+ * an array of packets.
  * @author Graham
  */
 public final class GameEventEncoder extends OneToOneEncoder {
@@ -31,17 +34,37 @@ public final class GameEventEncoder extends OneToOneEncoder {
 	 * @see org.jboss.netty.handler.codec.oneone.OneToOneEncoder#encode(org.jboss.netty.channel.ChannelHandlerContext,
 	 * org.jboss.netty.channel.Channel, java.lang.Object)
 	 */
-	@SuppressWarnings("unchecked")
 	@Override
 	protected Object encode(ChannelHandlerContext ctx, Channel c, Object msg) throws Exception {
-		if (msg instanceof Event) {
-			Event event = (Event) msg;
-			EventEncoder<Event> encoder = (EventEncoder<Event>) release.getEventEncoder(event.getClass());
-			if (encoder != null) {
-				return encoder.encode(event);
+		if (msg instanceof Event[]) {
+			Event[] events = (Event[]) msg;
+			GamePacket[] packets = new GamePacket[events.length];
+			int count = 0;
+			for (Event event : events) {
+				GamePacket packet = encode(event);
+				if (packet != null) {
+					packets[count++] = packet;
+				}
 			}
-			return null;
+			return count == packets.length ? packets : Arrays.copyOf(packets, count);
+		}
+		if (msg instanceof Event) {
+			return encode((Event) msg);
 		}
 		return msg;
 	}
+
+	/**
+	 * Encodes a single event.
+	 * @param event The event.
+	 * @return The packet, or {@code null} if the release has no encoder for the event.
+	 */
+	@SuppressWarnings("unchecked")
+	private GamePacket encode(Event event) {
+		EventEncoder<Event> encoder = (EventEncoder<Event>) release.getEventEncoder(event.getClass());
+		if (encoder != null) {
+			return encoder.encode(event);
+		}
+		return null;
+	}
 }
@@ -10,7 +10,8 @@ import org.jboss.netty.channel.ChannelHandlerContext;
 import org.jboss.netty.handler.codec.oneone.OneToOneEncoder;
 
 /**
- * A {@link OneToOneEncoder} which encodes in-game packets.
+ * A {@link OneToOneEncoder} which encodes in-game packets. An array of packets is encoded into a single buffer, in
+ * order, so that it can be written to the channel at once.
  * @author Graham
  */
 public final class GamePacketEncoder extends OneToOneEncoder {
@@ -35,10 +36,34 @@ public final class GamePacketEncoder extends OneToOneEncoder {
 	 */
 	@Override
 	protected Object encode(ChannelHandlerContext ctx, Channel channel, Object msg) throws Exception {
+		if (msg instanceof GamePacket[]) {
+			GamePacket[] packets = (GamePacket[]) msg;
+			int length = 0;
+			for (GamePacket packet : packets) {
+				length += getHeaderLength(packet) + packet.getLength();
+			}
+			ChannelBuffer buffer = ChannelBuffers.buffer(length);
+			for (GamePacket packet : packets) {
+				write(packet, buffer);
+			}
+			return buffer;
+		}
 		if (!(msg instanceof GamePacket)) {
 			return msg;
 		}
 		GamePacket packet = (GamePacket) msg;
+		ChannelBuffer buffer = ChannelBuffers.buffer(getHeaderLength(packet) + packet.getLength());
+		write(packet, buffer);
+		return buffer;
+	}
+
+	/**
+	 * Gets the length of the header of a packet.
+	 * @param packet The packet.
+	 * @return The header length.
+	 * @throws Exception if the payload is too long for the packet type.
+	 */
+	private int getHeaderLength(GamePacket packet) throws Exception {
 		PacketType type = packet.getType();
 		int headerLength = 1;
 		int payloadLength = packet.getLength();
@@ -53,7 +78,17 @@ public final class GamePacketEncoder extends OneToOneEncoder {
 				throw new Exception("Payload too long for variable short packet");
 			}
 		}
-		ChannelBuffer buffer = ChannelBuffers.buffer(headerLength + payloadLength);
+		return headerLength;
+	}
+
+	/**
+	 * Writes a packet, encrypting its opcode with the next value of the random number generator.
+	 * @param packet The packet.
+	 * @param buffer The buffer to write to.
+	 */
+	private void write(GamePacket packet, ChannelBuffer buffer) {
+		PacketType type = packet.getType();
+		int payloadLength = packet.getLength();
 		buffer.writeByte((packet.getOpcode() + random.nextInt()) & 0xFF);
 		if (type == PacketType.VARIABLE_BYTE) {
 			buffer.writeByte(payloadLength);
@@ -61,6 +96,5 @@ public final class GamePacketEncoder extends OneToOneEncoder {
 			buffer.writeShort(payloadLength);
 		}
 		buffer.writeBytes(packet.getPayload());
-		return buffer;
 	}
 }
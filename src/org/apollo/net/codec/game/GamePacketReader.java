@@ -12,7 +12,7 @@ public final class GamePacketReader {
 	/**
 	 * The buffer.
 	 */
-	private final ChannelBuffer buffer;
+	private ChannelBuffer buffer;
 
 	/**
 	 * The current mode.
@@ -24,6 +24,17 @@ public final class GamePacketReader {
 	 */
 	private int bitIndex;
 
+	/**
+	 * The scratch array.
+	 */
+	private byte[] scratch = new byte[0];
+
+	/**
+	 * Creates a reader which must be pointed at a packet with {@link #wrap(GamePacket)} before it is used.
+	 */
+	public GamePacketReader() {
+	}
+
 	/**
 	 * Creates the reader.
 	 * @param packet The packet.
@@ -59,70 +70,32 @@ public final class GamePacketReader {
 	 */
 	private long get(DataType type, DataOrder order, DataTransformation transformation) {
 		checkByteAccess();
-		long longValue = 0;
 		int length = type.getBytes();
 		if (order == DataOrder.BIG) {
 			if (type == DataType.LONG && transformation == DataTransformation.QUADRUPLE) {
 				return buffer.readLong();
-			} else {
-				for (int i = length - 1; i >= 0; i--) {
-					if (i == 0 && transformation != DataTransformation.NONE) {
-						if (transformation == DataTransformation.ADD) {
-							longValue |= (buffer.readByte() - 128) & 0xFF;
-						} else if (transformation == DataTransformation.NEGATE) {
-							longValue |= (-buffer.readByte()) & 0xFF;
-						} else if (transformation == DataTransformation.SUBTRACT) {
-							longValue |= (128 - buffer.readByte()) & 0xFF;
-						} else {
-							throw new IllegalArgumentException("unknown transformation");
-						}
-					} else {
-						longValue |= ((buffer.readByte() & 0xFF) << (i * 8));
-					}
-				}
 			}
+			long value = 0;
+			for (int i = length - 1; i > 0; i--) {
+				value |= (long) buffer.readUnsignedByte() << (i * 8);
+			}
+			return value | readTransformed(transformation);
 		} else if (order == DataOrder.LITTLE) {
-			for (int i = 0; i < length; i++) {
-				if (i == 0 && transformation != DataTransformation.NONE) {
-					if (transformation == DataTransformation.ADD) {
-						longValue |= (buffer.readByte() - 128) & 0xFF;
-					} else if (transformation == DataTransformation.NEGATE) {
-						longValue |= (-buffer.readByte()) & 0xFF;
-					} else if (transformation == DataTransformation.SUBTRACT) {
-						longValue |= (128 - buffer.readByte()) & 0xFF;
-					} else {
-						throw new IllegalArgumentException("unknown transformation");
-					}
-				} else {
-					longValue |= ((buffer.readByte() & 0xFF) << (i * 8));
-				}
+			long value = readTransformed(transformation);
+			for (int i = 1; i < length; i++) {
+				value |= (long) buffer.readUnsignedByte() << (i * 8);
 			}
-		} else if (order == DataOrder.MIDDLE) {
+			return value;
+		} else if (order == DataOrder.MIDDLE || order == DataOrder.INVERSED_MIDDLE) {
 			if (transformation != DataTransformation.NONE) {
 				throw new IllegalArgumentException("middle endian cannot be transformed");
 			}
 			if (type != DataType.INT) {
 				throw new IllegalArgumentException("middle endian can only be used with an integer");
 			}
-			longValue |= (buffer.readByte() & 0xFF) << 8;
-			longValue |= buffer.readByte() & 0xFF;
-			longValue |= (buffer.readByte() & 0xFF) << 24;
-			longValue |= (buffer.readByte() & 0xFF) << 16;
-		} else if (order == DataOrder.INVERSED_MIDDLE) {
-			if (transformation != DataTransformation.NONE) {
-				throw new IllegalArgumentException("inversed middle endian cannot be transformed");
-			}
-			if (type != DataType.INT) {
-				throw new IllegalArgumentException("inversed middle endian can only be used with an integer");
-			}
-			longValue |= (buffer.readByte() & 0xFF) << 16;
-			longValue |= (buffer.readByte() & 0xFF) << 24;
-			longValue |= buffer.readByte() & 0xFF;
-			longValue |= (buffer.readByte() & 0xFF) << 8;
-		} else {
-			throw new IllegalArgumentException("unknown order");
+			return getInt(order) & 0xFFFFFFFFL;
 		}
-		return longValue;
+		throw new IllegalArgumentException("unknown order");
 	}
 
 	/**
@@ -164,10 +137,17 @@ public final class GamePacketReader {
 	 * @param bytes The target byte array.
 	 */
 	public void getBytes(byte[] bytes) {
+		getBytes(bytes, bytes.length);
+	}
+
+	/**
+	 * Gets the specified number of bytes into the start of an array.
+	 * @param bytes The target byte array.
+	 * @param length The number of bytes.
+	 */
+	public void getBytes(byte[] bytes, int length) {
 		checkByteAccess();
-		for (int i = 0; i < bytes.length; i++) {
-			bytes[i] = buffer.readByte();
-		}
+		buffer.readBytes(bytes, 0, length);
 	}
 
 	/**
@@ -179,8 +159,9 @@ public final class GamePacketReader {
 		if (transformation == DataTransformation.NONE) {
 			getBytesReverse(bytes);
 		} else {
+			checkByteAccess();
 			for (int i = 0; i < bytes.length; i++) {
-				bytes[i] = (byte) getSigned(DataType.BYTE, transformation);
+				bytes[i] = (byte) readTransformed(transformation);
 			}
 		}
 	}
@@ -190,10 +171,7 @@ public final class GamePacketReader {
 	 * @param bytes The target byte array.
 	 */
 	public void getBytesReverse(byte[] bytes) {
-		checkByteAccess();
-		for (int i = bytes.length - 1; i >= 0; i--) {
-			bytes[i] = buffer.readByte();
-		}
+		getBytesReverse(DataTransformation.NONE, bytes, bytes.length);
 	}
 
 	/**
@@ -202,12 +180,51 @@ public final class GamePacketReader {
 	 * @param bytes The target byte array.
 	 */
 	public void getBytesReverse(DataTransformation transformation, byte[] bytes) {
-		if (transformation == DataTransformation.NONE) {
-			getBytesReverse(bytes);
-		} else {
-			for (int i = bytes.length - 1; i >= 0; i--) {
-				bytes[i] = (byte) getSigned(DataType.BYTE, transformation);
-			}
+		getBytesReverse(transformation, bytes, bytes.length);
+	}
+
+	/**
+	 * Gets the specified number of bytes in reverse into the start of an array, with the specified transformation.
+	 * @param transformation The transformation.
+	 * @param bytes The target byte array.
+	 * @param length The number of bytes.
+	 */
+	public void getBytesReverse(DataTransformation transformation, byte[] bytes, int length) {
+		checkByteAccess();
+		for (int i = length - 1; i >= 0; i--) {
+			bytes[i] = (byte) readTransformed(transformation);
+		}
+	}
+
+	/**
+	 * Gets a big endian integer from the buffer.
+	 * @return The value.
+	 */
+	public int getInt() {
+		checkByteAccess();
+		return buffer.readInt();
+	}
+
+	/**
+	 * Gets an integer from the buffer with the specified order.
+	 * @param order The byte order.
+	 * @return The value.
+	 */
+	public int getInt(DataOrder order) {
+		checkByteAccess();
+		int a = buffer.readUnsignedByte(), b = buffer.readUnsignedByte(), c = buffer.readUnsignedByte(), d = buffer
+				.readUnsignedByte();
+		switch (order) {
+		case BIG:
+			return a << 24 | b << 16 | c << 8 | d;
+		case LITTLE:
+			return d << 24 | c << 16 | b << 8 | a;
+		case MIDDLE:
+			return c << 24 | d << 16 | a << 8 | b;
+		case INVERSED_MIDDLE:
+			return b << 24 | a << 16 | d << 8 | c;
+		default:
+			throw new IllegalArgumentException("unknown order");
 		}
 	}
 
@@ -220,6 +237,28 @@ public final class GamePacketReader {
 		return buffer.writableBytes();
 	}
 
+	/**
+	 * Gets a big endian long from the buffer.
+	 * @return The value.
+	 */
+	public long getLong() {
+		checkByteAccess();
+		return buffer.readLong();
+	}
+
+	/**
+	 * Gets a scratch array of at least the specified length. The array belongs to this reader and is reused, so its
+	 * contents are only valid until the next call.
+	 * @param length The minimum length.
+	 * @return The scratch array.
+	 */
+	public byte[] getScratch(int length) {
+		if (scratch.length < length) {
+			scratch = new byte[Math.max(length, scratch.length * 2)];
+		}
+		return scratch;
+	}
+
 	/**
 	 * Gets a signed data type from the buffer.
 	 * @param type The data type.
@@ -247,14 +286,9 @@ public final class GamePacketReader {
 	 * @return The value.
 	 */
 	public long getSigned(DataType type, DataOrder order, DataTransformation transformation) {
-		long longValue = get(type, order, transformation);
-		if (type != DataType.LONG) {
-			int max = (int) (Math.pow(2, type.getBytes() * 8 - 1) - 1);
-			if (longValue > max) {
-				longValue -= (max + 1) * 2;
-			}
-		}
-		return longValue;
+		long value = get(type, order, transformation);
+		int shift = 64 - type.getBytes() * 8;
+		return value << shift >> shift;
 	}
 
 	/**
@@ -267,6 +301,62 @@ public final class GamePacketReader {
 		return getSigned(type, DataOrder.BIG, transformation);
 	}
 
+	/**
+	 * Gets a signed byte from the buffer.
+	 * @return The value.
+	 */
+	public int getSignedByte() {
+		checkByteAccess();
+		return buffer.readByte();
+	}
+
+	/**
+	 * Gets a signed byte from the buffer with the specified transformation.
+	 * @param transformation The data transformation.
+	 * @return The value.
+	 */
+	public int getSignedByte(DataTransformation transformation) {
+		checkByteAccess();
+		return (byte) readTransformed(transformation);
+	}
+
+	/**
+	 * Gets a signed big endian short from the buffer.
+	 * @return The value.
+	 */
+	public int getSignedShort() {
+		checkByteAccess();
+		return buffer.readShort();
+	}
+
+	/**
+	 * Gets a signed short from the buffer with the specified order.
+	 * @param order The byte order.
+	 * @return The value.
+	 */
+	public int getSignedShort(DataOrder order) {
+		return (short) getUnsignedShort(order, DataTransformation.NONE);
+	}
+
+	/**
+	 * Gets a signed short from the buffer with the specified order and transformation.
+	 * @param order The byte order.
+	 * @param transformation The data transformation.
+	 * @return The value.
+	 */
+	public int getSignedShort(DataOrder order, DataTransformation transformation) {
+		return (short) getUnsignedShort(order, transformation);
+	}
+
+	/**
+	 * Gets a signed big endian short from the buffer with the specified transformation.
+	 * @param transformation The data transformation.
+	 * @return The value.
+	 */
+	public int getSignedShort(DataTransformation transformation) {
+		return (short) getUnsignedShort(DataOrder.BIG, transformation);
+	}
+
 	/**
 	 * Gets a signed smart from the buffer.
 	 * @return The smart.
@@ -334,6 +424,71 @@ public final class GamePacketReader {
 		return getUnsigned(type, DataOrder.BIG, transformation);
 	}
 
+	/**
+	 * Gets an unsigned byte from the buffer.
+	 * @return The value.
+	 */
+	public int getUnsignedByte() {
+		checkByteAccess();
+		return buffer.readUnsignedByte();
+	}
+
+	/**
+	 * Gets an unsigned byte from the buffer with the specified transformation.
+	 * @param transformation The data transformation.
+	 * @return The value.
+	 */
+	public int getUnsignedByte(DataTransformation transformation) {
+		checkByteAccess();
+		return readTransformed(transformation);
+	}
+
+	/**
+	 * Gets an unsigned big endian short from the buffer.
+	 * @return The value.
+	 */
+	public int getUnsignedShort() {
+		checkByteAccess();
+		return buffer.readUnsignedShort();
+	}
+
+	/**
+	 * Gets an unsigned short from the buffer with the specified order.
+	 * @param order The byte order.
+	 * @return The value.
+	 */
+	public int getUnsignedShort(DataOrder order) {
+		return getUnsignedShort(order, DataTransformation.NONE);
+	}
+
+	/**
+	 * Gets an unsigned short from the buffer with the specified order and transformation. The transformation is
+	 * applied to the least significant byte.
+	 * @param order The byte order.
+	 * @param transformation The data transformation.
+	 * @return The value.
+	 */
+	public int getUnsignedShort(DataOrder order, DataTransformation transformation) {
+		checkByteAccess();
+		if (order == DataOrder.BIG) {
+			int high = buffer.readUnsignedByte();
+			return high << 8 | readTransformed(transformation);
+		} else if (order == DataOrder.LITTLE) {
+			int low = readTransformed(transformation);
+			return buffer.readUnsignedByte() << 8 | low;
+		}
+		throw new IllegalArgumentException("middle endian can only be used with an integer");
+	}
+
+	/**
+	 * Gets an unsigned big endian short from the buffer with the specified transformation.
+	 * @param transformation The data transformation.
+	 * @return The value.
+	 */
+	public int getUnsignedShort(DataTransformation transformation) {
+		return getUnsignedShort(DataOrder.BIG, transformation);
+	}
+
 	/**
 	 * Gets an unsigned smart from the buffer.
 	 * @return The smart.
@@ -348,6 +503,27 @@ public final class GamePacketReader {
 		}
 	}
 
+	/**
+	 * Reads a byte and reverses the specified transformation.
+	 * @param transformation The data transformation.
+	 * @return The unsigned value.
+	 */
+	private int readTransformed(DataTransformation transformation) {
+		int value = buffer.readByte();
+		switch (transformation) {
+		case NONE:
+			return value & 0xFF;
+		case ADD:
+			return value - 128 & 0xFF;
+		case NEGATE:
+			return -value & 0xFF;
+		case SUBTRACT:
+			return 128 - value & 0xFF;
+		default:
+			throw new IllegalArgumentException("unknown transformation");
+		}
+	}
+
 	/**
 	 * Switches this builder's mode to the bit access mode.
 	 */
@@ -369,4 +545,17 @@ public final class GamePacketReader {
 		mode = AccessMode.BYTE_ACCESS;
 		buffer.readerIndex((bitIndex + 7) / 8);
 	}
+
+	/**
+	 * Points this reader at the payload of another packet, so a single reader can be reused for every packet of a
+	 * session.
+	 * @param packet The packet.
+	 * @return This reader, for chaining.
+	 */
+	public GamePacketReader wrap(GamePacket packet) {
+		buffer = packet.getPayload();
+		mode = AccessMode.BYTE_ACCESS;
+		bitIndex = 0;
+		return this;
+	}
 }
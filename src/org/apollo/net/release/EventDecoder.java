@@ -2,6 +2,7 @@ package org.apollo.net.release;
 
 import org.apollo.game.event.Event;
 import org.apollo.net.codec.game.GamePacket;
+import org.apollo.net.codec.game.GamePacketReader;
 
 /**
  * An {@link EventDecoder} decodes a {@link GamePacket} into an {@link Event} object which can be processed by the
@@ -14,7 +15,9 @@ public abstract class EventDecoder<E extends Event> {
 	/**
 	 * Decodes the specified packet into an event.
 	 * @param packet The packet.
+	 * @param reader A reader over the packet's payload. The reader is reused for every packet of the session, so it
+	 *            must not be kept once this method returns.
 	 * @return The event.
 	 */
-	public abstract E decode(GamePacket packet);
+	public abstract E decode(GamePacket packet, GamePacketReader reader);
 }
@@ -1,7 +1,6 @@
 package org.apollo.net.release.r317;
 
 import org.apollo.game.event.impl.ButtonEvent;
-import org.apollo.net.codec.game.DataType;
 import org.apollo.net.codec.game.GamePacket;
 import org.apollo.net.codec.game.GamePacketReader;
 import org.apollo.net.release.EventDecoder;
@@ -14,12 +13,12 @@ public final class ButtonEventDecoder extends EventDecoder<ButtonEvent> {
 
 	/*
 	 * (non-Javadoc)
-	 * @see org.apollo.net.release.EventDecoder#decode(org.apollo.net.codec.game.GamePacket)
+	 * @see org.apollo.net.release.EventDecoder#decode(org.apollo.net.codec.game.GamePacket,
+	 * org.apollo.net.codec.game.GamePacketReader)
 	 */
 	@Override
-	public ButtonEvent decode(GamePacket packet) {
-		GamePacketReader reader = new GamePacketReader(packet);
-		int interfaceId = (int) reader.getUnsigned(DataType.SHORT);
+	public ButtonEvent decode(GamePacket packet, GamePacketReader reader) {
+		int interfaceId = reader.getUnsignedShort();
 		return new ButtonEvent(interfaceId);
 	}
 }
@@ -2,7 +2,6 @@ package org.apollo.net.release.r317;
 
 import org.apollo.game.event.impl.CameraMovementEvent;
 import org.apollo.net.codec.game.DataTransformation;
-import org.apollo.net.codec.game.DataType;
 import org.apollo.net.codec.game.GamePacket;
 import org.apollo.net.codec.game.GamePacketReader;
 import org.apollo.net.release.EventDecoder;
@@ -14,10 +13,9 @@ import org.apollo.net.release.EventDecoder;
 public final class CameraMovementEventDecoder extends EventDecoder<CameraMovementEvent> {
 
 	@Override
-	public CameraMovementEvent decode(GamePacket packet) {
-		GamePacketReader reader = new GamePacketReader(packet);
-		int y = (int) reader.getSigned(DataType.SHORT);
-		int x = (int) reader.getSigned(DataType.SHORT, DataTransformation.ADD);
+	public CameraMovementEvent decode(GamePacket packet, GamePacketReader reader) {
+		int y = reader.getSignedShort();
+		int x = reader.getSignedShort(DataTransformation.ADD);
 		return new CameraMovementEvent(x, y);
 	}
 }
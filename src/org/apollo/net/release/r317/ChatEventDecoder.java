@@ -2,7 +2,6 @@ package org.apollo.net.release.r317;
 
 import org.apollo.game.event.impl.ChatEvent;
 import org.apollo.net.codec.game.DataTransformation;
-import org.apollo.net.codec.game.DataType;
 import org.apollo.net.codec.game.GamePacket;
 import org.apollo.net.codec.game.GamePacketReader;
 import org.apollo.net.release.EventDecoder;
@@ -16,16 +15,16 @@ public final class ChatEventDecoder extends EventDecoder<ChatEvent> {
 
 	/*
 	 * (non-Javadoc)
-	 * @see org.apollo.net.release.EventDecoder#decode(org.apollo.net.codec.game.GamePacket)
+	 * @see org.apollo.net.release.EventDecoder#decode(org.apollo.net.codec.game.GamePacket,
+	 * org.apollo.net.codec.game.GamePacketReader)
 	 */
 	@Override
-	public ChatEvent decode(GamePacket packet) {
-		GamePacketReader reader = new GamePacketReader(packet);
-		int effects = (int) reader.getUnsigned(DataType.BYTE, DataTransformation.ADD);
-		int color = (int) reader.getUnsigned(DataType.BYTE, DataTransformation.ADD);
+	public ChatEvent decode(GamePacket packet, GamePacketReader reader) {
+		int effects = reader.getUnsignedByte(DataTransformation.ADD);
+		int color = reader.getUnsignedByte(DataTransformation.ADD);
 		int length = packet.getLength() - 2;
-		byte[] originalCompressed = new byte[length];
-		reader.getBytesReverse(DataTransformation.ADD, originalCompressed);
+		byte[] originalCompressed = reader.getScratch(length);
+		reader.getBytesReverse(DataTransformation.ADD, originalCompressed, length);
 		String uncompressed = TextUtil.uncompress(originalCompressed, length);
 		uncompressed = TextUtil.filterInvalidCharacters(uncompressed);
 		uncompressed = TextUtil.capitalize(uncompressed);
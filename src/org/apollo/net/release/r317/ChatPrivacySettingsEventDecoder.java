@@ -1,7 +1,6 @@
 package org.apollo.net.release.r317;
 
 import org.apollo.game.event.impl.ChatPrivacySettingsEvent;
-import org.apollo.net.codec.game.DataType;
 import org.apollo.net.codec.game.GamePacket;
 import org.apollo.net.codec.game.GamePacketReader;
 import org.apollo.net.release.EventDecoder;
@@ -13,11 +12,10 @@ import org.apollo.net.release.EventDecoder;
 public class ChatPrivacySettingsEventDecoder extends EventDecoder<ChatPrivacySettingsEvent> {
 
 	@Override
-	public ChatPrivacySettingsEvent decode(GamePacket packet) {
-		GamePacketReader reader = new GamePacketReader(packet);
-		int publicChat = (int) reader.getUnsigned(DataType.BYTE);
-		int privateChat = (int) reader.getUnsigned(DataType.BYTE);
-		int trade = (int) reader.getUnsigned(DataType.BYTE);
+	public ChatPrivacySettingsEvent decode(GamePacket packet, GamePacketReader reader) {
+		int publicChat = reader.getUnsignedByte();
+		int privateChat = reader.getUnsignedByte();
+		int trade = reader.getUnsignedByte();
 		return new ChatPrivacySettingsEvent(publicChat, privateChat, trade);
 	}
 }
@@ -1,7 +1,6 @@
 package org.apollo.net.release.r317;
 
 import org.apollo.game.event.impl.DialogueContinueEvent;
-import org.apollo.net.codec.game.DataType;
 import org.apollo.net.codec.game.GamePacket;
 import org.apollo.net.codec.game.GamePacketReader;
 import org.apollo.net.release.EventDecoder;
@@ -13,9 +12,8 @@ import org.apollo.net.release.EventDecoder;
 public final class DialogueContinueEventDecoder extends EventDecoder<DialogueContinueEvent> {
 
 	@Override
-	public DialogueContinueEvent decode(GamePacket packet) {
-		GamePacketReader reader = new GamePacketReader(packet);
-		int interfaceId = (int) reader.getUnsigned(DataType.SHORT);
+	public DialogueContinueEvent decode(GamePacket packet, GamePacketReader reader) {
+		int interfaceId = reader.getUnsignedShort();
 		return new DialogueContinueEvent(interfaceId);
 	}
 }
\ No newline at end of file
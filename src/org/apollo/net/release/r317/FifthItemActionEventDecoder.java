@@ -4,7 +4,6 @@ import org.apollo.game.event.impl.FifthItemActionEvent;
 import org.apollo.game.event.impl.FourthItemActionEvent;
 import org.apollo.net.codec.game.DataOrder;
 import org.apollo.net.codec.game.DataTransformation;
-import org.apollo.net.codec.game.DataType;
 import org.apollo.net.codec.game.GamePacket;
 import org.apollo.net.codec.game.GamePacketReader;
 import org.apollo.net.release.EventDecoder;
@@ -17,14 +16,14 @@ public final class FifthItemActionEventDecoder extends EventDecoder<FifthItemAct
 
 	/*
 	 * (non-Javadoc)
-	 * @see org.apollo.net.release.EventDecoder#decode(org.apollo.net.codec.game.GamePacket)
+	 * @see org.apollo.net.release.EventDecoder#decode(org.apollo.net.codec.game.GamePacket,
+	 * org.apollo.net.codec.game.GamePacketReader)
 	 */
 	@Override
-	public FifthItemActionEvent decode(GamePacket packet) {
-		GamePacketReader reader = new GamePacketReader(packet);
-		int slot = (int) reader.getUnsigned(DataType.SHORT, DataOrder.LITTLE);
-		int interfaceId = (int) reader.getUnsigned(DataType.SHORT, DataTransformation.ADD);
-		int id = (int) reader.getUnsigned(DataType.SHORT, DataOrder.LITTLE);
+	public FifthItemActionEvent decode(GamePacket packet, GamePacketReader reader) {
+		int slot = reader.getUnsignedShort(DataOrder.LITTLE);
+		int interfaceId = reader.getUnsignedShort(DataTransformation.ADD);
+		int id = reader.getUnsignedShort(DataOrder.LITTLE);
 		return new FifthItemActionEvent(interfaceId, id, slot);
 	}
 }
@@ -2,7 +2,6 @@ package org.apollo.net.release.r317;
 
 import org.apollo.game.event.impl.FifthItemOptionEvent;
 import org.apollo.net.codec.game.DataTransformation;
-import org.apollo.net.codec.game.DataType;
 import org.apollo.net.codec.game.GamePacket;
 import org.apollo.net.codec.game.GamePacketReader;
 import org.apollo.net.release.EventDecoder;
@@ -14,11 +13,10 @@ import org.apollo.net.release.EventDecoder;
 public final class FifthItemOptionEventDecoder extends EventDecoder<FifthItemOptionEvent> {
 
 	@Override
-	public FifthItemOptionEvent decode(GamePacket packet) {
-		GamePacketReader reader = new GamePacketReader(packet);
-		int id = (int) reader.getUnsigned(DataType.SHORT, DataTransformation.ADD);
-		int interfaceId = (int) reader.getUnsigned(DataType.SHORT);
-		int slot = (int) reader.getUnsigned(DataType.SHORT, DataTransformation.ADD);
+	public FifthItemOptionEvent decode(GamePacket packet, GamePacketReader reader) {
+		int id = reader.getUnsignedShort(DataTransformation.ADD);
+		int interfaceId = reader.getUnsignedShort();
+		int slot = reader.getUnsignedShort(DataTransformation.ADD);
 		return new FifthItemOptionEvent(interfaceId, id, slot);
 	}
 }
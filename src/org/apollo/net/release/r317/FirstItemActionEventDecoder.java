@@ -2,7 +2,6 @@ package org.apollo.net.release.r317;
 
 import org.apollo.game.event.impl.FirstItemActionEvent;
 import org.apollo.net.codec.game.DataTransformation;
-import org.apollo.net.codec.game.DataType;
 import org.apollo.net.codec.game.GamePacket;
 import org.apollo.net.codec.game.GamePacketReader;
 import org.apollo.net.release.EventDecoder;
@@ -15,14 +14,14 @@ public final class FirstItemActionEventDecoder extends EventDecoder<FirstItemAct
 
 	/*
 	 * (non-Javadoc)
-	 * @see org.apollo.net.release.EventDecoder#decode(org.apollo.net.codec.game.GamePacket)
+	 * @see org.apollo.net.release.EventDecoder#decode(org.apollo.net.codec.game.GamePacket,
+	 * org.apollo.net.codec.game.GamePacketReader)
 	 */
 	@Override
-	public FirstItemActionEvent decode(GamePacket packet) {
-		GamePacketReader reader = new GamePacketReader(packet);
-		int interfaceId = (int) reader.getUnsigned(DataType.SHORT, DataTransformation.ADD);
-		int slot = (int) reader.getUnsigned(DataType.SHORT, DataTransformation.ADD);
-		int id = (int) reader.getUnsigned(DataType.SHORT, DataTransformation.ADD);
+	public FirstItemActionEvent decode(GamePacket packet, GamePacketReader reader) {
+		int interfaceId = reader.getUnsignedShort(DataTransformation.ADD);
+		int slot = reader.getUnsignedShort(DataTransformation.ADD);
+		int id = reader.getUnsignedShort(DataTransformation.ADD);
 		return new FirstItemActionEvent(interfaceId, id, slot);
 	}
 }
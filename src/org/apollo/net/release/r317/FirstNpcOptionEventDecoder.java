@@ -2,7 +2,6 @@ package org.apollo.net.release.r317;
 
 import org.apollo.game.event.impl.FirstNpcOptionEvent;
 import org.apollo.net.codec.game.DataTransformation;
-import org.apollo.net.codec.game.DataType;
 import org.apollo.net.codec.game.GamePacket;
 import org.apollo.net.codec.game.GamePacketReader;
 import org.apollo.net.release.EventDecoder;
@@ -15,12 +14,12 @@ public final class FirstNpcOptionEventDecoder extends EventDecoder<FirstNpcOptio
 
 	/*
 	 * (non-Javadoc)
-	 * @see org.apollo.net.release.EventDecoder#decode(org.apollo.net.codec.game.GamePacket)
+	 * @see org.apollo.net.release.EventDecoder#decode(org.apollo.net.codec.game.GamePacket,
+	 * org.apollo.net.codec.game.GamePacketReader)
 	 */
 	@Override
-	public FirstNpcOptionEvent decode(GamePacket packet) {
-		GamePacketReader reader = new GamePacketReader(packet);
-		final int slot = (int) reader.getSigned(DataType.SHORT, DataTransformation.ADD);
+	public FirstNpcOptionEvent decode(GamePacket packet, GamePacketReader reader) {
+		final int slot = reader.getSignedShort(DataTransformation.ADD);
 		return new FirstNpcOptionEvent(slot);
 	}
 }
\ No newline at end of file
@@ -4,7 +4,6 @@ import org.apollo.game.event.impl.FirstObjectActionEvent;
 import org.apollo.game.model.Position;
 import org.apollo.net.codec.game.DataOrder;
 import org.apollo.net.codec.game.DataTransformation;
-import org.apollo.net.codec.game.DataType;
 import org.apollo.net.codec.game.GamePacket;
 import org.apollo.net.codec.game.GamePacketReader;
 import org.apollo.net.release.EventDecoder;
@@ -17,14 +16,14 @@ public final class FirstObjectActionEventDecoder extends EventDecoder<FirstObjec
 
 	/*
 	 * (non-Javadoc)
-	 * @see org.apollo.net.release.EventDecoder#decode(org.apollo.net.codec.game.GamePacket)
+	 * @see org.apollo.net.release.EventDecoder#decode(org.apollo.net.codec.game.GamePacket,
+	 * org.apollo.net.codec.game.GamePacketReader)
 	 */
 	@Override
-	public FirstObjectActionEvent decode(GamePacket packet) {
-		GamePacketReader reader = new GamePacketReader(packet);
-		int x = (int) reader.getUnsigned(DataType.SHORT, DataOrder.LITTLE, DataTransformation.ADD);
-		int id = (int) reader.getUnsigned(DataType.SHORT);
-		int y = (int) reader.getUnsigned(DataType.SHORT, DataTransformation.ADD);
+	public FirstObjectActionEvent decode(GamePacket packet, GamePacketReader reader) {
+		int x = reader.getUnsignedShort(DataOrder.LITTLE, DataTransformation.ADD);
+		int id = reader.getUnsignedShort();
+		int y = reader.getUnsignedShort(DataTransformation.ADD);
 		return new FirstObjectActionEvent(id, new Position(x, y));
 	}
 }
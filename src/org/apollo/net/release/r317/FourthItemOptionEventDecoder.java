@@ -3,7 +3,6 @@ package org.apollo.net.release.r317;
 import org.apollo.game.event.impl.FourthItemOptionEvent;
 import org.apollo.net.codec.game.DataOrder;
 import org.apollo.net.codec.game.DataTransformation;
-import org.apollo.net.codec.game.DataType;
 import org.apollo.net.codec.game.GamePacket;
 import org.apollo.net.codec.game.GamePacketReader;
 import org.apollo.net.release.EventDecoder;
@@ -15,11 +14,10 @@ import org.apollo.net.release.EventDecoder;
 public final class FourthItemOptionEventDecoder extends EventDecoder<FourthItemOptionEvent> {
 
 	@Override
-	public FourthItemOptionEvent decode(GamePacket packet) {
-		GamePacketReader reader = new GamePacketReader(packet);
-		int interfaceId = (int) reader.getSigned(DataType.SHORT, DataOrder.LITTLE, DataTransformation.ADD);
-		int slot = (int) reader.getSigned(DataType.SHORT, DataOrder.LITTLE);
-		int id = (int) reader.getUnsigned(DataType.SHORT, DataTransformation.ADD);
+	public FourthItemOptionEvent decode(GamePacket packet, GamePacketReader reader) {
+		int interfaceId = reader.getSignedShort(DataOrder.LITTLE, DataTransformation.ADD);
+		int slot = reader.getSignedShort(DataOrder.LITTLE);
+		int id = reader.getUnsignedShort(DataTransformation.ADD);
 		return new FourthItemOptionEvent(interfaceId, id, slot);
 	}
 }
@@ -4,7 +4,6 @@ import org.apollo.game.event.impl.ItemOnFloorEvent;
 import org.apollo.game.model.Position;
 import org.apollo.net.codec.game.DataOrder;
 import org.apollo.net.codec.game.DataTransformation;
-import org.apollo.net.codec.game.DataType;
 import org.apollo.net.codec.game.GamePacket;
 import org.apollo.net.codec.game.GamePacketReader;
 import org.apollo.net.release.EventDecoder;
@@ -16,14 +15,13 @@ import org.apollo.net.release.EventDecoder;
 public final class ItemOnFloorEventDecoder extends EventDecoder<ItemOnFloorEvent> {
 
 	@Override
-	public ItemOnFloorEvent decode(GamePacket packet) {
-		GamePacketReader reader = new GamePacketReader(packet);
-		int interfaceId = (int) reader.getSigned(DataType.SHORT, DataOrder.LITTLE);
-		int id = (int) reader.getUnsigned(DataType.SHORT, DataTransformation.ADD);
-		int floorId = (int) reader.getSigned(DataType.SHORT);
-		int y = (int) reader.getUnsigned(DataType.SHORT, DataTransformation.ADD);
-		int slot = (int) reader.getUnsigned(DataType.SHORT, DataOrder.LITTLE, DataTransformation.ADD);
-		int x = (int) reader.getSigned(DataType.SHORT);
+	public ItemOnFloorEvent decode(GamePacket packet, GamePacketReader reader) {
+		int interfaceId = reader.getSignedShort(DataOrder.LITTLE);
+		int id = reader.getUnsignedShort(DataTransformation.ADD);
+		int floorId = reader.getSignedShort();
+		int y = reader.getUnsignedShort(DataTransformation.ADD);
+		int slot = reader.getUnsignedShort(DataOrder.LITTLE, DataTransformation.ADD);
+		int x = reader.getSignedShort();
 		return new ItemOnFloorEvent(interfaceId, id, floorId, slot, new Position(x, y));
 	}
 }
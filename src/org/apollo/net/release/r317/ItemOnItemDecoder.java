@@ -3,7 +3,6 @@ package org.apollo.net.release.r317;
 import org.apollo.game.event.impl.ItemOnItemEvent;
 import org.apollo.net.codec.game.DataOrder;
 import org.apollo.net.codec.game.DataTransformation;
-import org.apollo.net.codec.game.DataType;
 import org.apollo.net.codec.game.GamePacket;
 import org.apollo.net.codec.game.GamePacketReader;
 import org.apollo.net.release.EventDecoder;
@@ -15,14 +14,13 @@ import org.apollo.net.release.EventDecoder;
 public final class ItemOnItemDecoder extends EventDecoder<ItemOnItemEvent> {
 
 	@Override
-	public ItemOnItemEvent decode(GamePacket packet) {
-		GamePacketReader reader = new GamePacketReader(packet);
-		int targetSlot = (int) reader.getUnsigned(DataType.SHORT);
-		int usedSlot = (int) reader.getUnsigned(DataType.SHORT, DataTransformation.ADD);
-		int targetId = (int) reader.getSigned(DataType.SHORT, DataOrder.LITTLE, DataTransformation.ADD);
-		int targetInterface = (int) reader.getUnsigned(DataType.SHORT);
-		int usedId = (int) reader.getSigned(DataType.SHORT, DataOrder.LITTLE);
-		int usedInterface = (int) reader.getUnsigned(DataType.SHORT);
+	public ItemOnItemEvent decode(GamePacket packet, GamePacketReader reader) {
+		int targetSlot = reader.getUnsignedShort();
+		int usedSlot = reader.getUnsignedShort(DataTransformation.ADD);
+		int targetId = reader.getSignedShort(DataOrder.LITTLE, DataTransformation.ADD);
+		int targetInterface = reader.getUnsignedShort();
+		int usedId = reader.getSignedShort(DataOrder.LITTLE);
+		int usedInterface = reader.getUnsignedShort();
 		return new ItemOnItemEvent(usedInterface, usedId, usedSlot, targetInterface, targetId, targetSlot);
 	}
 }
\ No newline at end of file
@@ -3,7 +3,6 @@ package org.apollo.net.release.r317;
 import org.apollo.game.event.impl.ItemUsedOnObjectEvent;
 import org.apollo.net.codec.game.DataOrder;
 import org.apollo.net.codec.game.DataTransformation;
-import org.apollo.net.codec.game.DataType;
 import org.apollo.net.codec.game.GamePacket;
 import org.apollo.net.codec.game.GamePacketReader;
 import org.apollo.net.release.EventDecoder;
@@ -16,17 +15,17 @@ public class ItemUsedOnObjectDecoder extends EventDecoder<ItemUsedOnObjectEvent>
 
 	/*
 	 * (non-Javadoc)
-	 * @see org.apollo.net.release.EventDecoder#decode(org.apollo.net.codec.game.GamePacket)
+	 * @see org.apollo.net.release.EventDecoder#decode(org.apollo.net.codec.game.GamePacket,
+	 * org.apollo.net.codec.game.GamePacketReader)
 	 */
 	@Override
-	public ItemUsedOnObjectEvent decode(GamePacket packet) {
-		GamePacketReader reader = new GamePacketReader(packet);
-		reader.getSigned(DataType.SHORT, DataOrder.LITTLE, DataTransformation.ADD);
-		int object = (int) reader.getUnsigned(DataType.SHORT, DataOrder.LITTLE);
-		int y = (int) reader.getSigned(DataType.SHORT, DataOrder.LITTLE, DataTransformation.ADD);
-		int slot = (int) reader.getSigned(DataType.SHORT, DataOrder.LITTLE, DataTransformation.ADD) - 128;
-		int x = (int) reader.getUnsigned(DataType.SHORT, DataOrder.LITTLE, DataTransformation.ADD);
-		int id = (int) reader.getUnsigned(DataType.SHORT);
+	public ItemUsedOnObjectEvent decode(GamePacket packet, GamePacketReader reader) {
+		reader.getSignedShort(DataOrder.LITTLE, DataTransformation.ADD);
+		int object = reader.getUnsignedShort(DataOrder.LITTLE);
+		int y = reader.getSignedShort(DataOrder.LITTLE, DataTransformation.ADD);
+		int slot = reader.getSignedShort(DataOrder.LITTLE, DataTransformation.ADD) - 128;
+		int x = reader.getUnsignedShort(DataOrder.LITTLE, DataTransformation.ADD);
+		int id = reader.getUnsignedShort();
 		return new ItemUsedOnObjectEvent(object, slot, id, x, y);
 	}
 }
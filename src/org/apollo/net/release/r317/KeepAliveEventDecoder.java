@@ -2,6 +2,7 @@ package org.apollo.net.release.r317;
 
 import org.apollo.game.event.impl.KeepAliveEvent;
 import org.apollo.net.codec.game.GamePacket;
+import org.apollo.net.codec.game.GamePacketReader;
 import org.apollo.net.release.EventDecoder;
 
 /**
@@ -12,10 +13,11 @@ public final class KeepAliveEventDecoder extends EventDecoder<KeepAliveEvent> {
 
 	/*
 	 * (non-Javadoc)
-	 * @see org.apollo.net.release.EventDecoder#decode(org.apollo.net.codec.game.GamePacket)
+	 * @see org.apollo.net.release.EventDecoder#decode(org.apollo.net.codec.game.GamePacket,
+	 * org.apollo.net.codec.game.GamePacketReader)
 	 */
 	@Override
-	public KeepAliveEvent decode(GamePacket packet) {
+	public KeepAliveEvent decode(GamePacket packet, GamePacketReader reader) {
 		return new KeepAliveEvent();
 	}
 }
@@ -2,7 +2,6 @@ package org.apollo.net.release.r317;
 
 import org.apollo.game.event.impl.MagicOnItemEvent;
 import org.apollo.net.codec.game.DataTransformation;
-import org.apollo.net.codec.game.DataType;
 import org.apollo.net.codec.game.GamePacket;
 import org.apollo.net.codec.game.GamePacketReader;
 import org.apollo.net.release.EventDecoder;
@@ -14,12 +13,11 @@ import org.apollo.net.release.EventDecoder;
 public final class MagicOnItemEventDecoder extends EventDecoder<MagicOnItemEvent> {
 
 	@Override
-	public MagicOnItemEvent decode(GamePacket packet) {
-		GamePacketReader reader = new GamePacketReader(packet);
-		int slot = (int) reader.getUnsigned(DataType.SHORT);
-		int id = (int) reader.getUnsigned(DataType.SHORT, DataTransformation.ADD);
-		int interfaceId = (int) reader.getUnsigned(DataType.SHORT);
-		int spell = (int) reader.getUnsigned(DataType.SHORT, DataTransformation.ADD);
+	public MagicOnItemEvent decode(GamePacket packet, GamePacketReader reader) {
+		int slot = reader.getUnsignedShort();
+		int id = reader.getUnsignedShort(DataTransformation.ADD);
+		int interfaceId = reader.getUnsignedShort();
+		int spell = reader.getUnsignedShort(DataTransformation.ADD);
 		return new MagicOnItemEvent(interfaceId, id, slot, spell);
 	}
 }
\ No newline at end of file
@@ -3,7 +3,6 @@ package org.apollo.net.release.r317;
 import org.apollo.game.event.impl.MagicOnPlayerEvent;
 import org.apollo.net.codec.game.DataOrder;
 import org.apollo.net.codec.game.DataTransformation;
-import org.apollo.net.codec.game.DataType;
 import org.apollo.net.codec.game.GamePacket;
 import org.apollo.net.codec.game.GamePacketReader;
 import org.apollo.net.release.EventDecoder;
@@ -15,10 +14,9 @@ import org.apollo.net.release.EventDecoder;
 public final class MagicOnPlayerEventDecoder extends EventDecoder<MagicOnPlayerEvent> {
 
 	@Override
-	public MagicOnPlayerEvent decode(GamePacket packet) {
-		GamePacketReader reader = new GamePacketReader(packet);
-		int playerIndex = (short) reader.getSigned(DataType.SHORT, DataTransformation.ADD);
-		int spellId = (short) reader.getSigned(DataType.SHORT, DataOrder.LITTLE);
+	public MagicOnPlayerEvent decode(GamePacket packet, GamePacketReader reader) {
+		int playerIndex = (short) reader.getSignedShort(DataTransformation.ADD);
+		int spellId = (short) reader.getSignedShort(DataOrder.LITTLE);
 		return new MagicOnPlayerEvent(playerIndex, spellId);
 	}
 }
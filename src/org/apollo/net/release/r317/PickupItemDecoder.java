@@ -2,7 +2,6 @@ package org.apollo.net.release.r317;
 
 import org.apollo.game.event.impl.PickupItemEvent;
 import org.apollo.net.codec.game.DataOrder;
-import org.apollo.net.codec.game.DataType;
 import org.apollo.net.codec.game.GamePacket;
 import org.apollo.net.codec.game.GamePacketReader;
 import org.apollo.net.release.EventDecoder;
@@ -16,14 +15,14 @@ public final class PickupItemDecoder extends EventDecoder<PickupItemEvent> {
 
 	/*
 	 * (non-Javadoc)
-	 * @see org.apollo.net.release.EventDecoder#decode(org.apollo.net.codec.game.GamePacket)
+	 * @see org.apollo.net.release.EventDecoder#decode(org.apollo.net.codec.game.GamePacket,
+	 * org.apollo.net.codec.game.GamePacketReader)
 	 */
 	@Override
-	public PickupItemEvent decode(GamePacket packet) {
-		GamePacketReader reader = new GamePacketReader(packet);
-		int y = (int) reader.getSigned(DataType.SHORT, DataOrder.LITTLE);
-		int id = (int) reader.getSigned(DataType.SHORT);
-		int x = (int) reader.getSigned(DataType.SHORT, DataOrder.LITTLE);
+	public PickupItemEvent decode(GamePacket packet, GamePacketReader reader) {
+		int y = reader.getSignedShort(DataOrder.LITTLE);
+		int id = reader.getSignedShort();
+		int x = reader.getSignedShort(DataOrder.LITTLE);
 		return new PickupItemEvent(id, x, y);
 	}
 }
\ No newline at end of file
@@ -2,7 +2,6 @@ package org.apollo.net.release.r317;
 
 import org.apollo.game.event.impl.PlayerFollowEvent;
 import org.apollo.net.codec.game.DataOrder;
-import org.apollo.net.codec.game.DataType;
 import org.apollo.net.codec.game.GamePacket;
 import org.apollo.net.codec.game.GamePacketReader;
 import org.apollo.net.release.EventDecoder;
@@ -14,9 +13,8 @@ import org.apollo.net.release.EventDecoder;
 public final class PlayerFollowEventDecoder extends EventDecoder<PlayerFollowEvent> {
 
 	@Override
-	public PlayerFollowEvent decode(GamePacket packet) {
-		GamePacketReader reader = new GamePacketReader(packet);
-		int playerIndex = (int) reader.getSigned(DataType.SHORT, DataOrder.LITTLE);
+	public PlayerFollowEvent decode(GamePacket packet, GamePacketReader reader) {
+		int playerIndex = reader.getSignedShort(DataOrder.LITTLE);
 		return new PlayerFollowEvent(playerIndex);
 	}
 }
\ No newline at end of file
@@ -2,8 +2,6 @@ package org.apollo.net.release.r317;
 
 import org.apollo.game.event.impl.PlayerReportEvent;
 import org.apollo.net.codec.game.DataOrder;
-import org.apollo.net.codec.game.DataTransformation;
-import org.apollo.net.codec.game.DataType;
 import org.apollo.net.codec.game.GamePacket;
 import org.apollo.net.codec.game.GamePacketReader;
 import org.apollo.net.release.EventDecoder;
@@ -15,10 +13,9 @@ import org.apollo.net.release.EventDecoder;
 public final class PlayerReportEventDecoder extends EventDecoder<PlayerReportEvent> {
 
 	@Override
-	public PlayerReportEvent decode(GamePacket packet) {
-		GamePacketReader reader = new GamePacketReader(packet);
-		long player = reader.getSigned(DataType.LONG, DataTransformation.QUADRUPLE);
-		int rule = (int) reader.getUnsigned(DataType.SHORT, DataOrder.BIG);
+	public PlayerReportEvent decode(GamePacket packet, GamePacketReader reader) {
+		long player = reader.getLong();
+		int rule = reader.getUnsignedShort(DataOrder.BIG);
 		return new PlayerReportEvent(player, rule);
 	}
 }
@@ -1,8 +1,6 @@
 package org.apollo.net.release.r317;
 
 import org.apollo.game.event.impl.PrivateChatEvent;
-import org.apollo.net.codec.game.DataTransformation;
-import org.apollo.net.codec.game.DataType;
 import org.apollo.net.codec.game.GamePacket;
 import org.apollo.net.codec.game.GamePacketReader;
 import org.apollo.net.release.EventDecoder;
@@ -16,12 +14,12 @@ public class PrivateChatEventDecoder extends EventDecoder<PrivateChatEvent> {
 
 	/*
 	 * (non-Javadoc)
-	 * @see org.apollo.net.release.EventDecoder#decode(org.apollo.net.codec.game.GamePacket)
+	 * @see org.apollo.net.release.EventDecoder#decode(org.apollo.net.codec.game.GamePacket,
+	 * org.apollo.net.codec.game.GamePacketReader)
 	 */
 	@Override
-	public PrivateChatEvent decode(GamePacket packet) {
-		GamePacketReader reader = new GamePacketReader(packet);
-		long friend = reader.getSigned(DataType.LONG, DataTransformation.QUADRUPLE);
+	public PrivateChatEvent decode(GamePacket packet, GamePacketReader reader) {
+		long friend = reader.getLong();
 		final int length = (byte) (packet.getLength() - 8);
 		byte[] originalCompressed = new byte[length];
 		reader.getBytes(originalCompressed);
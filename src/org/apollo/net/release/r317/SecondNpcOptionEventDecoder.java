@@ -2,7 +2,6 @@ package org.apollo.net.release.r317;
 
 import org.apollo.game.event.impl.SecondNpcOptionEvent;
 import org.apollo.net.codec.game.DataOrder;
-import org.apollo.net.codec.game.DataType;
 import org.apollo.net.codec.game.GamePacket;
 import org.apollo.net.codec.game.GamePacketReader;
 import org.apollo.net.release.EventDecoder;
@@ -14,9 +13,8 @@ import org.apollo.net.release.EventDecoder;
 public final class SecondNpcOptionEventDecoder extends EventDecoder<SecondNpcOptionEvent> {
 
 	@Override
-	public SecondNpcOptionEvent decode(GamePacket packet) {
-		GamePacketReader reader = new GamePacketReader(packet);
-		final int slot = (int) reader.getUnsigned(DataType.SHORT, DataOrder.LITTLE);
+	public SecondNpcOptionEvent decode(GamePacket packet, GamePacketReader reader) {
+		final int slot = reader.getUnsignedShort(DataOrder.LITTLE);
 		return new SecondNpcOptionEvent(slot);
 	}
 }
\ No newline at end of file
@@ -2,7 +2,6 @@ package org.apollo.net.release.r317;
 
 import org.apollo.game.event.impl.SecondPlayerOptionEvent;
 import org.apollo.net.codec.game.DataOrder;
-import org.apollo.net.codec.game.DataType;
 import org.apollo.net.codec.game.GamePacket;
 import org.apollo.net.codec.game.GamePacketReader;
 import org.apollo.net.release.EventDecoder;
@@ -15,12 +14,12 @@ public final class SecondPlayerOptionEventDecoder extends EventDecoder<SecondPla
 
 	/*
 	 * (non-Javadoc)
-	 * @see org.apollo.net.release.EventDecoder#decode(org.apollo.net.codec.game.GamePacket)
+	 * @see org.apollo.net.release.EventDecoder#decode(org.apollo.net.codec.game.GamePacket,
+	 * org.apollo.net.codec.game.GamePacketReader)
 	 */
 	@Override
-	public SecondPlayerOptionEvent decode(GamePacket packet) {
-		GamePacketReader reader = new GamePacketReader(packet);
-		final int otherId = (int) reader.getSigned(DataType.SHORT, DataOrder.LITTLE);
+	public SecondPlayerOptionEvent decode(GamePacket packet, GamePacketReader reader) {
+		final int otherId = reader.getSignedShort(DataOrder.LITTLE);
 		return new SecondPlayerOptionEvent(otherId);
 	}
 }
@@ -11,11 +11,10 @@ import org.apollo.net.release.EventDecoder;
 public final class ThirdItemOptionEventDecoder extends EventDecoder<ThirdItemOptionEvent> {
 
 	@Override
-	public ThirdItemOptionEvent decode(GamePacket packet) {
-		GamePacketReader reader = new GamePacketReader(packet);
-		int id = (int) reader.getUnsigned(DataType.SHORT, DataTransformation.ADD);
-		int slot = (int) reader.getSigned(DataType.SHORT, DataOrder.LITTLE, DataTransformation.ADD);
-		int interfaceId = (int) reader.getSigned(DataType.SHORT, DataOrder.LITTLE, DataTransformation.ADD);
+	public ThirdItemOptionEvent decode(GamePacket packet, GamePacketReader reader) {
+		int id = reader.getUnsignedShort(DataTransformation.ADD);
+		int slot = reader.getSignedShort(DataOrder.LITTLE, DataTransformation.ADD);
+		int interfaceId = reader.getSignedShort(DataOrder.LITTLE, DataTransformation.ADD);
 		return new ThirdItemOptionEvent(interfaceId, id, slot);
 	}
 }
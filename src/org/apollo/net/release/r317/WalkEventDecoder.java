@@ -4,7 +4,6 @@ import org.apollo.game.event.impl.WalkEvent;
 import org.apollo.game.model.Position;
 import org.apollo.net.codec.game.DataOrder;
 import org.apollo.net.codec.game.DataTransformation;
-import org.apollo.net.codec.game.DataType;
 import org.apollo.net.codec.game.GamePacket;
 import org.apollo.net.codec.game.GamePacketReader;
 import org.apollo.net.release.EventDecoder;
@@ -17,28 +16,25 @@ public final class WalkEventDecoder extends EventDecoder<WalkEvent> {
 
 	/*
 	 * (non-Javadoc)
-	 * @see org.apollo.net.release.EventDecoder#decode(org.apollo.net.codec.game.GamePacket)
+	 * @see org.apollo.net.release.EventDecoder#decode(org.apollo.net.codec.game.GamePacket,
+	 * org.apollo.net.codec.game.GamePacketReader)
 	 */
 	@Override
-	public WalkEvent decode(GamePacket packet) {
-		GamePacketReader reader = new GamePacketReader(packet);
+	public WalkEvent decode(GamePacket packet, GamePacketReader reader) {
 		int length = packet.getLength();
 		if (packet.getOpcode() == 248) {
 			length -= 14; // strip off anti-cheat data
 		}
 		int steps = (length - 5) / 2;
-		int[][] path = new int[steps][2];
-		int x = (int) reader.getUnsigned(DataType.SHORT, DataOrder.LITTLE, DataTransformation.ADD);
+		int x = reader.getUnsignedShort(DataOrder.LITTLE, DataTransformation.ADD);
+		byte[] deltas = reader.getScratch(steps * 2);
+		reader.getBytes(deltas, steps * 2);
+		int y = reader.getUnsignedShort(DataOrder.LITTLE);
+		boolean run = reader.getUnsignedByte(DataTransformation.NEGATE) == 1;
+		int[] positions = new int[steps + 1];
+		positions[0] = Position.pack(x, y, 0);
 		for (int i = 0; i < steps; i++) {
-			path[i][0] = (int) reader.getSigned(DataType.BYTE);
-			path[i][1] = (int) reader.getSigned(DataType.BYTE);
-		}
-		int y = (int) reader.getUnsigned(DataType.SHORT, DataOrder.LITTLE);
-		boolean run = reader.getUnsigned(DataType.BYTE, DataTransformation.NEGATE) == 1;
-		Position[] positions = new Position[steps + 1];
-		positions[0] = new Position(x, y);
-		for (int i = 0; i < steps; i++) {
-			positions[i + 1] = new Position(path[i][0] + x, path[i][1] + y);
+			positions[i + 1] = Position.pack(x + deltas[i * 2], y + deltas[i * 2 + 1], 0);
 		}
 		return new WalkEvent(positions, run);
 	}
@@ -3,7 +3,6 @@ package org.apollo.net.release.r377;
 import org.apollo.game.event.impl.CharacterDesignEvent;
 import org.apollo.game.model.Appearance;
 import org.apollo.game.model.Gender;
-import org.apollo.net.codec.game.DataType;
 import org.apollo.net.codec.game.GamePacket;
 import org.apollo.net.codec.game.GamePacketReader;
 import org.apollo.net.release.EventDecoder;
@@ -16,19 +15,19 @@ public final class CharacterDesignEventDecoder extends EventDecoder<CharacterDes
 
 	/*
 	 * (non-Javadoc)
-	 * @see org.apollo.net.release.EventDecoder#decode(org.apollo.net.codec.game.GamePacket)
+	 * @see org.apollo.net.release.EventDecoder#decode(org.apollo.net.codec.game.GamePacket,
+	 * org.apollo.net.codec.game.GamePacketReader)
 	 */
 	@Override
-	public CharacterDesignEvent decode(GamePacket packet) {
-		GamePacketReader reader = new GamePacketReader(packet);
-		int genderIntValue = (int) reader.getUnsigned(DataType.BYTE);
+	public CharacterDesignEvent decode(GamePacket packet, GamePacketReader reader) {
+		int genderIntValue = reader.getUnsignedByte();
 		int[] style = new int[7];
 		for (int i = 0; i < style.length; i++) {
-			style[i] = (int) reader.getUnsigned(DataType.BYTE);
+			style[i] = reader.getUnsignedByte();
 		}
 		int[] color = new int[5];
 		for (int i = 0; i < color.length; i++) {
-			color[i] = (int) reader.getUnsigned(DataType.BYTE);
+			color[i] = reader.getUnsignedByte();
 		}
 		Gender gender = genderIntValue == Gender.MALE.toInteger() ? Gender.MALE : Gender.FEMALE;
 		return new CharacterDesignEvent(new Appearance(gender, style, color));
@@ -2,7 +2,6 @@ package org.apollo.net.release.r377;
 
 import org.apollo.game.event.impl.ChatEvent;
 import org.apollo.net.codec.game.DataTransformation;
-import org.apollo.net.codec.game.DataType;
 import org.apollo.net.codec.game.GamePacket;
 import org.apollo.net.codec.game.GamePacketReader;
 import org.apollo.net.release.EventDecoder;
@@ -16,16 +15,16 @@ public final class ChatEventDecoder extends EventDecoder<ChatEvent> {
 
 	/*
 	 * (non-Javadoc)
-	 * @see org.apollo.net.release.EventDecoder#decode(org.apollo.net.codec.game.GamePacket)
+	 * @see org.apollo.net.release.EventDecoder#decode(org.apollo.net.codec.game.GamePacket,
+	 * org.apollo.net.codec.game.GamePacketReader)
 	 */
 	@Override
-	public ChatEvent decode(GamePacket packet) {
-		GamePacketReader reader = new GamePacketReader(packet);
-		int color = (int) reader.getUnsigned(DataType.BYTE, DataTransformation.NEGATE);
-		int effects = (int) reader.getUnsigned(DataType.BYTE, DataTransformation.ADD);
+	public ChatEvent decode(GamePacket packet, GamePacketReader reader) {
+		int color = reader.getUnsignedByte(DataTransformation.NEGATE);
+		int effects = reader.getUnsignedByte(DataTransformation.ADD);
 		int length = packet.getLength() - 2;
-		byte[] originalCompressed = new byte[length];
-		reader.getBytes(originalCompressed);
+		byte[] originalCompressed = reader.getScratch(length);
+		reader.getBytes(originalCompressed, length);
 		String uncompressed = TextUtil.uncompress(originalCompressed, length);
 		uncompressed = TextUtil.filterInvalidCharacters(uncompressed);
 		uncompressed = TextUtil.capitalize(uncompressed);
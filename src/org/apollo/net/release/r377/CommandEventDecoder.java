@@ -13,11 +13,11 @@ public final class CommandEventDecoder extends EventDecoder<CommandEvent> {
 
 	/*
 	 * (non-Javadoc)
-	 * @see org.apollo.net.release.EventDecoder#decode(org.apollo.net.codec.game.GamePacket)
+	 * @see org.apollo.net.release.EventDecoder#decode(org.apollo.net.codec.game.GamePacket,
+	 * org.apollo.net.codec.game.GamePacketReader)
 	 */
 	@Override
-	public CommandEvent decode(GamePacket packet) {
-		GamePacketReader reader = new GamePacketReader(packet);
+	public CommandEvent decode(GamePacket packet, GamePacketReader reader) {
 		return new CommandEvent(reader.getString());
 	}
 }
@@ -1,7 +1,6 @@
 package org.apollo.net.release.r377;
 
 import org.apollo.game.event.impl.EnteredAmountEvent;
-import org.apollo.net.codec.game.DataType;
 import org.apollo.net.codec.game.GamePacket;
 import org.apollo.net.codec.game.GamePacketReader;
 import org.apollo.net.release.EventDecoder;
@@ -14,12 +13,12 @@ public final class EnteredAmountEventDecoder extends EventDecoder<EnteredAmountE
 
 	/*
 	 * (non-Javadoc)
-	 * @see org.apollo.net.release.EventDecoder#decode(org.apollo.net.codec.game.GamePacket)
+	 * @see org.apollo.net.release.EventDecoder#decode(org.apollo.net.codec.game.GamePacket,
+	 * org.apollo.net.codec.game.GamePacketReader)
 	 */
 	@Override
-	public EnteredAmountEvent decode(GamePacket packet) {
-		GamePacketReader reader = new GamePacketReader(packet);
-		int amount = (int) reader.getUnsigned(DataType.INT);
+	public EnteredAmountEvent decode(GamePacket packet, GamePacketReader reader) {
+		int amount = reader.getInt();
 		return new EnteredAmountEvent(amount);
 	}
 }
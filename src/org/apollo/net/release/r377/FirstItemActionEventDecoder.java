@@ -2,7 +2,6 @@ package org.apollo.net.release.r377;
 
 import org.apollo.game.event.impl.FirstItemActionEvent;
 import org.apollo.net.codec.game.DataTransformation;
-import org.apollo.net.codec.game.DataType;
 import org.apollo.net.codec.game.GamePacket;
 import org.apollo.net.codec.game.GamePacketReader;
 import org.apollo.net.release.EventDecoder;
@@ -15,14 +14,14 @@ public final class FirstItemActionEventDecoder extends EventDecoder<FirstItemAct
 
 	/*
 	 * (non-Javadoc)
-	 * @see org.apollo.net.release.EventDecoder#decode(org.apollo.net.codec.game.GamePacket)
+	 * @see org.apollo.net.release.EventDecoder#decode(org.apollo.net.codec.game.GamePacket,
+	 * org.apollo.net.codec.game.GamePacketReader)
 	 */
 	@Override
-	public FirstItemActionEvent decode(GamePacket packet) {
-		GamePacketReader reader = new GamePacketReader(packet);
-		int id = (int) reader.getUnsigned(DataType.SHORT, DataTransformation.ADD);
-		int interfaceId = (int) reader.getUnsigned(DataType.SHORT);
-		int slot = (int) reader.getUnsigned(DataType.SHORT);
+	public FirstItemActionEvent decode(GamePacket packet, GamePacketReader reader) {
+		int id = reader.getUnsignedShort(DataTransformation.ADD);
+		int interfaceId = reader.getUnsignedShort();
+		int slot = reader.getUnsignedShort();
 		return new FirstItemActionEvent(interfaceId, id, slot);
 	}
 }
@@ -3,7 +3,6 @@ package org.apollo.net.release.r377;
 import org.apollo.game.event.impl.SecondItemActionEvent;
 import org.apollo.net.codec.game.DataOrder;
 import org.apollo.net.codec.game.DataTransformation;
-import org.apollo.net.codec.game.DataType;
 import org.apollo.net.codec.game.GamePacket;
 import org.apollo.net.codec.game.GamePacketReader;
 import org.apollo.net.release.EventDecoder;
@@ -16,14 +15,14 @@ public final class SecondItemActionEventDecoder extends EventDecoder<SecondItemA
 
 	/*
 	 * (non-Javadoc)
-	 * @see org.apollo.net.release.EventDecoder#decode(org.apollo.net.codec.game.GamePacket)
+	 * @see org.apollo.net.release.EventDecoder#decode(org.apollo.net.codec.game.GamePacket,
+	 * org.apollo.net.codec.game.GamePacketReader)
 	 */
 	@Override
-	public SecondItemActionEvent decode(GamePacket packet) {
-		GamePacketReader reader = new GamePacketReader(packet);
-		int slot = (int) reader.getUnsigned(DataType.SHORT, DataTransformation.ADD);
-		int id = (int) reader.getUnsigned(DataType.SHORT, DataOrder.LITTLE);
-		int interfaceId = (int) reader.getUnsigned(DataType.SHORT, DataOrder.LITTLE);
+	public SecondItemActionEvent decode(GamePacket packet, GamePacketReader reader) {
+		int slot = reader.getUnsignedShort(DataTransformation.ADD);
+		int id = reader.getUnsignedShort(DataOrder.LITTLE);
+		int interfaceId = reader.getUnsignedShort(DataOrder.LITTLE);
 		return new SecondItemActionEvent(interfaceId, id, slot);
 	}
 }
@@ -3,7 +3,6 @@ package org.apollo.net.release.r377;
 import org.apollo.game.event.impl.SecondObjectActionEvent;
 import org.apollo.game.model.Position;
 import org.apollo.net.codec.game.DataTransformation;
-import org.apollo.net.codec.game.DataType;
 import org.apollo.net.codec.game.GamePacket;
 import org.apollo.net.codec.game.GamePacketReader;
 import org.apollo.net.release.EventDecoder;
@@ -16,14 +15,14 @@ public final class SecondObjectActionEventDecoder extends EventDecoder<SecondObj
 
 	/*
 	 * (non-Javadoc)
-	 * @see org.apollo.net.release.EventDecoder#decode(org.apollo.net.codec.game.GamePacket)
+	 * @see org.apollo.net.release.EventDecoder#decode(org.apollo.net.codec.game.GamePacket,
+	 * org.apollo.net.codec.game.GamePacketReader)
 	 */
 	@Override
-	public SecondObjectActionEvent decode(GamePacket packet) {
-		GamePacketReader reader = new GamePacketReader(packet);
-		int id = (int) reader.getUnsigned(DataType.SHORT);
-		int x = (int) reader.getUnsigned(DataType.SHORT);
-		int y = (int) reader.getUnsigned(DataType.SHORT, DataTransformation.ADD);
+	public SecondObjectActionEvent decode(GamePacket packet, GamePacketReader reader) {
+		int id = reader.getUnsignedShort();
+		int x = reader.getUnsignedShort();
+		int y = reader.getUnsignedShort(DataTransformation.ADD);
 		return new SecondObjectActionEvent(id, new Position(x, y));
 	}
 }
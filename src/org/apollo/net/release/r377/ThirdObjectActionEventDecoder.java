@@ -4,7 +4,6 @@ import org.apollo.game.event.impl.ThirdObjectActionEvent;
 import org.apollo.game.model.Position;
 import org.apollo.net.codec.game.DataOrder;
 import org.apollo.net.codec.game.DataTransformation;
-import org.apollo.net.codec.game.DataType;
 import org.apollo.net.codec.game.GamePacket;
 import org.apollo.net.codec.game.GamePacketReader;
 import org.apollo.net.release.EventDecoder;
@@ -17,14 +16,14 @@ public final class ThirdObjectActionEventDecoder extends EventDecoder<ThirdObjec
 
 	/*
 	 * (non-Javadoc)
-	 * @see org.apollo.net.release.EventDecoder#decode(org.apollo.net.codec.game.GamePacket)
+	 * @see org.apollo.net.release.EventDecoder#decode(org.apollo.net.codec.game.GamePacket,
+	 * org.apollo.net.codec.game.GamePacketReader)
 	 */
 	@Override
-	public ThirdObjectActionEvent decode(GamePacket packet) {
-		GamePacketReader reader = new GamePacketReader(packet);
-		int y = (int) reader.getUnsigned(DataType.SHORT, DataTransformation.ADD);
-		int x = (int) reader.getUnsigned(DataType.SHORT, DataOrder.LITTLE);
-		int id = (int) reader.getUnsigned(DataType.SHORT, DataOrder.LITTLE, DataTransformation.ADD);
+	public ThirdObjectActionEvent decode(GamePacket packet, GamePacketReader reader) {
+		int y = reader.getUnsignedShort(DataTransformation.ADD);
+		int x = reader.getUnsignedShort(DataOrder.LITTLE);
+		int id = reader.getUnsignedShort(DataOrder.LITTLE, DataTransformation.ADD);
 		return new ThirdObjectActionEvent(id, new Position(x, y));
 	}
 }
@@ -2,6 +2,7 @@ package org.apollo.net.release.r668;
 
 import org.apollo.game.event.impl.ClosedInterfaceEvent;
 import org.apollo.net.codec.game.GamePacket;
+import org.apollo.net.codec.game.GamePacketReader;
 import org.apollo.net.release.EventDecoder;
 
 /**
@@ -12,10 +13,11 @@ public final class ClosedInterfaceEventDecoder extends EventDecoder<ClosedInterf
 
 	/*
 	 * (non-Javadoc)
-	 * @see org.apollo.net.release.EventDecoder#decode(org.apollo.net.codec.game.GamePacket)
+	 * @see org.apollo.net.release.EventDecoder#decode(org.apollo.net.codec.game.GamePacket,
+	 * org.apollo.net.codec.game.GamePacketReader)
 	 */
 	@Override
-	public ClosedInterfaceEvent decode(GamePacket packet) {
+	public ClosedInterfaceEvent decode(GamePacket packet, GamePacketReader reader) {
 		return new ClosedInterfaceEvent();
 	}
 }
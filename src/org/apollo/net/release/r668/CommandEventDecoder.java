@@ -1,7 +1,6 @@
 package org.apollo.net.release.r668;
 
 import org.apollo.game.event.impl.CommandEvent;
-import org.apollo.net.codec.game.DataType;
 import org.apollo.net.codec.game.GamePacket;
 import org.apollo.net.codec.game.GamePacketReader;
 import org.apollo.net.release.EventDecoder;
@@ -14,14 +13,14 @@ public final class CommandEventDecoder extends EventDecoder<CommandEvent> {
 
 	/*
 	 * (non-Javadoc)
-	 * @see org.apollo.net.release.EventDecoder#decode(org.apollo.net.codec.game.GamePacket)
+	 * @see org.apollo.net.release.EventDecoder#decode(org.apollo.net.codec.game.GamePacket,
+	 * org.apollo.net.codec.game.GamePacketReader)
 	 */
 	@SuppressWarnings("unused")
 	@Override
-	public CommandEvent decode(GamePacket packet) {
-		GamePacketReader reader = new GamePacketReader(packet);
-		boolean clientCommand = reader.getUnsigned(DataType.BYTE) == 1;
-		boolean unknown = reader.getUnsigned(DataType.BYTE) == 1;
+	public CommandEvent decode(GamePacket packet, GamePacketReader reader) {
+		boolean clientCommand = reader.getUnsignedByte() == 1;
+		boolean unknown = reader.getUnsignedByte() == 1;
 		return new CommandEvent(reader.getString());
 	}
 }
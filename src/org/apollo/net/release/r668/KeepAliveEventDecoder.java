@@ -2,6 +2,7 @@ package org.apollo.net.release.r668;
 
 import org.apollo.game.event.impl.KeepAliveEvent;
 import org.apollo.net.codec.game.GamePacket;
+import org.apollo.net.codec.game.GamePacketReader;
 import org.apollo.net.release.EventDecoder;
 
 /**
@@ -11,7 +12,7 @@ import org.apollo.net.release.EventDecoder;
 public final class KeepAliveEventDecoder extends EventDecoder<KeepAliveEvent> {
 
 	@Override
-	public KeepAliveEvent decode(GamePacket packet) {
+	public KeepAliveEvent decode(GamePacket packet, GamePacketReader reader) {
 		return new KeepAliveEvent();
 	}
 }
@@ -2,6 +2,7 @@ package org.apollo.net.release.r668;
 
 import org.apollo.game.event.impl.PlayerIdleEvent;
 import org.apollo.net.codec.game.GamePacket;
+import org.apollo.net.codec.game.GamePacketReader;
 import org.apollo.net.release.EventDecoder;
 
 /**
@@ -11,7 +12,7 @@ import org.apollo.net.release.EventDecoder;
 public final class PlayerIdleEventDecoder extends EventDecoder<PlayerIdleEvent> {
 
 	@Override
-	public PlayerIdleEvent decode(GamePacket packet) {
+	public PlayerIdleEvent decode(GamePacket packet, GamePacketReader reader) {
 		return new PlayerIdleEvent();
 	}
 }
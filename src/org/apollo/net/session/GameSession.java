@@ -1,7 +1,11 @@
 package org.apollo.net.session;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -12,7 +16,11 @@ import org.apollo.game.event.Event;
 import org.apollo.game.event.handler.chain.EventHandlerChain;
 import org.apollo.game.event.handler.chain.EventHandlerChainGroup;
 import org.apollo.game.event.impl.LogoutEvent;
+import org.apollo.game.model.Config;
 import org.apollo.game.model.Player;
+import org.apollo.game.profile.TickProfiler;
+import org.apollo.net.capture.CapturedPacket;
+import org.apollo.net.capture.PacketCapture;
 import org.jboss.netty.channel.Channel;
 import org.jboss.netty.channel.ChannelFuture;
 import org.jboss.netty.channel.ChannelFutureListener;
@@ -38,6 +46,17 @@ public final class GameSession extends Session {
 	 */
 	private final BlockingQueue<Event> eventQueue = new ArrayBlockingQueue<Event>(GameConstants.EVENTS_PER_PULSE);
 
+	/**
+	 * The packets of the queued events which were received while a {@link PacketCapture} was running, in the same
+	 * order as the events.
+	 */
+	private final Queue<CapturedPacket> capturedPackets = new ConcurrentLinkedQueue<CapturedPacket>();
+
+	/**
+	 * The events which were dispatched since the session was last flushed.
+	 */
+	private final List<Event> outboundQueue = new ArrayList<Event>();
+
 	/**
 	 * The player.
 	 */
@@ -65,27 +84,64 @@ public final class GameSession extends Session {
 	}
 
 	/**
-	 * Encodes and dispatches the specified event.
+	 * Encodes and dispatches the specified event. If outbound events are coalesced, the event is queued until the
+	 * session is next {@link #flush() flushed}, unless it is a {@link LogoutEvent}, which flushes the session at once.
 	 * @param event The event.
 	 */
 	public void dispatchEvent(Event event) {
 		Channel channel = getChannel();
 		if (channel.isBound() && channel.isConnected() && channel.isOpen()) {
-			ChannelFuture future = channel.write(event);
 			if (event.getClass() == LogoutEvent.class) {
+				flush();
+				ChannelFuture future = channel.write(event);
 				future.addListener(ChannelFutureListener.CLOSE);
+			} else if (Config.SERVER_COALESCE_OUTBOUND) {
+				synchronized (outboundQueue) {
+					outboundQueue.add(event);
+				}
+			} else {
+				channel.write(event);
 			}
 		}
 	}
 
 	/**
-	 * Handles pending events for this session.
+	 * Writes every queued event to the channel at once: they are encoded into a single buffer, so that the whole pulse
+	 * costs one write.
+	 */
+	public void flush() {
+		Event[] events;
+		synchronized (outboundQueue) {
+			if (outboundQueue.isEmpty()) {
+				return;
+			}
+			events = outboundQueue.toArray(new Event[outboundQueue.size()]);
+			outboundQueue.clear();
+		}
+		Channel channel = getChannel();
+		if (channel.isBound() && channel.isConnected() && channel.isOpen()) {
+			channel.write(events);
+		}
+	}
+
+	/**
+	 * Handles pending events for this session, recording the time each event took to handle, and recording the packet
+	 * of each event in the running {@link PacketCapture}, if there is one.
 	 * @param chainGroup The event chain group.
+	 * @param profiler The profiler.
 	 */
 	@SuppressWarnings("unchecked")
-	public void handlePendingEvents(EventHandlerChainGroup chainGroup) {
+	public void handlePendingEvents(EventHandlerChainGroup chainGroup, TickProfiler profiler) {
 		Event event;
 		while ((event = eventQueue.poll()) != null) {
+			CapturedPacket captured = capturedPackets.peek();
+			if (captured != null && captured.getEvent() == event) {
+				capturedPackets.poll();
+				PacketCapture capture = PacketCapture.getActive();
+				if (capture != null) {
+					capture.record(player, captured);
+				}
+			}
 			// this lookup code really sucks!
 			// TODO improve it!
 			Class<? extends Event> eventType = event.getClass();
@@ -101,11 +157,13 @@ public final class GameSession extends Session {
 			if (chain == null) {
 				logger.warning("No chain for event: " + event.getClass().getName() + ".");
 			} else {
+				long start = System.nanoTime();
 				try {
 					chain.handle(player, event);
 				} catch (Exception ex) {
 					logger.log(Level.SEVERE, "Error handling event.", ex);
 				}
+				profiler.getTimer(TickProfiler.EVENT, event.getClass()).recordSince(start);
 			}
 		}
 	}
@@ -124,10 +182,18 @@ public final class GameSession extends Session {
 	 */
 	@Override
 	public void messageReceived(Object message) throws Exception {
+		CapturedPacket captured = null;
+		if (message instanceof CapturedPacket) {
+			captured = (CapturedPacket) message;
+			message = captured.getEvent();
+		}
 		Event event = (Event) message;
 		if (eventQueue.size() >= GameConstants.EVENTS_PER_PULSE) {
 			logger.warning("Too many events in queue for game session, dropping...");
 		} else {
+			if (captured != null) {
+				capturedPackets.add(captured); // added first, so it is queued by the time the event is handled
+			}
 			eventQueue.add(event);
 		}
 	}
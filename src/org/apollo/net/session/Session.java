@@ -30,6 +30,15 @@ public abstract class Session {
 		return channel;
 	}
 
+	/**
+	 * Called when the channel's writability changes. Sessions which stream data to the channel can use this to write
+	 * more once it has drained.
+	 * @throws Exception if an error occurs.
+	 */
+	public void interestChanged() throws Exception {
+		/* empty */
+	}
+
 	/**
 	 * Processes a message received from the channel.
 	 * @param message The message.
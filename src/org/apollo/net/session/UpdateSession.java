@@ -38,6 +38,18 @@ public final class UpdateSession extends Session {
 		// TODO implement
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * @see org.apollo.net.session.Session#interestChanged()
+	 */
+	@Override
+	public void interestChanged() throws Exception {
+		Channel channel = getChannel();
+		if (channel.isWritable()) {
+			context.getService(UpdateService.class).getDispatcher().getOnDemandScheduler().resume(channel);
+		}
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see org.apollo.net.session.Session#messageReceived(java.lang.Object)
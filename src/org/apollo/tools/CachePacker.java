@@ -0,0 +1,247 @@
+package org.apollo.tools;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+import org.apollo.fs.CacheManifest;
+import org.apollo.fs.FileSystemConstants;
+import org.apollo.fs.IndexedFileSystem;
+import org.apollo.fs.IndexedFileSystemWriter;
+import org.apollo.fs.archive.Archive;
+import org.apollo.fs.archive.ArchiveEntry;
+import org.apollo.util.NamedThreadFactory;
+
+/**
+ * A tool for repacking a cache into a new, defragmented cache.
+ * <p>
+ * Files are read and the archives recompressed in parallel, then streamed in order into the new cache, so every file
+ * occupies a contiguous run of blocks. Each archive is re-encoded both as a whole and entry by entry, and the smallest
+ * of those and the original encoding is kept. The 'on-demand' files are copied as they are, as their CRCs are listed
+ * in the version list archive. Finally, the CRC of every file in the new cache is verified.
+ */
+public final class CachePacker {
+
+	/**
+	 * A file which has been packed.
+	 */
+	private static final class PackedFile {
+
+		/**
+		 * The file type.
+		 */
+		private final int type;
+
+		/**
+		 * The file id.
+		 */
+		private final int file;
+
+		/**
+		 * The packed data.
+		 */
+		private final byte[] data;
+
+		/**
+		 * The size of the file before it was packed.
+		 */
+		private final int originalSize;
+
+		/**
+		 * Creates the packed file.
+		 * @param type The file type.
+		 * @param file The file id.
+		 * @param data The packed data.
+		 * @param originalSize The size of the file before it was packed.
+		 */
+		public PackedFile(int type, int file, byte[] data, int originalSize) {
+			this.type = type;
+			this.file = file;
+			this.data = data;
+			this.originalSize = originalSize;
+		}
+	}
+
+	/**
+	 * The number of files which may be packed ahead of the writer, per thread.
+	 */
+	private static final int FILES_AHEAD_PER_THREAD = 8;
+
+	/**
+	 * The entry point of the application.
+	 * @param args The command line arguments.
+	 * @throws Exception if an error occurs.
+	 */
+	public static void main(String[] args) throws Exception {
+		if (args.length != 2) {
+			System.err.println("Usage:");
+			System.err.println("  java -cp ... org.apollo.tools.CachePacker [source directory] [destination directory]");
+			return;
+		}
+		File source = new File(args[0]), destination = new File(args[1]);
+		if (source.getCanonicalFile().equals(destination.getCanonicalFile())) {
+			System.err.println("The source and destination directories must differ.");
+			return;
+		} else if (!destination.isDirectory() && !destination.mkdirs()) {
+			System.err.println("Could not create the destination directory.");
+			return;
+		}
+		int threads = Runtime.getRuntime().availableProcessors();
+		long start = System.nanoTime();
+		int[][] crcs = new int[FileSystemConstants.CACHE_COUNT][];
+		long originalSize = 0, packedSize;
+		IndexedFileSystem fs = new IndexedFileSystem(source, true);
+		ExecutorService executor = Executors.newFixedThreadPool(threads, new NamedThreadFactory("CachePacker"));
+		try {
+			IndexedFileSystemWriter writer = new IndexedFileSystemWriter(destination, FileSystemConstants.CACHE_COUNT);
+			try {
+				Queue<Future<PackedFile>> pending = new ArrayDeque<Future<PackedFile>>();
+				for (int type = 0; type < crcs.length; type++) {
+					crcs[type] = new int[fs.getFileCount(type)];
+					for (int file = 0; file < crcs[type].length; file++) {
+						pending.add(executor.submit(pack(fs, type, file)));
+						if (pending.size() >= threads * FILES_AHEAD_PER_THREAD) {
+							originalSize += write(writer, pending.poll().get(), crcs);
+						}
+					}
+				}
+				while (!pending.isEmpty()) {
+					originalSize += write(writer, pending.poll().get(), crcs);
+				}
+				packedSize = writer.getDataSize();
+			} finally {
+				writer.close();
+			}
+		} finally {
+			executor.shutdown();
+			fs.close();
+		}
+		int mismatches = verify(destination, crcs, threads);
+		long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+		System.out.println("Packed " + originalSize + " bytes of files into a " + packedSize + " byte data file in "
+				+ elapsed + " ms.");
+		if (mismatches > 0) {
+			System.err.println(mismatches + " file(s) failed CRC verification.");
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Creates a task which reads and packs a file.
+	 * @param fs The file system.
+	 * @param type The file type.
+	 * @param file The file id.
+	 * @return The task.
+	 */
+	private static Callable<PackedFile> pack(final IndexedFileSystem fs, final int type, final int file) {
+		return new Callable<PackedFile>() {
+			@Override
+			public PackedFile call() throws IOException {
+				ByteBuffer buffer;
+				try {
+					buffer = fs.getFile(type, file);
+				} catch (FileNotFoundException e) {
+					buffer = ByteBuffer.allocate(0);
+				}
+				byte[] data = new byte[buffer.remaining()];
+				buffer.get(data);
+				int originalSize = data.length;
+				if (type == 0 && file != 0 && data.length != 0) {
+					data = recompress(file, data);
+				}
+				return new PackedFile(type, file, data, originalSize);
+			}
+		};
+	}
+
+	/**
+	 * Recompresses an archive, keeping the smallest encoding.
+	 * @param id The archive id.
+	 * @param original The original archive.
+	 * @return The smallest encoding of the archive.
+	 * @throws IOException if the archive cannot be decoded, or if a new encoding does not decode to the same entries.
+	 */
+	private static byte[] recompress(int id, byte[] original) throws IOException {
+		ArchiveEntry[] entries = Archive.decode(ByteBuffer.wrap(original)).getEntries();
+		Archive archive = new Archive(entries);
+		byte[] best = original;
+		for (boolean compressed : new boolean[] { true, false }) {
+			ByteBuffer buffer = archive.encode(compressed);
+			if (buffer.remaining() >= best.length) {
+				continue;
+			}
+			ArchiveEntry[] decoded = Archive.decode(buffer.duplicate()).getEntries();
+			if (decoded.length != entries.length) {
+				throw new IOException("Archive " + id + " entry count mismatch.");
+			}
+			for (int i = 0; i < entries.length; i++) {
+				if (decoded[i].getIdentifier() != entries[i].getIdentifier()
+						|| !decoded[i].getBuffer().equals(entries[i].getBuffer())) {
+					throw new IOException("Archive " + id + " entry mismatch.");
+				}
+			}
+			best = new byte[buffer.remaining()];
+			buffer.get(best);
+		}
+		return best;
+	}
+
+	/**
+	 * Verifies the CRC of every file in a new cache.
+	 * @param base The base directory of the new cache.
+	 * @param crcs The expected CRCs, by type and file.
+	 * @param threads The number of threads with which the CRCs are computed.
+	 * @return The number of files whose CRCs do not match.
+	 * @throws Exception if the new cache cannot be read.
+	 */
+	private static int verify(File base, int[][] crcs, int threads) throws Exception {
+		IndexedFileSystem fs = new IndexedFileSystem(base, true);
+		try {
+			CacheManifest manifest = CacheManifest.create(fs, threads);
+			int mismatches = 0;
+			for (int type = 0; type < crcs.length; type++) {
+				if (manifest.getFileCount(type) != crcs[type].length) {
+					System.err.println("File count mismatch for type " + type + ".");
+					mismatches++;
+					continue;
+				}
+				for (int file = 0; file < crcs[type].length; file++) {
+					if (manifest.getCrc(type, file) != crcs[type][file]) {
+						System.err.println("CRC mismatch for file " + type + ":" + file + ".");
+						mismatches++;
+					}
+				}
+			}
+			return mismatches;
+		} finally {
+			fs.close();
+		}
+	}
+
+	/**
+	 * Writes a packed file to the new cache.
+	 * @param writer The writer.
+	 * @param file The packed file.
+	 * @param crcs The CRCs of the written files, by type and file.
+	 * @return The size of the file before it was packed.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	private static int write(IndexedFileSystemWriter writer, PackedFile file, int[][] crcs) throws IOException {
+		writer.write(file.type, file.file, ByteBuffer.wrap(file.data));
+		if (file.data.length != 0) {
+			CRC32 crc = new CRC32();
+			crc.update(file.data, 0, file.data.length);
+			crcs[file.type][file.file] = (int) crc.getValue();
+		}
+		return file.originalSize;
+	}
+}
@@ -0,0 +1,43 @@
+package org.apollo.tools.bench;
+
+/**
+ * A single micro-benchmark which is measured by the {@link BenchmarkRunner}.
+ */
+public abstract class Benchmark {
+
+	/**
+	 * The name of this benchmark.
+	 */
+	private final String name;
+
+	/**
+	 * Creates the benchmark.
+	 * @param name The name of this benchmark.
+	 */
+	public Benchmark(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * Gets the name of this benchmark.
+	 * @return The name.
+	 */
+	public final String getName() {
+		return name;
+	}
+
+	/**
+	 * Performs a single operation. The returned value is consumed by the runner so that the JIT compiler cannot remove
+	 * the work as dead code.
+	 * @return Any value derived from the work done.
+	 * @throws Exception if an error occurs.
+	 */
+	public abstract int run() throws Exception;
+
+	/**
+	 * Prepares the fixtures of this benchmark. Called once before warming up.
+	 * @throws Exception if an error occurs.
+	 */
+	public void setUp() throws Exception {
+	}
+}
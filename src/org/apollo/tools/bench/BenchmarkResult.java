@@ -0,0 +1,93 @@
+package org.apollo.tools.bench;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * The result of running a {@link Benchmark}.
+ */
+public final class BenchmarkResult {
+
+	/**
+	 * The name of the benchmark.
+	 */
+	private final String name;
+
+	/**
+	 * The number of operations performed while measuring.
+	 */
+	private final long operations;
+
+	/**
+	 * The time spent measuring, in nanoseconds.
+	 */
+	private final long elapsed;
+
+	/**
+	 * Creates the benchmark result.
+	 * @param name The name of the benchmark.
+	 * @param operations The number of operations performed while measuring.
+	 * @param elapsed The time spent measuring, in nanoseconds.
+	 */
+	public BenchmarkResult(String name, long operations, long elapsed) {
+		this.name = name;
+		this.operations = operations;
+		this.elapsed = elapsed;
+	}
+
+	/**
+	 * Gets the average time per operation.
+	 * @return The average time per operation, in nanoseconds.
+	 */
+	public double getAverageTime() {
+		return operations == 0 ? 0 : (double) elapsed / operations;
+	}
+
+	/**
+	 * Gets the name of the benchmark.
+	 * @return The name.
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Gets the number of operations performed while measuring.
+	 * @return The number of operations.
+	 */
+	public long getOperations() {
+		return operations;
+	}
+
+	/**
+	 * Gets the throughput.
+	 * @return The number of operations per second.
+	 */
+	public double getThroughput() {
+		return elapsed == 0 ? 0 : operations * 1000000000.0 / elapsed;
+	}
+
+	/**
+	 * Converts this result to a JSON object, so that it can be compared with the results of other runs.
+	 * @return The JSON object.
+	 * @throws JSONException if a value is not a finite number.
+	 */
+	public JSONObject toJson() throws JSONException {
+		JSONObject object = new JSONObject();
+		object.put("name", name);
+		object.put("operations", operations);
+		object.put("elapsedNanos", elapsed);
+		object.put("averageNanos", getAverageTime());
+		object.put("throughput", getThroughput());
+		return object;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return String.format("%-40s %14.1f ops/s %12.1f ns/op", name, getThroughput(), getAverageTime());
+	}
+}
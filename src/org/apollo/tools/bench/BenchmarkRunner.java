@@ -0,0 +1,140 @@
+package org.apollo.tools.bench;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Runs {@link Benchmark}s: each one is warmed up for a fixed time so that the JIT compiler has settled, and then
+ * measured for a fixed time.
+ */
+public final class BenchmarkRunner {
+
+	/**
+	 * The warm up time, in nanoseconds.
+	 */
+	private final long warmup;
+
+	/**
+	 * The measurement time, in nanoseconds.
+	 */
+	private final long measurement;
+
+	/**
+	 * A value which is derived from the result of every operation, so that no work can be eliminated.
+	 */
+	private int sink;
+
+	/**
+	 * Creates a benchmark runner which warms up for two seconds and measures for five.
+	 */
+	public BenchmarkRunner() {
+		this(2, 5, TimeUnit.SECONDS);
+	}
+
+	/**
+	 * Creates a benchmark runner.
+	 * @param warmup The warm up time.
+	 * @param measurement The measurement time.
+	 * @param unit The unit of both times.
+	 */
+	public BenchmarkRunner(long warmup, long measurement, TimeUnit unit) {
+		this.warmup = unit.toNanos(warmup);
+		this.measurement = unit.toNanos(measurement);
+	}
+
+	/**
+	 * Runs a benchmark.
+	 * @param benchmark The benchmark.
+	 * @return The result.
+	 * @throws Exception if the benchmark throws an exception.
+	 */
+	public BenchmarkResult run(Benchmark benchmark) throws Exception {
+		benchmark.setUp();
+		loop(benchmark, warmup);
+		long start = System.nanoTime();
+		long operations = loop(benchmark, measurement);
+		return new BenchmarkResult(benchmark.getName(), operations, System.nanoTime() - start);
+	}
+
+	/**
+	 * Runs several benchmarks, printing each result as it completes.
+	 * @param benchmarks The benchmarks.
+	 * @return The results.
+	 * @throws Exception if a benchmark throws an exception.
+	 */
+	public List<BenchmarkResult> runAll(Benchmark... benchmarks) throws Exception {
+		List<BenchmarkResult> results = new ArrayList<BenchmarkResult>();
+		for (Benchmark benchmark : benchmarks) {
+			BenchmarkResult result = run(benchmark);
+			System.out.println(result);
+			results.add(result);
+		}
+		if (sink == 42) {
+			System.out.println(); // never true in practice, but the JIT compiler cannot know that
+		}
+		return results;
+	}
+
+	/**
+	 * Runs a benchmark repeatedly for the specified time.
+	 * @param benchmark The benchmark.
+	 * @param duration The time, in nanoseconds.
+	 * @return The number of operations performed.
+	 * @throws Exception if the benchmark throws an exception.
+	 */
+	private long loop(Benchmark benchmark, long duration) throws Exception {
+		long operations = 0;
+		long end = System.nanoTime() + duration;
+		do {
+			for (int i = 0; i < 64; i++) {
+				sink += benchmark.run();
+			}
+			operations += 64;
+		} while (System.nanoTime() < end);
+		return operations;
+	}
+
+	/**
+	 * Writes results to a JSON file, along with the settings of this runner and a description of the machine, so that
+	 * the results of runs can be tracked over time.
+	 * @param results The results.
+	 * @param file The file.
+	 * @throws IOException if the file could not be written.
+	 * @throws JSONException if a result could not be converted to JSON.
+	 */
+	public void write(List<BenchmarkResult> results, File file) throws IOException, JSONException {
+		JSONArray array = new JSONArray();
+		for (BenchmarkResult result : results) {
+			array.put(result.toJson());
+		}
+		JSONObject object = new JSONObject();
+		object.put("timestamp", System.currentTimeMillis());
+		object.put("javaVersion", System.getProperty("java.version"));
+		object.put("vm", System.getProperty("java.vm.name"));
+		object.put("os", System.getProperty("os.name") + " " + System.getProperty("os.arch"));
+		object.put("processors", Runtime.getRuntime().availableProcessors());
+		object.put("warmupNanos", warmup);
+		object.put("measurementNanos", measurement);
+		object.put("results", array);
+
+		File parent = file.getAbsoluteFile().getParentFile();
+		if (!parent.isDirectory() && !parent.mkdirs()) {
+			throw new IOException("Could not create the directory " + parent + ".");
+		}
+		Writer writer = new FileWriter(file);
+		try {
+			writer.write(object.toString(2));
+		} finally {
+			writer.close();
+		}
+	}
+}
@@ -0,0 +1,127 @@
+package org.apollo.tools.bench;
+
+import org.apollo.game.event.handler.EventHandler;
+import org.apollo.game.event.handler.EventHandlerContext;
+import org.apollo.game.event.handler.chain.EventHandlerChain;
+import org.apollo.game.event.handler.impl.KeyedButtonEventHandler;
+import org.apollo.game.event.impl.ButtonEvent;
+import org.apollo.game.model.Player;
+
+/**
+ * Measures the cost of dispatching a button click with 500 button handlers registered, both as a chain in which every
+ * handler compares the button id, as plugins used to register them, and through a {@link KeyedButtonEventHandler}.
+ * The handlers are plain Java objects, so the chain does not include the cost of calling into a script for each
+ * handler, which it would otherwise pay.
+ */
+public final class ButtonDispatchBenchmark {
+
+	/**
+	 * A benchmark which dispatches clicks of every registered button through a chain.
+	 */
+	private static final class DispatchBenchmark extends Benchmark {
+
+		/**
+		 * The chain.
+		 */
+		private final EventHandlerChain<ButtonEvent> chain;
+
+		/**
+		 * The clicks, one for each registered button.
+		 */
+		private final ButtonEvent[] clicks;
+
+		/**
+		 * The index of the next click.
+		 */
+		private int next;
+
+		/**
+		 * Creates the dispatch benchmark.
+		 * @param name The name.
+		 * @param chain The chain.
+		 * @param clicks The clicks.
+		 */
+		public DispatchBenchmark(String name, EventHandlerChain<ButtonEvent> chain, ButtonEvent[] clicks) {
+			super(name);
+			this.chain = chain;
+			this.clicks = clicks;
+		}
+
+		@Override
+		public int run() {
+			ButtonEvent click = clicks[next];
+			next = (next + 1) % clicks.length;
+			chain.handle(null, click);
+			return handled;
+		}
+	}
+
+	/**
+	 * A handler which counts the clicks of a single button, and which ignores other buttons only if it is filtered.
+	 */
+	private static final class ButtonHandler extends EventHandler<ButtonEvent> {
+
+		/**
+		 * The interface id of the button.
+		 */
+		private final int button;
+
+		/**
+		 * Whether this handler ignores the clicks of other buttons.
+		 */
+		private final boolean filtered;
+
+		/**
+		 * Creates the button handler.
+		 * @param button The interface id of the button.
+		 * @param filtered Whether this handler ignores the clicks of other buttons.
+		 */
+		public ButtonHandler(int button, boolean filtered) {
+			this.button = button;
+			this.filtered = filtered;
+		}
+
+		@Override
+		public void handle(EventHandlerContext ctx, Player player, ButtonEvent event) {
+			if (!filtered || event.getInterfaceId() == button) {
+				handled++;
+			}
+		}
+	}
+
+	/**
+	 * The number of registered buttons.
+	 */
+	private static final int BUTTONS = 500;
+
+	/**
+	 * The number of clicks which have been handled.
+	 */
+	private static int handled;
+
+	/**
+	 * The entry point of the application.
+	 * @param args The command line arguments.
+	 * @throws Exception if an error occurs.
+	 */
+	public static void main(String[] args) throws Exception {
+		EventHandlerChain<ButtonEvent> linear = new EventHandlerChain<ButtonEvent>();
+		KeyedButtonEventHandler keyed = new KeyedButtonEventHandler();
+		ButtonEvent[] clicks = new ButtonEvent[BUTTONS];
+		for (int i = 0; i < BUTTONS; i++) {
+			int button = 1000 + i * 7;
+			linear.addLast(new ButtonHandler(button, true));
+			keyed.addLast(button, new ButtonHandler(button, false));
+			clicks[i] = new ButtonEvent(button);
+		}
+
+		new BenchmarkRunner().runAll(new DispatchBenchmark(BUTTONS + " handlers in a chain", linear, clicks),
+				new DispatchBenchmark(BUTTONS + " handlers keyed", new EventHandlerChain<ButtonEvent>(keyed), clicks));
+	}
+
+	/**
+	 * Default private constructor to prevent instantiation.
+	 */
+	private ButtonDispatchBenchmark() {
+	}
+}
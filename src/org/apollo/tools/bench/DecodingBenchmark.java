@@ -0,0 +1,189 @@
+package org.apollo.tools.bench;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apollo.game.event.Event;
+import org.apollo.net.codec.game.DataOrder;
+import org.apollo.net.codec.game.DataTransformation;
+import org.apollo.net.codec.game.DataType;
+import org.apollo.net.codec.game.GamePacket;
+import org.apollo.net.codec.game.GamePacketBuilder;
+import org.apollo.net.codec.game.GamePacketReader;
+import org.apollo.net.meta.PacketType;
+import org.apollo.net.release.EventDecoder;
+import org.apollo.net.release.Release;
+import org.apollo.net.release.r317.Release317;
+import org.apollo.util.TextUtil;
+
+/**
+ * Measures the cost of decoding a stream of typical inbound packets into events through the event decoders of a
+ * release, using a single reader for the whole session as the game event decoder does, and reports the bytes which
+ * are allocated per packet.
+ */
+public final class DecodingBenchmark {
+
+	/**
+	 * A benchmark which decodes every packet of the stream.
+	 */
+	private static final class StreamBenchmark extends Benchmark {
+
+		/**
+		 * The release.
+		 */
+		private final Release release;
+
+		/**
+		 * The packets of the stream.
+		 */
+		private final GamePacket[] packets;
+
+		/**
+		 * The reader which is reused for every packet.
+		 */
+		private final GamePacketReader reader = new GamePacketReader();
+
+		/**
+		 * Creates the stream benchmark.
+		 * @param release The release.
+		 * @param packets The packets of the stream.
+		 */
+		public StreamBenchmark(Release release, GamePacket[] packets) {
+			super("decode " + packets.length + " packets");
+			this.release = release;
+			this.packets = packets;
+		}
+
+		/**
+		 * Decodes every packet of the stream and prints the number of bytes that were allocated per packet.
+		 */
+		public void report() {
+			ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+			if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+				return;
+			}
+			com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+			long id = Thread.currentThread().getId();
+			for (int i = 0; i < 10_000; i++) {
+				run(); // allocation before the JIT compiler has run is not representative
+			}
+			int iterations = 1_000;
+			long start = threads.getThreadAllocatedBytes(id);
+			for (int i = 0; i < iterations; i++) {
+				run();
+			}
+			long allocated = threads.getThreadAllocatedBytes(id) - start;
+			System.out.println(getName() + ": " + allocated / (iterations * packets.length) + " bytes allocated per packet");
+		}
+
+		@Override
+		public int run() {
+			int events = 0;
+			for (GamePacket packet : packets) {
+				packet.getPayload().readerIndex(0);
+				EventDecoder<?> decoder = release.getEventDecoder(packet.getOpcode());
+				Event event = decoder.decode(packet, reader.wrap(packet));
+				if (event != null) {
+					events++;
+				}
+			}
+			return events;
+		}
+	}
+
+	/**
+	 * Creates a chat packet.
+	 * @param message The message.
+	 * @return The packet.
+	 */
+	private static GamePacket chat(String message) {
+		byte[] compressed = new byte[message.length()];
+		int length = TextUtil.compress(message, compressed);
+		byte[] text = new byte[length];
+		System.arraycopy(compressed, 0, text, 0, length);
+		GamePacketBuilder builder = new GamePacketBuilder(4, PacketType.VARIABLE_BYTE);
+		builder.put(DataType.BYTE, DataTransformation.ADD, 0);
+		builder.put(DataType.BYTE, DataTransformation.ADD, 0);
+		builder.putBytesReverse(DataTransformation.ADD, text);
+		return builder.toGamePacket();
+	}
+
+	/**
+	 * Creates the stream of packets that a player typically sends over a few pulses.
+	 * @return The packets.
+	 */
+	static GamePacket[] createStream() {
+		List<GamePacket> packets = new ArrayList<GamePacket>();
+		for (int pulse = 0; pulse < 4; pulse++) {
+			packets.add(walk(3222 + pulse, 3218, 6, pulse % 2 == 0));
+
+			GamePacketBuilder camera = new GamePacketBuilder(86);
+			camera.put(DataType.SHORT, 128 + pulse);
+			camera.put(DataType.SHORT, DataTransformation.ADD, 1024 - pulse);
+			packets.add(camera.toGamePacket());
+
+			GamePacketBuilder item = new GamePacketBuilder(122);
+			item.put(DataType.SHORT, DataOrder.LITTLE, DataTransformation.ADD, 3214);
+			item.put(DataType.SHORT, DataTransformation.ADD, pulse);
+			item.put(DataType.SHORT, DataOrder.LITTLE, 1511);
+			packets.add(item.toGamePacket());
+
+			GamePacketBuilder object = new GamePacketBuilder(132);
+			object.put(DataType.SHORT, DataOrder.LITTLE, DataTransformation.ADD, 3223);
+			object.put(DataType.SHORT, 1276);
+			object.put(DataType.SHORT, DataTransformation.ADD, 3220);
+			packets.add(object.toGamePacket());
+
+			GamePacketBuilder button = new GamePacketBuilder(185);
+			button.put(DataType.SHORT, 152);
+			packets.add(button.toGamePacket());
+		}
+		packets.add(chat("hello world"));
+		packets.add(chat("selling lobsters at the bank"));
+
+		GamePacketBuilder focus = new GamePacketBuilder(3);
+		focus.put(DataType.BYTE, 1);
+		packets.add(focus.toGamePacket());
+		packets.add(new GamePacketBuilder(0).toGamePacket());
+		return packets.toArray(new GamePacket[packets.size()]);
+	}
+
+	/**
+	 * The entry point of the application.
+	 * @param args The command line arguments.
+	 * @throws Exception if an error occurs.
+	 */
+	public static void main(String[] args) throws Exception {
+		StreamBenchmark benchmark = new StreamBenchmark(new Release317(), createStream());
+		benchmark.report();
+		new BenchmarkRunner().runAll(benchmark);
+	}
+
+	/**
+	 * Creates a walk packet.
+	 * @param x The x coordinate of the first step.
+	 * @param y The y coordinate of the first step.
+	 * @param steps The number of steps which follow the first.
+	 * @param run Whether the steps should be ran.
+	 * @return The packet.
+	 */
+	private static GamePacket walk(int x, int y, int steps, boolean run) {
+		GamePacketBuilder builder = new GamePacketBuilder(164, PacketType.VARIABLE_BYTE);
+		builder.put(DataType.SHORT, DataOrder.LITTLE, DataTransformation.ADD, x);
+		for (int i = 1; i <= steps; i++) {
+			builder.put(DataType.BYTE, i);
+			builder.put(DataType.BYTE, -i);
+		}
+		builder.put(DataType.SHORT, DataOrder.LITTLE, y);
+		builder.put(DataType.BYTE, DataTransformation.NEGATE, run ? 1 : 0);
+		return builder.toGamePacket();
+	}
+
+	/**
+	 * Default private constructor to prevent instantiation.
+	 */
+	private DecodingBenchmark() {
+	}
+}
@@ -0,0 +1,555 @@
+package org.apollo.tools.bench;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import net.burtleburtle.bob.rand.IsaacRandom;
+
+import org.apollo.fs.IndexedFileSystem;
+import org.apollo.fs.IndexedFileSystemWriter;
+import org.apollo.fs.archive.Archive;
+import org.apollo.fs.archive.ArchiveEntry;
+import org.apollo.game.event.Event;
+import org.apollo.game.event.impl.NPCSynchronizationEvent;
+import org.apollo.game.event.impl.PlayerSynchronizationEvent;
+import org.apollo.game.model.Inventory;
+import org.apollo.game.model.Item;
+import org.apollo.game.model.Player;
+import org.apollo.game.model.SkillSet;
+import org.apollo.game.model.WorldConstants;
+import org.apollo.game.model.def.ItemDefinition;
+import org.apollo.game.model.def.ItemDefinitionTable;
+import org.apollo.net.codec.game.DataOrder;
+import org.apollo.net.codec.game.DataTransformation;
+import org.apollo.net.codec.game.DataType;
+import org.apollo.net.codec.game.GamePacket;
+import org.apollo.net.codec.game.GamePacketBuilder;
+import org.apollo.net.codec.game.GamePacketDecoder;
+import org.apollo.net.codec.game.GamePacketEncoder;
+import org.apollo.net.meta.PacketType;
+import org.apollo.net.release.EventEncoder;
+import org.apollo.net.release.Release;
+import org.apollo.net.release.r317.Release317;
+import org.apollo.net.release.r377.Release377;
+import org.apollo.util.CharacterRepository;
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
+import org.jboss.netty.handler.codec.embedder.DecoderEmbedder;
+import org.jboss.netty.handler.codec.embedder.EncoderEmbedder;
+
+/**
+ * Measures the hot paths of the server against synthetic fixtures, at several populations where the cost depends on
+ * the number of characters, and writes the results to a JSON file so that they can be tracked over time. Each
+ * benchmark can be run on its own by passing part of its name.
+ */
+public final class HotPathBenchmark {
+
+	/**
+	 * A benchmark which decodes a file from an archive.
+	 */
+	private static final class ArchiveBenchmark extends Benchmark {
+
+		/**
+		 * Whether the archive is compressed as a whole, rather than each entry on its own.
+		 */
+		private final boolean compressed;
+
+		/**
+		 * The encoded archive.
+		 */
+		private ByteBuffer encoded;
+
+		/**
+		 * The index of the next entry to read.
+		 */
+		private int next;
+
+		/**
+		 * Creates the archive benchmark.
+		 * @param compressed Whether the archive is compressed as a whole, rather than each entry on its own.
+		 */
+		public ArchiveBenchmark(boolean compressed) {
+			super("archive decode, " + (compressed ? "compressed as a whole" : "entries compressed"));
+			this.compressed = compressed;
+		}
+
+		@Override
+		public int run() throws Exception {
+			Archive archive = Archive.decode(encoded.duplicate());
+			next = (next + 1) % ARCHIVE_ENTRIES;
+			return archive.getEntry("entry" + next + ".dat").getBuffer().remaining();
+		}
+
+		@Override
+		public void setUp() throws Exception {
+			Random random = new Random(317);
+			ArchiveEntry[] entries = new ArchiveEntry[ARCHIVE_ENTRIES];
+			for (int i = 0; i < entries.length; i++) {
+				entries[i] = new ArchiveEntry(Archive.hash("entry" + i + ".dat"), ByteBuffer.wrap(createData(random,
+						256 + random.nextInt(4096))));
+			}
+			encoded = new Archive(entries).encode(compressed);
+		}
+	}
+
+	/**
+	 * A benchmark which builds a packet.
+	 */
+	private static final class BuilderBenchmark extends Benchmark {
+
+		/**
+		 * Whether the packet is written with bit access, as synchronization packets are.
+		 */
+		private final boolean bits;
+
+		/**
+		 * Creates the builder benchmark.
+		 * @param bits Whether the packet is written with bit access, as synchronization packets are.
+		 */
+		public BuilderBenchmark(boolean bits) {
+			super("packet builder, " + (bits ? "bit access" : "byte access"));
+			this.bits = bits;
+		}
+
+		@Override
+		public int run() {
+			GamePacketBuilder builder = new GamePacketBuilder(53, PacketType.VARIABLE_SHORT);
+			if (bits) {
+				builder.switchToBitAccess();
+				for (int i = 0; i < 255; i++) {
+					builder.putBits(1, 1);
+					builder.putBits(2, 1);
+					builder.putBits(3, i & 7);
+					builder.putBit(i % 8 == 0);
+				}
+				builder.switchToByteAccess();
+			} else {
+				builder.put(DataType.SHORT, 3214);
+				builder.put(DataType.SHORT, 28);
+				for (int i = 0; i < 28; i++) {
+					builder.put(DataType.BYTE, 255);
+					builder.put(DataType.INT, DataOrder.INVERSED_MIDDLE, 100000 + i);
+					builder.put(DataType.SHORT, DataOrder.LITTLE, DataTransformation.ADD, 995 + i);
+				}
+			}
+			return builder.toGamePacket().getLength();
+		}
+	}
+
+	/**
+	 * A benchmark which decodes a stream of encrypted inbound packets into frames, seeding a new cipher for each
+	 * stream as a session does.
+	 */
+	private static final class DecoderBenchmark extends Benchmark {
+
+		/**
+		 * The release.
+		 */
+		private final Release release = new Release317();
+
+		/**
+		 * The encrypted stream.
+		 */
+		private ChannelBuffer stream;
+
+		/**
+		 * Creates the decoder benchmark.
+		 */
+		public DecoderBenchmark() {
+			super("packet decoder, stream repeated " + DECODER_REPEATS + " times");
+		}
+
+		@Override
+		public int run() {
+			DecoderEmbedder<GamePacket> embedder = new DecoderEmbedder<GamePacket>(new GamePacketDecoder(
+					new IsaacRandom(new int[4]), release));
+			embedder.offer(stream.duplicate());
+			int packets = 0;
+			while (embedder.poll() != null) {
+				packets++;
+			}
+			return packets;
+		}
+
+		@Override
+		public void setUp() {
+			EncoderEmbedder<ChannelBuffer> embedder = new EncoderEmbedder<ChannelBuffer>(new GamePacketEncoder(
+					new IsaacRandom(new int[4])));
+			for (int i = 0; i < DECODER_REPEATS; i++) {
+				for (GamePacket packet : DecodingBenchmark.createStream()) {
+					embedder.offer(packet);
+				}
+			}
+			stream = ChannelBuffers.dynamicBuffer();
+			ChannelBuffer buffer;
+			while ((buffer = embedder.poll()) != null) {
+				stream.writeBytes(buffer);
+			}
+		}
+	}
+
+	/**
+	 * A benchmark which encodes an event.
+	 * @param <E> The type of event.
+	 */
+	private static final class EncoderBenchmark<E extends Event> extends Benchmark {
+
+		/**
+		 * The encoder.
+		 */
+		private final EventEncoder<E> encoder;
+
+		/**
+		 * The event.
+		 */
+		private final E event;
+
+		/**
+		 * Creates the encoder benchmark.
+		 * @param name The name.
+		 * @param release The release.
+		 * @param type The type of event.
+		 * @param event The event.
+		 */
+		public EncoderBenchmark(String name, Release release, Class<E> type, E event) {
+			super(name);
+			this.encoder = release.getEventEncoder(type);
+			this.event = event;
+		}
+
+		@Override
+		public int run() {
+			return encoder.encode(event).getLength();
+		}
+	}
+
+	/**
+	 * A benchmark which reads files from a file system.
+	 */
+	private static final class FileSystemBenchmark extends Benchmark {
+
+		/**
+		 * The file system.
+		 */
+		private IndexedFileSystem fs;
+
+		/**
+		 * The file which is read next.
+		 */
+		private int next;
+
+		/**
+		 * Creates the file system benchmark.
+		 */
+		public FileSystemBenchmark() {
+			super("file system getFile");
+		}
+
+		@Override
+		public int run() throws Exception {
+			next = (next + 1) % FILES;
+			return fs.getFile(1, next).remaining();
+		}
+
+		@Override
+		public void setUp() throws Exception {
+			File base = File.createTempFile("apollo", "fs");
+			if (!base.delete() || !base.mkdir()) {
+				throw new Exception("Could not create the directory " + base + ".");
+			}
+			Random random = new Random(317);
+			IndexedFileSystemWriter writer = new IndexedFileSystemWriter(base, 2);
+			try {
+				for (int file = 0; file < FILES; file++) {
+					writer.write(1, file, ByteBuffer.wrap(createData(random, 100 + random.nextInt(20000))));
+				}
+			} finally {
+				writer.close();
+			}
+			for (File file : base.listFiles()) {
+				file.deleteOnExit();
+			}
+			base.deleteOnExit();
+			fs = new IndexedFileSystem(base, true);
+		}
+	}
+
+	/**
+	 * A benchmark which adds items to an inventory, checks for room and removes them again.
+	 */
+	private static final class InventoryBenchmark extends Benchmark {
+
+		/**
+		 * The inventory, which is partly full.
+		 */
+		private final Inventory inventory = new Inventory(28);
+
+		/**
+		 * The items which are added and removed.
+		 */
+		private final Item[] items;
+
+		/**
+		 * Creates the inventory benchmark.
+		 * @param name The name.
+		 * @param items The items which are added and removed.
+		 */
+		public InventoryBenchmark(String name, Item... items) {
+			super("inventory add/hasRoomFor/remove, " + name);
+			this.items = items;
+		}
+
+		@Override
+		public int run() {
+			int added = 0;
+			for (Item item : items) {
+				if (inventory.hasRoomFor(item) && inventory.add(item) == null) {
+					added++;
+				}
+			}
+			for (Item item : items) {
+				inventory.remove(item);
+			}
+			return added;
+		}
+
+		@Override
+		public void setUp() {
+			for (int id = 0; id < 20; id++) {
+				inventory.add(new Item(id * 2));
+			}
+		}
+	}
+
+	/**
+	 * A benchmark which generates a block of cipher values.
+	 */
+	private static final class IsaacBenchmark extends Benchmark {
+
+		/**
+		 * The random number generator.
+		 */
+		private final IsaacRandom random = new IsaacRandom(new int[] { 31, 41, 59, 26 });
+
+		/**
+		 * Creates the ISAAC benchmark.
+		 */
+		public IsaacBenchmark() {
+			super("ISAAC nextInt x256");
+		}
+
+		@Override
+		public int run() {
+			int value = 0;
+			for (int i = 0; i < 256; i++) {
+				value ^= random.nextInt();
+			}
+			return value;
+		}
+	}
+
+	/**
+	 * A benchmark which iterates over a character repository.
+	 */
+	private static final class RepositoryBenchmark extends Benchmark {
+
+		/**
+		 * The repository.
+		 */
+		private final CharacterRepository<Player> repository = new CharacterRepository<Player>(
+				WorldConstants.MAXIMUM_PLAYERS);
+
+		/**
+		 * The number of players in the repository.
+		 */
+		private final int population;
+
+		/**
+		 * Creates the repository benchmark.
+		 * @param population The number of players in the repository.
+		 */
+		public RepositoryBenchmark(int population) {
+			super("player repository iteration, " + population + " players");
+			this.population = population;
+		}
+
+		@Override
+		public int run() {
+			int sum = 0;
+			for (Player player : repository) {
+				sum += player.getIndex();
+			}
+			return sum;
+		}
+
+		@Override
+		public void setUp() {
+			Random random = new Random(317);
+			Player[] players = WorldFixture.createPlayers(WorldConstants.MAXIMUM_PLAYERS, random);
+			for (Player player : players) {
+				repository.add(player);
+			}
+			while (repository.size() > population) {
+				repository.remove(players[random.nextInt(players.length)]);
+			}
+		}
+	}
+
+	/**
+	 * A benchmark which adds experience to a skill set, renewing the skill set once its skills could be maxed.
+	 */
+	private static final class SkillBenchmark extends Benchmark {
+
+		/**
+		 * The skill set.
+		 */
+		private SkillSet skills = new SkillSet();
+
+		/**
+		 * The number of operations since the skill set was renewed.
+		 */
+		private int operations;
+
+		/**
+		 * Creates the skill benchmark.
+		 */
+		public SkillBenchmark() {
+			super("skill set addExperience");
+		}
+
+		@Override
+		public int run() {
+			if (++operations == 4096) {
+				operations = 0;
+				skills = new SkillSet();
+			}
+			int skill = operations % skills.size();
+			skills.addExperience(skill, 250);
+			return skills.getSkill(skill).getMaximumLevel();
+		}
+	}
+
+	/**
+	 * The number of entries in the synthetic archive.
+	 */
+	private static final int ARCHIVE_ENTRIES = 64;
+
+	/**
+	 * The number of times the packet stream is repeated in the decoder benchmark.
+	 */
+	private static final int DECODER_REPEATS = 10;
+
+	/**
+	 * The number of files in the synthetic file system.
+	 */
+	private static final int FILES = 1024;
+
+	/**
+	 * The numbers of characters in a local list which the synchronization encoders are measured with.
+	 */
+	private static final int[] LOCAL_POPULATIONS = { 10, 100, 255 };
+
+	/**
+	 * The numbers of players which repository iteration is measured with.
+	 */
+	private static final int[] REPOSITORY_POPULATIONS = { 100, 1000, WorldConstants.MAXIMUM_PLAYERS };
+
+	/**
+	 * Creates every benchmark.
+	 * @return The benchmarks.
+	 */
+	private static List<Benchmark> createBenchmarks() {
+		List<Benchmark> benchmarks = new ArrayList<Benchmark>();
+		Release[] releases = { new Release317(), new Release377() };
+		Random random = new Random(317);
+		Player[] players = WorldFixture.createPlayers(256 + 20, random);
+		for (int locals : LOCAL_POPULATIONS) {
+			PlayerSynchronizationEvent event = WorldFixture.createPlayerEvent(players, locals, random);
+			for (Release release : releases) {
+				benchmarks.add(new EncoderBenchmark<PlayerSynchronizationEvent>("player sync r"
+						+ release.getReleaseNumber() + ", " + locals + " local", release,
+						PlayerSynchronizationEvent.class, event));
+			}
+		}
+		for (int locals : LOCAL_POPULATIONS) {
+			benchmarks.add(new EncoderBenchmark<NPCSynchronizationEvent>("npc sync r317, " + locals + " local",
+					releases[0], NPCSynchronizationEvent.class, WorldFixture.createNpcEvent(locals, random)));
+		}
+		benchmarks.add(new BuilderBenchmark(false));
+		benchmarks.add(new BuilderBenchmark(true));
+		benchmarks.add(new DecoderBenchmark());
+		benchmarks.add(new IsaacBenchmark());
+		benchmarks.add(new FileSystemBenchmark());
+		benchmarks.add(new ArchiveBenchmark(true));
+		benchmarks.add(new ArchiveBenchmark(false));
+		benchmarks.add(new InventoryBenchmark("unstackable", new Item(1), new Item(3), new Item(5)));
+		benchmarks.add(new InventoryBenchmark("stackable", new Item(995, 1000), new Item(554, 50)));
+		benchmarks.add(new SkillBenchmark());
+		for (int population : REPOSITORY_POPULATIONS) {
+			benchmarks.add(new RepositoryBenchmark(population));
+		}
+		return benchmarks;
+	}
+
+	/**
+	 * Creates data which compresses about as well as the files of the cache do.
+	 * @param random The random number generator.
+	 * @param length The length of the data.
+	 * @return The data.
+	 */
+	private static byte[] createData(Random random, int length) {
+		byte[] data = new byte[length];
+		for (int i = 0; i < length; i++) {
+			data[i] = (byte) (random.nextInt(4) == 0 ? random.nextInt(256) : i % 32);
+		}
+		return data;
+	}
+
+	/**
+	 * Initialises the item definitions, in which a few items are stackable, as inventories look them up.
+	 */
+	private static void initItemDefinitions() {
+		ItemDefinitionTable table = new ItemDefinitionTable(1000);
+		ItemDefinition[] definitions = table.getDefinitions();
+		definitions[995].setStackable(true);
+		definitions[554].setStackable(true);
+		ItemDefinition.init(definitions);
+	}
+
+	/**
+	 * The entry point of the application.
+	 * @param args The command line arguments.
+	 * @throws Exception if an error occurs.
+	 */
+	public static void main(String[] args) throws Exception {
+		if (args.length > 2) {
+			System.err.println("Usage:");
+			System.err.println("  java -cp ... org.apollo.tools.bench.HotPathBenchmark [name filter] [results file]");
+			return;
+		}
+		String filter = args.length > 0 ? args[0] : "";
+		File file = new File(args.length > 1 ? args[1] : "data/benchmarks/hotpaths-" + System.currentTimeMillis()
+				+ ".json");
+		initItemDefinitions();
+
+		List<Benchmark> benchmarks = new ArrayList<Benchmark>();
+		for (Benchmark benchmark : createBenchmarks()) {
+			if (benchmark.getName().contains(filter)) {
+				benchmarks.add(benchmark);
+			}
+		}
+		BenchmarkRunner runner = new BenchmarkRunner(1, 3, TimeUnit.SECONDS);
+		runner.write(runner.runAll(benchmarks.toArray(new Benchmark[benchmarks.size()])), file);
+		System.out.println("Results were written to " + file + ".");
+	}
+
+	/**
+	 * Default private constructor to prevent instantiation.
+	 */
+	private HotPathBenchmark() {
+	}
+}
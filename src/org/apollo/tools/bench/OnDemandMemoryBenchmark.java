@@ -0,0 +1,334 @@
+package org.apollo.tools.bench;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apollo.fs.FileDescriptor;
+import org.apollo.net.codec.update.OnDemandRequest;
+import org.apollo.net.codec.update.OnDemandRequest.Priority;
+import org.apollo.net.codec.update.OnDemandResponse;
+import org.apollo.net.codec.update.UpdateEncoder;
+import org.apollo.update.ChannelRequest;
+import org.apollo.update.OnDemandScheduler;
+import org.jboss.netty.bootstrap.ServerBootstrap;
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
+import org.jboss.netty.channel.Channel;
+import org.jboss.netty.channel.ChannelFactory;
+import org.jboss.netty.channel.ChannelFuture;
+import org.jboss.netty.channel.ChannelFutureListener;
+import org.jboss.netty.channel.ChannelHandlerContext;
+import org.jboss.netty.channel.ChannelPipeline;
+import org.jboss.netty.channel.ChannelPipelineFactory;
+import org.jboss.netty.channel.ChannelStateEvent;
+import org.jboss.netty.channel.ExceptionEvent;
+import org.jboss.netty.channel.Channels;
+import org.jboss.netty.channel.MessageEvent;
+import org.jboss.netty.channel.SimpleChannelDownstreamHandler;
+import org.jboss.netty.channel.SimpleChannelUpstreamHandler;
+import org.jboss.netty.channel.socket.nio.NioServerSocketChannelFactory;
+
+/**
+ * Measures the memory which 'on-demand' clients that never read pin on the server, over real loopback connections.
+ * Files are either written in one go, as the workers used to do, or streamed by the {@link OnDemandScheduler} as the
+ * channels become writable. For both, the bytes queued in Netty's write buffers and the heap retained per connection
+ * are reported once the connections have stalled.
+ */
+public final class OnDemandMemoryBenchmark {
+
+	/**
+	 * A handler which counts the bytes that have been written to a channel but not yet flushed to its socket.
+	 */
+	private static final class PendingBytesHandler extends SimpleChannelDownstreamHandler {
+
+		/**
+		 * The number of pending bytes, across every channel.
+		 */
+		private final AtomicLong pending;
+
+		/**
+		 * Creates the pending bytes handler.
+		 * @param pending The number of pending bytes, which is added to.
+		 */
+		public PendingBytesHandler(AtomicLong pending) {
+			this.pending = pending;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see org.jboss.netty.channel.SimpleChannelDownstreamHandler#writeRequested(org.jboss.netty.channel.
+		 * ChannelHandlerContext, org.jboss.netty.channel.MessageEvent)
+		 */
+		@Override
+		public void writeRequested(ChannelHandlerContext ctx, MessageEvent e) throws Exception {
+			final int bytes = ((ChannelBuffer) e.getMessage()).readableBytes();
+			pending.addAndGet(bytes);
+			e.getFuture().addListener(new ChannelFutureListener() {
+				@Override
+				public void operationComplete(ChannelFuture future) {
+					pending.addAndGet(-bytes);
+				}
+			});
+			ctx.sendDownstream(e);
+		}
+	}
+
+	/**
+	 * A handler which collects the connected channels and resumes streaming to them as they become writable.
+	 */
+	private static final class ServerHandler extends SimpleChannelUpstreamHandler {
+
+		/**
+		 * The scheduler, or {@code null} if files are written in one go.
+		 */
+		private final OnDemandScheduler scheduler;
+
+		/**
+		 * The connected channels.
+		 */
+		private final List<Channel> channels;
+
+		/**
+		 * The latch which is counted down as channels connect.
+		 */
+		private final CountDownLatch connected;
+
+		/**
+		 * Creates the server handler.
+		 * @param scheduler The scheduler, or {@code null} if files are written in one go.
+		 * @param channels The list which connected channels are added to.
+		 * @param connected The latch which is counted down as channels connect.
+		 */
+		public ServerHandler(OnDemandScheduler scheduler, List<Channel> channels, CountDownLatch connected) {
+			this.scheduler = scheduler;
+			this.channels = channels;
+			this.connected = connected;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see org.jboss.netty.channel.SimpleChannelUpstreamHandler#channelConnected(org.jboss.netty.channel.
+		 * ChannelHandlerContext, org.jboss.netty.channel.ChannelStateEvent)
+		 */
+		@Override
+		public void channelConnected(ChannelHandlerContext ctx, ChannelStateEvent e) {
+			synchronized (channels) {
+				channels.add(e.getChannel());
+			}
+			connected.countDown();
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see org.jboss.netty.channel.SimpleChannelUpstreamHandler#channelInterestChanged(org.jboss.netty.channel.
+		 * ChannelHandlerContext, org.jboss.netty.channel.ChannelStateEvent)
+		 */
+		@Override
+		public void channelInterestChanged(ChannelHandlerContext ctx, ChannelStateEvent e) {
+			if (scheduler != null && e.getChannel().isWritable()) {
+				scheduler.resume(e.getChannel());
+			}
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see org.jboss.netty.channel.SimpleChannelUpstreamHandler#exceptionCaught(org.jboss.netty.channel.
+		 * ChannelHandlerContext, org.jboss.netty.channel.ExceptionEvent)
+		 */
+		@Override
+		public void exceptionCaught(ChannelHandlerContext ctx, ExceptionEvent e) {
+			e.getChannel().close(); // the clients are closed with writes pending, which is expected
+		}
+	}
+
+	/**
+	 * The number of connections.
+	 */
+	private static final int CONNECTIONS = 64;
+
+	/**
+	 * The number of files requested by each connection.
+	 */
+	private static final int FILES_PER_CONNECTION = 16;
+
+	/**
+	 * The length of each file, in bytes, which is about that of a large map file.
+	 */
+	private static final int FILE_LENGTH = 64 * 1024;
+
+	/**
+	 * The number of files per connection which the old workers wrote before waiting for one to be flushed.
+	 */
+	private static final int MAXIMUM_IN_FLIGHT = 4;
+
+	/**
+	 * The maximum length of a chunk, in bytes.
+	 */
+	private static final int CHUNK_LENGTH = 500;
+
+	/**
+	 * The size of the receive buffer of each client, in bytes, which is roughly that of a slow client's socket.
+	 */
+	private static final int RECEIVE_BUFFER_SIZE = 8 * 1024;
+
+	/**
+	 * The size of the send buffer of each server socket, in bytes. Setting it stops the kernel from growing the buffer
+	 * to megabytes on loopback, which would absorb every file and hide the memory pinned in the JVM.
+	 */
+	private static final int SEND_BUFFER_SIZE = 16 * 1024;
+
+	/**
+	 * The time given for the connections to stall, in milliseconds.
+	 */
+	private static final long SETTLE_TIME = 2000;
+
+	/**
+	 * Gets the heap in use after collecting garbage.
+	 * @param memory The memory bean.
+	 * @return The heap in use, in bytes.
+	 * @throws InterruptedException if the thread is interrupted.
+	 */
+	private static long getUsedHeap(MemoryMXBean memory) throws InterruptedException {
+		for (int i = 0; i < 4; i++) {
+			System.gc();
+			Thread.sleep(100);
+		}
+		return memory.getHeapMemoryUsage().getUsed();
+	}
+
+	/**
+	 * The entry point of the benchmark.
+	 * @param args The command-line arguments, which are ignored.
+	 * @throws Exception if an error occurs.
+	 */
+	public static void main(String[] args) throws Exception {
+		measure(false, false); // warm up the JIT compiler and Netty's thread pools before either result is taken
+		System.out.println("connections=" + CONNECTIONS + " files=" + FILES_PER_CONNECTION + " fileLength="
+				+ FILE_LENGTH + " receiveBuffer=" + RECEIVE_BUFFER_SIZE + " sendBuffer=" + SEND_BUFFER_SIZE);
+		measure(false, true);
+		measure(true, true);
+	}
+
+	/**
+	 * Connects the clients, serves their requests and reports the memory they pin once they have stalled.
+	 * @param streamed Whether the files are streamed by the scheduler, rather than written in one go.
+	 * @param report Whether the results are printed.
+	 * @throws Exception if an error occurs.
+	 */
+	private static void measure(boolean streamed, boolean report) throws Exception {
+		MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+		final AtomicLong pending = new AtomicLong();
+		final OnDemandScheduler scheduler = streamed ? new OnDemandScheduler(0) : null;
+		final List<Channel> channels = new ArrayList<Channel>();
+		final CountDownLatch connected = new CountDownLatch(CONNECTIONS);
+
+		ExecutorService networkExecutor = Executors.newCachedThreadPool();
+		ChannelFactory factory = new NioServerSocketChannelFactory(networkExecutor, networkExecutor);
+		ServerBootstrap bootstrap = new ServerBootstrap(factory);
+		bootstrap.setPipelineFactory(new ChannelPipelineFactory() {
+			@Override
+			public ChannelPipeline getPipeline() {
+				ChannelPipeline pipeline = Channels.pipeline();
+				pipeline.addLast("pending", new PendingBytesHandler(pending));
+				pipeline.addLast("encoder", new UpdateEncoder());
+				pipeline.addLast("handler", new ServerHandler(scheduler, channels, connected));
+				return pipeline;
+			}
+		});
+		bootstrap.setOption("child.sendBufferSize", SEND_BUFFER_SIZE);
+		Channel server = bootstrap.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+
+		long baseline = getUsedHeap(memory);
+		List<Socket> clients = new ArrayList<Socket>();
+		for (int i = 0; i < CONNECTIONS; i++) {
+			Socket client = new Socket();
+			client.setReceiveBufferSize(RECEIVE_BUFFER_SIZE);
+			client.connect(server.getLocalAddress());
+			clients.add(client);
+		}
+		connected.await();
+
+		Thread worker = null;
+		if (streamed) {
+			for (Channel channel : channels) {
+				for (int file = 0; file < FILES_PER_CONNECTION; file++) {
+					scheduler.offer(channel, new OnDemandRequest(new FileDescriptor(4, file), Priority.LOW));
+				}
+			}
+			worker = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						while (true) {
+							ChannelRequest<OnDemandRequest> request = scheduler.take();
+							scheduler.stream(request, ByteBuffer.allocate(FILE_LENGTH));
+						}
+					} catch (InterruptedException e) {
+						// the measurement is over
+					}
+				}
+			});
+			worker.start();
+		} else {
+			for (Channel channel : channels) {
+				for (int file = 0; file < MAXIMUM_IN_FLIGHT; file++) {
+					write(channel, new FileDescriptor(4, file), ByteBuffer.allocate(FILE_LENGTH));
+				}
+			}
+		}
+
+		Thread.sleep(SETTLE_TIME);
+		long retained = getUsedHeap(memory) - baseline;
+		if (report) {
+			System.out.println((streamed ? "streamed" : "written in one go") + ": pending="
+					+ pending.get() / CONNECTIONS + " bytes/connection, retained heap=" + retained / CONNECTIONS
+					+ " bytes/connection");
+		}
+
+		if (worker != null) {
+			worker.interrupt();
+			worker.join();
+		}
+		for (Socket client : clients) {
+			client.close();
+		}
+		Channels.close(server).awaitUninterruptibly();
+		synchronized (channels) {
+			for (Channel channel : channels) {
+				channel.close().awaitUninterruptibly();
+			}
+		}
+		factory.releaseExternalResources();
+	}
+
+	/**
+	 * Writes every chunk of a file to a channel straight away, as the workers used to do.
+	 * @param channel The channel.
+	 * @param descriptor The file descriptor.
+	 * @param file The file.
+	 */
+	private static void write(Channel channel, FileDescriptor descriptor, ByteBuffer file) {
+		int length = file.remaining();
+		for (int chunk = 0; file.hasRemaining(); chunk++) {
+			byte[] data = new byte[Math.min(file.remaining(), CHUNK_LENGTH)];
+			file.get(data);
+			channel.write(new OnDemandResponse(descriptor, length, chunk, ChannelBuffers.wrappedBuffer(data)));
+		}
+	}
+
+	/**
+	 * Default private constructor to prevent instantiation.
+	 */
+	private OnDemandMemoryBenchmark() {
+	}
+}
@@ -0,0 +1,131 @@
+package org.apollo.tools.bench;
+
+import net.burtleburtle.bob.rand.IsaacRandom;
+
+import org.apollo.game.event.Event;
+import org.apollo.game.event.impl.ConfigEvent;
+import org.apollo.game.event.impl.ServerMessageEvent;
+import org.apollo.game.event.impl.SetInterfaceTextEvent;
+import org.apollo.game.event.impl.UpdateItemsEvent;
+import org.apollo.game.event.impl.UpdateRunEnergyEvent;
+import org.apollo.game.event.impl.UpdateSkillEvent;
+import org.apollo.game.model.Item;
+import org.apollo.game.model.Skill;
+import org.apollo.net.codec.game.GameEventEncoder;
+import org.apollo.net.codec.game.GamePacketEncoder;
+import org.apollo.net.release.Release;
+import org.apollo.net.release.r317.Release317;
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.handler.codec.embedder.EncoderEmbedder;
+
+/**
+ * Measures the cost of encoding one pulse worth of outbound events for a player through the game encoders, with one
+ * write per event and with the events coalesced into a single write, and reports the writes and bytes per pulse of
+ * both.
+ */
+public final class OutboundBenchmark {
+
+	/**
+	 * A benchmark which encodes the events of one pulse.
+	 */
+	private static final class PulseBenchmark extends Benchmark {
+
+		/**
+		 * The embedded encoder pipeline.
+		 */
+		private final EncoderEmbedder<ChannelBuffer> embedder;
+
+		/**
+		 * The events of a pulse.
+		 */
+		private final Event[] events;
+
+		/**
+		 * Whether the events are coalesced.
+		 */
+		private final boolean coalesced;
+
+		/**
+		 * Creates the pulse benchmark.
+		 * @param name The name.
+		 * @param release The release.
+		 * @param events The events of a pulse.
+		 * @param coalesced Whether the events are coalesced.
+		 */
+		public PulseBenchmark(String name, Release release, Event[] events, boolean coalesced) {
+			super(name);
+			this.embedder = new EncoderEmbedder<ChannelBuffer>(new GamePacketEncoder(new IsaacRandom(new int[4])),
+					new GameEventEncoder(release));
+			this.events = events;
+			this.coalesced = coalesced;
+		}
+
+		/**
+		 * Offers the events of one pulse to the encoders.
+		 */
+		private void offer() {
+			if (coalesced) {
+				embedder.offer(events);
+			} else {
+				for (Event event : events) {
+					embedder.offer(event);
+				}
+			}
+		}
+
+		@Override
+		public int run() {
+			offer();
+			int bytes = 0;
+			ChannelBuffer buffer;
+			while ((buffer = embedder.poll()) != null) {
+				bytes += buffer.readableBytes();
+			}
+			return bytes;
+		}
+
+		/**
+		 * Encodes the events of one pulse and prints the number of writes and bytes it took.
+		 */
+		public void report() {
+			offer();
+			int writes = 0, bytes = 0;
+			ChannelBuffer buffer;
+			while ((buffer = embedder.poll()) != null) {
+				writes++;
+				bytes += buffer.readableBytes();
+			}
+			System.out.println(getName() + ": " + writes + " writes, " + bytes + " bytes per player per pulse");
+		}
+	}
+
+	/**
+	 * The entry point of the application.
+	 * @param args The command line arguments.
+	 * @throws Exception if an error occurs.
+	 */
+	public static void main(String[] args) throws Exception {
+		Release release = new Release317();
+		Item[] inventory = new Item[28];
+		for (int i = 0; i < inventory.length; i++) {
+			inventory[i] = new Item(995 + i, 1 + i);
+		}
+		Event[] events = { new ServerMessageEvent("Welcome to the benchmark."),
+				new ServerMessageEvent("You manage to mine some copper."), new UpdateRunEnergyEvent(87),
+				new UpdateSkillEvent(14, new Skill(1154, 10, 10)), new UpdateItemsEvent(3214, inventory),
+				new ConfigEvent(173, 1), new ConfigEvent(172, 0), new ConfigEvent(43, 2),
+				new SetInterfaceTextEvent(4536, "Quest points: 0"), new SetInterfaceTextEvent(7332, "Cook's Assistant") };
+
+		PulseBenchmark separate = new PulseBenchmark("one write per event", release, events, false);
+		PulseBenchmark coalesced = new PulseBenchmark("coalesced", release, events, true);
+		separate.report();
+		coalesced.report();
+		new BenchmarkRunner().runAll(separate, coalesced);
+	}
+
+	/**
+	 * Default private constructor to prevent instantiation.
+	 */
+	private OutboundBenchmark() {
+	}
+}
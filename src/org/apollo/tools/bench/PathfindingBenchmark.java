@@ -0,0 +1,194 @@
+package org.apollo.tools.bench;
+
+import java.util.Random;
+
+import org.apollo.game.model.path.AStarAlgorithm;
+import org.apollo.game.model.path.BreadthFirstAlgorithm;
+import org.apollo.game.model.path.Path;
+import org.apollo.game.model.path.PathfindingAlgorithm;
+import org.apollo.game.model.region.CollisionMap;
+
+/**
+ * Measures how many paths per second the pathfinding algorithms can find, over a synthetic collision map with
+ * scattered obstacles and walled buildings. The worst cases search for an enclosed (unreachable) destination, which
+ * forces every reachable node of the search area to be expanded.
+ */
+public final class PathfindingBenchmark {
+
+	/**
+	 * The x coordinate of the synthetic map.
+	 */
+	private static final int BASE_X = 3000;
+
+	/**
+	 * The y coordinate of the synthetic map.
+	 */
+	private static final int BASE_Y = 3000;
+
+	/**
+	 * The width and length of the synthetic map.
+	 */
+	private static final int SIZE = 512;
+
+	/**
+	 * The number of precomputed routes each benchmark cycles through.
+	 */
+	private static final int ROUTES = 1024;
+
+	/**
+	 * A benchmark which finds paths between precomputed pairs of tiles.
+	 */
+	private static final class RouteBenchmark extends Benchmark {
+
+		/**
+		 * The algorithm.
+		 */
+		private final PathfindingAlgorithm algorithm;
+
+		/**
+		 * The routes, as groups of four coordinates.
+		 */
+		private final int[] routes;
+
+		/**
+		 * The index of the next route.
+		 */
+		private int next;
+
+		/**
+		 * Creates the route benchmark.
+		 * @param name The name.
+		 * @param algorithm The algorithm.
+		 * @param routes The routes.
+		 */
+		public RouteBenchmark(String name, PathfindingAlgorithm algorithm, int[] routes) {
+			super(name);
+			this.algorithm = algorithm;
+			this.routes = routes;
+		}
+
+		@Override
+		public int run() {
+			int i = next;
+			next = (next + 4) % routes.length;
+			Path path = algorithm.find(routes[i], routes[i + 1], routes[i + 2], routes[i + 3], 0, 0,
+					Integer.MAX_VALUE);
+			return path == null ? 0 : path.size();
+		}
+	}
+
+	/**
+	 * The entry point of the application.
+	 * @param args The command line arguments.
+	 * @throws Exception if an error occurs.
+	 */
+	public static void main(String[] args) throws Exception {
+		Random random = new Random(317);
+		CollisionMap map = createMap(random);
+		int[] enclosure = enclose(map, BASE_X + SIZE / 2, BASE_Y + SIZE / 2);
+
+		BreadthFirstAlgorithm breadthFirst = new BreadthFirstAlgorithm(map);
+		AStarAlgorithm aStar = new AStarAlgorithm(map);
+
+		new BenchmarkRunner().runAll(
+				new RouteBenchmark("bfs, typical (<= 10 tiles)", breadthFirst, routes(map, random, 2, 10, null)),
+				new RouteBenchmark("bfs, worst case (unreachable)", breadthFirst,
+						routes(map, random, 30, 45, enclosure)),
+				new RouteBenchmark("a*, typical (30-60 tiles)", aStar, routes(map, random, 30, 60, null)),
+				new RouteBenchmark("a*, long (80-120 tiles)", aStar, routes(map, random, 80, 120, null)),
+				new RouteBenchmark("a*, worst case (unreachable)", aStar, routes(map, random, 80, 120, enclosure)));
+	}
+
+	/**
+	 * Creates the synthetic collision map.
+	 * @param random The random number generator.
+	 * @return The collision map.
+	 */
+	private static CollisionMap createMap(Random random) {
+		CollisionMap map = new CollisionMap();
+		for (int x = 0; x < SIZE; x++) {
+			for (int y = 0; y < SIZE; y++) {
+				if (random.nextInt(100) < 12) {
+					map.flag(BASE_X + x, BASE_Y + y, 0, CollisionMap.BLOCKED);
+				}
+			}
+		}
+		for (int i = 0; i < SIZE; i++) {
+			int x = BASE_X + random.nextInt(SIZE - 10);
+			int y = BASE_Y + random.nextInt(SIZE - 10);
+			int width = 3 + random.nextInt(6);
+			int length = 3 + random.nextInt(6);
+			for (int dx = 0; dx < width; dx++) {
+				map.flag(x + dx, y, 0, CollisionMap.WALL_SOUTH);
+				map.flag(x + dx, y - 1, 0, CollisionMap.WALL_NORTH);
+				map.flag(x + dx, y + length - 1, 0, CollisionMap.WALL_NORTH);
+				map.flag(x + dx, y + length, 0, CollisionMap.WALL_SOUTH);
+			}
+			for (int dy = 1; dy < length; dy++) { // leave a door on the west side
+				map.flag(x, y + dy, 0, CollisionMap.WALL_WEST);
+				map.flag(x - 1, y + dy, 0, CollisionMap.WALL_EAST);
+			}
+		}
+		return map;
+	}
+
+	/**
+	 * Surrounds a tile with blocked tiles so that it cannot be reached.
+	 * @param map The collision map.
+	 * @param x The x coordinate.
+	 * @param y The y coordinate.
+	 * @return The coordinates of the enclosed tile.
+	 */
+	private static int[] enclose(CollisionMap map, int x, int y) {
+		map.unflag(x, y, 0, CollisionMap.BLOCKED);
+		for (int dx = -1; dx <= 1; dx++) {
+			for (int dy = -1; dy <= 1; dy++) {
+				if (dx != 0 || dy != 0) {
+					map.flag(x + dx, y + dy, 0, CollisionMap.BLOCKED);
+				}
+			}
+		}
+		return new int[] { x, y };
+	}
+
+	/**
+	 * Creates a set of routes between open tiles.
+	 * @param map The collision map.
+	 * @param random The random number generator.
+	 * @param minimum The minimum distance of a route.
+	 * @param maximum The maximum distance of a route.
+	 * @param destination The fixed destination of every route, or {@code null} for random destinations.
+	 * @return The routes, as groups of four coordinates.
+	 */
+	private static int[] routes(CollisionMap map, Random random, int minimum, int maximum, int[] destination) {
+		int[] routes = new int[ROUTES * 4];
+		for (int i = 0; i < routes.length;) {
+			int dstX, dstY;
+			if (destination == null) {
+				dstX = BASE_X + maximum + random.nextInt(SIZE - maximum * 2);
+				dstY = BASE_Y + maximum + random.nextInt(SIZE - maximum * 2);
+			} else {
+				dstX = destination[0];
+				dstY = destination[1];
+			}
+			double angle = random.nextDouble() * Math.PI * 2;
+			int distance = minimum + random.nextInt(maximum - minimum + 1);
+			int srcX = dstX + (int) (Math.cos(angle) * distance);
+			int srcY = dstY + (int) (Math.sin(angle) * distance);
+			if (map.getFlags(srcX, srcY, 0) != 0 || (destination == null && map.getFlags(dstX, dstY, 0) != 0)) {
+				continue;
+			}
+			routes[i++] = srcX;
+			routes[i++] = srcY;
+			routes[i++] = dstX;
+			routes[i++] = dstY;
+		}
+		return routes;
+	}
+
+	/**
+	 * Default private constructor to prevent instantiation.
+	 */
+	private PathfindingBenchmark() {
+	}
+}
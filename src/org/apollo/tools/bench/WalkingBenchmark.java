@@ -0,0 +1,193 @@
+package org.apollo.tools.bench;
+
+import java.util.Random;
+
+import org.apollo.game.model.Player;
+import org.apollo.game.model.Position;
+import org.apollo.game.model.WalkingQueue;
+import org.apollo.game.model.World;
+import org.apollo.game.model.region.CollisionMap;
+import org.apollo.security.PlayerCredentials;
+
+/**
+ * Measures the cost of handling a walk request, with and without step verification, for a swarm of bots which each
+ * send one request per pulse. Honest bots send short routes like the client does, while hostile bots send long
+ * straight lines which cut through obstacles.
+ */
+public final class WalkingBenchmark {
+
+	/**
+	 * The x coordinate of the synthetic map.
+	 */
+	private static final int BASE_X = 3000;
+
+	/**
+	 * The y coordinate of the synthetic map.
+	 */
+	private static final int BASE_Y = 3000;
+
+	/**
+	 * The width and length of the synthetic map.
+	 */
+	private static final int SIZE = 512;
+
+	/**
+	 * The number of bots in the swarm.
+	 */
+	private static final int BOTS = 2000;
+
+	/**
+	 * The number of precomputed walk requests each benchmark cycles through.
+	 */
+	private static final int REQUESTS = 4096;
+
+	/**
+	 * The maximum number of waypoints in a walk request, excluding the first step.
+	 */
+	private static final int WAYPOINTS = 10;
+
+	/**
+	 * A benchmark in which each operation is one walk request from the next bot in the swarm, followed by a pulse of
+	 * that bot's walking queue.
+	 */
+	private static final class SwarmBenchmark extends Benchmark {
+
+		/**
+		 * The bots.
+		 */
+		private final Player[] bots;
+
+		/**
+		 * The positions which the bots are returned to before each request, so that no benchmark wanders off the
+		 * synthetic map.
+		 */
+		private final Position[] homes;
+
+		/**
+		 * The walk requests, as offsets from the first step: a count followed by that many pairs of deltas.
+		 */
+		private final int[][] requests;
+
+		/**
+		 * Whether steps are verified.
+		 */
+		private final boolean verifying;
+
+		/**
+		 * The index of the next request.
+		 */
+		private int next;
+
+		/**
+		 * Creates the swarm benchmark.
+		 * @param name The name.
+		 * @param bots The bots.
+		 * @param requests The walk requests.
+		 * @param verifying Whether steps are verified.
+		 */
+		public SwarmBenchmark(String name, Player[] bots, int[][] requests, boolean verifying) {
+			super(name);
+			this.bots = bots;
+			this.requests = requests;
+			this.verifying = verifying;
+			homes = new Position[bots.length];
+			for (int i = 0; i < bots.length; i++) {
+				homes[i] = bots[i].getPosition();
+			}
+		}
+
+		@Override
+		public int run() {
+			int index = next++;
+			Player bot = bots[index % bots.length];
+			bot.setPosition(homes[index % bots.length]);
+			int[] request = requests[index % requests.length];
+			WalkingQueue queue = bot.getWalkingQueue();
+			queue.setVerifying(verifying);
+
+			Position first = bot.getPosition();
+			if (queue.addFirstStep(first)) {
+				for (int i = 1; i < request.length; i += 2) {
+					if (!queue.addStep(new Position(first.getX() + request[i], first.getY() + request[i + 1]))) {
+						break;
+					}
+				}
+			}
+			int size = queue.size();
+			queue.pulse();
+			return size;
+		}
+	}
+
+	/**
+	 * The entry point of the application.
+	 * @param args The command line arguments.
+	 * @throws Exception if an error occurs.
+	 */
+	public static void main(String[] args) throws Exception {
+		Random random = new Random(317);
+		createMap(World.getWorld().getCollisionMap(), random);
+
+		Player[] bots = new Player[BOTS];
+		for (int i = 0; i < bots.length; i++) {
+			Position position = new Position(BASE_X + 64 + random.nextInt(SIZE - 128), BASE_Y + 64
+					+ random.nextInt(SIZE - 128));
+			bots[i] = new Player(new PlayerCredentials("bot" + i, "", 0, 0), position);
+		}
+		int[][] honest = requests(random, 3, 12);
+		int[][] hostile = requests(random, 40, 60);
+
+		new BenchmarkRunner().runAll(new SwarmBenchmark("honest swarm, trusted", bots, honest, false),
+				new SwarmBenchmark("honest swarm, verified", bots, honest, true),
+				new SwarmBenchmark("hostile swarm, trusted", bots, hostile, false),
+				new SwarmBenchmark("hostile swarm, verified", bots, hostile, true));
+	}
+
+	/**
+	 * Fills the synthetic area of a collision map with scattered obstacles.
+	 * @param map The collision map.
+	 * @param random The random number generator.
+	 */
+	private static void createMap(CollisionMap map, Random random) {
+		for (int x = 0; x < SIZE; x++) {
+			for (int y = 0; y < SIZE; y++) {
+				if (random.nextInt(100) < 12) {
+					map.flag(BASE_X + x, BASE_Y + y, 0, CollisionMap.BLOCKED);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Creates a set of walk requests whose waypoints are joined by straight or diagonal lines, as the client sends
+	 * them.
+	 * @param random The random number generator.
+	 * @param minimum The minimum length of a line.
+	 * @param maximum The maximum length of a line.
+	 * @return The walk requests.
+	 */
+	private static int[][] requests(Random random, int minimum, int maximum) {
+		int[][] requests = new int[REQUESTS][];
+		for (int i = 0; i < requests.length; i++) {
+			int waypoints = 1 + random.nextInt(WAYPOINTS);
+			int[] request = new int[1 + waypoints * 2];
+			request[0] = waypoints;
+			int x = 0, y = 0;
+			for (int j = 0; j < waypoints; j++) {
+				int length = minimum + random.nextInt(maximum - minimum + 1);
+				x += (random.nextInt(3) - 1) * length;
+				y += (random.nextInt(3) - 1) * length;
+				request[1 + j * 2] = x;
+				request[2 + j * 2] = y;
+			}
+			requests[i] = request;
+		}
+		return requests;
+	}
+
+	/**
+	 * Default private constructor to prevent instantiation.
+	 */
+	private WalkingBenchmark() {
+	}
+}
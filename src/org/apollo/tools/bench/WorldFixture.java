@@ -0,0 +1,184 @@
+package org.apollo.tools.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.apollo.game.event.impl.ChatEvent;
+import org.apollo.game.event.impl.NPCSynchronizationEvent;
+import org.apollo.game.event.impl.PlayerSynchronizationEvent;
+import org.apollo.game.model.Animation;
+import org.apollo.game.model.Direction;
+import org.apollo.game.model.Graphic;
+import org.apollo.game.model.Player;
+import org.apollo.game.model.Position;
+import org.apollo.game.sync.block.SynchronizationBlock;
+import org.apollo.game.sync.block.SynchronizationBlockSet;
+import org.apollo.game.sync.seg.AddCharacterSegment;
+import org.apollo.game.sync.seg.AddNpcSegment;
+import org.apollo.game.sync.seg.MovementSegment;
+import org.apollo.game.sync.seg.RemoveCharacterSegment;
+import org.apollo.game.sync.seg.SynchronizationSegment;
+import org.apollo.security.PlayerCredentials;
+import org.apollo.util.TextUtil;
+
+/**
+ * Creates synthetic players and synchronization events for benchmarks, crowded around a single position as they would
+ * be at a busy bank. The mix of movement and update blocks is meant to resemble a typical pulse: most characters walk
+ * or run, one in eight has an update block, and one in ten is new and must be added with its appearance.
+ */
+final class WorldFixture {
+
+	/**
+	 * The position the characters are crowded around.
+	 */
+	public static final Position CENTRE = new Position(3222, 3222);
+
+	/**
+	 * The maximum number of characters added to a local list in one pulse, as the synchronization tasks limit it.
+	 */
+	private static final int MAXIMUM_ADDED = 20;
+
+	/**
+	 * The messages which players chat.
+	 */
+	private static final String[] MESSAGES = { "hello world", "selling lobsters at the bank", "buying rune ess",
+			"lol", "anyone want to trade?" };
+
+	/**
+	 * Creates a block set in which one in eight characters has an update block.
+	 * @param random The random number generator.
+	 * @param player The player who chats, or {@code null} if the block set is for an npc.
+	 * @return The block set.
+	 */
+	private static SynchronizationBlockSet createBlockSet(Random random, Player player) {
+		SynchronizationBlockSet blockSet = new SynchronizationBlockSet();
+		if (random.nextInt(8) == 0) {
+			if (player != null) {
+				blockSet.add(SynchronizationBlock.createChatBlock(player, createChat(random)));
+			} else {
+				blockSet.add(SynchronizationBlock.createAnimationBlock(new Animation(422)));
+			}
+			if (random.nextInt(2) == 0) {
+				blockSet.add(SynchronizationBlock.createGraphicBlock(new Graphic(86, 0, 100)));
+			}
+		}
+		return blockSet;
+	}
+
+	/**
+	 * Creates a chat event.
+	 * @param random The random number generator.
+	 * @return The chat event.
+	 */
+	private static ChatEvent createChat(Random random) {
+		String message = MESSAGES[random.nextInt(MESSAGES.length)];
+		byte[] compressed = new byte[message.length()];
+		int length = TextUtil.compress(message, compressed);
+		byte[] text = new byte[length];
+		System.arraycopy(compressed, 0, text, 0, length);
+		return new ChatEvent(message, text, 0, 0);
+	}
+
+	/**
+	 * Creates the movement segment of a character which is already in a local list: most walk or run, some stand
+	 * still, and a few are removed.
+	 * @param random The random number generator.
+	 * @param blockSet The block set.
+	 * @return The segment.
+	 */
+	private static SynchronizationSegment createMovement(Random random, SynchronizationBlockSet blockSet) {
+		Direction[] directions = Direction.values();
+		int roll = random.nextInt(20);
+		if (roll == 0) {
+			return new RemoveCharacterSegment();
+		} else if (roll < 3) {
+			return new MovementSegment(blockSet, new Direction[0]);
+		} else if (roll < 6) {
+			return new MovementSegment(blockSet, new Direction[] { directions[random.nextInt(8)],
+					directions[random.nextInt(8)] });
+		}
+		return new MovementSegment(blockSet, new Direction[] { directions[random.nextInt(8)] });
+	}
+
+	/**
+	 * Creates an npc synchronization event for an npc crowd.
+	 * @param locals The number of npcs which are already in the local list.
+	 * @param random The random number generator.
+	 * @return The event.
+	 */
+	public static NPCSynchronizationEvent createNpcEvent(int locals, Random random) {
+		List<SynchronizationSegment> segments = new ArrayList<SynchronizationSegment>();
+		for (int i = 0; i < locals; i++) {
+			segments.add(createMovement(random, createBlockSet(random, null)));
+		}
+		for (int i = 0; i < getAdded(locals); i++) {
+			segments.add(new AddNpcSegment(createBlockSet(random, null), 1 + locals + i, createPosition(random),
+					1 + random.nextInt(100)));
+		}
+		return new NPCSynchronizationEvent(CENTRE, locals, segments);
+	}
+
+	/**
+	 * Creates a player synchronization event for a player in the middle of a crowd.
+	 * @param players The crowd, which must contain at least one more player than the local list.
+	 * @param locals The number of players which are already in the local list.
+	 * @param random The random number generator.
+	 * @return The event.
+	 */
+	public static PlayerSynchronizationEvent createPlayerEvent(Player[] players, int locals, Random random) {
+		Player player = players[0];
+		List<SynchronizationSegment> segments = new ArrayList<SynchronizationSegment>();
+		for (int i = 1; i <= locals; i++) {
+			segments.add(createMovement(random, createBlockSet(random, players[i])));
+		}
+		for (int i = 0, added = getAdded(locals); i < added && locals + 1 + i < players.length; i++) {
+			Player other = players[locals + 1 + i];
+			SynchronizationBlockSet blockSet = new SynchronizationBlockSet();
+			blockSet.add(SynchronizationBlock.createAppearanceBlock(other));
+			segments.add(new AddCharacterSegment(blockSet, locals + 1 + i, other.getPosition()));
+		}
+		SynchronizationSegment segment = new MovementSegment(new SynchronizationBlockSet(),
+				new Direction[] { Direction.NORTH });
+		return new PlayerSynchronizationEvent(player, CENTRE, player.getPosition(), false, segment, locals, segments);
+	}
+
+	/**
+	 * Creates a crowd of players.
+	 * @param count The number of players.
+	 * @param random The random number generator.
+	 * @return The players.
+	 */
+	public static Player[] createPlayers(int count, Random random) {
+		Player[] players = new Player[count];
+		for (int i = 0; i < count; i++) {
+			players[i] = new Player(new PlayerCredentials("bot" + i, "", 0, 0), i == 0 ? CENTRE
+					: createPosition(random));
+		}
+		return players;
+	}
+
+	/**
+	 * Creates a position within the distance of the centre which local lists can address.
+	 * @param random The random number generator.
+	 * @return The position.
+	 */
+	private static Position createPosition(Random random) {
+		return new Position(CENTRE.getX() - 15 + random.nextInt(31), CENTRE.getY() - 15 + random.nextInt(31));
+	}
+
+	/**
+	 * Gets the number of characters which are added to a local list in a pulse.
+	 * @param locals The number of characters which are already in the local list.
+	 * @return The number of characters which are added.
+	 */
+	private static int getAdded(int locals) {
+		return Math.min(MAXIMUM_ADDED, Math.max(1, locals / 10));
+	}
+
+	/**
+	 * Default private constructor to prevent instantiation.
+	 */
+	private WorldFixture() {
+	}
+}
@@ -0,0 +1,5 @@
+/**
+ * Contains a small micro-benchmark harness and the benchmarks which are run with it.
+ */
+package org.apollo.tools.bench;
+
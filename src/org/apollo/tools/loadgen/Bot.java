@@ -0,0 +1,492 @@
+package org.apollo.tools.loadgen;
+
+import java.util.Random;
+
+import net.burtleburtle.bob.rand.IsaacRandom;
+
+import org.apollo.net.NetworkConstants;
+import org.apollo.net.codec.game.GamePacket;
+import org.apollo.net.codec.game.GamePacketEncoder;
+import org.apollo.net.codec.game.GamePacketReader;
+import org.apollo.net.codec.handshake.HandshakeConstants;
+import org.apollo.net.codec.login.LoginConstants;
+import org.apollo.net.meta.PacketType;
+import org.apollo.util.NameUtil;
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
+import org.jboss.netty.channel.Channel;
+import org.jboss.netty.channel.ChannelHandlerContext;
+import org.jboss.netty.channel.ChannelStateEvent;
+import org.jboss.netty.channel.ExceptionEvent;
+import org.jboss.netty.channel.MessageEvent;
+import org.jboss.netty.channel.SimpleChannelUpstreamHandler;
+import org.jboss.netty.channel.WriteCompletionEvent;
+
+/**
+ * A simulated client. It performs the handshake and logs in as a real client does, without RSA, and then encrypts the
+ * opcodes of the packets it sends with ISAAC. Each pulse it may walk around, chat, open the bank or request a trade.
+ * <p>
+ * The bot does not decode the packets the server sends, as the server does not describe their lengths; it only counts
+ * the bytes. The exception is the first packet, which tells the bot the index of its player, so that other bots can
+ * request trades with it. The server flushes every session once per pulse, so the latency of a packet is measured as
+ * the time until the server next sends data, which is when the pulse that handled the packet ends.
+ */
+public final class Bot extends SimpleChannelUpstreamHandler {
+
+	/**
+	 * The states of a bot.
+	 */
+	private enum State {
+
+		/**
+		 * The bot is connecting to the server.
+		 */
+		CONNECTING,
+
+		/**
+		 * The bot is waiting for the server's half of the handshake.
+		 */
+		HANDSHAKE,
+
+		/**
+		 * The bot is waiting for the login response.
+		 */
+		LOGIN,
+
+		/**
+		 * The bot is logged in.
+		 */
+		GAME,
+
+		/**
+		 * The bot has been disconnected, or its login failed.
+		 */
+		CLOSED
+	}
+
+	/**
+	 * The id of the bank booth object.
+	 */
+	private static final int BANK_BOOTH = 2213;
+
+	/**
+	 * The coordinates of a bank booth in Edgeville.
+	 */
+	private static final int BANK_BOOTH_X = 3096, BANK_BOOTH_Y = 3493;
+
+	/**
+	 * The messages bots chat.
+	 */
+	private static final String[] MESSAGES = { "hello world", "selling lobsters at the bank", "buying logs",
+			"anyone want to trade", "lol", "wildy anyone" };
+
+	/**
+	 * The length of the id assignment packet's payload.
+	 */
+	private static final int ID_ASSIGNMENT_LENGTH = 3;
+
+	/**
+	 * The number of pulses a bot may idle before it sends a keep alive packet, which keeps the server from closing
+	 * the session.
+	 */
+	private static final int KEEP_ALIVE_PULSES = 8;
+
+	/**
+	 * The password of every bot.
+	 */
+	private static final String PASSWORD = "loadtest";
+
+	/**
+	 * The coordinates which new players spawn at, around which bots walk.
+	 */
+	private static final int SPAWN_X = 3094, SPAWN_Y = 3495;
+
+	/**
+	 * The distance from the spawn which bots walk up to.
+	 */
+	private static final int WANDER_DISTANCE = 8;
+
+	/**
+	 * Writes a string in the format of {@link org.apollo.util.ChannelBufferUtil#readString}.
+	 * @param buffer The buffer.
+	 * @param str The string.
+	 */
+	private static void writeString(ChannelBuffer buffer, String str) {
+		buffer.writeBytes(str.getBytes());
+		buffer.writeByte(NetworkConstants.STRING_TERMINATOR);
+	}
+
+	/**
+	 * The id of this bot.
+	 */
+	private final int id;
+
+	/**
+	 * The bot this bot trades with, or {@code null} if it trades with nobody.
+	 */
+	private Bot partner;
+
+	/**
+	 * The username.
+	 */
+	private final String username;
+
+	/**
+	 * The protocol.
+	 */
+	private final BotProtocol protocol;
+
+	/**
+	 * The archive CRCs, which are sent when logging in.
+	 */
+	private final int[] archiveCrcs;
+
+	/**
+	 * The statistics.
+	 */
+	private final LoadStatistics statistics;
+
+	/**
+	 * The data received before the bot logged in.
+	 */
+	private final ChannelBuffer pending = ChannelBuffers.dynamicBuffer();
+
+	/**
+	 * The random number generator which scripts the behaviour.
+	 */
+	private final Random random;
+
+	/**
+	 * The channel.
+	 */
+	private volatile Channel channel;
+
+	/**
+	 * The state.
+	 */
+	private volatile State state = State.CONNECTING;
+
+	/**
+	 * The random number generator which encrypts the opcodes of sent packets.
+	 */
+	private IsaacRandom encodingRandom;
+
+	/**
+	 * The random number generator which decrypts the opcodes of received packets.
+	 */
+	private IsaacRandom decodingRandom;
+
+	/**
+	 * The index of this bot's player, or {@code -1} if the server has not assigned one yet or it could not be read.
+	 */
+	private volatile int index = -1;
+
+	/**
+	 * Flag indicating if the id assignment packet has been handled.
+	 */
+	private boolean assigned;
+
+	/**
+	 * The time the oldest packet which has not been responded to was sent, from {@link System#nanoTime()}, or 0 if
+	 * every packet has been responded to.
+	 */
+	private volatile long sentAt;
+
+	/**
+	 * The number of pulses until the bot performs its next activity.
+	 */
+	private int delay;
+
+	/**
+	 * The number of pulses since the bot last sent a packet.
+	 */
+	private int idle;
+
+	/**
+	 * Creates the bot.
+	 * @param id The id of the bot, which is its position in the order that bots log in.
+	 * @param protocol The protocol.
+	 * @param archiveCrcs The archive CRCs.
+	 * @param statistics The statistics.
+	 */
+	public Bot(int id, BotProtocol protocol, int[] archiveCrcs, LoadStatistics statistics) {
+		this.id = id;
+		this.username = "bot" + id;
+		this.protocol = protocol;
+		this.archiveCrcs = archiveCrcs;
+		this.statistics = statistics;
+		this.random = new Random(id);
+	}
+
+	/**
+	 * Opens the bank: walks to a bank booth and uses it.
+	 */
+	private void bank() {
+		send(protocol.walk(BANK_BOOTH_X, BANK_BOOTH_Y + 1, new int[0], false),
+				protocol.secondObjectAction(BANK_BOOTH, BANK_BOOTH_X, BANK_BOOTH_Y));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.jboss.netty.channel.SimpleChannelUpstreamHandler#channelClosed(org.jboss.netty.channel.
+	 * ChannelHandlerContext, org.jboss.netty.channel.ChannelStateEvent)
+	 */
+	@Override
+	public void channelClosed(ChannelHandlerContext ctx, ChannelStateEvent e) {
+		State previous = state;
+		state = State.CLOSED;
+		if (previous == State.GAME) {
+			statistics.loggedOut();
+		} else if (previous == State.HANDSHAKE || previous == State.LOGIN) {
+			statistics.failed();
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.jboss.netty.channel.SimpleChannelUpstreamHandler#channelConnected(org.jboss.netty.channel.
+	 * ChannelHandlerContext, org.jboss.netty.channel.ChannelStateEvent)
+	 */
+	@Override
+	public void channelConnected(ChannelHandlerContext ctx, ChannelStateEvent e) {
+		channel = e.getChannel();
+		state = State.HANDSHAKE;
+		ChannelBuffer buffer = ChannelBuffers.buffer(2);
+		buffer.writeByte(HandshakeConstants.SERVICE_GAME);
+		buffer.writeByte((int) (NameUtil.encodeBase37(username) >> 16 & 31));
+		channel.write(buffer);
+	}
+
+	/**
+	 * Chats a random message.
+	 */
+	private void chat() {
+		send(protocol.chat(MESSAGES[random.nextInt(MESSAGES.length)]));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.jboss.netty.channel.SimpleChannelUpstreamHandler#exceptionCaught(org.jboss.netty.channel.
+	 * ChannelHandlerContext, org.jboss.netty.channel.ExceptionEvent)
+	 */
+	@Override
+	public void exceptionCaught(ChannelHandlerContext ctx, ExceptionEvent e) {
+		e.getChannel().close();
+	}
+
+	/**
+	 * Fails the login: the session is closed, and the failure is recorded.
+	 */
+	private void fail() {
+		state = State.CLOSED;
+		statistics.failed();
+		channel.close();
+	}
+
+	/**
+	 * Gets the index of this bot's player.
+	 * @return The index, or {@code -1} if the bot is not logged in or its index is not known.
+	 */
+	public int getIndex() {
+		return state == State.GAME ? index : -1;
+	}
+
+	/**
+	 * Handles the server's half of the handshake, and sends the login block.
+	 */
+	private void handleHandshake() {
+		if (pending.readableBytes() < 17) {
+			return;
+		}
+		int status = pending.readUnsignedByte();
+		pending.skipBytes(8);
+		long serverSeed = pending.readLong();
+		if (status != LoginConstants.STATUS_EXCHANGE_DATA) {
+			fail();
+			return;
+		}
+
+		long clientSeed = random.nextLong();
+		int[] seed = { (int) (clientSeed >> 32), (int) clientSeed, (int) (serverSeed >> 32), (int) serverSeed };
+		encodingRandom = new IsaacRandom(seed);
+		for (int i = 0; i < seed.length; i++) {
+			seed[i] += 50;
+		}
+		decodingRandom = new IsaacRandom(seed);
+
+		ChannelBuffer secure = ChannelBuffers.dynamicBuffer();
+		secure.writeByte(10);
+		secure.writeLong(clientSeed);
+		secure.writeLong(serverSeed);
+		secure.writeInt(id);
+		writeString(secure, username);
+		writeString(secure, PASSWORD);
+
+		ChannelBuffer buffer = ChannelBuffers.dynamicBuffer();
+		buffer.writeByte(LoginConstants.TYPE_STANDARD);
+		buffer.writeByte(1 + 2 + 1 + archiveCrcs.length * 4 + 1 + secure.readableBytes());
+		buffer.writeByte(0xFF);
+		buffer.writeShort(protocol.getRelease());
+		buffer.writeByte(0);
+		for (int crc : archiveCrcs) {
+			buffer.writeInt(crc);
+		}
+		buffer.writeByte(secure.readableBytes());
+		buffer.writeBytes(secure);
+		state = State.LOGIN;
+		channel.write(buffer);
+	}
+
+	/**
+	 * Handles the id assignment packet, which is the first packet the server sends after the login response. If its
+	 * opcode is not the expected one, the index is left unknown and other bots do not trade with this one.
+	 */
+	private void handleIdAssignment() {
+		if (pending.readableBytes() < 1 + ID_ASSIGNMENT_LENGTH) {
+			return;
+		}
+		int opcode = (pending.readUnsignedByte() - decodingRandom.nextInt()) & 0xFF;
+		if (opcode == protocol.getIdAssignmentOpcode()) {
+			ChannelBuffer payload = pending.readBytes(ID_ASSIGNMENT_LENGTH);
+			index = protocol.readIndex(new GamePacketReader(new GamePacket(opcode, PacketType.FIXED, payload)));
+		}
+		assigned = true;
+		pending.clear();
+	}
+
+	/**
+	 * Handles the login response.
+	 */
+	private void handleLoginResponse() {
+		if (!pending.readable()) {
+			return;
+		}
+		int status = pending.getUnsignedByte(pending.readerIndex());
+		if (status != LoginConstants.STATUS_OK) {
+			fail();
+			return;
+		} else if (pending.readableBytes() < 3) {
+			return;
+		}
+		pending.skipBytes(3);
+		channel.getPipeline().addFirst("encoder", new GamePacketEncoder(encodingRandom));
+		delay = random.nextInt(KEEP_ALIVE_PULSES);
+		state = State.GAME;
+		statistics.loggedIn();
+		handleIdAssignment();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.jboss.netty.channel.SimpleChannelUpstreamHandler#messageReceived(org.jboss.netty.channel.
+	 * ChannelHandlerContext, org.jboss.netty.channel.MessageEvent)
+	 */
+	@Override
+	public void messageReceived(ChannelHandlerContext ctx, MessageEvent e) {
+		ChannelBuffer buffer = (ChannelBuffer) e.getMessage();
+		statistics.received(buffer.readableBytes());
+		if (state == State.GAME) {
+			long sent = sentAt;
+			if (sent != 0) {
+				sentAt = 0;
+				statistics.recordLatency(System.nanoTime() - sent);
+			}
+			if (!assigned) {
+				pending.writeBytes(buffer);
+				handleIdAssignment();
+			}
+			return;
+		}
+		pending.writeBytes(buffer);
+		if (state == State.HANDSHAKE) {
+			handleHandshake();
+		}
+		if (state == State.LOGIN) {
+			handleLoginResponse();
+		}
+	}
+
+	/**
+	 * Performs this bot's behaviour for a pulse. This must only be called by one thread, so that packets are encrypted
+	 * in the order they are sent.
+	 */
+	public void pulse() {
+		if (state != State.GAME) {
+			return;
+		}
+		if (--delay > 0) {
+			if (++idle >= KEEP_ALIVE_PULSES) {
+				send(protocol.keepAlive());
+			}
+			return;
+		}
+		delay = 2 + random.nextInt(KEEP_ALIVE_PULSES);
+
+		int roll = random.nextInt(100);
+		if (roll < 50) {
+			walk();
+		} else if (roll < 75) {
+			chat();
+		} else if (roll < 90) {
+			bank();
+		} else {
+			trade();
+		}
+	}
+
+	/**
+	 * Sends packets, and starts measuring the latency if it is not being measured already.
+	 * @param packets The packets.
+	 */
+	private void send(GamePacket... packets) {
+		for (GamePacket packet : packets) {
+			channel.write(packet);
+		}
+		if (sentAt == 0) {
+			sentAt = System.nanoTime();
+		}
+		idle = 0;
+	}
+
+	/**
+	 * Sets the bot this bot trades with.
+	 * @param partner The partner.
+	 */
+	public void setPartner(Bot partner) {
+		this.partner = partner;
+	}
+
+	/**
+	 * Requests a trade with this bot's partner, who requests a trade back when it next trades. The bot walks instead if
+	 * the partner is not logged in, the server has not told it the partner's index, or the release cannot request
+	 * trades.
+	 */
+	private void trade() {
+		int index = partner == null ? -1 : partner.getIndex();
+		GamePacket packet = index == -1 ? null : protocol.tradeRequest(index);
+		if (packet == null) {
+			walk();
+		} else {
+			send(packet);
+		}
+	}
+
+	/**
+	 * Walks to a random position near the spawn.
+	 */
+	private void walk() {
+		int x = SPAWN_X + random.nextInt(WANDER_DISTANCE * 2 + 1) - WANDER_DISTANCE;
+		int y = SPAWN_Y + random.nextInt(WANDER_DISTANCE * 2 + 1) - WANDER_DISTANCE;
+		send(protocol.walk(x, y, new int[0], random.nextBoolean()));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.jboss.netty.channel.SimpleChannelUpstreamHandler#writeComplete(org.jboss.netty.channel.
+	 * ChannelHandlerContext, org.jboss.netty.channel.WriteCompletionEvent)
+	 */
+	@Override
+	public void writeComplete(ChannelHandlerContext ctx, WriteCompletionEvent e) {
+		statistics.sent(e.getWrittenAmount());
+	}
+}
@@ -0,0 +1,115 @@
+package org.apollo.tools.loadgen;
+
+import org.apollo.net.codec.game.GamePacket;
+import org.apollo.net.codec.game.GamePacketReader;
+import org.apollo.util.TextUtil;
+
+/**
+ * Creates the packets a simulated client sends, in the format of a particular release.
+ */
+public abstract class BotProtocol {
+
+	/**
+	 * Compresses a chat message.
+	 * @param message The message.
+	 * @return The compressed message.
+	 */
+	protected static byte[] compress(String message) {
+		byte[] compressed = new byte[message.length()];
+		int length = TextUtil.compress(message, compressed);
+		byte[] text = new byte[length];
+		System.arraycopy(compressed, 0, text, 0, length);
+		return text;
+	}
+
+	/**
+	 * Gets the protocol of a release.
+	 * @param release The release number.
+	 * @return The protocol.
+	 * @throws IllegalArgumentException if the release is not supported.
+	 */
+	public static BotProtocol forRelease(int release) {
+		switch (release) {
+			case 317:
+				return new BotProtocol317();
+			case 377:
+				return new BotProtocol377();
+			default:
+				throw new IllegalArgumentException("Unsupported release: " + release);
+		}
+	}
+
+	/**
+	 * The release number.
+	 */
+	private final int release;
+
+	/**
+	 * Creates the protocol.
+	 * @param release The release number.
+	 */
+	protected BotProtocol(int release) {
+		this.release = release;
+	}
+
+	/**
+	 * Creates a chat packet.
+	 * @param message The message.
+	 * @return The packet.
+	 */
+	public abstract GamePacket chat(String message);
+
+	/**
+	 * Gets the opcode of the packet which tells the client the index of its player, which is the first packet the
+	 * server sends after the login response.
+	 * @return The opcode.
+	 */
+	public abstract int getIdAssignmentOpcode();
+
+	/**
+	 * Gets the release number.
+	 * @return The release number.
+	 */
+	public final int getRelease() {
+		return release;
+	}
+
+	/**
+	 * Creates a keep alive packet.
+	 * @return The packet.
+	 */
+	public abstract GamePacket keepAlive();
+
+	/**
+	 * Reads the index of the player from the payload of the id assignment packet.
+	 * @param reader The reader, pointed at the payload.
+	 * @return The index.
+	 */
+	public abstract int readIndex(GamePacketReader reader);
+
+	/**
+	 * Creates a packet which selects the second option of an object.
+	 * @param id The id of the object.
+	 * @param x The x coordinate of the object.
+	 * @param y The y coordinate of the object.
+	 * @return The packet.
+	 */
+	public abstract GamePacket secondObjectAction(int id, int x, int y);
+
+	/**
+	 * Creates a packet which requests a trade with another player.
+	 * @param index The index of the other player.
+	 * @return The packet, or {@code null} if the release cannot request trades.
+	 */
+	public abstract GamePacket tradeRequest(int index);
+
+	/**
+	 * Creates a walk packet.
+	 * @param x The x coordinate of the first step.
+	 * @param y The y coordinate of the first step.
+	 * @param deltas The offsets of the steps which follow the first, as pairs of x and y offsets.
+	 * @param run Whether the steps should be ran.
+	 * @return The packet.
+	 */
+	public abstract GamePacket walk(int x, int y, int[] deltas, boolean run);
+}
@@ -0,0 +1,104 @@
+package org.apollo.tools.loadgen;
+
+import org.apollo.net.codec.game.DataOrder;
+import org.apollo.net.codec.game.DataTransformation;
+import org.apollo.net.codec.game.DataType;
+import org.apollo.net.codec.game.GamePacket;
+import org.apollo.net.codec.game.GamePacketBuilder;
+import org.apollo.net.codec.game.GamePacketReader;
+import org.apollo.net.meta.PacketType;
+
+/**
+ * The {@link BotProtocol} of release 317, which mirrors the event decoders of
+ * {@link org.apollo.net.release.r317.Release317}.
+ */
+public final class BotProtocol317 extends BotProtocol {
+
+	/**
+	 * Creates the protocol.
+	 */
+	public BotProtocol317() {
+		super(317);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.apollo.tools.loadgen.BotProtocol#chat(java.lang.String)
+	 */
+	@Override
+	public GamePacket chat(String message) {
+		GamePacketBuilder builder = new GamePacketBuilder(4, PacketType.VARIABLE_BYTE);
+		builder.put(DataType.BYTE, DataTransformation.ADD, 0);
+		builder.put(DataType.BYTE, DataTransformation.ADD, 0);
+		builder.putBytesReverse(DataTransformation.ADD, compress(message));
+		return builder.toGamePacket();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.apollo.tools.loadgen.BotProtocol#getIdAssignmentOpcode()
+	 */
+	@Override
+	public int getIdAssignmentOpcode() {
+		return 249;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.apollo.tools.loadgen.BotProtocol#keepAlive()
+	 */
+	@Override
+	public GamePacket keepAlive() {
+		return new GamePacketBuilder(0).toGamePacket();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.apollo.tools.loadgen.BotProtocol#readIndex(org.apollo.net.codec.game.GamePacketReader)
+	 */
+	@Override
+	public int readIndex(GamePacketReader reader) {
+		reader.getUnsignedByte(DataTransformation.ADD);
+		return reader.getUnsignedShort(DataOrder.LITTLE, DataTransformation.ADD);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.apollo.tools.loadgen.BotProtocol#secondObjectAction(int, int, int)
+	 */
+	@Override
+	public GamePacket secondObjectAction(int id, int x, int y) {
+		GamePacketBuilder builder = new GamePacketBuilder(252);
+		builder.put(DataType.SHORT, DataOrder.LITTLE, DataTransformation.ADD, id);
+		builder.put(DataType.SHORT, DataOrder.LITTLE, y);
+		builder.put(DataType.SHORT, DataTransformation.ADD, x);
+		return builder.toGamePacket();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.apollo.tools.loadgen.BotProtocol#tradeRequest(int)
+	 */
+	@Override
+	public GamePacket tradeRequest(int index) {
+		GamePacketBuilder builder = new GamePacketBuilder(73);
+		builder.put(DataType.SHORT, DataOrder.LITTLE, index);
+		return builder.toGamePacket();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.apollo.tools.loadgen.BotProtocol#walk(int, int, int[], boolean)
+	 */
+	@Override
+	public GamePacket walk(int x, int y, int[] deltas, boolean run) {
+		GamePacketBuilder builder = new GamePacketBuilder(164, PacketType.VARIABLE_BYTE);
+		builder.put(DataType.SHORT, DataOrder.LITTLE, DataTransformation.ADD, x);
+		for (int delta : deltas) {
+			builder.put(DataType.BYTE, delta);
+		}
+		builder.put(DataType.SHORT, DataOrder.LITTLE, y);
+		builder.put(DataType.BYTE, DataTransformation.NEGATE, run ? 1 : 0);
+		return builder.toGamePacket();
+	}
+}
@@ -0,0 +1,104 @@
+package org.apollo.tools.loadgen;
+
+import org.apollo.net.codec.game.DataOrder;
+import org.apollo.net.codec.game.DataTransformation;
+import org.apollo.net.codec.game.DataType;
+import org.apollo.net.codec.game.GamePacket;
+import org.apollo.net.codec.game.GamePacketBuilder;
+import org.apollo.net.codec.game.GamePacketReader;
+import org.apollo.net.meta.PacketType;
+
+/**
+ * The {@link BotProtocol} of release 377, which mirrors the event decoders of
+ * {@link org.apollo.net.release.r377.Release377}. That release does not decode player options, so bots cannot request
+ * trades.
+ */
+public final class BotProtocol377 extends BotProtocol {
+
+	/**
+	 * Creates the protocol.
+	 */
+	public BotProtocol377() {
+		super(377);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.apollo.tools.loadgen.BotProtocol#chat(java.lang.String)
+	 */
+	@Override
+	public GamePacket chat(String message) {
+		GamePacketBuilder builder = new GamePacketBuilder(49, PacketType.VARIABLE_BYTE);
+		builder.put(DataType.BYTE, DataTransformation.NEGATE, 0);
+		builder.put(DataType.BYTE, DataTransformation.ADD, 0);
+		builder.putBytes(compress(message));
+		return builder.toGamePacket();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.apollo.tools.loadgen.BotProtocol#getIdAssignmentOpcode()
+	 */
+	@Override
+	public int getIdAssignmentOpcode() {
+		return 126;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.apollo.tools.loadgen.BotProtocol#keepAlive()
+	 */
+	@Override
+	public GamePacket keepAlive() {
+		return new GamePacketBuilder(248).toGamePacket();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.apollo.tools.loadgen.BotProtocol#readIndex(org.apollo.net.codec.game.GamePacketReader)
+	 */
+	@Override
+	public int readIndex(GamePacketReader reader) {
+		reader.getUnsignedByte();
+		return reader.getUnsignedShort(DataOrder.LITTLE);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.apollo.tools.loadgen.BotProtocol#secondObjectAction(int, int, int)
+	 */
+	@Override
+	public GamePacket secondObjectAction(int id, int x, int y) {
+		GamePacketBuilder builder = new GamePacketBuilder(241);
+		builder.put(DataType.SHORT, id);
+		builder.put(DataType.SHORT, x);
+		builder.put(DataType.SHORT, DataTransformation.ADD, y);
+		return builder.toGamePacket();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.apollo.tools.loadgen.BotProtocol#tradeRequest(int)
+	 */
+	@Override
+	public GamePacket tradeRequest(int index) {
+		return null;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.apollo.tools.loadgen.BotProtocol#walk(int, int, int[], boolean)
+	 */
+	@Override
+	public GamePacket walk(int x, int y, int[] deltas, boolean run) {
+		GamePacketBuilder builder = new GamePacketBuilder(28, PacketType.VARIABLE_BYTE);
+		builder.put(DataType.SHORT, DataOrder.LITTLE, DataTransformation.ADD, x);
+		builder.put(DataType.BYTE, run ? 1 : 0);
+		builder.put(DataType.SHORT, DataOrder.LITTLE, DataTransformation.ADD, y);
+		for (int i = 0; i < deltas.length; i += 2) {
+			builder.put(DataType.BYTE, deltas[i]);
+			builder.put(DataType.BYTE, DataTransformation.SUBTRACT, deltas[i + 1]);
+		}
+		return builder.toGamePacket();
+	}
+}
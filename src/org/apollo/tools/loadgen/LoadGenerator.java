@@ -0,0 +1,277 @@
+package org.apollo.tools.loadgen;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apollo.fs.CacheManifest;
+import org.apollo.fs.FileSystemConstants;
+import org.apollo.fs.IndexedFileSystem;
+import org.apollo.game.GameConstants;
+import org.apollo.net.NetworkConstants;
+import org.apollo.util.NamedThreadFactory;
+import org.jboss.netty.channel.Channel;
+import org.jboss.netty.channel.ChannelFactory;
+import org.jboss.netty.channel.ChannelFuture;
+import org.jboss.netty.channel.ChannelFutureListener;
+import org.jboss.netty.channel.Channels;
+import org.jboss.netty.channel.group.ChannelGroup;
+import org.jboss.netty.channel.group.DefaultChannelGroup;
+import org.jboss.netty.channel.socket.SocketChannel;
+import org.jboss.netty.channel.socket.nio.NioClientSocketChannelFactory;
+
+/**
+ * A headless load generator, which logs a swarm of {@link Bot}s in to a server running on this machine and has them
+ * walk, chat, bank and trade, while it reports the bandwidth, the latency the bots observe and the time the server's
+ * pulses take, which it reads from the server's {@code /metrics} page.
+ */
+public final class LoadGenerator {
+
+	/**
+	 * The time between reports, in seconds.
+	 */
+	private static final int REPORT_INTERVAL = 5;
+
+	/**
+	 * The time after which connecting to or reading the server's {@code /metrics} page is given up, in milliseconds.
+	 */
+	private static final int METRICS_TIMEOUT = 1000;
+
+	/**
+	 * The entry point of the application.
+	 * @param args The command line arguments.
+	 * @throws Exception if an error occurs.
+	 */
+	public static void main(String[] args) throws Exception {
+		if (args.length > 4) {
+			System.err.println("Usage:");
+			System.err.println("  java -cp ... org.apollo.tools.loadgen.LoadGenerator [bots] [release] [seconds] "
+					+ "[logins per second]");
+			return;
+		}
+		int bots = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+		int release = args.length > 1 ? Integer.parseInt(args[1]) : 317;
+		int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 60;
+		int rate = args.length > 3 ? Integer.parseInt(args[3]) : 50;
+
+		LoadGenerator generator = new LoadGenerator(BotProtocol.forRelease(release), readArchiveCrcs(release), bots);
+		generator.start(rate);
+		Thread.sleep(TimeUnit.SECONDS.toMillis(seconds));
+		generator.stop();
+	}
+
+	/**
+	 * Reads the archive CRCs of the cache of a release, which the server checks when a client logs in.
+	 * @param release The release number.
+	 * @return The archive CRCs, which are all 0 if there is no cache for the release.
+	 * @throws Exception if the cache could not be read.
+	 */
+	private static int[] readArchiveCrcs(int release) throws Exception {
+		int[] crcs = new int[FileSystemConstants.ARCHIVE_COUNT];
+		File base = new File("./data/fs/" + release + "/");
+		if (!base.isDirectory()) {
+			return crcs;
+		}
+		IndexedFileSystem fs = new IndexedFileSystem(base, true);
+		try {
+			CacheManifest manifest = CacheManifest.create(fs, Runtime.getRuntime().availableProcessors());
+			for (int archive = 0; archive < crcs.length; archive++) {
+				crcs[archive] = manifest.getCrc(0, archive);
+			}
+		} finally {
+			fs.close();
+		}
+		return crcs;
+	}
+
+	/**
+	 * The bots.
+	 */
+	private final Bot[] bots;
+
+	/**
+	 * The factory which creates the channels of the bots.
+	 */
+	private final ChannelFactory factory = new NioClientSocketChannelFactory(Executors.newCachedThreadPool(),
+			Executors.newCachedThreadPool());
+
+	/**
+	 * The channels of the bots.
+	 */
+	private final ChannelGroup channels = new DefaultChannelGroup();
+
+	/**
+	 * The executor which connects and pulses. A single thread pulses every bot, so that each bot sends its packets in
+	 * order.
+	 */
+	private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory(
+			"LoadGenerator"));
+
+	/**
+	 * The executor which reports, so that a slow {@code /metrics} page cannot delay the bots' pulses.
+	 */
+	private final ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory(
+			"LoadReporter"));
+
+	/**
+	 * The statistics.
+	 */
+	private final LoadStatistics statistics = new LoadStatistics();
+
+	/**
+	 * The number of bots which have started connecting.
+	 */
+	private int connected;
+
+	/**
+	 * The time at which the load generator started, and at which the last report was made, from
+	 * {@link System#nanoTime()}.
+	 */
+	private long startTime, lastReport;
+
+	/**
+	 * Creates the load generator. Bots are paired up to trade with each other, and request trades with the player index
+	 * the server assigned to their partner, so that no bot trades with a player which is not its partner.
+	 * @param protocol The protocol.
+	 * @param archiveCrcs The archive CRCs.
+	 * @param count The number of bots.
+	 */
+	public LoadGenerator(BotProtocol protocol, int[] archiveCrcs, int count) {
+		bots = new Bot[count];
+		for (int id = 0; id < count; id++) {
+			bots[id] = new Bot(id, protocol, archiveCrcs, statistics);
+		}
+		for (int id = 0; id < count; id++) {
+			int partner = (id ^ 1) < count ? id ^ 1 : id - 1;
+			if (partner >= 0) {
+				bots[id].setPartner(bots[partner]);
+			}
+		}
+	}
+
+	/**
+	 * Starts connecting the next bot, if there are any left.
+	 */
+	private void connectNext() {
+		if (connected == bots.length) {
+			return;
+		}
+		Channel channel = factory.newChannel(Channels.pipeline(bots[connected++]));
+		((SocketChannel) channel).getConfig().setTcpNoDelay(true);
+		channels.add(channel);
+		channel.connect(new InetSocketAddress("localhost", NetworkConstants.SERVICE_PORT)).addListener(
+				new ChannelFutureListener() {
+					@Override
+					public void operationComplete(ChannelFuture future) {
+						if (!future.isSuccess()) {
+							statistics.failed();
+						}
+					}
+				});
+	}
+
+	/**
+	 * Pulses every bot.
+	 */
+	private void pulse() {
+		for (int id = 0; id < connected; id++) {
+			bots[id].pulse();
+		}
+	}
+
+	/**
+	 * Reads the time the server's pulses have taken since it started from its {@code /metrics} page.
+	 * @return A description of the times.
+	 */
+	private String readServerPulse() {
+		double median = 0, tail = 0, max = 0;
+		long skipped = 0;
+		try {
+			URLConnection connection = new URL("http", "localhost", NetworkConstants.HTTP_PORT, "/metrics")
+					.openConnection();
+			connection.setConnectTimeout(METRICS_TIMEOUT);
+			connection.setReadTimeout(METRICS_TIMEOUT);
+			BufferedReader reader = new BufferedReader(new InputStreamReader(connection.getInputStream()));
+			try {
+				String line;
+				while ((line = reader.readLine()) != null) {
+					String value = line.substring(line.lastIndexOf(' ') + 1);
+					if (line.startsWith("apollo_pulse_seconds{name=\"pulse\",quantile=\"0.5\"}")) {
+						median = Double.parseDouble(value);
+					} else if (line.startsWith("apollo_pulse_seconds{name=\"pulse\",quantile=\"0.99\"}")) {
+						tail = Double.parseDouble(value);
+					} else if (line.startsWith("apollo_pulse_seconds{name=\"pulse\",quantile=\"1.0\"}")) {
+						max = Double.parseDouble(value);
+					} else if (line.startsWith("apollo_skipped_pulses_total ")) {
+						skipped = Long.parseLong(value);
+					}
+				}
+			} finally {
+				reader.close();
+			}
+		} catch (IOException e) {
+			return "server metrics unavailable";
+		} catch (NumberFormatException e) {
+			return "server metrics unavailable";
+		}
+		return String.format("server pulse p50 %.1f ms, p99 %.1f ms, max %.1f ms, %d skipped", median * 1000,
+				tail * 1000, max * 1000, skipped);
+	}
+
+	/**
+	 * Prints a report of the statistics since the last report.
+	 */
+	private void report() {
+		long now = System.nanoTime();
+		long elapsed = TimeUnit.NANOSECONDS.toSeconds(now - startTime);
+		System.out.println("[" + elapsed + " s] " + statistics.report(now - lastReport) + ", " + readServerPulse());
+		lastReport = now;
+	}
+
+	/**
+	 * Starts connecting the bots, and pulsing and reporting.
+	 * @param rate The number of bots which connect per second.
+	 */
+	public void start(int rate) {
+		startTime = lastReport = System.nanoTime();
+		executor.scheduleAtFixedRate(new Runnable() {
+			@Override
+			public void run() {
+				connectNext();
+			}
+		}, 0, TimeUnit.SECONDS.toNanos(1) / rate, TimeUnit.NANOSECONDS);
+		executor.scheduleAtFixedRate(new Runnable() {
+			@Override
+			public void run() {
+				pulse();
+			}
+		}, GameConstants.PULSE_DELAY, GameConstants.PULSE_DELAY, TimeUnit.MILLISECONDS);
+		reporter.scheduleAtFixedRate(new Runnable() {
+			@Override
+			public void run() {
+				report();
+			}
+		}, REPORT_INTERVAL, REPORT_INTERVAL, TimeUnit.SECONDS);
+	}
+
+	/**
+	 * Stops the load generator, and disconnects every bot.
+	 * @throws InterruptedException if the thread is interrupted while waiting for the executors to stop.
+	 */
+	public void stop() throws InterruptedException {
+		executor.shutdown();
+		reporter.shutdown();
+		executor.awaitTermination(1, TimeUnit.MINUTES);
+		reporter.awaitTermination(1, TimeUnit.MINUTES);
+		report();
+		channels.close().awaitUninterruptibly();
+		factory.releaseExternalResources();
+	}
+}
@@ -0,0 +1,115 @@
+package org.apollo.tools.loadgen;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apollo.game.profile.Histogram;
+
+/**
+ * The statistics which the bots of a {@link LoadGenerator} gather. The bots update them from the network threads, and
+ * the load generator reads and resets the latencies and byte counts at the end of each report interval.
+ */
+public final class LoadStatistics {
+
+	/**
+	 * Converts a time in nanoseconds to milliseconds.
+	 * @param nanos The time, in nanoseconds.
+	 * @return The time, in milliseconds.
+	 */
+	private static long toMillis(long nanos) {
+		return TimeUnit.NANOSECONDS.toMillis(nanos);
+	}
+
+	/**
+	 * The number of bytes received since the last report.
+	 */
+	private final AtomicLong bytesIn = new AtomicLong();
+
+	/**
+	 * The number of bytes sent since the last report.
+	 */
+	private final AtomicLong bytesOut = new AtomicLong();
+
+	/**
+	 * The number of failed logins and connections.
+	 */
+	private final AtomicInteger failed = new AtomicInteger();
+
+	/**
+	 * The number of bots which are logged in.
+	 */
+	private final AtomicInteger online = new AtomicInteger();
+
+	/**
+	 * The latencies recorded since the last report, in nanoseconds.
+	 */
+	private Histogram latencies = new Histogram();
+
+	/**
+	 * Records that a bot failed to connect or log in.
+	 */
+	public void failed() {
+		failed.incrementAndGet();
+	}
+
+	/**
+	 * Records that a bot logged in.
+	 */
+	public void loggedIn() {
+		online.incrementAndGet();
+	}
+
+	/**
+	 * Records that a bot which was logged in has been disconnected.
+	 */
+	public void loggedOut() {
+		online.decrementAndGet();
+	}
+
+	/**
+	 * Records that bytes have been received.
+	 * @param bytes The number of bytes.
+	 */
+	public void received(long bytes) {
+		bytesIn.addAndGet(bytes);
+	}
+
+	/**
+	 * Records the time between a bot sending a packet and the server's response.
+	 * @param nanos The latency, in nanoseconds.
+	 */
+	public synchronized void recordLatency(long nanos) {
+		latencies.record(nanos);
+	}
+
+	/**
+	 * Creates a report of the statistics over the interval since the last report, and resets them.
+	 * @param interval The length of the interval, in nanoseconds.
+	 * @return The report.
+	 */
+	public String report(long interval) {
+		Histogram latencies;
+		synchronized (this) {
+			latencies = this.latencies;
+			this.latencies = new Histogram();
+		}
+		double seconds = interval / 1e9;
+		StringBuilder builder = new StringBuilder();
+		builder.append(online.get()).append(" online, ").append(failed.get()).append(" failed, ");
+		builder.append(String.format("out %.1f KB/s, in %.1f KB/s, ", bytesOut.getAndSet(0) / 1024.0 / seconds,
+				bytesIn.getAndSet(0) / 1024.0 / seconds));
+		builder.append("latency p50 ").append(toMillis(latencies.getPercentile(50))).append(" ms, p99 ")
+				.append(toMillis(latencies.getPercentile(99))).append(" ms, max ").append(toMillis(latencies.getMax()))
+				.append(" ms");
+		return builder.toString();
+	}
+
+	/**
+	 * Records that bytes have been sent.
+	 * @param bytes The number of bytes.
+	 */
+	public void sent(long bytes) {
+		bytesOut.addAndGet(bytes);
+	}
+}
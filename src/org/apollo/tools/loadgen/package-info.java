@@ -0,0 +1,5 @@
+/**
+ * Contains a headless load generator, which logs simulated clients in to a local server.
+ */
+package org.apollo.tools.loadgen;
+
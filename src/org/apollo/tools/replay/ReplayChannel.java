@@ -0,0 +1,155 @@
+package org.apollo.tools.replay;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.concurrent.atomic.AtomicLong;
+
+import net.burtleburtle.bob.rand.IsaacRandom;
+
+import org.apollo.net.codec.game.GameEventEncoder;
+import org.apollo.net.codec.game.GamePacketEncoder;
+import org.apollo.net.release.Release;
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.channel.AbstractChannel;
+import org.jboss.netty.channel.AbstractChannelSink;
+import org.jboss.netty.channel.ChannelConfig;
+import org.jboss.netty.channel.ChannelEvent;
+import org.jboss.netty.channel.ChannelPipeline;
+import org.jboss.netty.channel.ChannelState;
+import org.jboss.netty.channel.ChannelStateEvent;
+import org.jboss.netty.channel.Channels;
+import org.jboss.netty.channel.DefaultChannelConfig;
+import org.jboss.netty.channel.MessageEvent;
+
+/**
+ * A channel without a connection, which gives a replayed session the same encoders as a real game session and counts
+ * the bytes they produce instead of writing them anywhere.
+ */
+final class ReplayChannel extends AbstractChannel {
+
+	/**
+	 * The sink which counts the bytes written to the channels.
+	 */
+	private static final class CountingSink extends AbstractChannelSink {
+
+		/**
+		 * The number of bytes written.
+		 */
+		private final AtomicLong bytes;
+
+		/**
+		 * Creates the counting sink.
+		 * @param bytes The number of bytes written, which is added to.
+		 */
+		public CountingSink(AtomicLong bytes) {
+			this.bytes = bytes;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see org.jboss.netty.channel.ChannelSink#eventSunk(org.jboss.netty.channel.ChannelPipeline,
+		 * org.jboss.netty.channel.ChannelEvent)
+		 */
+		@Override
+		public void eventSunk(ChannelPipeline pipeline, ChannelEvent e) {
+			if (e instanceof MessageEvent) {
+				Object message = ((MessageEvent) e).getMessage();
+				if (message instanceof ChannelBuffer) {
+					bytes.addAndGet(((ChannelBuffer) message).readableBytes());
+				}
+			} else if (e instanceof ChannelStateEvent) {
+				ChannelStateEvent event = (ChannelStateEvent) e;
+				if (event.getState() == ChannelState.OPEN && Boolean.FALSE.equals(event.getValue())) {
+					((ReplayChannel) e.getChannel()).setClosed();
+				}
+			}
+			e.getFuture().setSuccess();
+		}
+	}
+
+	/**
+	 * The address of both ends of every replay channel.
+	 */
+	private static final SocketAddress ADDRESS = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+
+	/**
+	 * Creates a pipeline with the encoders of a game session.
+	 * @param release The release.
+	 * @return The pipeline.
+	 */
+	private static ChannelPipeline createPipeline(Release release) {
+		ChannelPipeline pipeline = Channels.pipeline();
+		pipeline.addLast("gameEncoder", new GamePacketEncoder(new IsaacRandom(new int[4])));
+		pipeline.addLast("eventEncoder", new GameEventEncoder(release));
+		return pipeline;
+	}
+
+	/**
+	 * The configuration.
+	 */
+	private final ChannelConfig config = new DefaultChannelConfig();
+
+	/**
+	 * Creates the replay channel.
+	 * @param release The release whose encoders are used.
+	 * @param bytes The number of bytes written, which is added to.
+	 */
+	public ReplayChannel(Release release, AtomicLong bytes) {
+		super(null, null, createPipeline(release), new CountingSink(bytes));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.jboss.netty.channel.Channel#getConfig()
+	 */
+	@Override
+	public ChannelConfig getConfig() {
+		return config;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.jboss.netty.channel.Channel#getLocalAddress()
+	 */
+	@Override
+	public SocketAddress getLocalAddress() {
+		return ADDRESS;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.jboss.netty.channel.Channel#getRemoteAddress()
+	 */
+	@Override
+	public SocketAddress getRemoteAddress() {
+		return ADDRESS;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.jboss.netty.channel.Channel#isBound()
+	 */
+	@Override
+	public boolean isBound() {
+		return isOpen();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.jboss.netty.channel.Channel#isConnected()
+	 */
+	@Override
+	public boolean isConnected() {
+		return isOpen();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.jboss.netty.channel.AbstractChannel#setClosed()
+	 */
+	@Override
+	protected boolean setClosed() {
+		return super.setClosed();
+	}
+}
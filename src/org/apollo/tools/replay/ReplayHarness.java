@@ -0,0 +1,418 @@
+package org.apollo.tools.replay;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apollo.ServerContext;
+import org.apollo.Service;
+import org.apollo.ServiceManager;
+import org.apollo.fs.IndexedFileSystem;
+import org.apollo.game.GameService;
+import org.apollo.game.PulseStage;
+import org.apollo.game.event.Event;
+import org.apollo.game.model.Player;
+import org.apollo.game.model.Position;
+import org.apollo.game.model.World;
+import org.apollo.game.model.World.RegistrationStatus;
+import org.apollo.game.profile.Histogram;
+import org.apollo.game.profile.TickProfiler;
+import org.apollo.game.sync.ClientSynchronizer;
+import org.apollo.net.capture.CaptureConstants;
+import org.apollo.net.capture.CaptureReader;
+import org.apollo.net.codec.game.GamePacket;
+import org.apollo.net.codec.game.GamePacketReader;
+import org.apollo.net.release.EventDecoder;
+import org.apollo.net.release.Release;
+import org.apollo.net.release.r317.Release317;
+import org.apollo.net.release.r377.Release377;
+import org.apollo.net.session.GameSession;
+import org.apollo.security.PlayerCredentials;
+import org.apollo.util.plugin.PluginContext;
+import org.apollo.util.plugin.PluginManager;
+import org.apollo.util.xml.XmlNode;
+import org.apollo.util.xml.XmlParser;
+import org.jboss.netty.buffer.ChannelBuffers;
+
+/**
+ * Replays a capture log written by a {@link org.apollo.net.capture.PacketCapture} through a headless world, with no
+ * network: each pulse, the captured players log in and out and their captured packets are queued, and then the stages
+ * of the game pulse are run with the chosen {@link ClientSynchronizer}, whose events are encoded as they would be for
+ * a real session. The wall time, CPU time and memory allocated by each pulse are written to a CSV file next to the log,
+ * and summarized when the replay ends.
+ * <p>
+ * The stages are those of a {@link GameService}, in the order of the services.xml file, so they include the stages of
+ * the other services and of the plugins, which are loaded as the server loads them. Only services which are pulse
+ * stages are started, and the game loop is not. The log can be replayed several times to warm up the JIT compiler, in
+ * which case only the last pass is reported.
+ */
+public final class ReplayHarness {
+
+	/**
+	 * The logger for this class.
+	 */
+	private static final Logger logger = Logger.getLogger(ReplayHarness.class.getName());
+
+	/**
+	 * Creates the release of a release number.
+	 * @param release The release number.
+	 * @return The release.
+	 * @throws IllegalArgumentException if the release is not supported.
+	 */
+	private static Release createRelease(int release) {
+		switch (release) {
+			case 317:
+				return new Release317();
+			case 377:
+				return new Release377();
+			default:
+				throw new IllegalArgumentException("Unsupported release: " + release);
+		}
+	}
+
+	/**
+	 * Describes a histogram of times.
+	 * @param histogram The histogram, in nanoseconds.
+	 * @return The description.
+	 */
+	private static String describeTimes(Histogram histogram) {
+		return String.format("p50 %.2f ms, p99 %.2f ms, max %.2f ms", histogram.getPercentile(50) / 1e6,
+				histogram.getPercentile(99) / 1e6, histogram.getMax() / 1e6);
+	}
+
+	/**
+	 * Loads the definitions and landscapes of the world from the cache of a release, and then the plugins, if there is
+	 * a cache.
+	 * @param context The server context.
+	 * @throws Exception if the cache or the plugins could not be read.
+	 */
+	private static void initWorld(ServerContext context) throws Exception {
+		int release = context.getRelease().getReleaseNumber();
+		File base = new File("./data/fs/" + release + "/");
+		if (!base.isDirectory()) {
+			logger.warning("There is no cache for release " + release + ", replaying without definitions or plugins.");
+			return;
+		}
+		PluginManager plugins = new PluginManager(new PluginContext(context));
+		IndexedFileSystem fs = new IndexedFileSystem(base, true);
+		try {
+			World.getWorld().init(release, fs, plugins, context);
+		} finally {
+			fs.close();
+		}
+		plugins.start();
+	}
+
+	/**
+	 * The entry point of the application.
+	 * @param args The command line arguments.
+	 * @throws Exception if an error occurs.
+	 */
+	public static void main(String[] args) throws Exception {
+		if (args.length < 1 || args.length > 3) {
+			System.err.println("Usage:");
+			System.err.println("  java -cp ... org.apollo.tools.replay.ReplayHarness [capture] [synchronizer class] "
+					+ "[passes]");
+			return;
+		}
+		File file = new File(args[0]);
+		CaptureReader header = new CaptureReader(file);
+		int release = header.getRelease();
+		header.close();
+
+		String synchronizer = args.length > 1 ? args[1] : readActiveSynchronizer();
+		int passes = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+
+		ServiceManager services = new ServiceManager();
+		ServerContext context = new ServerContext(createRelease(release), services);
+		GameService game = services.getService(GameService.class);
+		game.setSynchronizer((ClientSynchronizer) Class.forName(synchronizer).getDeclaredConstructor().newInstance());
+		for (Service service : services.getServices()) {
+			if (service instanceof PulseStage) {
+				service.start();
+			}
+		}
+		game.initPipeline();
+		initWorld(context);
+		ReplayHarness harness = new ReplayHarness(context);
+
+		File csv = new File(file.getPath() + ".csv");
+		for (int pass = 1; pass <= passes; pass++) {
+			harness.replay(file, pass == passes ? csv : null);
+		}
+		System.out.println("Replayed " + harness.pulses + " pulses of " + file + " with " + synchronizer + " (pass "
+				+ passes + " of " + passes + "), per pulse:");
+		System.out.println("  wall time: " + describeTimes(harness.wallTimes));
+		System.out.println("  CPU time: " + describeTimes(harness.cpuTimes));
+		System.out.println(String.format("  allocated: p50 %d KB, p99 %d KB, max %d KB", harness.allocations
+				.getPercentile(50) / 1024, harness.allocations.getPercentile(99) / 1024,
+				harness.allocations.getMax() / 1024));
+		for (int i = 0; i < harness.stageNames.length; i++) {
+			System.out.println("  " + harness.stageNames[i] + ": "
+					+ describeTimes(harness.stageTimes[i]));
+		}
+		System.out.println("Per pulse results were written to " + csv + ".");
+		System.exit(0);
+	}
+
+	/**
+	 * Reads the class name of the active synchronizer from the synchronizer.xml file.
+	 * @return The class name.
+	 * @throws Exception if the file could not be read.
+	 */
+	private static String readActiveSynchronizer() throws Exception {
+		InputStream is = new FileInputStream("data/synchronizer.xml");
+		try {
+			XmlNode activeNode = new XmlParser().parse(is).getChild("active");
+			if (activeNode == null || !activeNode.hasValue()) {
+				throw new Exception("No active node/value.");
+			}
+			return activeNode.getValue();
+		} finally {
+			is.close();
+		}
+	}
+
+	/**
+	 * The server context.
+	 */
+	private final ServerContext context;
+
+	/**
+	 * The release.
+	 */
+	private final Release release;
+
+	/**
+	 * The reader which is reused for every packet.
+	 */
+	private final GamePacketReader reader = new GamePacketReader();
+
+	/**
+	 * The replayed players, by the index they had when they were captured.
+	 */
+	private final Map<Integer, Player> players = new HashMap<Integer, Player>();
+
+	/**
+	 * The number of bytes the sessions of the replayed players have written.
+	 */
+	private final AtomicLong bytes = new AtomicLong();
+
+	/**
+	 * The profiler of the game service.
+	 */
+	private final TickProfiler profiler;
+
+	/**
+	 * The names of the stages of the pulse.
+	 */
+	private final String[] stageNames;
+
+	/**
+	 * The stages of the pulse, in the order the game service runs them.
+	 */
+	private final PulseStage[] stages;
+
+	/**
+	 * The thread management bean, which measures allocation.
+	 */
+	private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+	/**
+	 * The histograms of the wall time and CPU time of each pulse of the current pass, in nanoseconds.
+	 */
+	private Histogram wallTimes, cpuTimes;
+
+	/**
+	 * The histogram of the bytes allocated by each pulse of the current pass.
+	 */
+	private Histogram allocations;
+
+	/**
+	 * The histograms of the time each stage of each pulse of the current pass took, in nanoseconds.
+	 */
+	private Histogram[] stageTimes;
+
+	/**
+	 * The number of pulses of the current pass.
+	 */
+	private int pulses;
+
+	/**
+	 * Creates the replay harness, which runs the stages the game service of the context has registered.
+	 * @param context The server context.
+	 */
+	public ReplayHarness(ServerContext context) {
+		this.context = context;
+		this.release = context.getRelease();
+		GameService game = context.getService(GameService.class);
+		this.profiler = game.getProfiler();
+		Map<String, PulseStage> pipeline = game.getPipeline();
+		this.stageNames = pipeline.keySet().toArray(new String[pipeline.size()]);
+		this.stages = pipeline.values().toArray(new PulseStage[pipeline.size()]);
+	}
+
+	/**
+	 * Decodes a captured packet, and queues its event in the session of its player.
+	 * @param index The captured index of the player.
+	 * @param opcode The opcode.
+	 * @param payload The payload.
+	 * @throws Exception if the session throws an exception.
+	 */
+	private void deliver(int index, int opcode, byte[] payload) throws Exception {
+		Player player = players.get(index);
+		EventDecoder<?> decoder = release.getEventDecoder(opcode);
+		if (player == null || decoder == null) {
+			return;
+		}
+		GamePacket packet = new GamePacket(opcode, release.getIncomingPacketMetaData(opcode).getType(),
+				ChannelBuffers.wrappedBuffer(payload));
+		Event event = decoder.decode(packet, reader.wrap(packet));
+		if (event != null) {
+			player.getSession().messageReceived(event);
+		}
+	}
+
+	/**
+	 * Gets the number of bytes which every live thread has allocated.
+	 * @return The number of bytes, or 0 if the JVM cannot measure it.
+	 */
+	private long getAllocatedBytes() {
+		if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+			return 0;
+		}
+		long total = 0;
+		for (long allocated : ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(threads
+				.getAllThreadIds())) {
+			total += Math.max(0, allocated);
+		}
+		return total;
+	}
+
+	/**
+	 * Gets the CPU time of the process, which includes the time of any threads the synchronizer uses.
+	 * @return The CPU time, in nanoseconds, or 0 if the JVM cannot measure it.
+	 */
+	private long getCpuTime() {
+		java.lang.management.OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+		if (os instanceof com.sun.management.OperatingSystemMXBean) {
+			return ((com.sun.management.OperatingSystemMXBean) os).getProcessCpuTime();
+		}
+		return 0;
+	}
+
+	/**
+	 * Logs a captured player in.
+	 * @param index The captured index of the player.
+	 * @param name The name of the player.
+	 * @param position The position of the player.
+	 */
+	private void login(int index, String name, Position position) {
+		Player player = new Player(new PlayerCredentials(name, "", 0, 0), position);
+		player.setSession(new GameSession(new ReplayChannel(release, bytes), context, player), false);
+		if (World.getWorld().register(player) == RegistrationStatus.OK) {
+			players.put(index, player);
+		}
+	}
+
+	/**
+	 * Logs a captured player out.
+	 * @param index The captured index of the player.
+	 */
+	private void logout(int index) {
+		Player player = players.remove(index);
+		if (player != null) {
+			World.getWorld().getMessaging().deregister(player);
+			World.getWorld().unregister(player);
+		}
+	}
+
+	/**
+	 * Runs one pulse, and records the wall time, CPU time and memory it took.
+	 * @param csv The writer of the per pulse results, or {@code null} if they are not written.
+	 */
+	private void pulse(PrintWriter csv) {
+		long cpuStart = getCpuTime(), allocatedStart = getAllocatedBytes(), bytesStart = bytes.get();
+		long start = System.nanoTime(), stageStart = start;
+		for (int i = 0; i < stages.length; i++) {
+			try {
+				stages[i].pulse();
+			} catch (RuntimeException e) {
+				logger.log(Level.SEVERE, "Exception during the " + stageNames[i] + " stage of the pulse.", e);
+			}
+			long now = System.nanoTime();
+			stageTimes[i].record(now - stageStart);
+			stageStart = now;
+		}
+		long wallTime = stageStart - start;
+		long cpuTime = getCpuTime() - cpuStart;
+		long allocated = getAllocatedBytes() - allocatedStart;
+		profiler.endPulse(wallTime, Long.MAX_VALUE);
+
+		wallTimes.record(wallTime);
+		cpuTimes.record(cpuTime);
+		allocations.record(allocated);
+		if (csv != null) {
+			csv.println(pulses + "," + players.size() + "," + wallTime + "," + cpuTime + "," + allocated + ","
+					+ (bytes.get() - bytesStart));
+		}
+		pulses++;
+	}
+
+	/**
+	 * Replays a capture log once, and then logs out every player who is still logged in.
+	 * @param file The capture log.
+	 * @param csvFile The file to write the per pulse results to, or {@code null} if they are not written.
+	 * @throws Exception if the log could not be read, or the replay fails.
+	 */
+	public void replay(File file, File csvFile) throws Exception {
+		wallTimes = new Histogram();
+		cpuTimes = new Histogram();
+		allocations = new Histogram();
+		stageTimes = new Histogram[stages.length];
+		for (int i = 0; i < stageTimes.length; i++) {
+			stageTimes[i] = new Histogram();
+		}
+		pulses = 0;
+		PrintWriter csv = csvFile == null ? null : new PrintWriter(csvFile);
+		CaptureReader reader = new CaptureReader(file);
+		try {
+			if (csv != null) {
+				csv.println("pulse,players,wall_nanos,cpu_nanos,allocated_bytes,outbound_bytes");
+			}
+			while (reader.next()) {
+				switch (reader.getType()) {
+					case CaptureConstants.RECORD_LOGIN:
+						login(reader.getIndex(), reader.getName(),
+								new Position(reader.getX(), reader.getY(), reader.getHeight()));
+						break;
+					case CaptureConstants.RECORD_LOGOUT:
+						logout(reader.getIndex());
+						break;
+					case CaptureConstants.RECORD_PACKET:
+						deliver(reader.getIndex(), reader.getOpcode(), reader.getPayload());
+						break;
+					case CaptureConstants.RECORD_PULSE:
+						pulse(csv);
+						break;
+				}
+			}
+		} finally {
+			reader.close();
+			if (csv != null) {
+				csv.close();
+			}
+		}
+		for (int index : players.keySet().toArray(new Integer[players.size()])) {
+			logout(index);
+		}
+	}
+}
@@ -0,0 +1,5 @@
+/**
+ * Contains a harness which replays captured traffic through a headless world.
+ */
+package org.apollo.tools.replay;
+
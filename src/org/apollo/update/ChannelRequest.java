@@ -19,6 +19,11 @@ public final class ChannelRequest<T> implements Comparable<ChannelRequest<T>> {
 	 */
 	private final T request;
 
+	/**
+	 * The time at which the request was created, in nanoseconds.
+	 */
+	private final long time = System.nanoTime();
+
 	/**
 	 * Creates a new channel request.
 	 * @param channel The channel.
@@ -45,6 +50,14 @@ public final class ChannelRequest<T> implements Comparable<ChannelRequest<T>> {
 		return request;
 	}
 
+	/**
+	 * Gets the time at which the request was created.
+	 * @return The time, in nanoseconds (see {@link System#nanoTime()}).
+	 */
+	public long getTime() {
+		return time;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see java.lang.Comparable#compareTo(java.lang.Object)
@@ -2,24 +2,39 @@ package org.apollo.update;
 
 import java.io.File;
 import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
 import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
+import java.text.DateFormat;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
 
 import org.apollo.backend.FrontendService;
 import org.apollo.backend.codec.session.FrontendSession;
+import org.apollo.fs.CacheManifest;
 import org.apollo.fs.IndexedFileSystem;
+import org.apollo.game.GameService;
 import org.apollo.game.model.Config;
 import org.apollo.game.model.World;
+import org.apollo.update.resource.CachedResource;
 import org.apollo.update.resource.CombinedResourceProvider;
 import org.apollo.update.resource.HypertextResourceProvider;
+import org.apollo.update.resource.ResourceCache;
 import org.apollo.update.resource.ResourceProvider;
 import org.apollo.update.resource.VirtualResourceProvider;
+import org.apollo.util.SystemUtil;
 import org.jboss.netty.buffer.ChannelBuffer;
 import org.jboss.netty.buffer.ChannelBuffers;
 import org.jboss.netty.channel.Channel;
+import org.jboss.netty.channel.ChannelFuture;
 import org.jboss.netty.channel.ChannelFutureListener;
 import org.jboss.netty.handler.codec.http.DefaultHttpResponse;
+import org.jboss.netty.handler.codec.http.HttpHeaders;
+import org.jboss.netty.handler.codec.http.HttpHeaders.Names;
 import org.jboss.netty.handler.codec.http.HttpRequest;
 import org.jboss.netty.handler.codec.http.HttpResponse;
 import org.jboss.netty.handler.codec.http.HttpResponseStatus;
@@ -38,21 +53,36 @@ public final class HttpRequestWorker extends RequestWorker<HttpRequest, Resource
 	/**
 	 * The directory with web files.
 	 */
-	private static final File WWW_DIRECTORY = new File("./data/www/");
+	public static final File WWW_DIRECTORY = new File("./data/www/");
 
 	/**
 	 * The default character set.
 	 */
 	public static final Charset CHARACTER_SET = Charset.forName("ISO-8859-1");
 
+	/**
+	 * The resource cache.
+	 */
+	private final ResourceCache cache;
+
+	/**
+	 * The format of dates in headers.
+	 */
+	private final DateFormat dateFormat = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss zzz", Locale.US);
+
 	/**
 	 * Creates the HTTP request worker.
 	 * @param dispatcher The dispatcher.
 	 * @param fs The file system.
+	 * @param manifest The manifest of the file system.
+	 * @param cache The resource cache, shared between workers.
 	 */
-	public HttpRequestWorker(UpdateDispatcher dispatcher, IndexedFileSystem fs) {
-		super(dispatcher, new CombinedResourceProvider(new VirtualResourceProvider(fs), new HypertextResourceProvider(
-				WWW_DIRECTORY)));
+	public HttpRequestWorker(UpdateDispatcher dispatcher, IndexedFileSystem fs, CacheManifest manifest,
+			ResourceCache cache) {
+		super(dispatcher, new CombinedResourceProvider(new VirtualResourceProvider(fs, manifest),
+				new HypertextResourceProvider(WWW_DIRECTORY)));
+		this.cache = cache;
+		dateFormat.setTimeZone(TimeZone.getTimeZone("GMT"));
 	}
 
 	/**
@@ -76,6 +106,18 @@ public final class HttpRequestWorker extends RequestWorker<HttpRequest, Resource
 		return ChannelBuffers.copiedBuffer(bldr.toString(), Charset.defaultCharset());
 	}
 
+	/**
+	 * Creates the metrics page, which lists the latency histograms of the tick profiler and the latest sample of the
+	 * system information in the Prometheus text format.
+	 * @return The metrics page as a buffer.
+	 */
+	private ChannelBuffer createMetricsPage() {
+		StringBuilder bldr = new StringBuilder();
+		World.getWorld().getContext().getService(GameService.class).getProfiler().writeMetrics(bldr);
+		SystemUtil.getSample().writeMetrics(bldr);
+		return ChannelBuffers.copiedBuffer(bldr.toString(), CHARACTER_SET);
+	}
+
 	/**
 	 * Gets the MIME type of a file by its name.
 	 * @param name The file name.
@@ -100,6 +142,45 @@ public final class HttpRequestWorker extends RequestWorker<HttpRequest, Resource
 		return "application/octect-stream";
 	}
 
+	/**
+	 * Checks if a channel is connected from this machine. The metrics page is only served to such channels, as it
+	 * describes the load on the server to anyone who can reach the public HTTP port.
+	 * @param channel The channel.
+	 * @return {@code true} if the remote address is a loopback address, {@code false} if not.
+	 */
+	private boolean isLocal(Channel channel) {
+		SocketAddress address = channel.getRemoteAddress();
+		return address instanceof InetSocketAddress && ((InetSocketAddress) address).getAddress().isLoopbackAddress();
+	}
+
+	/**
+	 * Checks if the client's copy of a resource is up to date, according to the conditional headers of its request.
+	 * @param request The request.
+	 * @param resource The resource.
+	 * @return {@code true} if the client's copy is up to date, {@code false} if the resource should be sent.
+	 */
+	private boolean isNotModified(HttpRequest request, CachedResource resource) {
+		String tags = request.getHeader(Names.IF_NONE_MATCH);
+		if (tags != null) {
+			for (String tag : tags.split(",")) {
+				tag = tag.trim();
+				if (tag.equals("*") || tag.equals(resource.getTag())) {
+					return true;
+				}
+			}
+			return false;
+		}
+		String since = request.getHeader(Names.IF_MODIFIED_SINCE);
+		if (since != null) {
+			try {
+				return dateFormat.parse(since).getTime() >= resource.getLastModified();
+			} catch (ParseException e) {
+				return false;
+			}
+		}
+		return false;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see org.apollo.update.RequestWorker#nextRequest(org.apollo.update.UpdateDispatcher)
@@ -116,37 +197,74 @@ public final class HttpRequestWorker extends RequestWorker<HttpRequest, Resource
 	@Override
 	protected void service(ResourceProvider provider, Channel channel, HttpRequest request) throws IOException {
 		String path = request.getUri();
-		ByteBuffer buf = provider.get(path);
-		ChannelBuffer wrappedBuf;
-		HttpResponseStatus status = HttpResponseStatus.OK;
 		if (path.endsWith("/")) {
 			path += "index.html";
 			request.setUri(path);
 		}
-		String mimeType = getMimeType(request.getUri());
 		if (path.startsWith("/api/call") || path.startsWith("/api/stream")) {
 			FrontendSession session = new FrontendSession(channel, path.startsWith("/api/stream"));
 			World.getWorld().getContext().getService(FrontendService.class).addSession(session);
 			session.decode(path);
 			return;
-		} else if (buf == null) {
-			status = HttpResponseStatus.NOT_FOUND;
-			wrappedBuf = createErrorPage(status, "File not found.");
-			mimeType = "text/html";
+		}
+		int query = path.indexOf('?');
+		if (query != -1) {
+			path = path.substring(0, query);
+			if (path.endsWith("/")) {
+				path += "index.html";
+			}
+		}
+		boolean metrics = path.equals("/metrics");
+		CachedResource resource = metrics ? null : cache.get(path, provider);
+		HttpResponse resp;
+		if (metrics && !isLocal(channel)) {
+			HttpResponseStatus status = HttpResponseStatus.FORBIDDEN;
+			resp = new DefaultHttpResponse(request.getProtocolVersion(), status);
+			resp.setHeader(Names.CONTENT_TYPE, "text/html; charset=" + CHARACTER_SET.name());
+			resp.setContent(createErrorPage(status, "The metrics are only served to this machine."));
+		} else if (metrics) {
+			resp = new DefaultHttpResponse(request.getProtocolVersion(), HttpResponseStatus.OK);
+			resp.setHeader(Names.CONTENT_TYPE, "text/plain; version=0.0.4; charset=" + CHARACTER_SET.name());
+			resp.setContent(createMetricsPage());
+		} else if (resource == null) {
+			HttpResponseStatus status = HttpResponseStatus.NOT_FOUND;
+			resp = new DefaultHttpResponse(request.getProtocolVersion(), status);
+			resp.setHeader(Names.CONTENT_TYPE, "text/html; charset=" + CHARACTER_SET.name());
+			resp.setContent(createErrorPage(status, "File not found."));
+		} else if (isNotModified(request, resource)) {
+			resp = new DefaultHttpResponse(request.getProtocolVersion(), HttpResponseStatus.NOT_MODIFIED);
+			resp.setHeader(Names.ETAG, resource.getTag());
 		} else {
-			wrappedBuf = ChannelBuffers.wrappedBuffer(buf);
+			resp = new DefaultHttpResponse(request.getProtocolVersion(), HttpResponseStatus.OK);
+			String type = getMimeType(path);
+			if (type.startsWith("text/")) {
+				type += "; charset=" + CHARACTER_SET.name();
+			}
+			resp.setHeader(Names.CONTENT_TYPE, type);
+			resp.setHeader(Names.ETAG, resource.getTag());
+			resp.setHeader(Names.LAST_MODIFIED, dateFormat.format(new Date(resource.getLastModified())));
+			ByteBuffer content = resource.getData();
+			ByteBuffer compressed = resource.getCompressed();
+			if (compressed != null) {
+				resp.setHeader(Names.VARY, Names.ACCEPT_ENCODING);
+				String encodings = request.getHeader(Names.ACCEPT_ENCODING);
+				if (encodings != null && encodings.contains("gzip")) {
+					resp.setHeader(Names.CONTENT_ENCODING, "gzip");
+					content = compressed;
+				}
+			}
+			resp.setContent(ChannelBuffers.wrappedBuffer(content));
 		}
-		HttpResponse resp = new DefaultHttpResponse(request.getProtocolVersion(), status);
-		resp.setHeader("Date", new Date());
-		resp.setHeader("Server", SERVER_IDENTIFIER);
-		resp.setHeader("Content-type", mimeType + ", charset=" + CHARACTER_SET.name());
-		resp.setHeader("Cache-control", "no-cache");
-		resp.setHeader("Pragma", "no-cache");
-		resp.setHeader("Expires", new Date(0));
-		resp.setHeader("Connection", "close");
-		resp.setHeader("Content-length", wrappedBuf.readableBytes());
+		boolean keepAlive = HttpHeaders.isKeepAlive(request);
+		resp.setHeader(Names.DATE, dateFormat.format(new Date()));
+		resp.setHeader(Names.SERVER, SERVER_IDENTIFIER);
+		resp.setHeader(Names.CACHE_CONTROL, "no-cache");
+		resp.setHeader(Names.CONNECTION, keepAlive ? "keep-alive" : "close");
+		resp.setHeader(Names.CONTENT_LENGTH, resp.getContent().readableBytes());
 		resp.setChunked(false);
-		resp.setContent(wrappedBuf);
-		channel.write(resp).addListener(ChannelFutureListener.CLOSE);
+		ChannelFuture future = channel.write(resp);
+		if (!keepAlive) {
+			future.addListener(ChannelFutureListener.CLOSE);
+		}
 	}
 }
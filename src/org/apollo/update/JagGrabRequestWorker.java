@@ -3,6 +3,7 @@ package org.apollo.update;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 
+import org.apollo.fs.CacheManifest;
 import org.apollo.fs.IndexedFileSystem;
 import org.apollo.net.codec.jaggrab.JagGrabRequest;
 import org.apollo.net.codec.jaggrab.JagGrabResponse;
@@ -23,9 +24,10 @@ public final class JagGrabRequestWorker extends RequestWorker<JagGrabRequest, Re
 	 * Creates the JAGGRAB request worker.
 	 * @param dispatcher The dispatcher.
 	 * @param fs The file system.
+	 * @param manifest The manifest of the file system.
 	 */
-	public JagGrabRequestWorker(UpdateDispatcher dispatcher, IndexedFileSystem fs) {
-		super(dispatcher, new VirtualResourceProvider(fs));
+	public JagGrabRequestWorker(UpdateDispatcher dispatcher, IndexedFileSystem fs, CacheManifest manifest) {
+		super(dispatcher, new VirtualResourceProvider(fs, manifest));
 	}
 
 	/*
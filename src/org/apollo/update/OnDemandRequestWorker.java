@@ -3,12 +3,8 @@ package org.apollo.update;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 
-import org.apollo.fs.FileDescriptor;
 import org.apollo.fs.IndexedFileSystem;
 import org.apollo.net.codec.update.OnDemandRequest;
-import org.apollo.net.codec.update.OnDemandResponse;
-import org.jboss.netty.buffer.ChannelBuffer;
-import org.jboss.netty.buffer.ChannelBuffers;
 import org.jboss.netty.channel.Channel;
 
 /**
@@ -18,9 +14,14 @@ import org.jboss.netty.channel.Channel;
 public final class OnDemandRequestWorker extends RequestWorker<OnDemandRequest, IndexedFileSystem> {
 
 	/**
-	 * The maximum length of a chunk, in bytes.
+	 * The request scheduler.
 	 */
-	private static final int CHUNK_LENGTH = 500;
+	private final OnDemandScheduler scheduler;
+
+	/**
+	 * The request being serviced.
+	 */
+	private ChannelRequest<OnDemandRequest> request;
 
 	/**
 	 * Creates the 'on-demand' request worker.
@@ -29,6 +30,7 @@ public final class OnDemandRequestWorker extends RequestWorker<OnDemandRequest,
 	 */
 	public OnDemandRequestWorker(UpdateDispatcher dispatcher, IndexedFileSystem fs) {
 		super(dispatcher, fs);
+		this.scheduler = dispatcher.getOnDemandScheduler();
 	}
 
 	/*
@@ -37,7 +39,8 @@ public final class OnDemandRequestWorker extends RequestWorker<OnDemandRequest,
 	 */
 	@Override
 	protected ChannelRequest<OnDemandRequest> nextRequest(UpdateDispatcher dispatcher) throws InterruptedException {
-		return dispatcher.nextOnDemandRequest();
+		request = dispatcher.nextOnDemandRequest();
+		return request;
 	}
 
 	/*
@@ -46,19 +49,8 @@ public final class OnDemandRequestWorker extends RequestWorker<OnDemandRequest,
 	 */
 	@Override
 	protected void service(IndexedFileSystem fs, Channel channel, OnDemandRequest request) throws IOException {
-		FileDescriptor desc = request.getFileDescriptor();
-		ByteBuffer buf = fs.getFile(desc);
-		int length = buf.remaining();
-		for (int chunk = 0; buf.remaining() > 0; chunk++) {
-			int chunkSize = buf.remaining();
-			if (chunkSize > CHUNK_LENGTH) {
-				chunkSize = CHUNK_LENGTH;
-			}
-			byte[] tmp = new byte[chunkSize];
-			buf.get(tmp, 0, tmp.length);
-			ChannelBuffer chunkData = ChannelBuffers.wrappedBuffer(tmp, 0, chunkSize);
-			OnDemandResponse response = new OnDemandResponse(desc, length, chunk, chunkData);
-			channel.write(response);
-		}
+		ByteBuffer file = fs.getFile(request.getFileDescriptor());
+		scheduler.record(this.request, file.remaining());
+		scheduler.stream(this.request, file);
 	}
 }
@@ -0,0 +1,395 @@
+package org.apollo.update;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+
+import org.apollo.net.codec.update.OnDemandRequest;
+import org.apollo.net.codec.update.OnDemandRequest.Priority;
+import org.jboss.netty.channel.Channel;
+import org.jboss.netty.channel.ChannelFuture;
+import org.jboss.netty.channel.ChannelFutureListener;
+
+/**
+ * Schedules 'on-demand' requests fairly between channels.
+ * <p>
+ * Every channel has its own queue of requests for each {@link Priority}. Workers are handed requests from the channels
+ * in round-robin order, taking the most urgent request of each channel in turn, so a client which requests thousands
+ * of files cannot starve the others. A channel whose files are still being written cannot have more than
+ * {@link #MAXIMUM_IN_FLIGHT} requests in flight, and the rate at which files are written by all workers together can
+ * be capped at a number of bytes per second.
+ * <p>
+ * Files are not written in one go: their chunks are streamed to the channel only while it is writable, and the rest
+ * is written as the channel drains (see {@link #resume(Channel)}). The memory used by a slow client is therefore
+ * bounded by its in-flight files and the channel's write buffer, however slowly it reads.
+ */
+public final class OnDemandScheduler {
+
+	/**
+	 * The requests of a single channel.
+	 */
+	private final class ChannelQueue implements ChannelFutureListener {
+
+		/**
+		 * The channel.
+		 */
+		private final Channel channel;
+
+		/**
+		 * The queues of requests, indexed by priority.
+		 */
+		private final List<Queue<ChannelRequest<OnDemandRequest>>> queues;
+
+		/**
+		 * The number of queued requests.
+		 */
+		private int size;
+
+		/**
+		 * The number of requests which are in flight.
+		 */
+		private int inFlight;
+
+		/**
+		 * Flag indicating if this queue is in the ready queue.
+		 */
+		private boolean ready;
+
+		/**
+		 * The files which are being streamed to the channel, in the order they are written.
+		 */
+		private final Queue<OnDemandStream> streams = new ArrayDeque<OnDemandStream>();
+
+		/**
+		 * Creates the channel queue.
+		 * @param channel The channel.
+		 */
+		public ChannelQueue(Channel channel) {
+			this.channel = channel;
+			this.queues = new ArrayList<Queue<ChannelRequest<OnDemandRequest>>>(PRIORITIES.length);
+			for (int i = 0; i < PRIORITIES.length; i++) {
+				queues.add(new ArrayDeque<ChannelRequest<OnDemandRequest>>());
+			}
+		}
+
+		/**
+		 * Checks if a request can be taken from this queue.
+		 * @return {@code true} if so, {@code false} if not.
+		 */
+		public boolean isEligible() {
+			return size > 0 && inFlight < MAXIMUM_IN_FLIGHT;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see org.jboss.netty.channel.ChannelFutureListener#operationComplete(org.jboss.netty.channel.ChannelFuture)
+		 */
+		@Override
+		public void operationComplete(ChannelFuture future) {
+			remove(this);
+		}
+
+		/**
+		 * Takes the most urgent request from this queue.
+		 * @return The request.
+		 */
+		public ChannelRequest<OnDemandRequest> poll() {
+			for (Queue<ChannelRequest<OnDemandRequest>> queue : queues) {
+				ChannelRequest<OnDemandRequest> request = queue.poll();
+				if (request != null) {
+					size--;
+					return request;
+				}
+			}
+			throw new IllegalStateException("Queue is empty");
+		}
+	}
+
+	/**
+	 * The maximum number of queued requests per channel before the channel is closed.
+	 */
+	private static final int MAXIMUM_QUEUE_SIZE = 1024;
+
+	/**
+	 * The maximum number of requests per channel whose files are being written at once.
+	 */
+	private static final int MAXIMUM_IN_FLIGHT = 4;
+
+	/**
+	 * The priorities, indexed by their integer value.
+	 */
+	private static final Priority[] PRIORITIES = Priority.values();
+
+	/**
+	 * The request queues of the channels with queued requests.
+	 */
+	private final Map<Channel, ChannelQueue> channels = new HashMap<Channel, ChannelQueue>();
+
+	/**
+	 * The channel queues from which a request can be taken, in round-robin order.
+	 */
+	private final Queue<ChannelQueue> readyQueue = new ArrayDeque<ChannelQueue>();
+
+	/**
+	 * The number of bytes which may be written per second, or {@code 0} if the rate is not limited.
+	 */
+	private final int bytesPerSecond;
+
+	/**
+	 * The time, in nanoseconds, at which the bandwidth budget next allows a file to be written.
+	 */
+	private long nextWriteTime;
+
+	/**
+	 * The total number of queued requests.
+	 */
+	private int queueDepth;
+
+	/**
+	 * The number of requests whose time to first byte has been measured.
+	 */
+	private long served;
+
+	/**
+	 * The total time to first byte, in nanoseconds.
+	 */
+	private long totalTimeToFirstByte;
+
+	/**
+	 * The longest time to first byte, in nanoseconds.
+	 */
+	private long maximumTimeToFirstByte;
+
+	/**
+	 * Creates the 'on-demand' scheduler.
+	 * @param bytesPerSecond The number of bytes which may be written per second, or {@code 0} if the rate should not
+	 * be limited.
+	 */
+	public OnDemandScheduler(int bytesPerSecond) {
+		this.bytesPerSecond = bytesPerSecond;
+	}
+
+	/**
+	 * Marks a request as complete, once its file has been written, allowing another request of the same channel to be
+	 * taken.
+	 * @param request The request.
+	 */
+	private synchronized void complete(ChannelRequest<OnDemandRequest> request) {
+		ChannelQueue queue = channels.get(request.getChannel());
+		if (queue != null) {
+			queue.inFlight--;
+			schedule(queue);
+			if (queue.size == 0 && queue.inFlight == 0) {
+				channels.remove(queue.channel);
+				queue.channel.getCloseFuture().removeListener(queue);
+			}
+		}
+	}
+
+	/**
+	 * Gets the average time between a request being queued and the first byte of its file being written.
+	 * @param unit The unit of time.
+	 * @return The average time to first byte, or {@code 0} if no requests have been served.
+	 */
+	public synchronized long getAverageTimeToFirstByte(TimeUnit unit) {
+		return served == 0 ? 0 : unit.convert(totalTimeToFirstByte / served, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Gets the number of channels with queued or in-flight requests.
+	 * @return The number of channels.
+	 */
+	public synchronized int getChannelCount() {
+		return channels.size();
+	}
+
+	/**
+	 * Gets the longest time between a request being queued and the first byte of its file being written.
+	 * @param unit The unit of time.
+	 * @return The longest time to first byte.
+	 */
+	public synchronized long getMaximumTimeToFirstByte(TimeUnit unit) {
+		return unit.convert(maximumTimeToFirstByte, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Gets the number of queued requests, across every channel.
+	 * @return The queue depth.
+	 */
+	public synchronized int getQueueDepth() {
+		return queueDepth;
+	}
+
+	/**
+	 * Gets the number of requests whose files have started to be written.
+	 * @return The number of requests.
+	 */
+	public synchronized long getServedCount() {
+		return served;
+	}
+
+	/**
+	 * Queues a request.
+	 * @param channel The channel.
+	 * @param request The request.
+	 * @return {@code true} if the request was queued, {@code false} if the channel has too many queued requests.
+	 */
+	public synchronized boolean offer(Channel channel, OnDemandRequest request) {
+		ChannelQueue queue = channels.get(channel);
+		if (queue == null) {
+			queue = new ChannelQueue(channel);
+			channels.put(channel, queue);
+			channel.getCloseFuture().addListener(queue);
+		} else if (queue.size >= MAXIMUM_QUEUE_SIZE) {
+			return false;
+		}
+		queue.queues.get(request.getPriority().toInteger()).add(new ChannelRequest<OnDemandRequest>(channel, request));
+		queue.size++;
+		queueDepth++;
+		schedule(queue);
+		return true;
+	}
+
+	/**
+	 * Records that the first byte of the file of a request is about to be written, and waits until the bandwidth budget
+	 * allows the file to be written.
+	 * @param request The request.
+	 * @param length The length of the file, in bytes.
+	 */
+	public void record(ChannelRequest<OnDemandRequest> request, int length) {
+		long delay = 0;
+		synchronized (this) {
+			long now = System.nanoTime();
+			if (bytesPerSecond > 0) {
+				if (nextWriteTime < now) {
+					nextWriteTime = now;
+				}
+				delay = nextWriteTime - now;
+				nextWriteTime += TimeUnit.SECONDS.toNanos(length) / bytesPerSecond;
+			}
+			long time = now + delay - request.getTime();
+			served++;
+			totalTimeToFirstByte += time;
+			maximumTimeToFirstByte = Math.max(maximumTimeToFirstByte, time);
+		}
+		if (delay > 0) {
+			try {
+				TimeUnit.NANOSECONDS.sleep(delay);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	/**
+	 * Writes chunks of the files being streamed to a channel for as long as the channel is writable.
+	 * @param queue The channel's queue.
+	 */
+	private void pump(ChannelQueue queue) {
+		synchronized (queue.streams) {
+			Channel channel = queue.channel;
+			OnDemandStream stream;
+			while (channel.isWritable() && (stream = queue.streams.peek()) != null) {
+				ChannelFuture future = channel.write(stream.next());
+				if (stream.isFinished()) {
+					queue.streams.poll();
+					final ChannelRequest<OnDemandRequest> request = stream.getRequest();
+					future.addListener(new ChannelFutureListener() {
+						@Override
+						public void operationComplete(ChannelFuture future) {
+							complete(request);
+						}
+					});
+				}
+			}
+		}
+	}
+
+	/**
+	 * Discards the requests of a channel which has been closed.
+	 * @param queue The channel's queue.
+	 */
+	private synchronized void remove(ChannelQueue queue) {
+		if (channels.remove(queue.channel) == queue) {
+			queueDepth -= queue.size;
+			queue.size = 0;
+			if (queue.ready) {
+				readyQueue.remove(queue);
+				queue.ready = false;
+			}
+		}
+	}
+
+	/**
+	 * Resumes streaming files to a channel. This is called when the channel becomes writable again.
+	 * @param channel The channel.
+	 */
+	public void resume(Channel channel) {
+		ChannelQueue queue;
+		synchronized (this) {
+			queue = channels.get(channel);
+		}
+		if (queue != null) {
+			pump(queue);
+		}
+	}
+
+	/**
+	 * Adds a channel queue to the back of the ready queue, if a request can be taken from it and it is not there
+	 * already.
+	 * @param queue The channel queue.
+	 */
+	private void schedule(ChannelQueue queue) {
+		if (!queue.ready && queue.isEligible()) {
+			queue.ready = true;
+			readyQueue.add(queue);
+			notify();
+		}
+	}
+
+	/**
+	 * Starts streaming the file of a request to its channel.
+	 * @param request The request.
+	 * @param file The file.
+	 */
+	public void stream(ChannelRequest<OnDemandRequest> request, ByteBuffer file) {
+		ChannelQueue queue;
+		synchronized (this) {
+			queue = channels.get(request.getChannel());
+		}
+		if (queue == null) {
+			return;
+		} else if (!file.hasRemaining()) {
+			complete(request);
+			return;
+		}
+		synchronized (queue.streams) {
+			queue.streams.add(new OnDemandStream(request, file));
+		}
+		pump(queue);
+	}
+
+	/**
+	 * Takes the next request, blocking if none are available. The file of the request must then be passed to
+	 * {@link #stream(ChannelRequest, ByteBuffer)}.
+	 * @return The request.
+	 * @throws InterruptedException if the thread is interrupted.
+	 */
+	public synchronized ChannelRequest<OnDemandRequest> take() throws InterruptedException {
+		ChannelQueue queue;
+		while ((queue = readyQueue.poll()) == null) {
+			wait();
+		}
+		queue.ready = false;
+		ChannelRequest<OnDemandRequest> request = queue.poll();
+		queue.inFlight++;
+		queueDepth--;
+		schedule(queue);
+		return request;
+	}
+}
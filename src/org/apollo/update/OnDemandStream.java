@@ -0,0 +1,79 @@
+package org.apollo.update;
+
+import java.nio.ByteBuffer;
+
+import org.apollo.fs.FileDescriptor;
+import org.apollo.net.codec.update.OnDemandRequest;
+import org.apollo.net.codec.update.OnDemandResponse;
+import org.jboss.netty.buffer.ChannelBuffers;
+
+/**
+ * A file which is being streamed to an 'on-demand' client, one chunk at a time.
+ */
+final class OnDemandStream {
+
+	/**
+	 * The maximum length of a chunk, in bytes.
+	 */
+	private static final int CHUNK_LENGTH = 500;
+
+	/**
+	 * The request.
+	 */
+	private final ChannelRequest<OnDemandRequest> request;
+
+	/**
+	 * The remaining data of the file.
+	 */
+	private final ByteBuffer file;
+
+	/**
+	 * The length of the file.
+	 */
+	private final int length;
+
+	/**
+	 * The index of the next chunk.
+	 */
+	private int chunk;
+
+	/**
+	 * Creates the stream.
+	 * @param request The request.
+	 * @param file The file.
+	 */
+	public OnDemandStream(ChannelRequest<OnDemandRequest> request, ByteBuffer file) {
+		this.request = request;
+		this.file = file;
+		this.length = file.remaining();
+	}
+
+	/**
+	 * Gets the request.
+	 * @return The request.
+	 */
+	public ChannelRequest<OnDemandRequest> getRequest() {
+		return request;
+	}
+
+	/**
+	 * Checks if every chunk has been taken from this stream.
+	 * @return {@code true} if so, {@code false} if not.
+	 */
+	public boolean isFinished() {
+		return !file.hasRemaining();
+	}
+
+	/**
+	 * Takes the next chunk of the file. The chunk shares the file's data rather than copying it.
+	 * @return The response containing the chunk.
+	 */
+	public OnDemandResponse next() {
+		int size = Math.min(file.remaining(), CHUNK_LENGTH);
+		ByteBuffer data = file.slice();
+		data.limit(size);
+		file.position(file.position() + size);
+		FileDescriptor descriptor = request.getRequest().getFileDescriptor();
+		return new OnDemandResponse(descriptor, length, chunk++, ChannelBuffers.wrappedBuffer(data));
+	}
+}
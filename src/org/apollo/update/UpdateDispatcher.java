@@ -2,8 +2,8 @@ package org.apollo.update;
 
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.PriorityBlockingQueue;
 
+import org.apollo.game.model.Config;
 import org.apollo.net.codec.jaggrab.JagGrabRequest;
 import org.apollo.net.codec.update.OnDemandRequest;
 import org.jboss.netty.channel.Channel;
@@ -16,14 +16,15 @@ import org.jboss.netty.handler.codec.http.HttpRequest;
 public final class UpdateDispatcher {
 
 	/**
-	 * The maximum size of a queue before requests are rejected.
+	 * The maximum size of a queue before requests are rejected. The 'on-demand' scheduler limits each channel
+	 * separately instead.
 	 */
 	private static final int MAXIMUM_QUEUE_SIZE = 1024;
 
 	/**
-	 * A queue for pending 'on-demand' requests.
+	 * The scheduler for pending 'on-demand' requests.
 	 */
-	private final BlockingQueue<ChannelRequest<OnDemandRequest>> onDemandQueue = new PriorityBlockingQueue<ChannelRequest<OnDemandRequest>>();
+	private final OnDemandScheduler onDemandScheduler = new OnDemandScheduler(Config.SERVER_UPDATE_BANDWIDTH);
 
 	/**
 	 * A queue for pending JAGGRAB requests.
@@ -43,6 +44,7 @@ public final class UpdateDispatcher {
 	public void dispatch(Channel channel, HttpRequest request) {
 		if (httpQueue.size() >= MAXIMUM_QUEUE_SIZE) {
 			channel.close();
+			return;
 		}
 		httpQueue.add(new ChannelRequest<HttpRequest>(channel, request));
 	}
@@ -55,6 +57,7 @@ public final class UpdateDispatcher {
 	public void dispatch(Channel channel, JagGrabRequest request) {
 		if (jagGrabQueue.size() >= MAXIMUM_QUEUE_SIZE) {
 			channel.close();
+			return;
 		}
 		jagGrabQueue.add(new ChannelRequest<JagGrabRequest>(channel, request));
 	}
@@ -65,10 +68,17 @@ public final class UpdateDispatcher {
 	 * @param request The request.
 	 */
 	public void dispatch(Channel channel, OnDemandRequest request) {
-		if (onDemandQueue.size() >= MAXIMUM_QUEUE_SIZE) {
+		if (!onDemandScheduler.offer(channel, request)) {
 			channel.close();
 		}
-		onDemandQueue.add(new ChannelRequest<OnDemandRequest>(channel, request));
+	}
+
+	/**
+	 * Gets the 'on-demand' request scheduler.
+	 * @return The scheduler.
+	 */
+	public OnDemandScheduler getOnDemandScheduler() {
+		return onDemandScheduler;
 	}
 
 	/**
@@ -90,11 +100,11 @@ public final class UpdateDispatcher {
 	}
 
 	/**
-	 * Gets the next 'on-demand' request from the queue, blocking if none are available.
+	 * Gets the next 'on-demand' request from the scheduler, blocking if none are available.
 	 * @return The 'on-demand' request.
 	 * @throws InterruptedException if the thread is interrupted.
 	 */
 	ChannelRequest<OnDemandRequest> nextOnDemandRequest() throws InterruptedException {
-		return onDemandQueue.take();
+		return onDemandScheduler.take();
 	}
 }
@@ -7,7 +7,9 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
 import org.apollo.Service;
+import org.apollo.fs.CacheManifest;
 import org.apollo.fs.IndexedFileSystem;
+import org.apollo.update.resource.ResourceCache;
 
 /**
  * A class which services file requests.
@@ -20,6 +22,12 @@ public final class UpdateService extends Service {
 	 */
 	private static final int THREADS_PER_REQUEST_TYPE = Runtime.getRuntime().availableProcessors();
 
+	/**
+	 * The number of 'on-demand' threads. These workers only read files, which are streamed to their channels as the
+	 * channels become writable, so they never block on a slow client and a few are enough for any number of clients.
+	 */
+	private static final int ON_DEMAND_THREADS = Math.min(2, THREADS_PER_REQUEST_TYPE);
+
 	/**
 	 * The number of request types.
 	 */
@@ -40,11 +48,21 @@ public final class UpdateService extends Service {
 	 */
 	private final UpdateDispatcher dispatcher = new UpdateDispatcher();
 
+	/**
+	 * The cache of resources served over HTTP.
+	 */
+	private final ResourceCache resourceCache = new ResourceCache();
+
+	/**
+	 * The manifest of the file system, which is computed when the service starts.
+	 */
+	private volatile CacheManifest manifest;
+
 	/**
 	 * Creates the update service.
 	 */
 	public UpdateService() {
-		int totalThreads = REQUEST_TYPES * THREADS_PER_REQUEST_TYPE;
+		int totalThreads = (REQUEST_TYPES - 1) * THREADS_PER_REQUEST_TYPE + ON_DEMAND_THREADS;
 		service = Executors.newFixedThreadPool(totalThreads);
 	}
 
@@ -56,6 +74,14 @@ public final class UpdateService extends Service {
 		return dispatcher;
 	}
 
+	/**
+	 * Gets the manifest of the file system.
+	 * @return The manifest, or {@code null} if the service has not started yet.
+	 */
+	public CacheManifest getManifest() {
+		return manifest;
+	}
+
 	/**
 	 * Starts the threads in the pool.
 	 */
@@ -64,10 +90,20 @@ public final class UpdateService extends Service {
 		int release = getContext().getRelease().getReleaseNumber();
 		try {
 			File base = new File("./data/fs/" + release + "/");
+			IndexedFileSystem fs = new IndexedFileSystem(base, true);
+			try {
+				manifest = CacheManifest.create(fs, Runtime.getRuntime().availableProcessors());
+			} finally {
+				fs.close();
+			}
+			resourceCache.watch(HttpRequestWorker.WWW_DIRECTORY);
 			for (int i = 0; i < THREADS_PER_REQUEST_TYPE; i++) {
-				workers.add(new JagGrabRequestWorker(dispatcher, new IndexedFileSystem(base, true)));
+				workers.add(new JagGrabRequestWorker(dispatcher, new IndexedFileSystem(base, true), manifest));
+				workers.add(new HttpRequestWorker(dispatcher, new IndexedFileSystem(base, true), manifest,
+						resourceCache));
+			}
+			for (int i = 0; i < ON_DEMAND_THREADS; i++) {
 				workers.add(new OnDemandRequestWorker(dispatcher, new IndexedFileSystem(base, true)));
-				workers.add(new HttpRequestWorker(dispatcher, new IndexedFileSystem(base, true)));
 			}
 			for (RequestWorker<?, ?> worker : workers) {
 				service.submit(worker);
@@ -0,0 +1,131 @@
+package org.apollo.update.resource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A resource along with the metadata needed to serve it over HTTP: an entity tag, its last modification time and,
+ * where it compresses well, a precomputed gzip variant.
+ */
+public final class CachedResource {
+
+	/**
+	 * Wraps a resource which is too large to be cached. Its data is not copied, so a mapped file is sent straight from
+	 * the mapping, its entity tag is derived from its size and modification time rather than its contents, and it has
+	 * no gzip variant.
+	 * @param data The data.
+	 * @param lastModified The last modification time, in milliseconds.
+	 * @return The resource.
+	 */
+	public static CachedResource wrap(ByteBuffer data, long lastModified) {
+		String tag = '"' + Long.toHexString(lastModified / 1000) + '-' + Integer.toHexString(data.remaining()) + '"';
+		return new CachedResource(data.slice().asReadOnlyBuffer(), null, tag, lastModified / 1000 * 1000);
+	}
+
+	/**
+	 * Creates a cached resource.
+	 * @param data The data.
+	 * @param lastModified The last modification time, in milliseconds.
+	 * @param compress Whether a gzip variant should be precomputed. It is only kept if it is sufficiently smaller.
+	 * @return The cached resource.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public static CachedResource create(ByteBuffer data, long lastModified, boolean compress) throws IOException {
+		byte[] bytes = new byte[data.remaining()];
+		data.duplicate().get(bytes);
+		CRC32 crc = new CRC32();
+		crc.update(bytes);
+		String tag = '"' + Long.toHexString(crc.getValue()) + '-' + Integer.toHexString(bytes.length) + '"';
+		ByteBuffer compressed = null;
+		if (compress) {
+			ByteArrayOutputStream os = new ByteArrayOutputStream(bytes.length / 2);
+			GZIPOutputStream gzip = new GZIPOutputStream(os);
+			try {
+				gzip.write(bytes);
+			} finally {
+				gzip.close();
+			}
+			if (os.size() < bytes.length - bytes.length / 10) {
+				compressed = ByteBuffer.wrap(os.toByteArray()).asReadOnlyBuffer();
+			}
+		}
+		return new CachedResource(ByteBuffer.wrap(bytes).asReadOnlyBuffer(), compressed, tag, lastModified / 1000 * 1000);
+	}
+
+	/**
+	 * The data.
+	 */
+	private final ByteBuffer data;
+
+	/**
+	 * The gzip-compressed data, or {@code null} if the data does not compress well.
+	 */
+	private final ByteBuffer compressed;
+
+	/**
+	 * The entity tag.
+	 */
+	private final String tag;
+
+	/**
+	 * The last modification time, in milliseconds, truncated to whole seconds.
+	 */
+	private final long lastModified;
+
+	/**
+	 * Creates the cached resource.
+	 * @param data The data.
+	 * @param compressed The gzip-compressed data, or {@code null} if there is none.
+	 * @param tag The entity tag.
+	 * @param lastModified The last modification time.
+	 */
+	private CachedResource(ByteBuffer data, ByteBuffer compressed, String tag, long lastModified) {
+		this.data = data;
+		this.compressed = compressed;
+		this.tag = tag;
+		this.lastModified = lastModified;
+	}
+
+	/**
+	 * Gets the gzip-compressed data.
+	 * @return A read-only view of the compressed data, or {@code null} if there is no compressed variant.
+	 */
+	public ByteBuffer getCompressed() {
+		return compressed == null ? null : compressed.duplicate();
+	}
+
+	/**
+	 * Gets the data.
+	 * @return A read-only view of the data.
+	 */
+	public ByteBuffer getData() {
+		return data.duplicate();
+	}
+
+	/**
+	 * Gets the last modification time.
+	 * @return The time, in milliseconds, truncated to whole seconds.
+	 */
+	public long getLastModified() {
+		return lastModified;
+	}
+
+	/**
+	 * Gets the entity tag.
+	 * @return The quoted entity tag.
+	 */
+	public String getTag() {
+		return tag;
+	}
+
+	/**
+	 * Gets the size of the data.
+	 * @return The size, in bytes.
+	 */
+	public int size() {
+		return data.capacity();
+	}
+}
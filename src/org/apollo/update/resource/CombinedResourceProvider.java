@@ -44,4 +44,32 @@ public final class CombinedResourceProvider extends ResourceProvider {
 		}
 		return null;
 	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.apollo.update.resource.ResourceProvider#getCanonicalPath(java.lang.String)
+	 */
+	@Override
+	public String getCanonicalPath(String path) throws IOException {
+		for (ResourceProvider provider : providers) {
+			if (provider.accept(path)) {
+				return provider.getCanonicalPath(path);
+			}
+		}
+		return null;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.apollo.update.resource.ResourceProvider#getLastModified(java.lang.String)
+	 */
+	@Override
+	public long getLastModified(String path) throws IOException {
+		for (ResourceProvider provider : providers) {
+			if (provider.accept(path)) {
+				return provider.getLastModified(path);
+			}
+		}
+		return 0;
+	}
 }
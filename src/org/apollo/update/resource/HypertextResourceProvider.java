@@ -65,4 +65,33 @@ public final class HypertextResourceProvider extends ResourceProvider {
 		}
 		return buf;
 	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.apollo.update.resource.ResourceProvider#getCanonicalPath(java.lang.String)
+	 */
+	@Override
+	public String getCanonicalPath(String path) throws IOException {
+		File f = new File(base, path);
+		if (f.isDirectory()) {
+			f = new File(f, "index.html");
+		}
+		if (!f.exists()) {
+			return null;
+		}
+		return f.getCanonicalFile().toURI().toString();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.apollo.update.resource.ResourceProvider#getLastModified(java.lang.String)
+	 */
+	@Override
+	public long getLastModified(String path) throws IOException {
+		File f = new File(base, path);
+		if (f.isDirectory()) {
+			f = new File(f, "index.html");
+		}
+		return f.lastModified();
+	}
 }
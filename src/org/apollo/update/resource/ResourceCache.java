@@ -0,0 +1,189 @@
+package org.apollo.update.resource;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * An in-memory cache of the resources served over HTTP, shared between the HTTP workers.
+ * <p>
+ * Resources no larger than {@link #MAXIMUM_CACHED_SIZE} are kept in memory, along with their entity tags and gzip
+ * variants, so they are only read and compressed once. Larger resources are read from their provider every time and
+ * served from the buffer it returns, without being copied, scanned or compressed. Resources are cached by their
+ * canonical path, so the paths which resolve to the same resource share an entry, and the least-recently used ones
+ * are evicted once the cached data exceeds {@link #MAXIMUM_TOTAL_SIZE}. The cache is emptied whenever a file in a
+ * watched directory changes.
+ */
+public final class ResourceCache {
+
+	/**
+	 * The logger for this class.
+	 */
+	private static final Logger logger = Logger.getLogger(ResourceCache.class.getName());
+
+	/**
+	 * The size of the largest resource which is cached, in bytes.
+	 */
+	private static final int MAXIMUM_CACHED_SIZE = 1024 * 1024;
+
+	/**
+	 * The total size of the data of the cached resources above which the least-recently used ones are evicted, in
+	 * bytes.
+	 */
+	private static final int MAXIMUM_TOTAL_SIZE = 32 * 1024 * 1024;
+
+	/**
+	 * The cached resources, by canonical path, in the order they were last used.
+	 */
+	private final Map<String, CachedResource> resources = new LinkedHashMap<String, CachedResource>(16, 0.75f, true);
+
+	/**
+	 * The total size of the data of the cached resources, in bytes.
+	 */
+	private int totalSize;
+
+	/**
+	 * The number of times this cache has been emptied.
+	 */
+	private final AtomicInteger generation = new AtomicInteger();
+
+	/**
+	 * Empties this cache.
+	 */
+	public void clear() {
+		synchronized (resources) {
+			generation.incrementAndGet();
+			resources.clear();
+			totalSize = 0;
+		}
+	}
+
+	/**
+	 * Gets a resource, reading it from the specified provider if it is not cached.
+	 * @param path The path, without a query string.
+	 * @param provider The resource provider.
+	 * @return The resource, or {@code null} if it does not exist.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public CachedResource get(String path, ResourceProvider provider) throws IOException {
+		String key = provider.getCanonicalPath(path);
+		if (key == null) {
+			return null;
+		}
+		CachedResource resource;
+		int expected;
+		synchronized (resources) {
+			resource = resources.get(key);
+			expected = generation.get();
+		}
+		if (resource != null) {
+			return resource;
+		}
+		ByteBuffer data = provider.get(path);
+		if (data == null) {
+			return null;
+		}
+		long lastModified = provider.getLastModified(path);
+		if (data.remaining() > MAXIMUM_CACHED_SIZE) {
+			return CachedResource.wrap(data, lastModified);
+		}
+		resource = CachedResource.create(data, lastModified, true);
+		synchronized (resources) {
+			if (generation.get() == expected) { // the file may have changed while it was read
+				put(key, resource);
+			}
+		}
+		return resource;
+	}
+
+	/**
+	 * Gets the number of cached resources.
+	 * @return The number of resources.
+	 */
+	public int size() {
+		synchronized (resources) {
+			return resources.size();
+		}
+	}
+
+	/**
+	 * Caches a resource, evicting the least-recently used resources until the cached data fits. This method must be
+	 * called while the lock on {@link #resources} is held.
+	 * @param key The canonical path.
+	 * @param resource The resource.
+	 */
+	private void put(String key, CachedResource resource) {
+		CachedResource previous = resources.put(key, resource);
+		if (previous != null) {
+			totalSize -= previous.size();
+		}
+		totalSize += resource.size();
+		Iterator<CachedResource> it = resources.values().iterator();
+		while (totalSize > MAXIMUM_TOTAL_SIZE && it.hasNext()) {
+			CachedResource eldest = it.next();
+			if (eldest != resource) {
+				totalSize -= eldest.size();
+				it.remove();
+			}
+		}
+	}
+
+	/**
+	 * Starts a daemon thread which empties this cache whenever a file in the specified directory, or one of its
+	 * subdirectories, is created, modified or deleted.
+	 * @param directory The directory.
+	 * @throws IOException if the directory cannot be watched.
+	 */
+	public void watch(File directory) throws IOException {
+		final WatchService watcher = FileSystems.getDefault().newWatchService();
+		register(watcher, directory);
+		Thread thread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					while (true) {
+						WatchKey key = watcher.take();
+						key.pollEvents();
+						clear();
+						key.reset();
+					}
+				} catch (InterruptedException e) {
+					logger.log(Level.WARNING, "Resource watcher interrupted", e);
+				}
+			}
+		}, "ResourceCacheWatcher");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Registers a directory and its subdirectories with a watch service.
+	 * @param watcher The watch service.
+	 * @param directory The directory.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	private void register(WatchService watcher, File directory) throws IOException {
+		Path path = directory.toPath();
+		path.register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY,
+				StandardWatchEventKinds.ENTRY_DELETE);
+		File[] children = directory.listFiles();
+		if (children != null) {
+			for (File child : children) {
+				if (child.isDirectory()) {
+					register(watcher, child);
+				}
+			}
+		}
+	}
+}
@@ -24,4 +24,20 @@ public abstract class ResourceProvider {
 	 * @throws IOException if an I/O error occurs.
 	 */
 	public abstract ByteBuffer get(String path) throws IOException;
+
+	/**
+	 * Gets the canonical path of a resource, which every path that resolves to the same resource shares.
+	 * @param path The path.
+	 * @return The canonical path, or {@code null} if the resource doesn't exist.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public abstract String getCanonicalPath(String path) throws IOException;
+
+	/**
+	 * Gets the time at which a resource was last modified.
+	 * @param path The path.
+	 * @return The time, in milliseconds since the epoch, or {@code 0} if it is not known.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public abstract long getLastModified(String path) throws IOException;
 }
@@ -3,6 +3,7 @@ package org.apollo.update.resource;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 
+import org.apollo.fs.CacheManifest;
 import org.apollo.fs.IndexedFileSystem;
 
 /**
@@ -23,12 +24,40 @@ public final class VirtualResourceProvider extends ResourceProvider {
 	 */
 	private final IndexedFileSystem fs;
 
+	/**
+	 * The manifest of the file system.
+	 */
+	private final CacheManifest manifest;
+
+	/**
+	 * The time at which this provider was created, which stands in for the modification time of every resource, as the
+	 * file system does not change while it is open.
+	 */
+	private final long created = System.currentTimeMillis();
+
 	/**
 	 * Creates a new virtual resource provider with the specified file system.
 	 * @param fs The file system.
+	 * @param manifest The manifest of the file system.
 	 */
-	public VirtualResourceProvider(IndexedFileSystem fs) {
+	public VirtualResourceProvider(IndexedFileSystem fs, CacheManifest manifest) {
 		this.fs = fs;
+		this.manifest = manifest;
+	}
+
+	/**
+	 * Gets the index of the prefix of a path, which is also the id of the archive it maps to, except for the CRC
+	 * table at index {@code 0}.
+	 * @param path The path.
+	 * @return The index, or {@code -1} if the path has no valid prefix.
+	 */
+	private int indexOf(String path) {
+		for (int i = 0; i < VALID_PREFIXES.length; i++) {
+			if (path.startsWith("/" + VALID_PREFIXES[i])) {
+				return i;
+			}
+		}
+		return -1;
 	}
 
 	/*
@@ -37,12 +66,7 @@ public final class VirtualResourceProvider extends ResourceProvider {
 	 */
 	@Override
 	public boolean accept(String path) throws IOException {
-		for (String prefix : VALID_PREFIXES) {
-			if (path.startsWith("/" + prefix)) {
-				return true;
-			}
-		}
-		return false;
+		return indexOf(path) != -1;
 	}
 
 	/*
@@ -51,25 +75,31 @@ public final class VirtualResourceProvider extends ResourceProvider {
 	 */
 	@Override
 	public ByteBuffer get(String path) throws IOException {
-		if (path.startsWith("/crc")) {
-			return fs.getCrcTable();
-		} else if (path.startsWith("/title")) {
-			return fs.getFile(0, 1);
-		} else if (path.startsWith("/config")) {
-			return fs.getFile(0, 2);
-		} else if (path.startsWith("/interface")) {
-			return fs.getFile(0, 3);
-		} else if (path.startsWith("/media")) {
-			return fs.getFile(0, 4);
-		} else if (path.startsWith("/versionlist")) {
-			return fs.getFile(0, 5);
-		} else if (path.startsWith("/textures")) {
-			return fs.getFile(0, 6);
-		} else if (path.startsWith("/wordenc")) {
-			return fs.getFile(0, 7);
-		} else if (path.startsWith("/sounds")) {
-			return fs.getFile(0, 8);
+		int index = indexOf(path);
+		if (index == -1) {
+			return null;
+		} else if (index == 0) {
+			return manifest.getCrcTable();
 		}
-		return null;
+		return fs.getFile(0, index);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.apollo.update.resource.ResourceProvider#getCanonicalPath(java.lang.String)
+	 */
+	@Override
+	public String getCanonicalPath(String path) throws IOException {
+		int index = indexOf(path);
+		return index == -1 ? null : "/" + VALID_PREFIXES[index]; // the client appends a random number to some paths
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.apollo.update.resource.ResourceProvider#getLastModified(java.lang.String)
+	 */
+	@Override
+	public long getLastModified(String path) throws IOException {
+		return created;
 	}
 }
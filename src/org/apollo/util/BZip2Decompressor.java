@@ -0,0 +1,459 @@
+package org.apollo.util;
+
+import java.io.EOFException;
+import java.io.IOException;
+
+/**
+ * A bzip2 decompressor for the headerless streams found in the cache, which always use a block size of 100k.
+ * <p>
+ * Unlike a stream wrapper, a decompressor holds on to its tables between calls and decompresses straight from an array
+ * into an array, so decompressing many small files does not allocate. A decompressor must not be shared between
+ * threads.
+ */
+final class BZip2Decompressor {
+
+	/**
+	 * The magic number at the start of a block.
+	 */
+	private static final long BLOCK_MAGIC = 0x314159265359L;
+
+	/**
+	 * The magic number at the end of the stream.
+	 */
+	private static final long END_MAGIC = 0x177245385090L;
+
+	/**
+	 * The maximum number of symbols in a block.
+	 */
+	private static final int BLOCK_SIZE = 100_000;
+
+	/**
+	 * The maximum number of Huffman tables.
+	 */
+	private static final int MAXIMUM_TABLES = 6;
+
+	/**
+	 * The maximum number of symbols in the alphabet.
+	 */
+	private static final int MAXIMUM_ALPHABET_SIZE = 258;
+
+	/**
+	 * The maximum length of a Huffman code.
+	 */
+	private static final int MAXIMUM_CODE_LENGTH = 20;
+
+	/**
+	 * The maximum number of selectors.
+	 */
+	private static final int MAXIMUM_SELECTORS = 18_002;
+
+	/**
+	 * The number of symbols coded with each selected table.
+	 */
+	private static final int GROUP_SIZE = 50;
+
+	/**
+	 * The table of run lengths between the bytes of a randomised block which were flipped by the compressor.
+	 */
+	private static final int[] RANDOM_NUMBERS = {
+			619, 720, 127, 481, 931, 816, 813, 233, 566, 247, 985, 724, 205, 454, 863, 491,
+			741, 242, 949, 214, 733, 859, 335, 708, 621, 574, 73, 654, 730, 472, 419, 436,
+			278, 496, 867, 210, 399, 680, 480, 51, 878, 465, 811, 169, 869, 675, 611, 697,
+			867, 561, 862, 687, 507, 283, 482, 129, 807, 591, 733, 623, 150, 238, 59, 379,
+			684, 877, 625, 169, 643, 105, 170, 607, 520, 932, 727, 476, 693, 425, 174, 647,
+			73, 122, 335, 530, 442, 853, 695, 249, 445, 515, 909, 545, 703, 919, 874, 474,
+			882, 500, 594, 612, 641, 801, 220, 162, 819, 984, 589, 513, 495, 799, 161, 604,
+			958, 533, 221, 400, 386, 867, 600, 782, 382, 596, 414, 171, 516, 375, 682, 485,
+			911, 276, 98, 553, 163, 354, 666, 933, 424, 341, 533, 870, 227, 730, 475, 186,
+			263, 647, 537, 686, 600, 224, 469, 68, 770, 919, 190, 373, 294, 822, 808, 206,
+			184, 943, 795, 384, 383, 461, 404, 758, 839, 887, 715, 67, 618, 276, 204, 918,
+			873, 777, 604, 560, 951, 160, 578, 722, 79, 804, 96, 409, 713, 940, 652, 934,
+			970, 447, 318, 353, 859, 672, 112, 785, 645, 863, 803, 350, 139, 93, 354, 99,
+			820, 908, 609, 772, 154, 274, 580, 184, 79, 626, 630, 742, 653, 282, 762, 623,
+			680, 81, 927, 626, 789, 125, 411, 521, 938, 300, 821, 78, 343, 175, 128, 250,
+			170, 774, 972, 275, 999, 639, 495, 78, 352, 126, 857, 956, 358, 619, 580, 124,
+			737, 594, 701, 612, 669, 112, 134, 694, 363, 992, 809, 743, 168, 974, 944, 375,
+			748, 52, 600, 747, 642, 182, 862, 81, 344, 805, 988, 739, 511, 655, 814, 334,
+			249, 515, 897, 955, 664, 981, 649, 113, 974, 459, 893, 228, 433, 837, 553, 268,
+			926, 240, 102, 654, 459, 51, 686, 754, 806, 760, 493, 403, 415, 394, 687, 700,
+			946, 670, 656, 610, 738, 392, 760, 799, 887, 653, 978, 321, 576, 617, 626, 502,
+			894, 679, 243, 440, 680, 879, 194, 572, 640, 724, 926, 56, 204, 700, 707, 151,
+			457, 449, 797, 195, 791, 558, 945, 679, 297, 59, 87, 824, 713, 663, 412, 693,
+			342, 606, 134, 108, 571, 364, 631, 212, 174, 643, 304, 329, 343, 97, 430, 751,
+			497, 314, 983, 374, 822, 928, 140, 206, 73, 263, 980, 736, 876, 478, 430, 305,
+			170, 514, 364, 692, 829, 82, 855, 953, 676, 246, 369, 970, 294, 750, 807, 827,
+			150, 790, 288, 923, 804, 378, 215, 828, 592, 281, 565, 555, 710, 82, 896, 831,
+			547, 261, 524, 462, 293, 465, 502, 56, 661, 821, 976, 991, 658, 869, 905, 758,
+			745, 193, 768, 550, 608, 933, 378, 286, 215, 979, 792, 961, 61, 688, 793, 644,
+			986, 403, 106, 366, 905, 644, 372, 567, 466, 434, 645, 210, 389, 550, 919, 135,
+			780, 773, 635, 389, 707, 100, 626, 958, 165, 504, 920, 176, 193, 713, 857, 265,
+			203, 50, 668, 108, 645, 990, 626, 197, 510, 357, 358, 850, 858, 364, 936, 638 };
+
+	/**
+	 * The input.
+	 */
+	private byte[] input;
+
+	/**
+	 * The position of the next byte of input.
+	 */
+	private int position;
+
+	/**
+	 * The end of the input.
+	 */
+	private int end;
+
+	/**
+	 * The bits which have been read but not consumed.
+	 */
+	private int bitBuffer;
+
+	/**
+	 * The number of bits in the bit buffer.
+	 */
+	private int bitCount;
+
+	/**
+	 * The block being decoded: each element holds a byte in its low 8 bits and, once the block has been inverted, the
+	 * index of the next element above them.
+	 */
+	private final int[] block = new int[BLOCK_SIZE];
+
+	/**
+	 * The number of occurrences of each byte in the block, and then their cumulative counts.
+	 */
+	private final int[] counts = new int[256];
+
+	/**
+	 * The bytes in use, in order.
+	 */
+	private final byte[] symbols = new byte[256];
+
+	/**
+	 * The move-to-front list of symbols.
+	 */
+	private final byte[] symbolList = new byte[256];
+
+	/**
+	 * The move-to-front list of tables.
+	 */
+	private final byte[] tableList = new byte[MAXIMUM_TABLES];
+
+	/**
+	 * The table selected for each group of symbols.
+	 */
+	private final byte[] selectors = new byte[MAXIMUM_SELECTORS];
+
+	/**
+	 * The code lengths of the symbols, by table.
+	 */
+	private final byte[][] lengths = new byte[MAXIMUM_TABLES][MAXIMUM_ALPHABET_SIZE];
+
+	/**
+	 * The largest code of each length, by table.
+	 */
+	private final int[][] limits = new int[MAXIMUM_TABLES][MAXIMUM_CODE_LENGTH + 2];
+
+	/**
+	 * The offset of the codes of each length into the permutation, by table.
+	 */
+	private final int[][] bases = new int[MAXIMUM_TABLES][MAXIMUM_CODE_LENGTH + 2];
+
+	/**
+	 * The symbols in order of code length, by table.
+	 */
+	private final int[][] permutations = new int[MAXIMUM_TABLES][MAXIMUM_ALPHABET_SIZE];
+
+	/**
+	 * The length of the shortest code, by table.
+	 */
+	private final int[] minimumLengths = new int[MAXIMUM_TABLES];
+
+	/**
+	 * Reads a single bit.
+	 * @return {@code true} if the bit is set, {@code false} if not.
+	 * @throws IOException if the end of the input has been reached.
+	 */
+	private boolean bit() throws IOException {
+		return bits(1) != 0;
+	}
+
+	/**
+	 * Reads up to 24 bits.
+	 * @param count The number of bits.
+	 * @return The bits.
+	 * @throws IOException if the end of the input has been reached.
+	 */
+	private int bits(int count) throws IOException {
+		while (bitCount < count) {
+			if (position >= end) {
+				throw new EOFException("Unexpected end of bzip2 stream");
+			}
+			bitBuffer = (bitBuffer << 8) | (input[position++] & 0xFF);
+			bitCount += 8;
+		}
+		bitCount -= count;
+		return (bitBuffer >>> bitCount) & ((1 << count) - 1);
+	}
+
+	/**
+	 * Builds the decoding tables of a Huffman table from its code lengths.
+	 * @param table The table.
+	 * @param alphabetSize The number of symbols in the alphabet.
+	 */
+	private void createTable(int table, int alphabetSize) {
+		byte[] length = lengths[table];
+		int[] limit = limits[table], base = bases[table], permutation = permutations[table];
+		int minimum = MAXIMUM_CODE_LENGTH, maximum = 0;
+		for (int i = 0; i < alphabetSize; i++) {
+			minimum = Math.min(minimum, length[i]);
+			maximum = Math.max(maximum, length[i]);
+		}
+		int index = 0;
+		for (int codeLength = minimum; codeLength <= maximum; codeLength++) {
+			for (int symbol = 0; symbol < alphabetSize; symbol++) {
+				if (length[symbol] == codeLength) {
+					permutation[index++] = symbol;
+				}
+			}
+		}
+		for (int i = 0; i < base.length; i++) {
+			base[i] = 0;
+			limit[i] = -1;
+		}
+		for (int symbol = 0; symbol < alphabetSize; symbol++) {
+			base[length[symbol] + 1]++;
+		}
+		for (int i = 1; i < base.length; i++) {
+			base[i] += base[i - 1];
+		}
+		int code = 0;
+		for (int codeLength = minimum; codeLength <= maximum; codeLength++) {
+			code += base[codeLength + 1] - base[codeLength];
+			limit[codeLength] = code - 1;
+			code <<= 1;
+		}
+		for (int codeLength = minimum + 1; codeLength <= maximum; codeLength++) {
+			base[codeLength] = ((limit[codeLength - 1] + 1) << 1) - base[codeLength];
+		}
+		minimumLengths[table] = minimum;
+	}
+
+	/**
+	 * Decodes a block.
+	 * @param output The output array.
+	 * @param offset The offset at which the block is written.
+	 * @param outputEnd The end of the output array.
+	 * @return The offset after the block.
+	 * @throws IOException if the block is malformed or does not fit in the output.
+	 */
+	private int decodeBlock(byte[] output, int offset, int outputEnd) throws IOException {
+		bits(16);
+		bits(16); // the block's CRC
+		boolean randomised = bit();
+		int origin = bits(24);
+		int symbolCount = 0, ranges = bits(16);
+		for (int range = 0; range < 16; range++) {
+			if ((ranges & (0x8000 >>> range)) != 0) {
+				int used = bits(16);
+				for (int i = 0; i < 16; i++) {
+					if ((used & (0x8000 >>> i)) != 0) {
+						symbols[symbolCount++] = (byte) (range * 16 + i);
+					}
+				}
+			}
+		}
+		if (symbolCount == 0) {
+			throw new IOException("No symbols in bzip2 block");
+		}
+		int alphabetSize = symbolCount + 2;
+		int tables = bits(3), selectorCount = bits(15);
+		if (tables < 2 || tables > MAXIMUM_TABLES || selectorCount < 1 || selectorCount > MAXIMUM_SELECTORS) {
+			throw new IOException("Malformed bzip2 block");
+		}
+		for (int i = 0; i < tables; i++) {
+			tableList[i] = (byte) i;
+		}
+		for (int i = 0; i < selectorCount; i++) {
+			int index = 0;
+			while (bit()) {
+				if (++index >= tables) {
+					throw new IOException("Malformed bzip2 selector");
+				}
+			}
+			byte table = tableList[index];
+			System.arraycopy(tableList, 0, tableList, 1, index);
+			tableList[0] = table;
+			selectors[i] = table;
+		}
+		for (int table = 0; table < tables; table++) {
+			int length = bits(5);
+			for (int symbol = 0; symbol < alphabetSize; symbol++) {
+				while (true) {
+					if (length < 1 || length > MAXIMUM_CODE_LENGTH) {
+						throw new IOException("Malformed bzip2 code length");
+					}
+					if (!bit()) {
+						break;
+					}
+					length += bit() ? -1 : 1;
+				}
+				lengths[table][symbol] = (byte) length;
+			}
+			createTable(table, alphabetSize);
+		}
+
+		for (int i = 0; i < 256; i++) {
+			symbolList[i] = (byte) i;
+			counts[i] = 0;
+		}
+		int endOfBlock = alphabetSize - 1, size = 0, group = -1, groupRemaining = 0, run = 0, runWeight = 1;
+		while (true) {
+			if (groupRemaining == 0) {
+				if (++group >= selectorCount) {
+					throw new IOException("Malformed bzip2 block");
+				}
+				groupRemaining = GROUP_SIZE;
+			}
+			groupRemaining--;
+			int symbol = decodeSymbol(selectors[group], alphabetSize);
+			if (symbol <= 1) {
+				run += (symbol + 1) * runWeight;
+				runWeight <<= 1;
+				if (run > BLOCK_SIZE) {
+					throw new IOException("Malformed bzip2 run");
+				}
+				continue;
+			}
+			if (run > 0) {
+				if (size + run > BLOCK_SIZE) {
+					throw new IOException("Malformed bzip2 run");
+				}
+				int value = symbols[symbolList[0] & 0xFF] & 0xFF;
+				counts[value] += run;
+				while (run-- > 0) {
+					block[size++] = value;
+				}
+				run = 0;
+				runWeight = 1;
+			}
+			if (symbol == endOfBlock) {
+				break;
+			} else if (size >= BLOCK_SIZE) {
+				throw new IOException("Malformed bzip2 block");
+			}
+			int index = symbol - 1;
+			byte entry = symbolList[index];
+			System.arraycopy(symbolList, 0, symbolList, 1, index);
+			symbolList[0] = entry;
+			int value = symbols[entry & 0xFF] & 0xFF;
+			counts[value]++;
+			block[size++] = value;
+		}
+		if (origin >= size) {
+			throw new IOException("Malformed bzip2 origin");
+		}
+
+		for (int i = 0, total = 0; i < 256; i++) {
+			int count = counts[i];
+			counts[i] = total;
+			total += count;
+		}
+		for (int i = 0; i < size; i++) {
+			block[counts[block[i] & 0xFF]++] |= i << 8;
+		}
+		int pointer = block[origin] >>> 8, last = -1, repeated = 0, random = 0, randomRemaining = 0;
+		for (int i = 0; i < size; i++) {
+			int entry = block[pointer];
+			int value = entry & 0xFF;
+			pointer = entry >>> 8;
+			if (randomised) {
+				if (randomRemaining == 0) {
+					randomRemaining = RANDOM_NUMBERS[random];
+					random = (random + 1) % RANDOM_NUMBERS.length;
+				}
+				if (--randomRemaining == 1) {
+					value ^= 1;
+				}
+			}
+			if (repeated == 4) {
+				if (offset + value > outputEnd) {
+					throw new IOException("bzip2 output overflow");
+				}
+				for (int j = 0; j < value; j++) {
+					output[offset++] = (byte) last;
+				}
+				repeated = 0;
+				continue;
+			}
+			repeated = value == last ? repeated + 1 : 1;
+			last = value;
+			if (offset >= outputEnd) {
+				throw new IOException("bzip2 output overflow");
+			}
+			output[offset++] = (byte) value;
+		}
+		return offset;
+	}
+
+	/**
+	 * Decodes a symbol.
+	 * @param table The Huffman table.
+	 * @param alphabetSize The number of symbols in the alphabet.
+	 * @return The symbol.
+	 * @throws IOException if the code is invalid.
+	 */
+	private int decodeSymbol(int table, int alphabetSize) throws IOException {
+		int[] limit = limits[table];
+		int length = minimumLengths[table];
+		int code = bits(length);
+		while (code > limit[length]) {
+			if (++length > MAXIMUM_CODE_LENGTH) {
+				throw new IOException("Malformed bzip2 code");
+			}
+			code = (code << 1) | bits(1);
+		}
+		int index = code - bases[table][length];
+		if (index < 0 || index >= alphabetSize) {
+			throw new IOException("Malformed bzip2 code");
+		}
+		return permutations[table][index];
+	}
+
+	/**
+	 * Decompresses a headerless bzip2 stream.
+	 * @param compressed The array containing the compressed data.
+	 * @param offset The offset of the compressed data.
+	 * @param length The length of the compressed data.
+	 * @param uncompressed The array into which the data is decompressed.
+	 * @param uncompressedOffset The offset at which the data is decompressed.
+	 * @param uncompressedLength The length of the uncompressed data.
+	 * @throws IOException if the stream is malformed or its length differs from the expected length.
+	 */
+	public void decompress(byte[] compressed, int offset, int length, byte[] uncompressed, int uncompressedOffset,
+			int uncompressedLength) throws IOException {
+		input = compressed;
+		position = offset;
+		end = offset + length;
+		bitBuffer = 0;
+		bitCount = 0;
+		try {
+			int outputOffset = uncompressedOffset, outputEnd = uncompressedOffset + uncompressedLength;
+			while (true) {
+				long magic = (long) bits(24) << 24 | bits(24);
+				if (magic == END_MAGIC) {
+					break;
+				} else if (magic != BLOCK_MAGIC) {
+					throw new IOException("Malformed bzip2 block header");
+				}
+				outputOffset = decodeBlock(uncompressed, outputOffset, outputEnd);
+			}
+			if (outputOffset != outputEnd) {
+				throw new IOException("bzip2 length mismatch");
+			}
+		} finally {
+			input = null;
+		}
+	}
+}
@@ -10,6 +10,20 @@ import org.apollo.net.NetworkConstants;
  */
 public final class ByteBufferUtil {
 
+	/**
+	 * Reads a 'smart' from the specified buffer: an unsigned byte if the value is below 128, or an unsigned short
+	 * minus 32768 otherwise.
+	 * @param buffer The buffer.
+	 * @return The smart.
+	 */
+	public static int readSmart(ByteBuffer buffer) {
+		int peek = buffer.get(buffer.position()) & 0xFF;
+		if (peek < 128) {
+			return buffer.get() & 0xFF;
+		}
+		return (buffer.getShort() & 0xFFFF) - 32768;
+	}
+
 	/**
 	 * Reads an unsigned tri byte from the specified buffer.
 	 * @param buffer The buffer.
@@ -33,6 +47,16 @@ public final class ByteBufferUtil {
 		return bldr.toString();
 	}
 
+	/**
+	 * Writes an unsigned tri byte to the specified buffer.
+	 * @param buffer The buffer.
+	 * @param value The tri byte.
+	 */
+	public static void writeTriByte(ByteBuffer buffer, int value) {
+		buffer.put((byte) (value >> 16));
+		buffer.putShort((short) value);
+	}
+
 	/**
 	 * Default private constructor to prevent instantiation.
 	 */
@@ -4,11 +4,14 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
 import java.util.zip.DeflaterOutputStream;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
 
-import org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream;
 import org.apache.commons.compress.compressors.bzip2.BZip2CompressorOutputStream;
 
 /**
@@ -17,6 +20,105 @@ import org.apache.commons.compress.compressors.bzip2.BZip2CompressorOutputStream
  */
 public final class CompressionUtil {
 
+	/**
+	 * The bzip2 decompressor of each thread.
+	 */
+	private static final ThreadLocal<BZip2Decompressor> decompressors = new ThreadLocal<BZip2Decompressor>() {
+		@Override
+		protected BZip2Decompressor initialValue() {
+			return new BZip2Decompressor();
+		}
+	};
+
+	/**
+	 * The inflater of each thread.
+	 */
+	private static final ThreadLocal<Inflater> inflaters = new ThreadLocal<Inflater>() {
+		@Override
+		protected Inflater initialValue() {
+			return new Inflater(true);
+		}
+	};
+
+	/**
+	 * Ungzips the compressed array when the uncompressed length is not known in advance.
+	 * @param compressed The compressed array.
+	 * @return The uncompressed array.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	public static byte[] ungzip(byte[] compressed) throws IOException {
+		return ungzip(ByteBuffer.wrap(compressed));
+	}
+
+	/**
+	 * Ungzips the compressed data in the specified buffer, using this thread's inflater. The uncompressed length is
+	 * taken from the gzip trailer, so the result is allocated once at its exact size.
+	 * @param compressed The buffer containing the compressed data. Its position is not changed.
+	 * @return The uncompressed array.
+	 * @throws IOException if the data is not in the gzip format or is corrupt.
+	 */
+	public static byte[] ungzip(ByteBuffer compressed) throws IOException {
+		byte[] array;
+		int offset;
+		if (compressed.hasArray()) {
+			array = compressed.array();
+			offset = compressed.arrayOffset() + compressed.position();
+		} else {
+			array = new byte[compressed.remaining()];
+			compressed.duplicate().get(array);
+			offset = 0;
+		}
+		int end = offset + compressed.remaining();
+		if (end - offset < 18 || array[offset] != 0x1F || (array[offset + 1] & 0xFF) != 0x8B || array[offset + 2] != 8) {
+			throw new IOException("Not in gzip format");
+		}
+		int flags = array[offset + 3];
+		int position = offset + 10;
+		if ((flags & 4) != 0) { // extra field
+			position += 2 + ((array[position] & 0xFF) | (array[position + 1] & 0xFF) << 8);
+		}
+		for (int flag = 8; flag <= 16; flag <<= 1) { // file name and comment
+			if ((flags & flag) != 0) {
+				while (position < end && array[position++] != 0);
+			}
+		}
+		if ((flags & 2) != 0) { // header CRC
+			position += 2;
+		}
+		if (position > end - 8) {
+			throw new IOException("Corrupt gzip header");
+		}
+		int crc = (array[end - 8] & 0xFF) | (array[end - 7] & 0xFF) << 8 | (array[end - 6] & 0xFF) << 16
+				| (array[end - 5] & 0xFF) << 24;
+		int size = (array[end - 4] & 0xFF) | (array[end - 3] & 0xFF) << 8 | (array[end - 2] & 0xFF) << 16
+				| (array[end - 1] & 0xFF) << 24;
+		byte[] uncompressed = new byte[size];
+		Inflater inflater = inflaters.get();
+		inflater.reset();
+		inflater.setInput(array, position, end - 8 - position);
+		try {
+			int read = 0;
+			while (read < size) {
+				int inflated = inflater.inflate(uncompressed, read, size - read);
+				if (inflated == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+					break;
+				}
+				read += inflated;
+			}
+			if (read != size || !inflater.finished() && inflater.inflate(new byte[1]) != 0) {
+				throw new IOException("gzip length mismatch");
+			}
+		} catch (DataFormatException e) {
+			throw new IOException(e);
+		}
+		CRC32 checksum = new CRC32();
+		checksum.update(uncompressed, 0, size);
+		if ((int) checksum.getValue() != crc) {
+			throw new IOException("gzip CRC mismatch");
+		}
+		return uncompressed;
+	}
+
 	/**
 	 * Ungzips the compressed array and places the results into the uncompressed array.
 	 * @param compressed The compressed array.
@@ -39,19 +141,24 @@ public final class CompressionUtil {
 	 * @throws IOException if an I/O error occurs.
 	 */
 	public static void unbzip2(byte[] compressed, byte[] uncompressed) throws IOException {
-		byte[] newCompressed = new byte[compressed.length + 4];
-		newCompressed[0] = 'B';
-		newCompressed[1] = 'Z';
-		newCompressed[2] = 'h';
-		newCompressed[3] = '1';
-		System.arraycopy(compressed, 0, newCompressed, 4, compressed.length);
-		DataInputStream is = new DataInputStream(
-				new BZip2CompressorInputStream(new ByteArrayInputStream(newCompressed)));
-		try {
-			is.readFully(uncompressed);
-		} finally {
-			is.close();
-		}
+		unbzip2(compressed, 0, compressed.length, uncompressed, 0, uncompressed.length);
+	}
+
+	/**
+	 * Unbzip2s part of the compressed array directly into part of the uncompressed array, using this thread's
+	 * decompressor. The data must be a headerless stream with a block size of 100k, as found in the cache.
+	 * @param compressed The compressed array.
+	 * @param offset The offset of the compressed data.
+	 * @param length The length of the compressed data.
+	 * @param uncompressed The uncompressed array.
+	 * @param uncompressedOffset The offset at which the data is placed.
+	 * @param uncompressedLength The length of the uncompressed data.
+	 * @throws IOException if the data is corrupt or its uncompressed length differs.
+	 */
+	public static void unbzip2(byte[] compressed, int offset, int length, byte[] uncompressed, int uncompressedOffset,
+			int uncompressedLength) throws IOException {
+		decompressors.get().decompress(compressed, offset, length, uncompressed, uncompressedOffset,
+				uncompressedLength);
 	}
 
 	/**
@@ -0,0 +1,233 @@
+package org.apollo.util;
+
+import java.util.Arrays;
+
+/**
+ * A hash map with primitive {@code int} keys, which uses open addressing with linear probing so that neither keys nor
+ * entries are boxed. {@code null} values are not permitted.
+ * <p>
+ * The map can be iterated without allocating by visiting every slot from {@code 0} to {@link #capacity()} and
+ * skipping those for which {@link #valueAt(int)} returns {@code null}. Entries must not be added or removed while
+ * doing so, as that moves other entries between slots.
+ * @param <V> The type of value.
+ */
+public final class IntHashMap<V> {
+
+	/**
+	 * The default capacity.
+	 */
+	private static final int DEFAULT_CAPACITY = 16;
+
+	/**
+	 * The keys, indexed by slot.
+	 */
+	private int[] keys;
+
+	/**
+	 * The values, indexed by slot. A {@code null} value marks an empty slot.
+	 */
+	private Object[] values;
+
+	/**
+	 * The number of entries.
+	 */
+	private int size;
+
+	/**
+	 * Creates an empty map with the default capacity.
+	 */
+	public IntHashMap() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Creates an empty map.
+	 * @param expectedSize The number of entries which the map is expected to hold.
+	 */
+	public IntHashMap(int expectedSize) {
+		int capacity = Integer.highestOneBit(Math.max(expectedSize * 2 - 1, DEFAULT_CAPACITY - 1)) << 1;
+		keys = new int[capacity];
+		values = new Object[capacity];
+	}
+
+	/**
+	 * Gets the number of slots in this map.
+	 * @return The capacity.
+	 */
+	public int capacity() {
+		return values.length;
+	}
+
+	/**
+	 * Removes every entry from this map.
+	 */
+	public void clear() {
+		Arrays.fill(values, null);
+		size = 0;
+	}
+
+	/**
+	 * Checks if this map contains the specified key.
+	 * @param key The key.
+	 * @return {@code true} if so, {@code false} if not.
+	 */
+	public boolean containsKey(int key) {
+		return values[find(key)] != null;
+	}
+
+	/**
+	 * Finds the slot which holds the specified key, or the empty slot at which it would be inserted.
+	 * @param key The key.
+	 * @return The slot.
+	 */
+	private int find(int key) {
+		int mask = values.length - 1;
+		int slot = slot(key, mask);
+		while (values[slot] != null && keys[slot] != key) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	/**
+	 * Gets the value associated with the specified key.
+	 * @param key The key.
+	 * @return The value, or {@code null} if there is none.
+	 */
+	@SuppressWarnings("unchecked")
+	public V get(int key) {
+		return (V) values[find(key)];
+	}
+
+	/**
+	 * Checks if this map is empty.
+	 * @return {@code true} if so, {@code false} if not.
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Gets the key in the specified slot. The result is meaningless if the slot is empty.
+	 * @param slot The slot.
+	 * @return The key.
+	 */
+	public int keyAt(int slot) {
+		return keys[slot];
+	}
+
+	/**
+	 * Associates a value with the specified key.
+	 * @param key The key.
+	 * @param value The value.
+	 * @return The value previously associated with the key, or {@code null} if there was none.
+	 */
+	@SuppressWarnings("unchecked")
+	public V put(int key, V value) {
+		if (value == null) {
+			throw new NullPointerException("value");
+		}
+		int slot = find(key);
+		V previous = (V) values[slot];
+		if (previous == null) {
+			if ((size + 1) * 2 > values.length) {
+				resize(values.length * 2);
+				slot = find(key);
+			}
+			keys[slot] = key;
+			size++;
+		}
+		values[slot] = value;
+		return previous;
+	}
+
+	/**
+	 * Copies every entry of another map into this map.
+	 * @param other The other map.
+	 */
+	@SuppressWarnings("unchecked")
+	public void putAll(IntHashMap<? extends V> other) {
+		for (int slot = 0; slot < other.values.length; slot++) {
+			if (other.values[slot] != null) {
+				put(other.keys[slot], (V) other.values[slot]);
+			}
+		}
+	}
+
+	/**
+	 * Removes the value associated with the specified key.
+	 * @param key The key.
+	 * @return The removed value, or {@code null} if there was none.
+	 */
+	@SuppressWarnings("unchecked")
+	public V remove(int key) {
+		int slot = find(key);
+		V previous = (V) values[slot];
+		if (previous == null) {
+			return null;
+		}
+		int mask = values.length - 1;
+		values[slot] = null;
+		size--;
+		// shift back the entries of the same probe sequence so that no lookup stops at the hole early
+		int next = (slot + 1) & mask;
+		while (values[next] != null) {
+			int home = slot(keys[next], mask);
+			if (((next - home) & mask) >= ((next - slot) & mask)) {
+				keys[slot] = keys[next];
+				values[slot] = values[next];
+				values[next] = null;
+				slot = next;
+			}
+			next = (next + 1) & mask;
+		}
+		return previous;
+	}
+
+	/**
+	 * Rehashes every entry into new arrays.
+	 * @param capacity The new capacity, which must be a power of two.
+	 */
+	private void resize(int capacity) {
+		int[] oldKeys = keys;
+		Object[] oldValues = values;
+		keys = new int[capacity];
+		values = new Object[capacity];
+		for (int slot = 0; slot < oldValues.length; slot++) {
+			if (oldValues[slot] != null) {
+				int index = find(oldKeys[slot]);
+				keys[index] = oldKeys[slot];
+				values[index] = oldValues[slot];
+			}
+		}
+	}
+
+	/**
+	 * Gets the number of entries in this map.
+	 * @return The size.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Gets the preferred slot of a key.
+	 * @param key The key.
+	 * @param mask The capacity minus one.
+	 * @return The slot.
+	 */
+	private int slot(int key, int mask) {
+		int hash = key * 0x9E3779B9;
+		return (hash ^ (hash >>> 16)) & mask;
+	}
+
+	/**
+	 * Gets the value in the specified slot.
+	 * @param slot The slot.
+	 * @return The value, or {@code null} if the slot is empty.
+	 */
+	@SuppressWarnings("unchecked")
+	public V valueAt(int slot) {
+		return (V) values[slot];
+	}
+}
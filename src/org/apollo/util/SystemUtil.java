@@ -1,54 +1,407 @@
 package org.apollo.util;
 
-import org.hyperic.sigar.CpuPerc;
-import org.hyperic.sigar.ProcCpu;
-import org.hyperic.sigar.ProcMem;
-import org.hyperic.sigar.Sigar;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryUsage;
+import java.lang.management.OperatingSystemMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
- * Gets some system information.
+ * Gets some system information. The information is read from the platform management beans of the JVM, and from
+ * {@code /proc} where it is available, so no native library is needed. It is sampled once a second by a background
+ * thread and cached, so getting it is cheap.
  * @author Steve
  */
 public final class SystemUtil {
 
 	/**
-	 * The sigar api.
+	 * The information gathered by a single sample.
 	 */
-	private static Sigar sigar = new Sigar();
+	public static final class Sample {
+
+		/**
+		 * The CPU usage of the process, as a percentage of all processors.
+		 */
+		private int cpuUsage;
+
+		/**
+		 * The resident memory of the process, in bytes.
+		 */
+		private long residentMemory;
+
+		/**
+		 * The used and maximum heap memory, in bytes.
+		 */
+		private long heapUsed, heapMax;
+
+		/**
+		 * The used non-heap memory, in bytes.
+		 */
+		private long nonHeapUsed;
+
+		/**
+		 * The used memory of each memory pool, in bytes, by pool name.
+		 */
+		private final Map<String, Long> poolsUsed = new HashMap<String, Long>();
+
+		/**
+		 * The memory used by direct buffers, in bytes.
+		 */
+		private long directMemoryUsed;
+
+		/**
+		 * The number of garbage collections and the time spent in them since the JVM started, in milliseconds.
+		 */
+		private long gcCount, gcTime;
+
+		/**
+		 * The number of live threads and daemon threads.
+		 */
+		private int threadCount, daemonThreadCount;
+
+		/**
+		 * The rate at which the live threads allocated memory since the previous sample, in bytes per second.
+		 */
+		private long allocationRate;
+
+		/**
+		 * Gets the rate at which the live threads allocated memory since the previous sample, in bytes per second.
+		 * @return The allocation rate, or 0 if the JVM cannot measure it.
+		 */
+		public long getAllocationRate() {
+			return allocationRate;
+		}
+
+		/**
+		 * Gets the CPU usage of the process, as a percentage of all processors.
+		 * @return The CPU usage.
+		 */
+		public int getCpuUsage() {
+			return cpuUsage;
+		}
+
+		/**
+		 * Gets the number of live daemon threads.
+		 * @return The number of daemon threads.
+		 */
+		public int getDaemonThreadCount() {
+			return daemonThreadCount;
+		}
+
+		/**
+		 * Gets the memory used by direct buffers.
+		 * @return The memory, in bytes.
+		 */
+		public long getDirectMemoryUsed() {
+			return directMemoryUsed;
+		}
+
+		/**
+		 * Gets the number of garbage collections since the JVM started.
+		 * @return The number of garbage collections.
+		 */
+		public long getGcCount() {
+			return gcCount;
+		}
+
+		/**
+		 * Gets the time spent in garbage collection since the JVM started.
+		 * @return The time, in milliseconds.
+		 */
+		public long getGcTime() {
+			return gcTime;
+		}
+
+		/**
+		 * Gets the maximum heap memory.
+		 * @return The memory, in bytes, or -1 if it is undefined.
+		 */
+		public long getHeapMax() {
+			return heapMax;
+		}
+
+		/**
+		 * Gets the used heap memory.
+		 * @return The memory, in bytes.
+		 */
+		public long getHeapUsed() {
+			return heapUsed;
+		}
+
+		/**
+		 * Gets the used non-heap memory.
+		 * @return The memory, in bytes.
+		 */
+		public long getNonHeapUsed() {
+			return nonHeapUsed;
+		}
+
+		/**
+		 * Gets the resident memory of the process. Where it cannot be read from {@code /proc}, this is the memory
+		 * committed to the heap and non-heap memory instead.
+		 * @return The memory, in bytes.
+		 */
+		public long getResidentMemory() {
+			return residentMemory;
+		}
+
+		/**
+		 * Gets the number of live threads.
+		 * @return The number of threads.
+		 */
+		public int getThreadCount() {
+			return threadCount;
+		}
+
+		/**
+		 * Writes the sample as gauges, and the totals since the virtual machine started as counters, in the Prometheus
+		 * text format.
+		 * @param builder The builder to write to.
+		 */
+		public void writeMetrics(StringBuilder builder) {
+			writeGauge(builder, "apollo_process_cpu_percent", cpuUsage);
+			writeGauge(builder, "apollo_process_resident_memory_bytes", residentMemory);
+			writeGauge(builder, "apollo_jvm_heap_used_bytes", heapUsed);
+			writeGauge(builder, "apollo_jvm_heap_max_bytes", heapMax);
+			writeGauge(builder, "apollo_jvm_non_heap_used_bytes", nonHeapUsed);
+			builder.append("# TYPE apollo_jvm_memory_pool_used_bytes gauge\n");
+			for (Map.Entry<String, Long> pool : poolsUsed.entrySet()) {
+				builder.append("apollo_jvm_memory_pool_used_bytes{pool=\"").append(pool.getKey()).append("\"} ")
+						.append(pool.getValue()).append('\n');
+			}
+			writeGauge(builder, "apollo_jvm_direct_memory_used_bytes", directMemoryUsed);
+			writeCounter(builder, "apollo_jvm_gc_collections_total", gcCount);
+			writeCounter(builder, "apollo_jvm_gc_time_milliseconds_total", gcTime);
+			writeGauge(builder, "apollo_jvm_threads", threadCount);
+			writeGauge(builder, "apollo_jvm_daemon_threads", daemonThreadCount);
+			writeGauge(builder, "apollo_jvm_allocation_rate_bytes", allocationRate);
+		}
+	}
+
+	/**
+	 * The time between samples, in milliseconds.
+	 */
+	private static final long SAMPLE_PERIOD = 1000;
 
 	/**
-	 * Get the system load average.
-	 * @return The system load average.
+	 * The file from which the resident memory of the process is read.
+	 */
+	private static final File PROC_STATUS = new File("/proc/self/status");
+
+	/**
+	 * The logger for this class.
+	 */
+	private static final Logger logger = Logger.getLogger(SystemUtil.class.getName());
+
+	/**
+	 * The executor which takes samples.
+	 */
+	private static ScheduledExecutorService sampler;
+
+	/**
+	 * The latest sample.
+	 */
+	private static volatile Sample sample = new Sample();
+
+	/**
+	 * The CPU time of the process and the wall clock time at the previous sample, in nanoseconds.
+	 */
+	private static long lastCpuTime, lastSampleTime;
+
+	/**
+	 * The number of bytes each thread had allocated at the previous sample, by thread id.
+	 */
+	private static Map<Long, Long> lastAllocated = new HashMap<Long, Long>();
+
+	/**
+	 * Get the CPU usage of the process, as a percentage of all processors.
+	 * @return The CPU usage.
 	 */
 	public static int getCpuUsage() {
-		int cpu = 0;
-		try {
-			ProcCpu procCPU = sigar.getProcCpu(sigar.getPid());
-			cpu = (int) Double.parseDouble(CpuPerc.format(procCPU.getPercent()).replace("%", ""));
-		} catch (Exception e) {
-		}
-		return cpu;
+		return sample.cpuUsage;
 	}
 
 	/**
 	 * Gets the process id.
-	 * @return pid The process id.
+	 * @return pid The process id, or -1 if it is not known.
 	 */
 	public static long getProcessId() {
-		return sigar.getPid();
+		String name = ManagementFactory.getRuntimeMXBean().getName();
+		int index = name.indexOf('@');
+		try {
+			return Long.parseLong(index == -1 ? name : name.substring(0, index));
+		} catch (NumberFormatException e) {
+			return -1;
+		}
 	}
 
 	/**
-	 * Get the system ram usage in MB.
+	 * Get the resident memory of the process in MB.
 	 * @return The ram usage in MB.
 	 */
 	public static int getRamUsage() {
-		int ram = 0;
+		return (int) (sample.residentMemory / 1024 / 1024);
+	}
+
+	/**
+	 * Gets the latest sample.
+	 * @return The sample.
+	 */
+	public static Sample getSample() {
+		return sample;
+	}
+
+	/**
+	 * Reads the resident memory of the process from {@code /proc}.
+	 * @return The memory, in bytes, or -1 if it could not be read.
+	 */
+	private static long readResidentMemory() {
+		if (!PROC_STATUS.exists()) {
+			return -1;
+		}
 		try {
-			ProcMem procMem = sigar.getProcMem(sigar.getPid());
-			ram = (int) (procMem.getResident() / 1024) / 1024;
-		} catch (Exception e) {
+			BufferedReader reader = new BufferedReader(new FileReader(PROC_STATUS));
+			try {
+				String line;
+				while ((line = reader.readLine()) != null) {
+					if (line.startsWith("VmRSS:")) {
+						String value = line.substring(6).trim();
+						return Long.parseLong(value.substring(0, value.indexOf(' '))) * 1024;
+					}
+				}
+			} finally {
+				reader.close();
+			}
+		} catch (IOException e) {
+			// fall back to the committed memory
+		} catch (RuntimeException e) {
+			// the line is malformed, so fall back to the committed memory
+		}
+		return -1;
+	}
+
+	/**
+	 * Takes a sample.
+	 * @return The sample.
+	 */
+	private static Sample takeSample() {
+		Sample sample = new Sample();
+		long now = System.nanoTime();
+
+		OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+		if (os instanceof com.sun.management.OperatingSystemMXBean) {
+			long cpuTime = ((com.sun.management.OperatingSystemMXBean) os).getProcessCpuTime();
+			long elapsed = (now - lastSampleTime) * os.getAvailableProcessors();
+			if (lastSampleTime != 0 && elapsed > 0) {
+				sample.cpuUsage = (int) Math.min(100, (cpuTime - lastCpuTime) * 100 / elapsed);
+			}
+			lastCpuTime = cpuTime;
 		}
-		return ram;
+
+		MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+		MemoryUsage nonHeap = ManagementFactory.getMemoryMXBean().getNonHeapMemoryUsage();
+		sample.heapUsed = heap.getUsed();
+		sample.heapMax = heap.getMax();
+		sample.nonHeapUsed = nonHeap.getUsed();
+		long resident = readResidentMemory();
+		sample.residentMemory = resident == -1 ? heap.getCommitted() + nonHeap.getCommitted() : resident;
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			sample.poolsUsed.put(pool.getName(), pool.getUsage().getUsed());
+		}
+		for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+			if (pool.getName().equals("direct")) {
+				sample.directMemoryUsed = pool.getMemoryUsed();
+			}
+		}
+
+		for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+			sample.gcCount += Math.max(0, collector.getCollectionCount());
+			sample.gcTime += Math.max(0, collector.getCollectionTime());
+		}
+
+		ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		sample.threadCount = threads.getThreadCount();
+		sample.daemonThreadCount = threads.getDaemonThreadCount();
+		if (threads instanceof com.sun.management.ThreadMXBean) {
+			long[] ids = threads.getAllThreadIds();
+			long[] allocated = ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(ids);
+			Map<Long, Long> current = new HashMap<Long, Long>();
+			long total = 0;
+			for (int i = 0; i < ids.length; i++) {
+				if (allocated[i] == -1) {
+					continue;
+				}
+				Long last = lastAllocated.get(ids[i]);
+				total += allocated[i] - (last == null ? 0 : last);
+				current.put(ids[i], allocated[i]);
+			}
+			if (lastSampleTime != 0 && now > lastSampleTime) {
+				sample.allocationRate = total * TimeUnit.SECONDS.toNanos(1) / (now - lastSampleTime);
+			}
+			lastAllocated = current;
+		}
+
+		lastSampleTime = now;
+		return sample;
+	}
+
+	/**
+	 * Starts sampling the system information in the background.
+	 */
+	public static synchronized void start() {
+		if (sampler != null) {
+			return;
+		}
+		sample = takeSample();
+		sampler = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("SystemUtil"));
+		sampler.scheduleAtFixedRate(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					sample = takeSample();
+				} catch (Throwable t) {
+					logger.log(Level.WARNING, "Failed to sample the system information.", t);
+				}
+			}
+		}, SAMPLE_PERIOD, SAMPLE_PERIOD, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Writes a counter in the Prometheus text format.
+	 * @param builder The builder to write to.
+	 * @param name The name of the counter, which ends in {@code _total}.
+	 * @param value The value.
+	 */
+	private static void writeCounter(StringBuilder builder, String name, long value) {
+		builder.append("# TYPE ").append(name).append(" counter\n").append(name).append(' ').append(value).append('\n');
+	}
+
+	/**
+	 * Writes a gauge in the Prometheus text format.
+	 * @param builder The builder to write to.
+	 * @param name The name of the gauge.
+	 * @param value The value.
+	 */
+	private static void writeGauge(StringBuilder builder, String name, long value) {
+		builder.append("# TYPE ").append(name).append(" gauge\n").append(name).append(' ').append(value).append('\n');
+	}
+
+	/**
+	 * Default private constructor to prevent instantiation.
+	 */
+	private SystemUtil() {
 	}
 }
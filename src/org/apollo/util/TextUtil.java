@@ -191,7 +191,7 @@ public final class TextUtil {
 	 * @return The uncompressed {@link String}.
 	 */
 	public static String uncompress(byte[] in, int len) {
-		byte[] out = new byte[4096];
+		byte[] out = new byte[len * 2];
 		int outPos = 0;
 		int carry = -1;
 		for (int i = 0; i < (len * 2); i++) {
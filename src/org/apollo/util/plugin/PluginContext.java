@@ -1,5 +1,8 @@
 package org.apollo.util.plugin;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -11,12 +14,24 @@ import org.apollo.backend.method.handler.MethodHandler;
 import org.apollo.backend.method.handler.chain.MethodHandlerChain;
 import org.apollo.backend.method.handler.chain.MethodHandlerChainGroup;
 import org.apollo.game.GameService;
+import org.apollo.game.PulseStage;
 import org.apollo.game.command.CommandListener;
 import org.apollo.game.event.Event;
 import org.apollo.game.event.handler.EventHandler;
+import org.apollo.game.event.handler.KeyedEventHandler;
 import org.apollo.game.event.handler.chain.EventHandlerChain;
 import org.apollo.game.event.handler.chain.EventHandlerChainGroup;
+import org.apollo.game.event.handler.impl.KeyedButtonEventHandler;
+import org.apollo.game.event.handler.impl.KeyedItemOptionEventHandler;
+import org.apollo.game.event.handler.impl.KeyedNpcOptionEventHandler;
+import org.apollo.game.event.handler.impl.KeyedObjectActionEventHandler;
+import org.apollo.game.event.handler.impl.ProfiledEventHandler;
+import org.apollo.game.event.impl.ButtonEvent;
+import org.apollo.game.event.impl.ItemOptionEvent;
+import org.apollo.game.event.impl.NpcOptionEvent;
+import org.apollo.game.event.impl.ObjectActionEvent;
 import org.apollo.game.model.World;
+import org.apollo.game.profile.TickProfiler;
 import org.apollo.net.release.EventDecoder;
 import org.apollo.net.release.EventEncoder;
 import org.apollo.net.release.Release;
@@ -24,6 +39,10 @@ import org.apollo.net.release.Release;
 /**
  * The {@link PluginContext} contains methods a plugin can use to interface with the server, for example, by adding
  * {@link EventHandler}s to {@link EventHandlerChain}s.
+ * <p>
+ * Handlers and command listeners are recorded in the {@link PluginRegistrations} of the plugin which is running, and
+ * only take effect once they are published. Publishing the registrations of a plugin which has been reloaded replaces
+ * those of its previous version. Event decoders and encoders take effect immediately and are never replaced.
  * @author Graham
  */
 public final class PluginContext {
@@ -38,6 +57,36 @@ public final class PluginContext {
 	 */
 	private static final Logger logger = Logger.getLogger(FrontendSession.class.getName());
 
+	/**
+	 * The button handlers, by interface id.
+	 */
+	private final KeyedEventHandler<ButtonEvent> buttonHandlers = new KeyedButtonEventHandler();
+
+	/**
+	 * The item option handlers, by option and item id.
+	 */
+	private final KeyedEventHandler<ItemOptionEvent> itemOptionHandlers = new KeyedItemOptionEventHandler();
+
+	/**
+	 * The NPC option handlers, by option and NPC id.
+	 */
+	private final KeyedEventHandler<NpcOptionEvent> npcOptionHandlers = new KeyedNpcOptionEventHandler();
+
+	/**
+	 * The object action handlers, by option and object id.
+	 */
+	private final KeyedEventHandler<ObjectActionEvent> objectActionHandlers = new KeyedObjectActionEventHandler();
+
+	/**
+	 * The published registrations, by plugin id.
+	 */
+	private final Map<String, PluginRegistrations> published = new HashMap<String, PluginRegistrations>();
+
+	/**
+	 * The registrations of the plugin which is running on the current thread.
+	 */
+	private final ThreadLocal<PluginRegistrations> running = new ThreadLocal<PluginRegistrations>();
+
 	/**
 	 * Creates the plugin context.
 	 * @param context The server context.
@@ -46,15 +95,23 @@ public final class PluginContext {
 		this.context = context;
 	}
 
+	/**
+	 * Adds a handler for the clicks of a single button. Unlike a handler added to the end of the {@link ButtonEvent}
+	 * chain, it is only called for clicks of that button.
+	 * @param button The interface id of the button.
+	 * @param handler The handler.
+	 */
+	public void addButtonHandler(int button, EventHandler<ButtonEvent> handler) {
+		getRegistrations().addKeyedEventHandler(buttonHandlers, button, profile(handler));
+	}
+
 	/**
 	 * Adds a command listener.
 	 * @param name The name of the listener.
 	 * @param listener The listener.
 	 */
 	public void addCommandListener(String name, CommandListener listener) {
-		World.getWorld().getCommandDispatcher().register(name, listener); // TODO
-		// best
-		// way?
+		getRegistrations().addCommandListener(name, listener);
 	}
 
 	/**
@@ -87,6 +144,17 @@ public final class PluginContext {
 		release.register(event, encoder);
 	}
 
+	/**
+	 * Adds a handler for a single option of a single item.
+	 * @param option The option.
+	 * @param item The item id.
+	 * @param handler The handler.
+	 */
+	public void addItemOptionHandler(int option, int item, EventHandler<ItemOptionEvent> handler) {
+		getRegistrations().addKeyedEventHandler(itemOptionHandlers, KeyedEventHandler.key(option, item),
+				profile(handler));
+	}
+
 	/**
 	 * Adds an event handler to the end of the chain.
 	 * @param <T> The type of event.
@@ -99,7 +167,7 @@ public final class PluginContext {
 		if (chain == null) {
 			logger.log(Level.WARNING, "Chain missing, add " + event.getCanonicalName() + " to events.xml");
 		} else {
-			chain.addLast(handler);
+			getRegistrations().addEventHandler(chain, profile(handler));
 		}
 	}
 
@@ -115,7 +183,133 @@ public final class PluginContext {
 		if (chain == null) {
 			logger.log(Level.WARNING, "Chain missing, add " + event.getCanonicalName() + " to methods.xml");
 		} else {
-			chain.addLast(handler);
+			getRegistrations().addMethodHandler(chain, handler);
+		}
+	}
+
+	/**
+	 * Adds a handler for a single option of NPCs with the specified id.
+	 * @param option The option.
+	 * @param npc The NPC id.
+	 * @param handler The handler.
+	 */
+	public void addNpcOptionHandler(int option, int npc, EventHandler<NpcOptionEvent> handler) {
+		getRegistrations().addKeyedEventHandler(npcOptionHandlers, KeyedEventHandler.key(option, npc),
+				profile(handler));
+	}
+
+	/**
+	 * Adds a handler for a single action of objects with the specified id.
+	 * @param option The option.
+	 * @param object The object id.
+	 * @param handler The handler.
+	 */
+	public void addObjectActionHandler(int option, int object, EventHandler<ObjectActionEvent> handler) {
+		getRegistrations().addKeyedEventHandler(objectActionHandlers, KeyedEventHandler.key(option, object),
+				profile(handler));
+	}
+
+	/**
+	 * Adds a stage to the game pulse, replacing any stage with the same name. The stage is only run if its name is
+	 * listed in the services.xml file.
+	 * @param name The name of the stage.
+	 * @param stage The stage.
+	 */
+	public void addPulseStage(String name, PulseStage stage) {
+		context.getService(GameService.class).registerStage(name, stage);
+	}
+
+	/**
+	 * Gets the registrations of the plugin which is running on the current thread.
+	 * @return The registrations.
+	 * @throws IllegalStateException if no plugin is running on the current thread.
+	 */
+	private PluginRegistrations getRegistrations() {
+		PluginRegistrations registrations = running.get();
+		if (registrations == null) {
+			throw new IllegalStateException("Handlers may only be added while a plugin is running.");
+		}
+		return registrations;
+	}
+
+	/**
+	 * Adds a keyed event handler to the end of the chains of the event and its subclasses, if the registrations use it
+	 * and it has not been added already.
+	 * @param <T> The type of event.
+	 * @param event The event.
+	 * @param keyed The keyed event handler.
+	 * @param registrations The registrations.
+	 */
+	@SuppressWarnings("unchecked")
+	private <T extends Event> void installKeyedEventHandler(Class<T> event, KeyedEventHandler<T> keyed,
+			PluginRegistrations registrations) {
+		if (keyed.size() != 0 || !registrations.hasKeyedEventHandlers(keyed)) {
+			return;
+		}
+		EventHandlerChainGroup chains = context.getService(GameService.class).getEventHandlerChains();
+		List<EventHandlerChain<? extends T>> matches = chains.getChains(event);
+		if (matches.isEmpty()) {
+			logger.log(Level.WARNING, "Chain missing, add " + event.getCanonicalName() + " to events.xml");
+		}
+		for (EventHandlerChain<? extends T> chain : matches) {
+			((EventHandlerChain<T>) chain).addLast(keyed);
+		}
+	}
+
+	/**
+	 * Wraps an event handler of the plugin which is running on the current thread, so that the time it takes is
+	 * recorded under the plugin's id.
+	 * @param <T> The type of event.
+	 * @param handler The handler.
+	 * @return The wrapped handler.
+	 */
+	private <T extends Event> EventHandler<T> profile(EventHandler<T> handler) {
+		TickProfiler profiler = context.getService(GameService.class).getProfiler();
+		String plugin = getRegistrations().getPlugin();
+		return new ProfiledEventHandler<T>(handler, profiler.getTimer(TickProfiler.PLUGIN, plugin));
+	}
+
+	/**
+	 * Publishes the registrations of a plugin, replacing those which were previously published for it. This must only
+	 * be called by the game thread, or before the game service has started.
+	 * @param plugin The plugin id.
+	 * @param registrations The registrations.
+	 */
+	public synchronized void publish(String plugin, PluginRegistrations registrations) {
+		installKeyedEventHandler(ButtonEvent.class, buttonHandlers, registrations);
+		installKeyedEventHandler(ItemOptionEvent.class, itemOptionHandlers, registrations);
+		installKeyedEventHandler(NpcOptionEvent.class, npcOptionHandlers, registrations);
+		installKeyedEventHandler(ObjectActionEvent.class, objectActionHandlers, registrations);
+		PluginRegistrations old = published.put(plugin, registrations);
+		registrations.replace(old == null ? new PluginRegistrations(plugin) : old,
+				World.getWorld().getCommandDispatcher());
+	}
+
+	/**
+	 * Submits a task to be run on the game thread at the start of the next pulse, before any events are handled.
+	 * Returns immediately.
+	 * @param task The task.
+	 */
+	public void submit(Runnable task) {
+		context.getService(GameService.class).submit(task);
+	}
+
+	/**
+	 * Runs the scripts of a plugin, recording the handlers and command listeners they add.
+	 * @param plugin The plugin id.
+	 * @param scripts The tasks which run the scripts.
+	 * @return The registrations of the plugin, which have not yet been published.
+	 */
+	public PluginRegistrations run(String plugin, Runnable[] scripts) {
+		PluginRegistrations registrations = new PluginRegistrations(plugin);
+		running.set(registrations);
+		try {
+			for (Runnable script : scripts) {
+				script.run();
+			}
+		} finally {
+			running.remove();
 		}
+		return registrations;
 	}
 }
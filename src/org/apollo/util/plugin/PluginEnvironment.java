@@ -8,6 +8,15 @@ import java.io.InputStream;
  */
 public interface PluginEnvironment {
 
+	/**
+	 * Parses the input stream without running it. Several threads may call this method at once, and any thread may
+	 * run the returned task.
+	 * @param is The input stream.
+	 * @param name The name of the file.
+	 * @return A task which runs the parsed script.
+	 */
+	public Runnable compile(InputStream is, String name);
+
 	/**
 	 * Parses the input stream.
 	 * @param is The input stream.
@@ -1,21 +1,38 @@
 package org.apollo.util.plugin;
 
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import org.apollo.io.PluginMetaDataParser;
+import org.apollo.util.NamedThreadFactory;
 import org.xml.sax.SAXException;
 
 /**
@@ -24,6 +41,70 @@ import org.xml.sax.SAXException;
  */
 public final class PluginManager {
 
+	/**
+	 * A plugin whose scripts have been parsed.
+	 */
+	private static final class CompiledPlugin {
+
+		/**
+		 * The plugin's meta data.
+		 */
+		private final PluginMetaData meta;
+
+		/**
+		 * The tasks which run the parsed scripts.
+		 */
+		private final Runnable[] scripts;
+
+		/**
+		 * The time it took to read and parse the scripts, in nanoseconds.
+		 */
+		private final long compileTime;
+
+		/**
+		 * Creates the compiled plugin.
+		 * @param meta The plugin's meta data.
+		 * @param scripts The tasks which run the parsed scripts.
+		 * @param compileTime The time it took to read and parse the scripts, in nanoseconds.
+		 */
+		public CompiledPlugin(PluginMetaData meta, Runnable[] scripts, long compileTime) {
+			this.meta = meta;
+			this.scripts = scripts;
+			this.compileTime = compileTime;
+		}
+	}
+
+	/**
+	 * A parsed script, along with the digest of the source it was parsed from.
+	 */
+	private static final class ParsedScript {
+
+		/**
+		 * The SHA-1 digest of the source.
+		 */
+		private final byte[] digest;
+
+		/**
+		 * The task which runs the script.
+		 */
+		private final Runnable task;
+
+		/**
+		 * Creates the parsed script.
+		 * @param digest The SHA-1 digest of the source.
+		 * @param task The task which runs the script.
+		 */
+		public ParsedScript(byte[] digest, Runnable task) {
+			this.digest = digest;
+			this.task = task;
+		}
+	}
+
+	/**
+	 * The logger for this class.
+	 */
+	private static final Logger logger = Logger.getLogger(PluginManager.class.getName());
+
 	/**
 	 * The plugin context.
 	 */
@@ -34,6 +115,27 @@ public final class PluginManager {
 	 */
 	private final SortedSet<String> authors = new TreeSet<String>();
 
+	/**
+	 * The executor which reloads plugins.
+	 */
+	private final ExecutorService reloader = Executors.newSingleThreadExecutor(new NamedThreadFactory(
+			"PluginReloader"));
+
+	/**
+	 * The parsed scripts, by file name, which are reused while their source is unchanged.
+	 */
+	private final ConcurrentMap<String, ParsedScript> parsed = new ConcurrentHashMap<String, ParsedScript>();
+
+	/**
+	 * The environment, or {@code null} if the plugin system has not been started.
+	 */
+	private volatile PluginEnvironment env;
+
+	/**
+	 * The plugin map.
+	 */
+	private volatile Map<String, PluginMetaData> plugins = Collections.emptyMap();
+
 	/**
 	 * Creates the plugin manager.
 	 * @param context The plugin context.
@@ -43,6 +145,34 @@ public final class PluginManager {
 		initAuthors();
 	}
 
+	/**
+	 * Reads and parses the scripts of a plugin. A script whose source has the same digest as when it was last parsed
+	 * is not parsed again.
+	 * @param env The environment.
+	 * @param plugin The plugin.
+	 * @return The parsed plugin.
+	 * @throws IOException if a script could not be read.
+	 */
+	private CompiledPlugin compile(PluginEnvironment env, PluginMetaData plugin) throws IOException {
+		long start = System.nanoTime();
+		String[] scripts = plugin.getScripts();
+		Runnable[] compiled = new Runnable[scripts.length];
+		for (int i = 0; i < scripts.length; i++) {
+			File f = new File("./data/plugins/" + plugin.getId() + "/" + scripts[i]);
+			String name = f.getAbsolutePath();
+			byte[] source = read(f);
+			byte[] digest = digest(source);
+
+			ParsedScript script = parsed.get(name);
+			if (script == null || !Arrays.equals(script.digest, digest)) {
+				script = new ParsedScript(digest, env.compile(new ByteArrayInputStream(source), name));
+				parsed.put(name, script);
+			}
+			compiled[i] = script.task;
+		}
+		return new CompiledPlugin(plugin, compiled, System.nanoTime() - start);
+	}
+
 	/**
 	 * Creates an iterator for the set of authors.
 	 * @return The iterator.
@@ -51,6 +181,21 @@ public final class PluginManager {
 		return authors.iterator();
 	}
 
+	/**
+	 * Creates a task which reads and parses the scripts of a plugin.
+	 * @param env The environment.
+	 * @param plugin The plugin.
+	 * @return The task.
+	 */
+	private Callable<CompiledPlugin> createCompileTask(final PluginEnvironment env, final PluginMetaData plugin) {
+		return new Callable<CompiledPlugin>() {
+			@Override
+			public CompiledPlugin call() throws IOException {
+				return compile(env, plugin);
+			}
+		};
+	}
+
 	/**
 	 * Creates a plugin map from a collection.
 	 * @param plugins The plugin collection.
@@ -64,6 +209,19 @@ public final class PluginManager {
 		return Collections.unmodifiableMap(map);
 	}
 
+	/**
+	 * Computes the SHA-1 digest of a script's source.
+	 * @param source The source.
+	 * @return The digest.
+	 */
+	private byte[] digest(byte[] source) {
+		try {
+			return MessageDigest.getInstance("SHA-1").digest(source);
+		} catch (NoSuchAlgorithmException e) {
+			throw new RuntimeException("SHA-1 is not supported", e); // every Java platform must support SHA-1
+		}
+	}
+
 	/**
 	 * Finds plugins and loads their meta data.
 	 * @return A collection of plugin meta data objects.
@@ -77,17 +235,11 @@ public final class PluginManager {
 			if (plugin.isDirectory() && !plugin.getName().startsWith(".")) {
 				File xml = new File(plugin, "plugin.xml");
 				if (xml.exists()) {
-					InputStream is = new FileInputStream(xml);
-					try {
-						PluginMetaDataParser parser = new PluginMetaDataParser(is);
-						PluginMetaData meta = parser.parse();
-						for (String author : meta.getAuthors()) {
-							authors.add(author);
-						}
-						plugins.add(meta);
-					} finally {
-						is.close();
+					PluginMetaData meta = parseMetaData(xml);
+					for (String author : meta.getAuthors()) {
+						authors.add(author);
 					}
+					plugins.add(meta);
 				}
 			}
 		}
@@ -102,49 +254,186 @@ public final class PluginManager {
 		authors.add("Blake");
 	}
 
+	/**
+	 * Parses the meta data of a plugin.
+	 * @param xml The plugin's meta data file.
+	 * @return The meta data.
+	 * @throws IOException if an I/O error occurs.
+	 * @throws SAXException if a SAX error occurs.
+	 */
+	private PluginMetaData parseMetaData(File xml) throws IOException, SAXException {
+		InputStream is = new FileInputStream(xml);
+		try {
+			PluginMetaDataParser parser = new PluginMetaDataParser(is);
+			return parser.parse();
+		} finally {
+			is.close();
+		}
+	}
+
+	/**
+	 * Reads a file.
+	 * @param file The file.
+	 * @return The contents of the file.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	private byte[] read(File file) throws IOException {
+		DataInputStream is = new DataInputStream(new FileInputStream(file));
+		try {
+			byte[] bytes = new byte[(int) file.length()];
+			is.readFully(bytes);
+			return bytes;
+		} finally {
+			is.close();
+		}
+	}
+
+	/**
+	 * Reloads a plugin. Its plugin.xml file and scripts are read and parsed on a background thread, so the game is not
+	 * paused while they are, and the parsed scripts are then run on the game thread at the start of the following
+	 * pulse, where their handlers and command listeners replace the old ones straight away. Running the scripts
+	 * between two pulses means that anything their top level code changes, such as constants, classes or the world,
+	 * changes at the same time as the handlers, and never while the game thread is using it. If the plugin fails to
+	 * reload, the old handlers are kept.
+	 * <p>
+	 * Only the handlers and command listeners are replaced: tasks the old scripts scheduled keep running, and anything
+	 * else the top level code of the scripts registers with the world is registered again unless the scripts check
+	 * whether they have been loaded before.
+	 * @param id The plugin id.
+	 * @return {@code true} if the plugin is being reloaded, {@code false} if there is no such plugin.
+	 */
+	public boolean reload(final String id) {
+		final PluginEnvironment env = this.env;
+		if (env == null || !plugins.containsKey(id)) {
+			return false;
+		}
+		reloader.execute(new Runnable() {
+			@Override
+			public void run() {
+				final CompiledPlugin plugin;
+				try {
+					PluginMetaData meta = parseMetaData(new File("./data/plugins/" + id + "/plugin.xml"));
+					plugin = compile(env, meta);
+				} catch (Exception e) {
+					logger.log(Level.SEVERE, "Failed to reload plugin " + id + ".", e);
+					return;
+				}
+				context.submit(new Runnable() {
+					@Override
+					public void run() {
+						try {
+							long runStart = System.nanoTime();
+							context.publish(id, context.run(id, plugin.scripts));
+							long runTime = System.nanoTime() - runStart;
+							logger.info("Reloaded plugin " + id + " in " + toMillis(plugin.compileTime + runTime)
+									+ " ms (" + toMillis(plugin.compileTime) + " ms parsing, " + toMillis(runTime)
+									+ " ms running).");
+						} catch (RuntimeException e) {
+							logger.log(Level.SEVERE, "Failed to reload plugin " + id + ".", e);
+						}
+					}
+				});
+			}
+		});
+		return true;
+	}
+
+	/**
+	 * Sorts plugins so that every plugin comes after its dependencies. Plugins which do not depend on each other are
+	 * sorted by id, so that they are always started in the same order.
+	 * @param plugins The plugin map.
+	 * @return The sorted plugins.
+	 * @throws DependencyException if a dependency is missing or circular.
+	 */
+	private List<PluginMetaData> sort(Map<String, PluginMetaData> plugins) throws DependencyException {
+		List<PluginMetaData> sorted = new ArrayList<PluginMetaData>();
+		Set<PluginMetaData> visiting = new HashSet<PluginMetaData>();
+		for (String id : new TreeSet<String>(plugins.keySet())) {
+			visit(plugins.get(id), plugins, visiting, sorted);
+		}
+		return sorted;
+	}
+
 	/**
 	 * Starts the plugin system by finding and loading all the plugins.
+	 * <p>
+	 * The scripts of every plugin are parsed concurrently, and the parsed plugins are then run one at a time, each
+	 * after its dependencies, as they share a single Ruby runtime. The handlers of each plugin are published as soon
+	 * as it has run, so that it can be {@link #reload reloaded} later. The time each plugin took to load is logged.
 	 * @throws IOException if an I/O error occurs.
 	 * @throws SAXException if a SAX error occurs.
 	 * @throws DependencyException if a dependency could not be resolved.
 	 */
 	public void start() throws IOException, SAXException, DependencyException {
-		Map<String, PluginMetaData> plugins = createMap(findPlugins());
-		Set<PluginMetaData> started = new HashSet<PluginMetaData>();
+		long start = System.nanoTime();
+		Map<String, PluginMetaData> map = createMap(findPlugins());
+		List<PluginMetaData> plugins = sort(map);
 		PluginEnvironment env = new RubyPluginEnvironment();
 		env.setContext(context);
-		for (PluginMetaData plugin : plugins.values()) {
-			start(env, plugin, plugins, started);
+		parsed.clear();
+		int threads = Runtime.getRuntime().availableProcessors();
+		ExecutorService executor = Executors.newFixedThreadPool(threads, new NamedThreadFactory("PluginCompiler"));
+		try {
+			List<Future<CompiledPlugin>> futures = new ArrayList<Future<CompiledPlugin>>();
+			for (PluginMetaData plugin : plugins) {
+				futures.add(executor.submit(createCompileTask(env, plugin)));
+			}
+			for (int i = 0; i < futures.size(); i++) {
+				String id = plugins.get(i).getId();
+				CompiledPlugin plugin;
+				try {
+					plugin = futures.get(i).get();
+				} catch (ExecutionException e) {
+					throw new IOException("Failed to parse plugin " + id + ".", e.getCause());
+				}
+				long runStart = System.nanoTime();
+				context.publish(id, context.run(id, plugin.scripts));
+				long runTime = System.nanoTime() - runStart;
+				logger.info("Loaded plugin " + id + " in " + toMillis(plugin.compileTime + runTime) + " ms ("
+						+ toMillis(plugin.compileTime) + " ms parsing, " + toMillis(runTime) + " ms running).");
+			}
+		} catch (InterruptedException e) {
+			throw new IOException("Interrupted while parsing plugins.", e);
+		} finally {
+			executor.shutdownNow();
 		}
+		this.plugins = map;
+		this.env = env;
+		logger.info("Loaded " + plugins.size() + " plugins in " + toMillis(System.nanoTime() - start) + " ms.");
 	}
 
 	/**
-	 * Starts a specific plugin.
-	 * @param env The environment.
+	 * Converts a time in nanoseconds to milliseconds.
+	 * @param nanos The time, in nanoseconds.
+	 * @return The time, in milliseconds.
+	 */
+	private long toMillis(long nanos) {
+		return TimeUnit.NANOSECONDS.toMillis(nanos);
+	}
+
+	/**
+	 * Visits a plugin while sorting, adding its dependencies and then the plugin itself to the sorted list.
 	 * @param plugin The plugin.
 	 * @param plugins The plugin map.
-	 * @param started A set of started plugins.
-	 * @throws DependencyException if a dependency error occurs.
-	 * @throws IOException if an I/O error occurs.
+	 * @param visiting The plugins whose dependencies are being visited.
+	 * @param sorted The sorted plugins.
+	 * @throws DependencyException if a dependency is missing or circular.
 	 */
-	private void start(PluginEnvironment env, PluginMetaData plugin, Map<String, PluginMetaData> plugins,
-			Set<PluginMetaData> started) throws DependencyException, IOException {
-		if (started.contains(plugin)) {
+	private void visit(PluginMetaData plugin, Map<String, PluginMetaData> plugins, Set<PluginMetaData> visiting,
+			List<PluginMetaData> sorted) throws DependencyException {
+		if (sorted.contains(plugin)) {
 			return;
+		} else if (!visiting.add(plugin)) {
+			throw new DependencyException("Circular dependency: " + plugin.getId() + ".");
 		}
-		started.add(plugin);
 		for (String dependencyId : plugin.getDependencies()) {
 			PluginMetaData dependency = plugins.get(dependencyId);
 			if (dependency == null) {
 				throw new DependencyException("Unresolved dependency: " + dependencyId + ".");
 			}
-			start(env, plugin, plugins, started);
-		}
-		String[] scripts = plugin.getScripts();
-		for (String script : scripts) {
-			File f = new File("./data/plugins/" + plugin.getId() + "/" + script);
-			InputStream is = new FileInputStream(f);
-			env.parse(is, f.getAbsolutePath());
+			visit(dependency, plugins, visiting, sorted);
 		}
+		visiting.remove(plugin);
+		sorted.add(plugin);
 	}
 }
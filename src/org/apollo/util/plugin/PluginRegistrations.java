@@ -0,0 +1,230 @@
+package org.apollo.util.plugin;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import org.apollo.backend.method.Method;
+import org.apollo.backend.method.handler.MethodHandler;
+import org.apollo.backend.method.handler.chain.MethodHandlerChain;
+import org.apollo.game.command.CommandDispatcher;
+import org.apollo.game.command.CommandListener;
+import org.apollo.game.event.Event;
+import org.apollo.game.event.handler.EventHandler;
+import org.apollo.game.event.handler.KeyedEventHandler;
+import org.apollo.game.event.handler.chain.EventHandlerChain;
+
+/**
+ * The handlers and command listeners which a single plugin has registered. Recording them, rather than adding them to
+ * their chains straight away, allows the registrations of a plugin which has been reloaded to replace those of the
+ * previous version of the plugin in one step.
+ */
+public final class PluginRegistrations {
+
+	/**
+	 * Gets a list from a map, returning an empty list if the map has no list for the key.
+	 * @param <K> The type of key.
+	 * @param <V> The type of element.
+	 * @param map The map.
+	 * @param key The key.
+	 * @return The list.
+	 */
+	private static <K, V> List<V> get(Map<K, List<V>> map, K key) {
+		List<V> list = map.get(key);
+		return list == null ? Collections.<V> emptyList() : list;
+	}
+
+	/**
+	 * Gets a list from a map, adding an empty list if the map has no list for the key.
+	 * @param <K> The type of key.
+	 * @param <V> The type of element.
+	 * @param map The map.
+	 * @param key The key.
+	 * @return The list.
+	 */
+	private static <K, V> List<V> getOrCreate(Map<K, List<V>> map, K key) {
+		List<V> list = map.get(key);
+		if (list == null) {
+			list = new ArrayList<V>();
+			map.put(key, list);
+		}
+		return list;
+	}
+
+	/**
+	 * Replaces the handlers of a plugin in an event handler chain.
+	 * @param <E> The type of event.
+	 * @param chain The chain.
+	 * @param old The previous handlers.
+	 * @param replacement The new handlers.
+	 */
+	@SuppressWarnings("unchecked")
+	private static <E extends Event> void replace(EventHandlerChain<E> chain, List<EventHandler<?>> old,
+			List<EventHandler<?>> replacement) {
+		chain.replace((List<EventHandler<E>>) (List<?>) old, (List<EventHandler<E>>) (List<?>) replacement);
+	}
+
+	/**
+	 * Replaces the handlers of a plugin in a method handler chain.
+	 * @param <M> The type of method.
+	 * @param chain The chain.
+	 * @param old The previous handlers.
+	 * @param replacement The new handlers.
+	 */
+	@SuppressWarnings("unchecked")
+	private static <M extends Method> void replace(MethodHandlerChain<M> chain, List<MethodHandler<?>> old,
+			List<MethodHandler<?>> replacement) {
+		chain.replace((List<MethodHandler<M>>) (List<?>) old, (List<MethodHandler<M>>) (List<?>) replacement);
+	}
+
+	/**
+	 * The plugin id.
+	 */
+	private final String plugin;
+
+	/**
+	 * The command listeners, by name.
+	 */
+	private final Map<String, CommandListener> commandListeners = new LinkedHashMap<String, CommandListener>();
+
+	/**
+	 * The event handlers, by chain.
+	 */
+	private final Map<EventHandlerChain<?>, List<EventHandler<?>>> eventHandlers = new LinkedHashMap<EventHandlerChain<?>, List<EventHandler<?>>>();
+
+	/**
+	 * The keyed event handlers, by keyed event handler and key.
+	 */
+	private final Map<KeyedEventHandler<?>, Map<Integer, List<EventHandler<?>>>> keyedEventHandlers = new LinkedHashMap<KeyedEventHandler<?>, Map<Integer, List<EventHandler<?>>>>();
+
+	/**
+	 * The method handlers, by chain.
+	 */
+	private final Map<MethodHandlerChain<?>, List<MethodHandler<?>>> methodHandlers = new LinkedHashMap<MethodHandlerChain<?>, List<MethodHandler<?>>>();
+
+	/**
+	 * Creates the plugin registrations.
+	 * @param plugin The plugin id.
+	 */
+	public PluginRegistrations(String plugin) {
+		this.plugin = plugin;
+	}
+
+	/**
+	 * Adds a command listener.
+	 * @param name The name of the command.
+	 * @param listener The listener.
+	 */
+	public void addCommandListener(String name, CommandListener listener) {
+		commandListeners.put(name.toLowerCase(), listener);
+	}
+
+	/**
+	 * Adds an event handler to the end of a chain.
+	 * @param <E> The type of event.
+	 * @param chain The chain.
+	 * @param handler The handler.
+	 */
+	public <E extends Event> void addEventHandler(EventHandlerChain<E> chain, EventHandler<E> handler) {
+		getOrCreate(eventHandlers, chain).add(handler);
+	}
+
+	/**
+	 * Adds an event handler to the end of the chain of a key of a keyed event handler.
+	 * @param <E> The type of event.
+	 * @param keyed The keyed event handler.
+	 * @param key The key.
+	 * @param handler The handler.
+	 */
+	public <E extends Event> void addKeyedEventHandler(KeyedEventHandler<E> keyed, int key, EventHandler<E> handler) {
+		Map<Integer, List<EventHandler<?>>> chains = keyedEventHandlers.get(keyed);
+		if (chains == null) {
+			chains = new LinkedHashMap<Integer, List<EventHandler<?>>>();
+			keyedEventHandlers.put(keyed, chains);
+		}
+		getOrCreate(chains, key).add(handler);
+	}
+
+	/**
+	 * Adds a method handler to the end of a chain.
+	 * @param <M> The type of method.
+	 * @param chain The chain.
+	 * @param handler The handler.
+	 */
+	public <M extends Method> void addMethodHandler(MethodHandlerChain<M> chain, MethodHandler<M> handler) {
+		getOrCreate(methodHandlers, chain).add(handler);
+	}
+
+	/**
+	 * Gets the plugin id.
+	 * @return The plugin id.
+	 */
+	public String getPlugin() {
+		return plugin;
+	}
+
+	/**
+	 * Checks if any handlers have been added to a keyed event handler.
+	 * @param keyed The keyed event handler.
+	 * @return {@code true} if so, {@code false} if not.
+	 */
+	public boolean hasKeyedEventHandlers(KeyedEventHandler<?> keyed) {
+		return keyedEventHandlers.containsKey(keyed);
+	}
+
+	/**
+	 * Replaces the registrations of the previous version of a plugin with these registrations. Each chain takes the new
+	 * handlers in place of the old ones in a single write, and the position of the plugin's handlers in the chain is
+	 * kept. This must only be called by the game thread, or before the game service has started.
+	 * @param old The registrations of the previous version of the plugin.
+	 * @param dispatcher The command dispatcher.
+	 */
+	public void replace(PluginRegistrations old, CommandDispatcher dispatcher) {
+		Set<EventHandlerChain<?>> eventChains = new LinkedHashSet<EventHandlerChain<?>>(old.eventHandlers.keySet());
+		eventChains.addAll(eventHandlers.keySet());
+		for (EventHandlerChain<?> chain : eventChains) {
+			replace(chain, get(old.eventHandlers, chain), get(eventHandlers, chain));
+		}
+
+		Set<KeyedEventHandler<?>> keyed = new LinkedHashSet<KeyedEventHandler<?>>(old.keyedEventHandlers.keySet());
+		keyed.addAll(keyedEventHandlers.keySet());
+		for (KeyedEventHandler<?> handler : keyed) {
+			Map<Integer, List<EventHandler<?>>> oldChains = old.keyedEventHandlers.get(handler);
+			Map<Integer, List<EventHandler<?>>> newChains = keyedEventHandlers.get(handler);
+			Set<Integer> keys = new LinkedHashSet<Integer>();
+			if (oldChains != null) {
+				keys.addAll(oldChains.keySet());
+			} else {
+				oldChains = Collections.emptyMap();
+			}
+			if (newChains != null) {
+				keys.addAll(newChains.keySet());
+			} else {
+				newChains = Collections.emptyMap();
+			}
+			for (int key : keys) {
+				replace(handler.getChain(key), get(oldChains, key), get(newChains, key));
+			}
+		}
+
+		Set<MethodHandlerChain<?>> methodChains = new LinkedHashSet<MethodHandlerChain<?>>(old.methodHandlers.keySet());
+		methodChains.addAll(methodHandlers.keySet());
+		for (MethodHandlerChain<?> chain : methodChains) {
+			replace(chain, get(old.methodHandlers, chain), get(methodHandlers, chain));
+		}
+
+		for (Entry<String, CommandListener> listener : old.commandListeners.entrySet()) {
+			if (!commandListeners.containsKey(listener.getKey())) {
+				dispatcher.unregister(listener.getKey(), listener.getValue());
+			}
+		}
+		for (Entry<String, CommandListener> listener : commandListeners.entrySet()) {
+			dispatcher.register(listener.getKey(), listener.getValue());
+		}
+	}
+}
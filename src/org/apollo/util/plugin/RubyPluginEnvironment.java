@@ -5,6 +5,8 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 
+import org.jruby.embed.EmbedEvalUnit;
+import org.jruby.embed.LocalContextScope;
 import org.jruby.embed.ScriptingContainer;
 
 /**
@@ -14,9 +16,11 @@ import org.jruby.embed.ScriptingContainer;
 public final class RubyPluginEnvironment implements PluginEnvironment {
 
 	/**
-	 * The scripting container.
+	 * The scripting container. Its runtime and variables are shared by every thread, and it may be used by several
+	 * threads at once, so scripts are parsed concurrently. Scripts are run one at a time, while holding the lock on
+	 * the container, as plugins expect to run in order and do not synchronize their top level code.
 	 */
-	private final ScriptingContainer container = new ScriptingContainer();
+	private final ScriptingContainer container = new ScriptingContainer(LocalContextScope.THREADSAFE);
 
 	/**
 	 * Creates and bootstraps the Ruby plugin environment.
@@ -26,13 +30,32 @@ public final class RubyPluginEnvironment implements PluginEnvironment {
 		parseBootstrapper();
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * @see org.apollo.util.plugin.PluginEnvironment#compile(java.io.InputStream, java.lang.String)
+	 */
+	@Override
+	public Runnable compile(InputStream is, String name) {
+		final EmbedEvalUnit unit = container.parse(is, name);
+		return new Runnable() {
+			@Override
+			public void run() {
+				synchronized (container) {
+					unit.run();
+				}
+			}
+		};
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see org.apollo.util.plugin.PluginEnvironment#parse(java.io.InputStream, java.lang.String)
 	 */
 	@Override
 	public void parse(InputStream is, String name) {
-		container.runScriptlet(is, name);
+		synchronized (container) {
+			container.runScriptlet(is, name);
+		}
 	}
 
 	/**
@@ -55,6 +78,8 @@ public final class RubyPluginEnvironment implements PluginEnvironment {
 	 */
 	@Override
 	public void setContext(PluginContext context) {
-		container.put("$ctx", context);
+		synchronized (container) {
+			container.put("$ctx", context);
+		}
 	}
 }
@@ -0,0 +1,123 @@
+package org.apollo.fs;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests that files written by an {@link IndexedFileSystemWriter}, whose blocks are padded to the full block size, are
+ * read back unchanged by an {@link IndexedFileSystem}.
+ */
+public final class IndexedFileSystemWriterTest {
+
+	/**
+	 * The lengths of the files, which include lengths either side of the chunk size.
+	 */
+	private static final int[] LENGTHS = { 1, FileSystemConstants.CHUNK_SIZE - 1, FileSystemConstants.CHUNK_SIZE,
+			FileSystemConstants.CHUNK_SIZE + 1, 5 * FileSystemConstants.CHUNK_SIZE + 7, 0, 70000 };
+
+	/**
+	 * Creates the data of a file.
+	 * @param length The length.
+	 * @param seed The seed of the random number generator.
+	 * @return The data.
+	 */
+	private static byte[] createData(int length, int seed) {
+		byte[] data = new byte[length];
+		new Random(seed).nextBytes(data);
+		return data;
+	}
+
+	/**
+	 * The directory the file system is written to.
+	 */
+	private File base;
+
+	/**
+	 * Creates the directory the file system is written to.
+	 * @throws IOException if the directory cannot be created.
+	 */
+	@Before
+	public void setUp() throws IOException {
+		base = File.createTempFile("cache", "");
+		if (!base.delete() || !base.mkdir()) {
+			throw new IOException("Could not create " + base);
+		}
+	}
+
+	/**
+	 * Deletes the file system.
+	 */
+	@After
+	public void tearDown() {
+		for (File file : base.listFiles()) {
+			file.delete();
+		}
+		base.delete();
+	}
+
+	/**
+	 * Tests that files of both types, written out of order, are read back unchanged.
+	 * @throws Exception if an error occurs.
+	 */
+	@Test
+	public void roundTrip() throws Exception {
+		IndexedFileSystemWriter writer = new IndexedFileSystemWriter(base, 2);
+		try {
+			for (int type = 1; type >= 0; type--) {
+				for (int file = LENGTHS.length - 1; file >= 0; file--) {
+					writer.write(type, file, ByteBuffer.wrap(createData(LENGTHS[file], type * 100 + file)));
+				}
+			}
+		} finally {
+			writer.close();
+		}
+		assertEquals(writer.getDataSize(), new File(base, "main_file_cache.dat").length());
+
+		IndexedFileSystem fs = new IndexedFileSystem(base, true);
+		try {
+			for (int type = 0; type < 2; type++) {
+				assertEquals(LENGTHS.length, fs.getFileCount(type));
+				for (int file = 0; file < LENGTHS.length; file++) {
+					ByteBuffer buffer = fs.getFile(type, file);
+					byte[] bytes = new byte[buffer.remaining()];
+					buffer.get(bytes);
+					assertArrayEquals(createData(LENGTHS[file], type * 100 + file), bytes);
+				}
+			}
+		} finally {
+			fs.close();
+		}
+	}
+
+	/**
+	 * Tests that the files which were not written, below the highest file id of a type, are empty.
+	 * @throws Exception if an error occurs.
+	 */
+	@Test
+	public void gaps() throws Exception {
+		IndexedFileSystemWriter writer = new IndexedFileSystemWriter(base, 1);
+		try {
+			writer.write(0, 40, ByteBuffer.wrap(createData(1000, 40)));
+		} finally {
+			writer.close();
+		}
+
+		IndexedFileSystem fs = new IndexedFileSystem(base, true);
+		try {
+			assertEquals(41, fs.getFileCount(0));
+			assertEquals(0, fs.getFile(0, 39).remaining());
+			assertEquals(1000, fs.getFile(0, 40).remaining());
+		} finally {
+			fs.close();
+		}
+	}
+}
@@ -0,0 +1,135 @@
+package org.apollo.fs.archive;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests that {@link Archive}s survive being encoded and decoded, whether compressed as a whole or entry by entry.
+ */
+public final class ArchiveTest {
+
+	/**
+	 * The names of the entries.
+	 */
+	private static final String[] NAMES = { "obj.dat", "obj.idx", "flo.dat", "empty.dat" };
+
+	/**
+	 * The lengths of the entries.
+	 */
+	private static final int[] LENGTHS = { 40000, 1200, 3, 0 };
+
+	/**
+	 * Creates the data of an entry, which is partly repetitive so that it compresses.
+	 * @param length The length.
+	 * @param seed The seed of the random number generator.
+	 * @return The data.
+	 */
+	private static byte[] createData(int length, int seed) {
+		byte[] data = new byte[length];
+		Random random = new Random(seed);
+		for (int i = 0; i < length; i++) {
+			data[i] = (byte) (random.nextInt(4) == 0 ? random.nextInt() : i / 64);
+		}
+		return data;
+	}
+
+	/**
+	 * Creates an archive with the test entries.
+	 * @return The archive.
+	 */
+	private static Archive createArchive() {
+		ArchiveEntry[] entries = new ArchiveEntry[NAMES.length];
+		for (int i = 0; i < entries.length; i++) {
+			entries[i] = new ArchiveEntry(Archive.hash(NAMES[i]), ByteBuffer.wrap(createData(LENGTHS[i], i)));
+		}
+		return new Archive(entries);
+	}
+
+	/**
+	 * Checks that a decoded archive has the test entries, read in each of the ways entries can be read.
+	 * @param archive The archive.
+	 * @throws IOException if an entry cannot be decompressed.
+	 */
+	private static void assertEntries(Archive archive) throws IOException {
+		assertEquals(NAMES.length, archive.getEntries().length);
+		for (int i = 0; i < NAMES.length; i++) {
+			byte[] expected = createData(LENGTHS[i], i);
+			ArchiveEntry entry = archive.getEntry(NAMES[i]);
+			assertEquals(Archive.hash(NAMES[i]), entry.getIdentifier());
+			assertEquals(expected.length, entry.getSize());
+
+			byte[] read = new byte[expected.length + 3];
+			entry.read(read, 3);
+			byte[] range = new byte[expected.length];
+			System.arraycopy(read, 3, range, 0, range.length);
+			assertArrayEquals(expected, range);
+
+			for (int attempt = 0; attempt < 2; attempt++) {
+				ByteBuffer buffer = entry.getBuffer();
+				byte[] bytes = new byte[buffer.remaining()];
+				buffer.get(bytes);
+				assertArrayEquals(expected, bytes);
+			}
+		}
+	}
+
+	/**
+	 * Tests an archive which is compressed as a whole.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	@Test
+	public void compressedAsWhole() throws IOException {
+		assertEntries(Archive.decode(createArchive().encode(true)));
+	}
+
+	/**
+	 * Tests an archive whose entries are compressed on their own, and so are decompressed lazily.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	@Test
+	public void compressedByEntry() throws IOException {
+		assertEntries(Archive.decode(createArchive().encode(false)));
+	}
+
+	/**
+	 * Tests that a decoded archive can be encoded again in the other layout, as the cache packer does.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	@Test
+	public void reencode() throws IOException {
+		Archive archive = Archive.decode(createArchive().encode(false));
+		assertEntries(Archive.decode(archive.encode(true)));
+		archive = Archive.decode(createArchive().encode(true));
+		assertEntries(Archive.decode(archive.encode(false)));
+	}
+
+	/**
+	 * Tests that an archive is decoded from a buffer which is not backed by an array.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	@Test
+	public void directBuffer() throws IOException {
+		for (boolean compressed : new boolean[] { true, false }) {
+			ByteBuffer encoded = createArchive().encode(compressed);
+			ByteBuffer direct = ByteBuffer.allocateDirect(encoded.remaining());
+			direct.put(encoded).flip();
+			assertEntries(Archive.decode(direct));
+		}
+	}
+
+	/**
+	 * Tests that looking up an entry which does not exist fails.
+	 * @throws IOException if the entry is not found.
+	 */
+	@Test(expected = FileNotFoundException.class)
+	public void missingEntry() throws IOException {
+		Archive.decode(createArchive().encode(true)).getEntry("missing.dat");
+	}
+}
@@ -0,0 +1,258 @@
+package org.apollo.net.codec.game;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests that the primitive reads of the {@link GamePacketReader} agree with its generic reads, and that both return
+ * the values which a {@link GamePacketBuilder} wrote.
+ */
+public final class GamePacketReaderTest {
+
+	/**
+	 * The transformations which can be applied to the least significant byte of a value.
+	 */
+	private static final DataTransformation[] TRANSFORMATIONS = { DataTransformation.NONE, DataTransformation.ADD,
+			DataTransformation.NEGATE, DataTransformation.SUBTRACT };
+
+	/**
+	 * The orders in which values of any length can be written.
+	 */
+	private static final DataOrder[] ORDERS = { DataOrder.BIG, DataOrder.LITTLE };
+
+	/**
+	 * Creates the values to test a data type with: its extremes, the values either side of the sign bit of a byte,
+	 * and random values.
+	 * @param type The data type.
+	 * @return The values, as unsigned values.
+	 */
+	private static long[] createValues(DataType type) {
+		long mask = type == DataType.LONG ? -1 : (1L << type.getBytes() * 8) - 1;
+		long[] values = new long[16];
+		values[0] = 0;
+		values[1] = 1;
+		values[2] = 127 & mask;
+		values[3] = 128 & mask;
+		values[4] = 255 & mask;
+		values[5] = mask;
+		values[6] = mask >>> 1;
+		values[7] = (mask >>> 1) + 1 & mask;
+		Random random = new Random(type.ordinal());
+		for (int i = 8; i < values.length; i++) {
+			values[i] = random.nextLong() & mask;
+		}
+		return values;
+	}
+
+	/**
+	 * Creates a reader for a single value.
+	 * @param type The data type.
+	 * @param order The data order.
+	 * @param transformation The data transformation.
+	 * @param value The value.
+	 * @return The reader.
+	 */
+	private static GamePacketReader createReader(DataType type, DataOrder order, DataTransformation transformation,
+			long value) {
+		GamePacketBuilder builder = new GamePacketBuilder(0);
+		builder.put(type, order, transformation, value);
+		return new GamePacketReader(builder.toGamePacket());
+	}
+
+	/**
+	 * Sign-extends a value of a data type.
+	 * @param type The data type.
+	 * @param value The unsigned value.
+	 * @return The signed value.
+	 */
+	private static long signed(DataType type, long value) {
+		int shift = 64 - type.getBytes() * 8;
+		return value << shift >> shift;
+	}
+
+	/**
+	 * Tests the generic reads of every type which can be read as unsigned, in every order and transformation.
+	 */
+	@Test
+	public void genericReads() {
+		DataType[] types = { DataType.BYTE, DataType.SHORT, DataType.TRI_BYTE, DataType.INT };
+		for (DataType type : types) {
+			for (DataOrder order : ORDERS) {
+				for (DataTransformation transformation : TRANSFORMATIONS) {
+					for (long value : createValues(type)) {
+						String message = type + " " + order + " " + transformation + " " + value;
+						GamePacketReader reader = createReader(type, order, transformation, value);
+						assertEquals(message, value, reader.getUnsigned(type, order, transformation));
+						reader = createReader(type, order, transformation, value);
+						assertEquals(message, signed(type, value), reader.getSigned(type, order, transformation));
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Tests that the primitive byte reads agree with the generic reads.
+	 */
+	@Test
+	public void byteReads() {
+		for (DataTransformation transformation : TRANSFORMATIONS) {
+			for (long value : createValues(DataType.BYTE)) {
+				String message = transformation + " " + value;
+				GamePacketReader reader = createReader(DataType.BYTE, DataOrder.BIG, transformation, value);
+				assertEquals(message, value, reader.getUnsignedByte(transformation));
+				reader = createReader(DataType.BYTE, DataOrder.BIG, transformation, value);
+				assertEquals(message, signed(DataType.BYTE, value), reader.getSignedByte(transformation));
+			}
+		}
+		for (long value : createValues(DataType.BYTE)) {
+			assertEquals(value, createReader(DataType.BYTE, DataOrder.BIG, DataTransformation.NONE, value)
+					.getUnsignedByte());
+			assertEquals(signed(DataType.BYTE, value), createReader(DataType.BYTE, DataOrder.BIG,
+					DataTransformation.NONE, value).getSignedByte());
+		}
+	}
+
+	/**
+	 * Tests that the primitive short reads agree with the generic reads.
+	 */
+	@Test
+	public void shortReads() {
+		for (DataOrder order : ORDERS) {
+			for (DataTransformation transformation : TRANSFORMATIONS) {
+				for (long value : createValues(DataType.SHORT)) {
+					String message = order + " " + transformation + " " + value;
+					GamePacketReader reader = createReader(DataType.SHORT, order, transformation, value);
+					assertEquals(message, value, reader.getUnsignedShort(order, transformation));
+					reader = createReader(DataType.SHORT, order, transformation, value);
+					assertEquals(message, signed(DataType.SHORT, value), reader.getSignedShort(order, transformation));
+				}
+			}
+		}
+		for (long value : createValues(DataType.SHORT)) {
+			GamePacketReader reader = createReader(DataType.SHORT, DataOrder.BIG, DataTransformation.NONE, value);
+			assertEquals(value, reader.getUnsignedShort());
+			reader = createReader(DataType.SHORT, DataOrder.BIG, DataTransformation.NONE, value);
+			assertEquals(signed(DataType.SHORT, value), reader.getSignedShort());
+			reader = createReader(DataType.SHORT, DataOrder.LITTLE, DataTransformation.NONE, value);
+			assertEquals(value, reader.getUnsignedShort(DataOrder.LITTLE));
+			reader = createReader(DataType.SHORT, DataOrder.BIG, DataTransformation.ADD, value);
+			assertEquals(value, reader.getUnsignedShort(DataTransformation.ADD));
+		}
+	}
+
+	/**
+	 * Tests that the primitive int reads agree with the generic reads, in every order.
+	 */
+	@Test
+	public void intReads() {
+		DataOrder[] orders = DataOrder.values();
+		for (DataOrder order : orders) {
+			for (long value : createValues(DataType.INT)) {
+				String message = order + " " + value;
+				GamePacketReader reader = createReader(DataType.INT, order, DataTransformation.NONE, value);
+				assertEquals(message, (int) value, reader.getInt(order));
+				reader = createReader(DataType.INT, order, DataTransformation.NONE, value);
+				assertEquals(message, value, reader.getUnsigned(DataType.INT, order));
+			}
+		}
+		for (long value : createValues(DataType.INT)) {
+			assertEquals((int) value, createReader(DataType.INT, DataOrder.BIG, DataTransformation.NONE, value)
+					.getInt());
+		}
+	}
+
+	/**
+	 * Tests that the primitive long read agrees with the generic read.
+	 */
+	@Test
+	public void longReads() {
+		for (long value : createValues(DataType.LONG)) {
+			GamePacketReader reader = createReader(DataType.LONG, DataOrder.BIG, DataTransformation.NONE, value);
+			assertEquals(value, reader.getLong());
+			reader = createReader(DataType.LONG, DataOrder.BIG, DataTransformation.NONE, value);
+			assertEquals(value, reader.getSigned(DataType.LONG));
+		}
+	}
+
+	/**
+	 * Tests that transformed bytes are read back in reverse.
+	 */
+	@Test
+	public void reversedBytes() {
+		byte[] bytes = new byte[40];
+		new Random(0).nextBytes(bytes);
+		for (DataTransformation transformation : TRANSFORMATIONS) {
+			GamePacketBuilder builder = new GamePacketBuilder(0);
+			builder.putBytesReverse(transformation, bytes);
+			GamePacketReader reader = new GamePacketReader(builder.toGamePacket());
+			byte[] read = new byte[bytes.length + 5];
+			reader.getBytesReverse(transformation, read, bytes.length);
+			for (int i = 0; i < bytes.length; i++) {
+				assertEquals(transformation + " " + i, bytes[i], read[i]);
+			}
+		}
+	}
+
+	/**
+	 * Tests that a reader can be pointed at another packet, even if it was left in the bit access mode.
+	 */
+	@Test
+	public void wrap() {
+		GamePacketBuilder first = new GamePacketBuilder(0);
+		first.switchToBitAccess();
+		first.putBits(13, 4321);
+		first.putBits(3, 5);
+		first.switchToByteAccess();
+		GamePacketReader reader = new GamePacketReader(first.toGamePacket());
+		reader.switchToBitAccess();
+		assertEquals(4321, reader.getBits(13));
+
+		GamePacketBuilder second = new GamePacketBuilder(0);
+		second.put(DataType.SHORT, DataOrder.LITTLE, DataTransformation.ADD, 3222);
+		second.put(DataType.INT, DataOrder.MIDDLE, 123456789);
+		assertSame(reader, reader.wrap(second.toGamePacket()));
+		assertEquals(3222, reader.getUnsignedShort(DataOrder.LITTLE, DataTransformation.ADD));
+		assertEquals(123456789, reader.getInt(DataOrder.MIDDLE));
+
+		reader.wrap(first.toGamePacket());
+		reader.switchToBitAccess();
+		assertEquals(4321, reader.getBits(13));
+		assertEquals(5, reader.getBits(3));
+	}
+
+	/**
+	 * Tests that the scratch array is large enough and reused while it is.
+	 */
+	@Test
+	public void scratch() {
+		GamePacketReader reader = new GamePacketReader();
+		byte[] scratch = reader.getScratch(10);
+		assertTrue(scratch.length >= 10);
+		assertSame(scratch, reader.getScratch(5));
+		byte[] larger = reader.getScratch(scratch.length + 1);
+		assertTrue(larger.length > scratch.length);
+		assertSame(larger, reader.getScratch(scratch.length));
+	}
+
+	/**
+	 * Tests that bytes are read into the start of an array which is longer than the number read.
+	 */
+	@Test
+	public void partialBytes() {
+		byte[] bytes = { 1, 2, 3, 4 };
+		GamePacketBuilder builder = new GamePacketBuilder(0);
+		builder.putBytes(bytes);
+		GamePacketReader reader = new GamePacketReader(builder.toGamePacket());
+		byte[] read = new byte[8];
+		reader.getBytes(read, 3);
+		assertArrayEquals(new byte[] { 1, 2, 3, 0, 0, 0, 0, 0 }, read);
+		assertEquals(4, reader.getUnsignedByte());
+	}
+}
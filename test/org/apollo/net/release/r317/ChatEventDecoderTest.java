@@ -0,0 +1,58 @@
+package org.apollo.net.release.r317;
+
+import static org.junit.Assert.assertEquals;
+
+import org.apollo.game.event.impl.ChatEvent;
+import org.apollo.net.codec.game.DataTransformation;
+import org.apollo.net.codec.game.DataType;
+import org.apollo.net.codec.game.GamePacket;
+import org.apollo.net.codec.game.GamePacketBuilder;
+import org.apollo.net.codec.game.GamePacketReader;
+import org.apollo.net.meta.PacketType;
+import org.apollo.util.TextUtil;
+import org.junit.Test;
+
+/**
+ * Tests that the {@link ChatEventDecoder} decodes chat packets as the client writes them.
+ */
+public final class ChatEventDecoderTest {
+
+	/**
+	 * Creates a chat packet.
+	 * @param message The message.
+	 * @param color The text color.
+	 * @param effects The text effects.
+	 * @return The packet.
+	 */
+	private static GamePacket createPacket(String message, int color, int effects) {
+		byte[] compressed = new byte[message.length()];
+		int length = TextUtil.compress(message, compressed);
+		byte[] text = new byte[length];
+		System.arraycopy(compressed, 0, text, 0, length);
+
+		GamePacketBuilder builder = new GamePacketBuilder(4, PacketType.VARIABLE_BYTE);
+		builder.put(DataType.BYTE, DataTransformation.ADD, effects);
+		builder.put(DataType.BYTE, DataTransformation.ADD, color);
+		builder.putBytesReverse(DataTransformation.ADD, text);
+		return builder.toGamePacket();
+	}
+
+	/**
+	 * Tests that consecutive messages of different lengths are decoded with the same reader, whose scratch array holds
+	 * the text of each in turn.
+	 */
+	@Test
+	public void messages() {
+		GamePacketReader reader = new GamePacketReader();
+		ChatEventDecoder decoder = new ChatEventDecoder();
+		String[] messages = { "selling lobsters at the bank, 200 each", "hi", "anyone want to trade?" };
+		String[] expected = { "Selling lobsters at the bank, 200 each", "Hi", "Anyone want to trade?" };
+		for (int i = 0; i < messages.length; i++) {
+			GamePacket packet = createPacket(messages[i], i + 1, 2);
+			ChatEvent event = decoder.decode(packet, reader.wrap(packet));
+			assertEquals(expected[i], event.getMessage().trim()); // the text codec pads odd lengths with a space
+			assertEquals(i + 1, event.getTextColor());
+			assertEquals(2, event.getTextEffects());
+		}
+	}
+}
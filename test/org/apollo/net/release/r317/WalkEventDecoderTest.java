@@ -0,0 +1,92 @@
+package org.apollo.net.release.r317;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.apollo.game.event.impl.WalkEvent;
+import org.apollo.game.model.Position;
+import org.apollo.net.codec.game.DataOrder;
+import org.apollo.net.codec.game.DataTransformation;
+import org.apollo.net.codec.game.DataType;
+import org.apollo.net.codec.game.GamePacket;
+import org.apollo.net.codec.game.GamePacketBuilder;
+import org.apollo.net.codec.game.GamePacketReader;
+import org.apollo.net.meta.PacketType;
+import org.junit.Test;
+
+/**
+ * Tests that the {@link WalkEventDecoder} decodes walk packets as the client writes them into packed steps.
+ */
+public final class WalkEventDecoderTest {
+
+	/**
+	 * The length of the anti-cheat data which follows the steps of a minimap walk packet.
+	 */
+	private static final int ANTI_CHEAT_LENGTH = 14;
+
+	/**
+	 * Creates a walk packet.
+	 * @param opcode The opcode.
+	 * @param x The x coordinate of the first step.
+	 * @param y The y coordinate of the first step.
+	 * @param deltas The offsets of the following steps, as pairs of x and y offsets.
+	 * @param run Whether the steps are ran.
+	 * @return The packet.
+	 */
+	private static GamePacket createPacket(int opcode, int x, int y, int[] deltas, boolean run) {
+		GamePacketBuilder builder = new GamePacketBuilder(opcode, PacketType.VARIABLE_BYTE);
+		builder.put(DataType.SHORT, DataOrder.LITTLE, DataTransformation.ADD, x);
+		for (int delta : deltas) {
+			builder.put(DataType.BYTE, delta);
+		}
+		builder.put(DataType.SHORT, DataOrder.LITTLE, y);
+		builder.put(DataType.BYTE, DataTransformation.NEGATE, run ? 1 : 0);
+		if (opcode == 248) {
+			builder.putBytes(new byte[ANTI_CHEAT_LENGTH]);
+		}
+		return builder.toGamePacket();
+	}
+
+	/**
+	 * Decodes a packet with a reader which is reused, as a session's reader is.
+	 * @param reader The reader.
+	 * @param packet The packet.
+	 * @return The event.
+	 */
+	private static WalkEvent decode(GamePacketReader reader, GamePacket packet) {
+		return new WalkEventDecoder().decode(packet, reader.wrap(packet));
+	}
+
+	/**
+	 * Tests a walk with several steps, including negative offsets.
+	 */
+	@Test
+	public void steps() {
+		GamePacketReader reader = new GamePacketReader();
+		for (int opcode : new int[] { 164, 98, 248 }) {
+			WalkEvent event = decode(reader, createPacket(opcode, 3222, 3218, new int[] { 1, -1, 2, 5, -3, 0 }, true));
+			int[] steps = event.getSteps();
+			assertEquals(4, steps.length);
+			assertEquals(Position.pack(3222, 3218, 0), steps[0]);
+			assertEquals(Position.pack(3223, 3217, 0), steps[1]);
+			assertEquals(Position.pack(3224, 3223, 0), steps[2]);
+			assertEquals(Position.pack(3219, 3218, 0), steps[3]);
+			assertTrue(event.isRunning());
+		}
+	}
+
+	/**
+	 * Tests a walk to a single tile, after a longer walk has grown the reader's scratch array.
+	 */
+	@Test
+	public void singleStep() {
+		GamePacketReader reader = new GamePacketReader();
+		decode(reader, createPacket(164, 3000, 3000, new int[40], true));
+		WalkEvent event = decode(reader, createPacket(164, 3100, 3500, new int[0], false));
+		assertEquals(1, event.getSteps().length);
+		assertEquals(3100, Position.unpackX(event.getSteps()[0]));
+		assertEquals(3500, Position.unpackY(event.getSteps()[0]));
+		assertFalse(event.isRunning());
+	}
+}
@@ -0,0 +1,142 @@
+package org.apollo.update.resource;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests that the {@link ResourceCache} shares an entry between the paths to the same resource and stays bounded.
+ */
+public final class ResourceCacheTest {
+
+	/**
+	 * A provider of resources of a fixed size, whose canonical path is the path itself.
+	 */
+	private static final class FixedSizeResourceProvider extends ResourceProvider {
+
+		/**
+		 * The size of each resource, in bytes.
+		 */
+		private final int size;
+
+		/**
+		 * Creates the provider.
+		 * @param size The size of each resource, in bytes.
+		 */
+		public FixedSizeResourceProvider(int size) {
+			this.size = size;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see org.apollo.update.resource.ResourceProvider#accept(java.lang.String)
+		 */
+		@Override
+		public boolean accept(String path) {
+			return true;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see org.apollo.update.resource.ResourceProvider#get(java.lang.String)
+		 */
+		@Override
+		public ByteBuffer get(String path) {
+			return ByteBuffer.allocate(size);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see org.apollo.update.resource.ResourceProvider#getCanonicalPath(java.lang.String)
+		 */
+		@Override
+		public String getCanonicalPath(String path) {
+			return path;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see org.apollo.update.resource.ResourceProvider#getLastModified(java.lang.String)
+		 */
+		@Override
+		public long getLastModified(String path) {
+			return 0;
+		}
+	}
+
+	/**
+	 * The directory the files are served from.
+	 */
+	private File base;
+
+	/**
+	 * Creates the directory the files are served from, with a file in a subdirectory.
+	 * @throws IOException if the files cannot be created.
+	 */
+	@Before
+	public void setUp() throws IOException {
+		base = File.createTempFile("www", "");
+		if (!base.delete() || !new File(base, "a").mkdirs()) {
+			throw new IOException("Could not create " + base);
+		}
+		FileOutputStream os = new FileOutputStream(new File(base, "index.html"));
+		try {
+			os.write("<html></html>".getBytes());
+		} finally {
+			os.close();
+		}
+	}
+
+	/**
+	 * Deletes the files.
+	 */
+	@After
+	public void tearDown() {
+		new File(base, "index.html").delete();
+		new File(base, "a").delete();
+		base.delete();
+	}
+
+	/**
+	 * Tests that the paths which resolve to the same file share an entry.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	@Test
+	public void canonicalFiles() throws IOException {
+		ResourceCache cache = new ResourceCache();
+		ResourceProvider provider = new HypertextResourceProvider(base);
+		CachedResource resource = cache.get("/index.html", provider);
+		String[] paths = { "//index.html", "/./index.html", "/a/../index.html", "/" };
+		for (String path : paths) {
+			assertSame(path, resource, cache.get(path, provider));
+		}
+		assertEquals(1, cache.size());
+		assertNull(cache.get("/missing.html", provider));
+		assertEquals(1, cache.size());
+	}
+
+	/**
+	 * Tests that the least-recently used resources are evicted once the cached data grows too large.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	@Test
+	public void eviction() throws IOException {
+		ResourceCache cache = new ResourceCache();
+		ResourceProvider provider = new FixedSizeResourceProvider(1024 * 1024);
+		CachedResource first = cache.get("/0", provider);
+		for (int i = 1; i < 100; i++) {
+			cache.get("/" + i, provider);
+			assertSame(first, cache.get("/0", provider));
+		}
+		assertEquals(32, cache.size());
+	}
+}
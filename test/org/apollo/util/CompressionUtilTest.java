@@ -0,0 +1,282 @@
+package org.apollo.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream;
+import org.junit.Test;
+
+/**
+ * Tests the bzip2 and gzip decompressors of {@link CompressionUtil} against the commons-compress and JDK streams.
+ */
+public final class CompressionUtilTest {
+
+	/**
+	 * The header which {@link CompressionUtil#bzip2(byte[])} strips from the streams it creates.
+	 */
+	private static final byte[] BZIP2_HEADER = { 'B', 'Z', 'h', '1' };
+
+	/**
+	 * The offset of the byte whose top bit marks the first block of a headerless stream as randomised, which follows
+	 * the 48-bit block magic and the 32-bit block CRC.
+	 */
+	private static final int RANDOMISED_OFFSET = 10;
+
+	/**
+	 * Creates data which compresses poorly.
+	 * @param length The length.
+	 * @return The data.
+	 */
+	private static byte[] createRandom(int length) {
+		byte[] data = new byte[length];
+		new Random(length).nextBytes(data);
+		return data;
+	}
+
+	/**
+	 * Creates data with long runs of the same byte, which the compressor run-length encodes.
+	 * @param length The length.
+	 * @return The data.
+	 */
+	private static byte[] createRepetitive(int length) {
+		byte[] data = new byte[length];
+		Random random = new Random(length);
+		for (int i = 0; i < length;) {
+			int run = Math.min(length - i, 1 + random.nextInt(300));
+			byte value = (byte) random.nextInt(4);
+			for (int j = 0; j < run; j++) {
+				data[i++] = value;
+			}
+		}
+		return data;
+	}
+
+	/**
+	 * Creates data which looks like text.
+	 * @param length The length.
+	 * @return The data.
+	 */
+	private static byte[] createText(int length) {
+		String[] words = { "the", "bank", "of", "lumbridge", "rune", "scimitar", "lobster", "trade", "with", "me" };
+		StringBuilder bldr = new StringBuilder(length);
+		Random random = new Random(length);
+		while (bldr.length() < length) {
+			bldr.append(words[random.nextInt(words.length)]).append(' ');
+		}
+		return bldr.substring(0, length).getBytes();
+	}
+
+	/**
+	 * Decompresses a headerless bzip2 stream with commons-compress.
+	 * @param compressed The compressed data.
+	 * @param length The uncompressed length.
+	 * @return The uncompressed data.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	private static byte[] referenceUnbzip2(byte[] compressed, int length) throws IOException {
+		InputStream header = new ByteArrayInputStream(BZIP2_HEADER);
+		DataInputStream is = new DataInputStream(new BZip2CompressorInputStream(new SequenceInputStream(header,
+				new ByteArrayInputStream(compressed))));
+		try {
+			byte[] uncompressed = new byte[length];
+			is.readFully(uncompressed);
+			return uncompressed;
+		} finally {
+			is.close();
+		}
+	}
+
+	/**
+	 * Compresses data with commons-compress and checks that it decompresses to the same data with both decompressors.
+	 * @param data The data.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	private static void assertBzip2RoundTrip(byte[] data) throws IOException {
+		byte[] compressed = CompressionUtil.bzip2(data);
+		byte[] uncompressed = new byte[data.length];
+		CompressionUtil.unbzip2(compressed, uncompressed);
+		assertArrayEquals(data, uncompressed);
+		assertArrayEquals(referenceUnbzip2(compressed, data.length), uncompressed);
+	}
+
+	/**
+	 * Tests that small random data survives a bzip2 round trip.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	@Test
+	public void bzip2RoundTripRandom() throws IOException {
+		assertBzip2RoundTrip(createRandom(1));
+		assertBzip2RoundTrip(createRandom(1000));
+	}
+
+	/**
+	 * Tests that data spanning several 100k blocks survives a bzip2 round trip.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	@Test
+	public void bzip2RoundTripMultipleBlocks() throws IOException {
+		assertBzip2RoundTrip(createRandom(250000));
+		assertBzip2RoundTrip(createText(350000));
+	}
+
+	/**
+	 * Tests that data with long runs survives a bzip2 round trip.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	@Test
+	public void bzip2RoundTripRepetitive() throws IOException {
+		assertBzip2RoundTrip(createRepetitive(5000));
+		assertBzip2RoundTrip(createRepetitive(300000));
+	}
+
+	/**
+	 * Tests that a randomised block, which commons-compress emits for a long run of zeroes, survives a bzip2 round
+	 * trip.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	@Test
+	public void bzip2RoundTripRandomised() throws IOException {
+		byte[] data = new byte[200000];
+		byte[] compressed = CompressionUtil.bzip2(data);
+		assertTrue("block is not randomised", (compressed[RANDOMISED_OFFSET] & 0x80) != 0);
+		assertBzip2RoundTrip(data);
+	}
+
+	/**
+	 * Tests that a decompressor is reused correctly by decompressing different streams on the same thread in turn.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	@Test
+	public void bzip2Reuse() throws IOException {
+		for (int i = 0; i < 3; i++) {
+			assertBzip2RoundTrip(createText(20000 + i));
+			assertBzip2RoundTrip(createRepetitive(150000 + i));
+		}
+	}
+
+	/**
+	 * Tests that part of an array is decompressed into part of another array, leaving the rest alone.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	@Test
+	public void bzip2Ranges() throws IOException {
+		byte[] data = createText(4000);
+		byte[] compressed = CompressionUtil.bzip2(data);
+		byte[] padded = new byte[compressed.length + 20];
+		System.arraycopy(compressed, 0, padded, 7, compressed.length);
+
+		byte[] uncompressed = new byte[data.length + 10];
+		CompressionUtil.unbzip2(padded, 7, compressed.length, uncompressed, 5, data.length);
+		for (int i = 0; i < 5; i++) {
+			assertEquals(0, uncompressed[i]);
+			assertEquals(0, uncompressed[uncompressed.length - 1 - i]);
+		}
+		byte[] range = new byte[data.length];
+		System.arraycopy(uncompressed, 5, range, 0, range.length);
+		assertArrayEquals(data, range);
+	}
+
+	/**
+	 * Tests that a stream whose uncompressed length differs from the expected length is rejected.
+	 * @throws IOException if the length is rejected.
+	 */
+	@Test(expected = IOException.class)
+	public void bzip2LengthMismatch() throws IOException {
+		byte[] data = createText(1000);
+		CompressionUtil.unbzip2(CompressionUtil.bzip2(data), new byte[data.length - 1]);
+	}
+
+	/**
+	 * Tests that data which is not a bzip2 stream is rejected.
+	 * @throws IOException if the data is rejected.
+	 */
+	@Test(expected = IOException.class)
+	public void bzip2Malformed() throws IOException {
+		CompressionUtil.unbzip2(new byte[32], new byte[10]);
+	}
+
+	/**
+	 * Tests that the gzip decompressor agrees with the JDK's stream and does not move the buffer's position.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	@Test
+	public void gzipRoundTrip() throws IOException {
+		byte[][] inputs = { new byte[0], createRandom(1000), createText(100000), createRepetitive(70000) };
+		for (byte[] data : inputs) {
+			byte[] compressed = CompressionUtil.gzip(data);
+			ByteBuffer buffer = ByteBuffer.wrap(compressed);
+			assertArrayEquals(data, CompressionUtil.ungzip(buffer));
+			assertEquals(0, buffer.position());
+
+			byte[] reference = new byte[data.length];
+			CompressionUtil.ungzip(compressed, reference);
+			assertArrayEquals(reference, CompressionUtil.ungzip(compressed));
+		}
+	}
+
+	/**
+	 * Tests that gzip data is read from a slice of a larger array and from a direct buffer.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	@Test
+	public void gzipBuffers() throws IOException {
+		byte[] data = createText(3000);
+		byte[] compressed = CompressionUtil.gzip(data);
+
+		byte[] padded = new byte[compressed.length + 11];
+		System.arraycopy(compressed, 0, padded, 11, compressed.length);
+		ByteBuffer slice = ByteBuffer.wrap(padded, 11, compressed.length).slice();
+		assertArrayEquals(data, CompressionUtil.ungzip(slice));
+
+		ByteBuffer direct = ByteBuffer.allocateDirect(compressed.length);
+		direct.put(compressed).flip();
+		assertArrayEquals(data, CompressionUtil.ungzip(direct));
+		assertEquals(0, direct.position());
+	}
+
+	/**
+	 * Tests that the optional file name field of the gzip header is skipped.
+	 * @throws IOException if an I/O error occurs.
+	 */
+	@Test
+	public void gzipFileName() throws IOException {
+		byte[] data = createText(500);
+		byte[] compressed = CompressionUtil.gzip(data);
+		byte[] name = { 'm', '1', '0', '_', '1', '0', 0 };
+		byte[] named = new byte[compressed.length + name.length];
+		System.arraycopy(compressed, 0, named, 0, 10);
+		System.arraycopy(name, 0, named, 10, name.length);
+		System.arraycopy(compressed, 10, named, 10 + name.length, compressed.length - 10);
+		named[3] |= 8;
+		assertArrayEquals(data, CompressionUtil.ungzip(named));
+	}
+
+	/**
+	 * Tests that gzip data whose checksum does not match is rejected.
+	 * @throws IOException if the data is rejected.
+	 */
+	@Test(expected = IOException.class)
+	public void gzipChecksumMismatch() throws IOException {
+		byte[] compressed = CompressionUtil.gzip(createText(500));
+		compressed[compressed.length - 8] ^= 1;
+		CompressionUtil.ungzip(compressed);
+	}
+
+	/**
+	 * Tests that data which is not in the gzip format is rejected.
+	 * @throws IOException if the data is rejected.
+	 */
+	@Test(expected = IOException.class)
+	public void gzipMalformed() throws IOException {
+		CompressionUtil.ungzip(createText(100));
+	}
+}